@@ -0,0 +1,180 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.benchmark.app.direction;
+
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.dbflute.optional.OptionalThing;
+import org.lastaflute.core.direction.CachedFwAssistantDirector;
+import org.lastaflute.core.direction.FwAssistDirection;
+import org.lastaflute.core.direction.FwCoreDirection;
+import org.lastaflute.core.security.InvertibleCryptographer;
+import org.lastaflute.core.security.OneWayCryptographer;
+import org.lastaflute.core.security.SecurityResourceProvider;
+import org.lastaflute.core.time.TimeResourceProvider;
+import org.lastaflute.core.time.TypicalTimeResourceProvider;
+import org.lastaflute.db.direction.FwDbDirection;
+import org.lastaflute.web.direction.FwWebDirection;
+import org.lastaflute.web.path.ActionAdjustmentProvider;
+import org.lastaflute.web.ruts.process.ActionRuntime;
+import org.lastaflute.web.servlet.cookie.CookieResourceProvider;
+import org.lastaflute.web.servlet.request.RequestManager;
+import org.lastaflute.web.servlet.request.UserLocaleProcessProvider;
+import org.lastaflute.web.servlet.request.UserTimeZoneProcessProvider;
+
+/**
+ * The assistant director of the sample application for benchmarks, having only required directions. <br>
+ * No configuration file and no database, the resources are fixed in this class.
+ * @author jflute
+ * @since 0.8.5 (2016/09/13 Tuesday)
+ */
+public class BenchmarkFwAssistantDirector extends CachedFwAssistantDirector {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final String CIPHER_KEY = "1234567890123456"; // AES needs 16 bytes
+    protected static final TimeZone CENTRAL_TIME_ZONE = TimeZone.getTimeZone("Asia/Tokyo");
+
+    // ===================================================================================
+    //                                                                              Assist
+    //                                                                              ======
+    @Override
+    protected void prepareAssistDirection(FwAssistDirection direction) {
+        // no configuration component in benchmark
+    }
+
+    // ===================================================================================
+    //                                                                                Core
+    //                                                                                ====
+    @Override
+    protected void prepareCoreDirection(FwCoreDirection direction) {
+        direction.directLoggingTitle("benchmark", "local");
+        direction.directSecurity(createSecurityResourceProvider());
+        direction.directTime(createTimeResourceProvider());
+    }
+
+    protected SecurityResourceProvider createSecurityResourceProvider() {
+        final InvertibleCryptographer invertibleCryptographer = InvertibleCryptographer.createAesCipher(CIPHER_KEY);
+        final OneWayCryptographer oneWayCryptographer = OneWayCryptographer.createSha256Cryptographer();
+        return new SecurityResourceProvider() {
+            public InvertibleCryptographer providePrimaryInvertibleCryptographer() {
+                return invertibleCryptographer;
+            }
+
+            public OneWayCryptographer providePrimaryOneWayCryptographer() {
+                return oneWayCryptographer;
+            }
+        };
+    }
+
+    protected TimeResourceProvider createTimeResourceProvider() {
+        return new TypicalTimeResourceProvider() {
+            @Override
+            protected TimeZone getCentralTimeZone() {
+                return CENTRAL_TIME_ZONE;
+            }
+
+            @Override
+            protected String getTimeAdjustTimeMillis() {
+                return "0"; // no adjustment
+            }
+
+            @Override
+            protected Long getTimeAdjustTimeMillisAsLong() {
+                return 0L;
+            }
+        };
+    }
+
+    // ===================================================================================
+    //                                                                                  DB
+    //                                                                                  ==
+    @Override
+    protected void prepareDbDirection(FwDbDirection direction) {
+        // no database in benchmark
+    }
+
+    // ===================================================================================
+    //                                                                                 Web
+    //                                                                                 ===
+    @Override
+    protected void prepareWebDirection(FwWebDirection direction) {
+        direction.directRequest(createUserLocaleProcessProvider(), createUserTimeZoneProcessProvider());
+        direction.directCookie(createCookieResourceProvider());
+        direction.directAdjustment(createActionAdjustmentProvider());
+        direction.directMessage(nameList -> nameList.add("benchmark_message"), "benchmark_common_message");
+    }
+
+    protected UserLocaleProcessProvider createUserLocaleProcessProvider() {
+        return new UserLocaleProcessProvider() {
+            public boolean isAcceptCookieLocale() {
+                return false;
+            }
+
+            public OptionalThing<Locale> findBusinessLocale(ActionRuntime runtimeMeta, RequestManager requestManager) {
+                return OptionalThing.empty();
+            }
+
+            public OptionalThing<Locale> getRequestedLocale(RequestManager requestManager) {
+                return OptionalThing.empty(); // means browser locale
+            }
+        };
+    }
+
+    protected UserTimeZoneProcessProvider createUserTimeZoneProcessProvider() {
+        return new UserTimeZoneProcessProvider() {
+            public boolean isUseTimeZoneHandling() {
+                return false;
+            }
+
+            public boolean isAcceptCookieTimeZone() {
+                return false;
+            }
+
+            public OptionalThing<TimeZone> findBusinessTimeZone(ActionRuntime runtimeMeta, RequestManager requestManager) {
+                return OptionalThing.empty();
+            }
+
+            public TimeZone getRequestedTimeZone(RequestManager requestManager) {
+                return CENTRAL_TIME_ZONE;
+            }
+        };
+    }
+
+    protected CookieResourceProvider createCookieResourceProvider() {
+        final InvertibleCryptographer cipher = InvertibleCryptographer.createAesCipher(CIPHER_KEY);
+        return new CookieResourceProvider() {
+            public String provideDefaultPath() {
+                return "/";
+            }
+
+            public Integer provideDefaultExpire() {
+                return 60 * 60 * 24 * 31; // 31 days
+            }
+
+            public InvertibleCryptographer provideCipher() {
+                return cipher;
+            }
+        };
+    }
+
+    protected ActionAdjustmentProvider createActionAdjustmentProvider() {
+        return new ActionAdjustmentProvider() {
+        };
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.benchmark.app.web;
+
+import org.lastaflute.web.Execute;
+import org.lastaflute.web.response.HtmlResponse;
+import org.lastaflute.web.response.JsonResponse;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/09/13 Tuesday)
+ */
+public class SeaAction {
+
+    @Execute
+    public HtmlResponse index(SeaForm form) {
+        return HtmlResponse.undefined();
+    }
+
+    @Execute
+    public HtmlResponse land(int landId) {
+        return HtmlResponse.undefined();
+    }
+
+    @Execute(urlPattern = "{}/purchase/{}")
+    public HtmlResponse piari(int piariId, String keyword) {
+        return HtmlResponse.undefined();
+    }
+
+    @Execute
+    public JsonResponse<SeaResult> bonvo(SeaForm form) { // e.g. API, written to response as JSON
+        final SeaResult result = new SeaResult();
+        result.keyword = form.keyword;
+        result.pageNumber = form.pageNumber;
+        result.tagList = form.tagList;
+        return new JsonResponse<SeaResult>(result);
+    }
+}
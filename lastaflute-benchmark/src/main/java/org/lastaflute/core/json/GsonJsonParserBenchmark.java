@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.json;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.lastaflute.di.helper.misc.ParameterizedRef;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/09/13 Tuesday)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GsonJsonParserBenchmark {
+
+    protected GsonJsonParser parser;
+    protected MockBean bean;
+    protected String beanJson;
+    protected String listJson;
+
+    @Setup
+    public void setup() {
+        parser = new GsonJsonParser(builder -> builder.serializeNulls(), op -> {});
+        bean = new MockBean();
+        bean.id = 3;
+        bean.name = "sea";
+        bean.birthdate = LocalDate.of(2016, 10, 19);
+        bean.tagList = new ArrayList<String>();
+        bean.tagList.add("land");
+        bean.tagList.add("piari");
+        beanJson = parser.toJson(bean);
+        final List<MockBean> beanList = new ArrayList<MockBean>();
+        for (int i = 0; i < 10; i++) {
+            beanList.add(bean);
+        }
+        listJson = parser.toJson(beanList);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return parser.toJson(bean);
+    }
+
+    @Benchmark
+    public MockBean fromJson() {
+        return parser.fromJson(beanJson, MockBean.class);
+    }
+
+    @Benchmark
+    public List<MockBean> fromJsonParameteried() { // e.g. list JSON body
+        return parser.fromJsonParameteried(listJson, new ParameterizedRef<List<MockBean>>() {
+        }.getType());
+    }
+
+    public static class MockBean {
+        public Integer id;
+        public String name;
+        public LocalDate birthdate;
+        public List<String> tagList;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/09/13 Tuesday)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CryptographerBenchmark {
+
+    protected InvertibleCryptographer invertible;
+    protected OneWayCryptographer oneWay;
+    protected String plainText;
+    protected String encryptedText;
+
+    @Setup
+    public void setup() {
+        invertible = InvertibleCryptographer.createAesCipher("1234567890123456"); // 16 byte
+        oneWay = OneWayCryptographer.createSha256Cryptographer();
+        plainText = "sea:land:piari:bonvo:dstore";
+        encryptedText = invertible.encrypt(plainText);
+    }
+
+    @Benchmark
+    public String invertible_encrypt() {
+        return invertible.encrypt(plainText);
+    }
+
+    @Benchmark
+    public String invertible_decrypt() {
+        return invertible.decrypt(encryptedText);
+    }
+
+    @Benchmark
+    public String oneWay_oneway() {
+        return oneWay.oneway(plainText);
+    }
+}
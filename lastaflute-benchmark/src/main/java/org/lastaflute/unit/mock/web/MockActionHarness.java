@@ -0,0 +1,195 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.unit.mock.web;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+import org.lastaflute.web.ruts.config.ActionExecute;
+import org.lastaflute.web.ruts.config.ActionMapping;
+import org.lastaflute.web.ruts.config.ModuleConfig;
+import org.lastaflute.web.ruts.process.ActionRuntime;
+import org.lastaflute.web.ruts.process.RequestUrlParam;
+import org.lastaflute.web.servlet.filter.LastaPrepareFilter;
+import org.lastaflute.web.servlet.filter.LastaShowbaseFilter;
+import org.lastaflute.web.servlet.filter.LastaToActionFilter;
+import org.lastaflute.web.util.LaModuleConfigUtil;
+
+/**
+ * The harness of the sample application for benchmarks. <br>
+ * It boots the DI container (app.xml) by the real filters and processes mock requests
+ * through the same filter chain as web.xml of application:
+ * <pre>
+ * LastaPrepareFilter
+ *  -> LastaShowbaseFilter
+ *   -> LastaToActionFilter
+ *    -> RequestRoutingFilter
+ *     -> ActionRequestProcessor
+ *      -> (action of the sample application)
+ * </pre>
+ * Only one harness in one JVM because the DI container is singleton.
+ * @author jflute
+ * @since 0.8.5 (2016/09/13 Tuesday)
+ */
+public class MockActionHarness {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final MockServletContext servletContext = newMockServletContext();
+    protected final LastaPrepareFilter prepareFilter = newLastaPrepareFilter();
+    protected final LastaShowbaseFilter showbaseFilter = newLastaShowbaseFilter();
+    protected final LastaToActionFilter toActionFilter = newLastaToActionFilter();
+    protected boolean booted;
+
+    protected MockServletContext newMockServletContext() {
+        return new MockServletContext();
+    }
+
+    protected LastaPrepareFilter newLastaPrepareFilter() {
+        return new LastaPrepareFilter();
+    }
+
+    protected LastaShowbaseFilter newLastaShowbaseFilter() {
+        return new LastaShowbaseFilter();
+    }
+
+    protected LastaToActionFilter newLastaToActionFilter() {
+        return new LastaToActionFilter();
+    }
+
+    // ===================================================================================
+    //                                                                           Boot/Stop
+    //                                                                           =========
+    /**
+     * Boot the application by initializing the filters in web.xml order. <br>
+     * Action mappings are created here by the customizer same as production boot.
+     * @return this. (NotNull)
+     * @throws ServletException When it fails to initialize the filters.
+     */
+    public MockActionHarness boot() throws ServletException {
+        if (booted) {
+            throw new IllegalStateException("Already booted the harness: " + this);
+        }
+        prepareFilter.init(new MockFilterConfig("lastaPrepareFilter", servletContext));
+        showbaseFilter.init(new MockFilterConfig("lastaShowbaseFilter", servletContext));
+        toActionFilter.init(new MockFilterConfig("lastaToActionFilter", servletContext));
+        booted = true;
+        return this;
+    }
+
+    /**
+     * Stop the application by destroying the filters in reverse order. (also DI container)
+     */
+    public void stop() {
+        if (!booted) {
+            return;
+        }
+        toActionFilter.destroy();
+        showbaseFilter.destroy();
+        prepareFilter.destroy(); // destroys the DI container
+        booted = false;
+    }
+
+    // ===================================================================================
+    //                                                                             Request
+    //                                                                             =======
+    /**
+     * Create the mock request for the request path of the sample application.
+     * @param method The HTTP method of the request. e.g. GET, POST (NotNull)
+     * @param requestPath The path of the request without context path. e.g. /sea/land/3 (NotNull)
+     * @return The new-created mock request that can return the servlet context. (NotNull)
+     */
+    public MockHttpServletRequest createRequest(String method, String requestPath) {
+        return new HarnessHttpServletRequest().mockMethod(method).mockRequestURI(requestPath);
+    }
+
+    /**
+     * Process the request through the filter chain, from LastaPrepareFilter to action.
+     * @param request The mock request created by this harness. (NotNull)
+     * @return The mock response written by the action process. (NotNull)
+     * @throws IOException When it fails to write the response.
+     * @throws ServletException When the action process fails.
+     */
+    public MockHttpServletResponse request(MockHttpServletRequest request) throws IOException, ServletException {
+        assertBooted();
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final FilterChain endChain = (req, res) -> { // means no routing to action
+            throw new IllegalStateException("Not found the action for the request: " + ((HttpServletRequest) req).getRequestURI());
+        };
+        final FilterChain toActionChain = (req, res) -> toActionFilter.doFilter(req, res, endChain);
+        final FilterChain showbaseChain = (req, res) -> showbaseFilter.doFilter(req, res, toActionChain);
+        prepareFilter.doFilter(request, response, showbaseChain);
+        return response;
+    }
+
+    protected class HarnessHttpServletRequest extends MockHttpServletRequest {
+
+        @Override
+        public ServletContext getServletContext() {
+            return servletContext;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Action Mapping
+    //                                                                      ==============
+    /**
+     * Get the action execute created at boot. (for benchmarks of action components)
+     * @param actionName The component name of the action. e.g. seaAction, sea_seaLandAction (NotNull)
+     * @param methodName The name of execute method in the action. e.g. index (NotNull)
+     * @return The action execute of the booted application. (NotNull)
+     */
+    public ActionExecute getActionExecute(String actionName, String methodName) {
+        assertBooted();
+        final ActionMapping mapping = getModuleConfig().findActionMapping(actionName).get();
+        final ActionExecute execute = mapping.getExecuteMap().get(methodName);
+        if (execute == null) {
+            throw new IllegalStateException("Not found the action execute: " + actionName + "@" + methodName + "()");
+        }
+        return execute;
+    }
+
+    public ActionRuntime createActionRuntime(String requestPath, ActionExecute execute) {
+        final RequestUrlParam urlParam = new RequestUrlParam(Collections.emptyList(), Collections.emptyMap());
+        return new ActionRuntime(requestPath, execute, urlParam);
+    }
+
+    protected ModuleConfig getModuleConfig() {
+        return LaModuleConfigUtil.getModuleConfig(); // saved in the servlet context by prepare filter
+    }
+
+    // ===================================================================================
+    //                                                                        Small Helper
+    //                                                                        ============
+    protected void assertBooted() {
+        if (!booted) {
+            throw new IllegalStateException("Not booted the harness yet, call boot() at first: " + this);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public MockServletContext getServletContext() {
+        return servletContext;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.unit.mock.web;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletContext;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/09/13 Tuesday)
+ */
+public class MockFilterConfig implements FilterConfig {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String filterName;
+    protected final ServletContext servletContext;
+    protected final Map<String, String> initParameterMap = new LinkedHashMap<String, String>();
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public MockFilterConfig(String filterName, ServletContext servletContext) {
+        this.filterName = filterName;
+        this.servletContext = servletContext;
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Facade
+    //                                                                         ===========
+    public MockFilterConfig mockInitParameter(String name, String value) {
+        initParameterMap.put(name, value);
+        return this;
+    }
+
+    // ===================================================================================
+    //                                                                       Filter Config
+    //                                                                       =============
+    @Override
+    public String getFilterName() {
+        return filterName;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    @Override
+    public String getInitParameter(String name) {
+        return initParameterMap.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getInitParameterNames() {
+        return Collections.enumeration(initParameterMap.keySet());
+    }
+}
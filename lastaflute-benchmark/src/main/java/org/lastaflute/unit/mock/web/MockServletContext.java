@@ -0,0 +1,352 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.unit.mock.web;
+
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.EventListener;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterRegistration;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.Servlet;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRegistration;
+import javax.servlet.SessionCookieConfig;
+import javax.servlet.SessionTrackingMode;
+import javax.servlet.descriptor.JspConfigDescriptor;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/09/13 Tuesday)
+ */
+public class MockServletContext implements ServletContext {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final Map<String, Object> attributeMap = new ConcurrentHashMap<String, Object>(); // shared by requests
+    protected final Map<String, String> initParameterMap = new LinkedHashMap<String, String>();
+    protected String contextPath = "";
+
+    // ===================================================================================
+    //                                                                         Mock Facade
+    //                                                                         ===========
+    public MockServletContext mockContextPath(String contextPath) {
+        this.contextPath = contextPath;
+        return this;
+    }
+
+    public MockServletContext mockInitParameter(String name, String value) {
+        initParameterMap.put(name, value);
+        return this;
+    }
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    @Override
+    public Object getAttribute(String name) {
+        return attributeMap.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributeMap.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object object) {
+        if (object == null) { // same as servlet specification
+            removeAttribute(name);
+            return;
+        }
+        attributeMap.put(name, object);
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributeMap.remove(name);
+    }
+
+    // ===================================================================================
+    //                                                                      Init Parameter
+    //                                                                      ==============
+    @Override
+    public String getInitParameter(String name) {
+        return initParameterMap.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getInitParameterNames() {
+        return Collections.enumeration(initParameterMap.keySet());
+    }
+
+    @Override
+    public boolean setInitParameter(String name, String value) {
+        if (initParameterMap.containsKey(name)) {
+            return false;
+        }
+        initParameterMap.put(name, value);
+        return true;
+    }
+
+    // ===================================================================================
+    //                                                                         Information
+    //                                                                         ===========
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 3;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getEffectiveMajorVersion() {
+        return 3;
+    }
+
+    @Override
+    public int getEffectiveMinorVersion() {
+        return 1;
+    }
+
+    @Override
+    public String getServerInfo() {
+        return "mock";
+    }
+
+    @Override
+    public String getServletContextName() {
+        return "mock";
+    }
+
+    @Override
+    public String getVirtualServerName() {
+        return "localhost";
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return Thread.currentThread().getContextClassLoader();
+    }
+
+    // ===================================================================================
+    //                                                                            Resource
+    //                                                                            ========
+    @Override
+    public String getMimeType(String file) {
+        return null; // unknown
+    }
+
+    @Override
+    public Set<String> getResourcePaths(String path) {
+        return null; // no web resource in mock
+    }
+
+    @Override
+    public URL getResource(String path) throws MalformedURLException {
+        return null; // no web resource in mock
+    }
+
+    @Override
+    public InputStream getResourceAsStream(String path) {
+        return null; // no web resource in mock
+    }
+
+    @Override
+    public String getRealPath(String path) {
+        return null; // not deployed on file system
+    }
+
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) {
+        return null; // no JSP in mock
+    }
+
+    @Override
+    public RequestDispatcher getNamedDispatcher(String name) {
+        return null; // no servlet in mock
+    }
+
+    // ===================================================================================
+    //                                                                             Logging
+    //                                                                             =======
+    @Override
+    public void log(String msg) {
+    }
+
+    @Override
+    @Deprecated
+    public void log(Exception exception, String msg) {
+    }
+
+    @Override
+    public void log(String message, Throwable throwable) {
+    }
+
+    // ===================================================================================
+    //                                                                         Unsupported
+    //                                                                         ===========
+    @Override
+    public ServletContext getContext(String uripath) {
+        return null; // no other context
+    }
+
+    @Override
+    @Deprecated
+    public Servlet getServlet(String name) throws ServletException {
+        return null; // always null since servlet 2.1
+    }
+
+    @Override
+    @Deprecated
+    public Enumeration<Servlet> getServlets() {
+        return Collections.emptyEnumeration(); // always empty since servlet 2.1
+    }
+
+    @Override
+    @Deprecated
+    public Enumeration<String> getServletNames() {
+        return Collections.emptyEnumeration(); // always empty since servlet 2.1
+    }
+
+    @Override
+    public ServletRegistration.Dynamic addServlet(String servletName, String className) {
+        throw new UnsupportedOperationException("Servlet registration is unsupported in mock.");
+    }
+
+    @Override
+    public ServletRegistration.Dynamic addServlet(String servletName, Servlet servlet) {
+        throw new UnsupportedOperationException("Servlet registration is unsupported in mock.");
+    }
+
+    @Override
+    public ServletRegistration.Dynamic addServlet(String servletName, Class<? extends Servlet> servletClass) {
+        throw new UnsupportedOperationException("Servlet registration is unsupported in mock.");
+    }
+
+    @Override
+    public <T extends Servlet> T createServlet(Class<T> clazz) throws ServletException {
+        throw new UnsupportedOperationException("Servlet registration is unsupported in mock.");
+    }
+
+    @Override
+    public ServletRegistration getServletRegistration(String servletName) {
+        return null;
+    }
+
+    @Override
+    public Map<String, ? extends ServletRegistration> getServletRegistrations() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public FilterRegistration.Dynamic addFilter(String filterName, String className) {
+        throw new UnsupportedOperationException("Filter registration is unsupported in mock.");
+    }
+
+    @Override
+    public FilterRegistration.Dynamic addFilter(String filterName, Filter filter) {
+        throw new UnsupportedOperationException("Filter registration is unsupported in mock.");
+    }
+
+    @Override
+    public FilterRegistration.Dynamic addFilter(String filterName, Class<? extends Filter> filterClass) {
+        throw new UnsupportedOperationException("Filter registration is unsupported in mock.");
+    }
+
+    @Override
+    public <T extends Filter> T createFilter(Class<T> clazz) throws ServletException {
+        throw new UnsupportedOperationException("Filter registration is unsupported in mock.");
+    }
+
+    @Override
+    public FilterRegistration getFilterRegistration(String filterName) {
+        return null;
+    }
+
+    @Override
+    public Map<String, ? extends FilterRegistration> getFilterRegistrations() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public SessionCookieConfig getSessionCookieConfig() {
+        throw new UnsupportedOperationException("Session is unsupported in mock.");
+    }
+
+    @Override
+    public void setSessionTrackingModes(Set<SessionTrackingMode> sessionTrackingModes) {
+        throw new UnsupportedOperationException("Session is unsupported in mock.");
+    }
+
+    @Override
+    public Set<SessionTrackingMode> getDefaultSessionTrackingModes() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public Set<SessionTrackingMode> getEffectiveSessionTrackingModes() {
+        return Collections.emptySet();
+    }
+
+    @Override
+    public void addListener(String className) {
+        throw new UnsupportedOperationException("Listener registration is unsupported in mock.");
+    }
+
+    @Override
+    public <T extends EventListener> void addListener(T listener) {
+        throw new UnsupportedOperationException("Listener registration is unsupported in mock.");
+    }
+
+    @Override
+    public void addListener(Class<? extends EventListener> listenerClass) {
+        throw new UnsupportedOperationException("Listener registration is unsupported in mock.");
+    }
+
+    @Override
+    public <T extends EventListener> T createListener(Class<T> clazz) throws ServletException {
+        throw new UnsupportedOperationException("Listener registration is unsupported in mock.");
+    }
+
+    @Override
+    public JspConfigDescriptor getJspConfigDescriptor() {
+        return null; // no JSP in mock
+    }
+
+    @Override
+    public void declareRoles(String... roleNames) {
+        throw new UnsupportedOperationException("Security role is unsupported in mock.");
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.path;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+
+import org.lastaflute.core.util.ContainerUtil;
+import org.lastaflute.unit.mock.web.MockActionHarness;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/09/13 Tuesday)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ActionPathResolverBenchmark {
+
+    protected MockActionHarness harness;
+    protected ActionPathResolver resolver;
+    protected ActionFoundPathHandler handler;
+
+    @Setup
+    public void setup() throws ServletException {
+        harness = new MockActionHarness().boot(); // action mappings of sample application
+        resolver = ContainerUtil.getComponent(ActionPathResolver.class);
+        handler = (requestPath, actionName, paramPath, execByParam) -> true;
+    }
+
+    @TearDown
+    public void tearDown() {
+        harness.stop();
+    }
+
+    @Benchmark
+    public boolean handleActionPath_index() throws Exception { // e.g. /sea/ => seaAction@index()
+        return resolver.handleActionPath("/sea/", handler);
+    }
+
+    @Benchmark
+    public boolean handleActionPath_named() throws Exception { // e.g. /sea/land/3 => seaAction@land()
+        return resolver.handleActionPath("/sea/land/3", handler);
+    }
+
+    @Benchmark
+    public boolean handleActionPath_urlPattern() throws Exception { // e.g. /sea/piari/3/purchase/dockside
+        return resolver.handleActionPath("/sea/piari/3/purchase/dockside", handler);
+    }
+
+    @Benchmark
+    public boolean handleActionPath_package() throws Exception { // e.g. /sea/land/ => sea_seaLandAction@index()
+        return resolver.handleActionPath("/sea/land/", handler);
+    }
+
+    @Benchmark
+    public boolean handleActionPath_notFound() throws Exception { // searching all candidates
+        return resolver.handleActionPath("/iks/amba/oneman/3", handler);
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.config.analyzer;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.lastaflute.web.ruts.config.PreparedUrlPattern;
+import org.lastaflute.web.ruts.config.analyzer.UrlPatternAnalyzer.UrlPatternChosenBox;
+import org.lastaflute.web.ruts.config.analyzer.UrlPatternAnalyzer.UrlPatternRegexpBox;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/09/13 Tuesday)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class UrlPatternAnalyzerBenchmark {
+
+    protected UrlPatternAnalyzer analyzer;
+    protected Method dummyMethod;
+    protected List<Class<?>> urlParamTypeList;
+    protected PreparedUrlPattern preparedUrlPattern;
+
+    @Setup
+    public void setup() {
+        analyzer = new UrlPatternAnalyzer();
+        dummyMethod = getClass().getMethods()[0];
+        urlParamTypeList = Arrays.asList(Integer.class, String.class);
+        final UrlPatternChosenBox chosenBox = analyzer.choose(dummyMethod, "index", "sea/{}/land/{}", urlParamTypeList);
+        preparedUrlPattern = new PreparedUrlPattern(chosenBox, toRegexp()); // same as action execute
+    }
+
+    @Benchmark
+    public UrlPatternRegexpBox toRegexp() { // boot process per execute method
+        return analyzer.toRegexp(dummyMethod, "sea/{}/land/{}", urlParamTypeList, Collections.emptyMap());
+    }
+
+    @Benchmark
+    public List<String> matchUrlParam() { // request process per RESTful request
+        return preparedUrlPattern.extractParamList("sea/3/land/dockside");
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.message.objective;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The messages are defined at benchmark_message.properties (extends benchmark_common_message) in benchmark resources.
+ * @author jflute
+ * @since 0.8.5 (2016/09/13 Tuesday)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ObjectiveMessageResourcesBenchmark {
+
+    protected ObjectiveMessageResources resources;
+    protected Locale locale;
+
+    @Setup
+    public void setup() {
+        resources = new ObjectiveMessageResources() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected String getAppMessageName() {
+                return "benchmark_message";
+            }
+
+            @Override
+            protected List<String> getExtendsMessageNameList() {
+                return Arrays.asList("benchmark_common_message");
+            }
+        };
+        locale = Locale.ENGLISH;
+        resources.prewarm(Arrays.asList(locale)); // as boot process
+    }
+
+    @Benchmark
+    public String getMessage_plain() { // e.g. labels
+        return resources.getMessage(locale, "labels.keyword");
+    }
+
+    @Benchmark
+    public String getMessage_args() { // e.g. validation message
+        return resources.getMessage(locale, "errors.required", "keyword");
+    }
+
+    @Benchmark
+    public String getMessage_labelVariable() { // label variable in the message
+        return resources.getMessage(locale, "messages.sea.found", "dockside");
+    }
+
+    @Benchmark
+    public String getMessage_extends() { // defined in the extends message
+        return resources.getMessage(locale, "errors.header");
+    }
+
+    @Benchmark
+    public boolean isPresent_notFound() { // e.g. determination of optional message
+        return resources.isPresent(locale, "messages.land.notfound");
+    }
+}
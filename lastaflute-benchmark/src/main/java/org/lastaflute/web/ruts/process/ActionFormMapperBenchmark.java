@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.process;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+import org.dbflute.optional.OptionalThing;
+import org.lastaflute.core.direction.FwAssistantDirector;
+import org.lastaflute.core.magic.ThreadCacheContext;
+import org.lastaflute.core.util.ContainerUtil;
+import org.lastaflute.unit.mock.web.MockActionHarness;
+import org.lastaflute.unit.mock.web.MockHttpServletRequest;
+import org.lastaflute.unit.mock.web.MockRequestManager;
+import org.lastaflute.web.ruts.VirtualForm;
+import org.lastaflute.web.ruts.config.ActionExecute;
+import org.lastaflute.web.util.LaModuleConfigUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/09/13 Tuesday)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ActionFormMapperBenchmark {
+
+    protected MockActionHarness harness;
+    protected ActionExecute execute;
+    protected ActionRuntime runtime;
+    protected ActionFormMapper mapper;
+
+    @Setup
+    public void setup() throws ServletException {
+        harness = new MockActionHarness().boot(); // action mappings of sample application
+        final MockHttpServletRequest request = harness.createRequest("GET", "/sea/")
+                .mockParameter("keyword", "dockside")
+                .mockParameter("pageNumber", "3")
+                .mockParameter("birthdate", "2016-09-13")
+                .mockParameter("tagList", "land", "piari");
+        execute = harness.getActionExecute("seaAction", "index");
+        runtime = harness.createActionRuntime("/sea/", execute);
+        final FwAssistantDirector assistantDirector = ContainerUtil.getComponent(FwAssistantDirector.class);
+        mapper = new ActionFormMapper(LaModuleConfigUtil.getModuleConfig(), assistantDirector, new FormRequestManager(request));
+    }
+
+    @TearDown
+    public void tearDown() {
+        harness.stop();
+    }
+
+    @Benchmark
+    public Object populateParameter() throws IOException, ServletException { // request process per form request
+        final OptionalThing<VirtualForm> optForm = execute.createActionForm();
+        ThreadCacheContext.initialize(); // same as request process
+        try {
+            mapper.populateParameter(runtime, optForm);
+        } finally {
+            ThreadCacheContext.clear();
+        }
+        return optForm.get().getRealForm();
+    }
+
+    protected static class FormRequestManager extends MockRequestManager { // only the request, not in request scope
+
+        protected final MockHttpServletRequest request;
+
+        public FormRequestManager(MockHttpServletRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public HttpServletRequest getRequest() {
+            return request;
+        }
+
+        @Override
+        public OptionalThing<String> getContentType() {
+            return OptionalThing.ofNullable(request.getContentType(), () -> {
+                throw new IllegalStateException("Not found the content type.");
+            });
+        }
+
+        @Override
+        public OptionalThing<String> getHttpMethod() {
+            return OptionalThing.of(request.getMethod());
+        }
+
+        @Override
+        public boolean isHttpMethod(String httpMethod) {
+            return httpMethod.equalsIgnoreCase(request.getMethod());
+        }
+
+        @Override
+        public boolean isHttpMethodGet() {
+            return isHttpMethod("get");
+        }
+
+        @Override
+        public boolean isHttpMethodPost() {
+            return isHttpMethod("post");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.filter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+
+import org.lastaflute.unit.mock.web.MockActionHarness;
+import org.lastaflute.unit.mock.web.MockHttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The whole request process from LastaPrepareFilter to action of sample application,
+ * via RequestRoutingFilter and ActionRequestProcessor.
+ * @author jflute
+ * @since 0.8.5 (2016/09/13 Tuesday)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ActionRequestPipelineBenchmark {
+
+    protected MockActionHarness harness;
+
+    @Setup
+    public void setup() throws ServletException {
+        harness = new MockActionHarness().boot();
+    }
+
+    @TearDown
+    public void tearDown() {
+        harness.stop();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse request_index() throws IOException, ServletException { // /sea/ => seaAction@index(form)
+        return harness.request(harness.createRequest("GET", "/sea/")
+                .mockParameter("keyword", "dockside")
+                .mockParameter("pageNumber", "3")
+                .mockParameter("tagList", "land", "piari"));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse request_named() throws IOException, ServletException { // /sea/land/3 => seaAction@land()
+        return harness.request(harness.createRequest("GET", "/sea/land/3"));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse request_urlPattern() throws IOException, ServletException { // seaAction@piari()
+        return harness.request(harness.createRequest("GET", "/sea/piari/3/purchase/dockside"));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse request_package() throws IOException, ServletException { // => sea_seaLandAction@index()
+        return harness.request(harness.createRequest("GET", "/sea/land/"));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse request_json() throws IOException, ServletException { // JSON written to response
+        return harness.request(harness.createRequest("GET", "/sea/bonvo/")
+                .mockParameter("keyword", "dockside")
+                .mockParameter("pageNumber", "3")
+                .mockParameter("tagList", "land", "piari"));
+    }
+}
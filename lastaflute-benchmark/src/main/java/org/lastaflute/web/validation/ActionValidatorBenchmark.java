@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.validation;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.ConstraintViolation;
+
+import org.dbflute.optional.OptionalThing;
+import org.lastaflute.benchmark.app.web.SeaForm;
+import org.lastaflute.unit.mock.web.MockRequestManager;
+import org.lastaflute.unit.mock.web.validation.MockConstraintViolation;
+import org.lastaflute.web.ruts.process.profile.ActionRequestProfile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/09/13 Tuesday)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ActionValidatorBenchmark {
+
+    protected ActionValidator<UserMessages> validator;
+    protected SeaForm form;
+    protected Set<ConstraintViolation<Object>> vioSet;
+
+    @Setup
+    public void setup() {
+        validator = new ActionValidator<UserMessages>(new MockRequestManager(), () -> new UserMessages(), new Class<?>[0]) {
+            @Override
+            protected OptionalThing<ActionRequestProfile> findRequestProfile() { // no action runtime without request
+                return OptionalThing.empty();
+            }
+        };
+        form = new SeaForm();
+        form.keyword = "dockside";
+        form.pageNumber = 3;
+        vioSet = new HashSet<ConstraintViolation<Object>>();
+        vioSet.add(new MockConstraintViolation("keyword"));
+        vioSet.add(new MockConstraintViolation("pageNumber"));
+        vioSet.add(new MockConstraintViolation("tagList[0]"));
+    }
+
+    @Benchmark
+    public ValidationSuccess validate() { // request process per validated request
+        return validator.validate(form, more -> {}, () -> {
+            throw new IllegalStateException("Unexpected validation error: " + form);
+        });
+    }
+
+    @Benchmark
+    public UserMessages toUserMessages() { // request process per validation error
+        return validator.toUserMessages(form, vioSet);
+    }
+}
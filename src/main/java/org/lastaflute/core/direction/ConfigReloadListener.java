@@ -0,0 +1,30 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.direction;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/09/16 Friday)
+ */
+@FunctionalInterface
+public interface ConfigReloadListener {
+
+    /**
+     * Called after the configuration is reloaded, e.g. by HotDeploy.
+     * @param config The reloaded configuration. (NotNull)
+     */
+    void reloaded(AccessibleConfig config);
+}
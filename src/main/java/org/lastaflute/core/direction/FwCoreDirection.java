@@ -19,6 +19,7 @@ import org.dbflute.mail.send.SMailDeliveryDepartment;
 import org.lastaflute.core.direction.exception.FwRequiredAssistNotFoundException;
 import org.lastaflute.core.exception.ExceptionTranslationProvider;
 import org.lastaflute.core.json.JsonResourceProvider;
+import org.lastaflute.core.mail.LaProcessCachedDynamicTextAssist;
 import org.lastaflute.core.magic.async.ConcurrentAsyncExecutorProvider;
 import org.lastaflute.core.security.SecurityResourceProvider;
 import org.lastaflute.core.time.TimeResourceProvider;
@@ -96,6 +97,9 @@ public class FwCoreDirection {
     /** The delivery department of send mail. (NullAllowed) */
     protected SMailDeliveryDepartment mailDeliveryDepartment;
 
+    /** The process-cached text assist of mail, prewarmed at boot by postbox. (NullAllowed: not required) */
+    protected LaProcessCachedDynamicTextAssist mailTextCache;
+
     // ===================================================================================
     //                                                                     Direct Property
     //                                                                     ===============
@@ -176,6 +180,14 @@ public class FwCoreDirection {
         this.mailDeliveryDepartment = mailDeliveryDepartment;
     }
 
+    /**
+     * @param mailTextCache The text assist also registered to your postal personnel, prewarmed at boot. (NotNull)
+     */
+    public void directMailTextCache(LaProcessCachedDynamicTextAssist mailTextCache) {
+        assertArgumentNotNull("mailTextCache", mailTextCache);
+        this.mailTextCache = mailTextCache;
+    }
+
     // ===================================================================================
     //                                                                              Assist
     //                                                                              ======
@@ -249,6 +261,10 @@ public class FwCoreDirection {
         return mailDeliveryDepartment; // not required, big optional function
     }
 
+    public LaProcessCachedDynamicTextAssist assistMailTextCache() {
+        return mailTextCache; // not required, no prewarm if null
+    }
+
     // ===================================================================================
     //                                                                       Assert Helper
     //                                                                       =============
@@ -20,6 +20,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
@@ -71,8 +72,14 @@ public class ObjectiveConfig implements AccessibleConfig, Serializable {
     /** The filter of configuration value. (NotNull: after initialization) */
     protected PropertyFilter propertyFilter;
 
+    /** The snapshot of parsed values, switched when reloading. (NotNull: after initialization) */
+    protected volatile ObjectiveConfigSnapshot snapshot;
+
+    /** The list of listener called after reloading. (NotNull, EmptyAllowed) */
+    protected final List<ConfigReloadListener> reloadListenerList = new CopyOnWriteArrayList<ConfigReloadListener>();
+
     /** Is hot deploy requested? (true only when local development) */
-    protected boolean hotDeployRequested;
+    protected volatile boolean hotDeployRequested;
 
     // ===================================================================================
     //                                                                          Initialize
@@ -92,6 +99,7 @@ public class ObjectiveConfig implements AccessibleConfig, Serializable {
         final ObjectiveProperties makingProp = prepareObjectiveProperties();
         makingProp.load();
         prop = makingProp; // prop always be complete object for HotDeploy get() might be called in initialize()
+        snapshot = createSnapshot(makingProp); // switched at once so no mixed values
         prepareHotDeploy();
     }
 
@@ -148,6 +156,10 @@ public class ObjectiveConfig implements AccessibleConfig, Serializable {
         };
     }
 
+    protected ObjectiveConfigSnapshot createSnapshot(ObjectiveProperties makingProp) {
+        return new ObjectiveConfigSnapshot(makingProp);
+    }
+
     protected void verifyPropertyValue(String propertyKey, String propertyValue) {
         if (propertyValue == null) {
             final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
@@ -190,7 +202,7 @@ public class ObjectiveConfig implements AccessibleConfig, Serializable {
     @Override
     public String get(String propertyKey) {
         reloadIfNeeds();
-        return prop.get(propertyKey);
+        return snapshot.get(propertyKey);
     }
 
     @Override
@@ -205,31 +217,31 @@ public class ObjectiveConfig implements AccessibleConfig, Serializable {
     @Override
     public Integer getAsInteger(String propertyKey) {
         reloadIfNeeds();
-        return prop.getAsInteger(propertyKey);
+        return snapshot.getAsInteger(propertyKey);
     }
 
     @Override
     public Long getAsLong(String propertyKey) {
         reloadIfNeeds();
-        return prop.getAsLong(propertyKey);
+        return snapshot.getAsLong(propertyKey);
     }
 
     @Override
     public BigDecimal getAsDecimal(String propertyKey) {
         reloadIfNeeds();
-        return prop.getAsDecimal(propertyKey);
+        return snapshot.getAsDecimal(propertyKey);
     }
 
     @Override
     public LocalDate getAsDate(String propertyKey) {
         reloadIfNeeds();
-        return DfTypeUtil.toLocalDate(prop.getAsDate(propertyKey));
+        return snapshot.getAsDate(propertyKey);
     }
 
     @Override
     public boolean is(String propertyKey) {
         reloadIfNeeds();
-        return prop.is(propertyKey);
+        return snapshot.is(propertyKey);
     }
 
     // ===================================================================================
@@ -248,13 +260,36 @@ public class ObjectiveConfig implements AccessibleConfig, Serializable {
     protected void reloadIfNeeds() {
         if (hotDeployRequested) {
             synchronized (this) {
-                // INFO to find mistake that it uses HotDeploy in production
-                logger.info("...Reloading objective config by HotDeploy request");
-                doInitialize(); // actual dispose, with preparing next HotDeploy, without boot logging
+                if (hotDeployRequested) {
+                    // INFO to find mistake that it uses HotDeploy in production
+                    logger.info("...Reloading objective config by HotDeploy request");
+                    doInitialize(); // actual dispose, with preparing next HotDeploy, without boot logging
+                    notifyReloadListener();
+                }
             }
         }
     }
 
+    // ===================================================================================
+    //                                                                     Reload Listener
+    //                                                                     ===============
+    /**
+     * Register the listener called after reloading, e.g. to refresh values derived from configuration.
+     * @param reloadListener The listener of reloading. (NotNull)
+     */
+    public void registerReloadListener(ConfigReloadListener reloadListener) {
+        if (reloadListener == null) {
+            throw new IllegalArgumentException("The argument 'reloadListener' should not be null.");
+        }
+        reloadListenerList.add(reloadListener);
+    }
+
+    protected void notifyReloadListener() {
+        for (ConfigReloadListener reloadListener : reloadListenerList) {
+            reloadListener.reloaded(this);
+        }
+    }
+
     // ===================================================================================
     //                                                               Bowgun PropertyFilter
     //                                                               =====================
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.direction;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.dbflute.helper.jprop.ObjectiveProperties;
+import org.dbflute.util.DfCollectionUtil;
+import org.dbflute.util.DfTypeUtil;
+
+/**
+ * The immutable snapshot of objective properties with parsed values. <br>
+ * Each value is filtered and parsed only once per snapshot, and reloading switches the whole snapshot. <br>
+ * Values are parsed lazily at first access because properties are not always parseable as every type. <br>
+ * The property filter is also applied only at first access, so its output is frozen in the snapshot
+ * (before the snapshot, the filter was called at every get).
+ * @author jflute
+ * @since 0.8.5 (2016/09/16 Friday)
+ */
+public class ObjectiveConfigSnapshot {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final Object NULL_VALUE = new Object(); // as parsed null, e.g. empty string
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final ObjectiveProperties prop; // not null, loaded
+    protected final Map<String, Object> stringMap = DfCollectionUtil.newConcurrentHashMap();
+    protected final Map<String, Object> integerMap = DfCollectionUtil.newConcurrentHashMap();
+    protected final Map<String, Object> longMap = DfCollectionUtil.newConcurrentHashMap();
+    protected final Map<String, Object> decimalMap = DfCollectionUtil.newConcurrentHashMap();
+    protected final Map<String, Object> dateMap = DfCollectionUtil.newConcurrentHashMap();
+    protected final Map<String, Object> booleanMap = DfCollectionUtil.newConcurrentHashMap();
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public ObjectiveConfigSnapshot(ObjectiveProperties prop) {
+        this.prop = prop;
+    }
+
+    // ===================================================================================
+    //                                                                        Get Property
+    //                                                                        ============
+    public String get(String propertyKey) {
+        return findOrParse(stringMap, propertyKey, key -> prop.get(key));
+    }
+
+    public Integer getAsInteger(String propertyKey) {
+        return findOrParse(integerMap, propertyKey, key -> prop.getAsInteger(key));
+    }
+
+    public Long getAsLong(String propertyKey) {
+        return findOrParse(longMap, propertyKey, key -> prop.getAsLong(key));
+    }
+
+    public BigDecimal getAsDecimal(String propertyKey) {
+        return findOrParse(decimalMap, propertyKey, key -> prop.getAsDecimal(key));
+    }
+
+    public LocalDate getAsDate(String propertyKey) {
+        return findOrParse(dateMap, propertyKey, key -> DfTypeUtil.toLocalDate(prop.getAsDate(key)));
+    }
+
+    public boolean is(String propertyKey) {
+        return findOrParse(booleanMap, propertyKey, key -> prop.is(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <VALUE> VALUE findOrParse(Map<String, Object> cacheMap, String propertyKey, Function<String, VALUE> parser) {
+        final Object cached = cacheMap.get(propertyKey); // no lock here
+        if (cached != null) {
+            return cached != NULL_VALUE ? (VALUE) cached : null;
+        }
+        final VALUE parsed = parser.apply(propertyKey); // not cached if not-found exception
+        cacheMap.put(propertyKey, parsed != null ? parsed : NULL_VALUE); // same value even if race
+        return parsed;
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "snapshot:{" + prop + ", parsed=" + stringMap.size() + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public ObjectiveProperties getProperties() {
+        return prop;
+    }
+}
@@ -16,6 +16,9 @@
 package org.lastaflute.core.direction;
 
 /**
+ * The filter of configuration value. <br>
+ * The filtered value is cached in the config snapshot, so the filter is called once per property
+ * until reloading (HotDeploy) and it should not return a changing value, e.g. current time.
  * @author jflute
  * @since 0.6.0 (2015/05/17 Sunday)
  */
@@ -15,7 +15,11 @@
  */
 package org.lastaflute.core.json;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StringReader;
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -31,6 +35,12 @@ import org.lastaflute.core.json.adapter.StringGsonAdaptable;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 /**
  * @author jflute
@@ -45,6 +55,9 @@ public class GsonJsonParser implements RealJsonParser // adapters here
     protected final JsonMappingOption option;
     protected final Gson gson;
 
+    /** The map of type adapter for parameterized type, keyed by the type (equals() by type arguments). (NotNull) */
+    protected final Map<ParameterizedType, TypeAdapter<?>> parameterizedAdapterMap = DfCollectionUtil.newConcurrentHashMap();
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -136,7 +149,7 @@ public class GsonJsonParser implements RealJsonParser // adapters here
 
     @Override
     public <BEAN> BEAN fromJsonParameteried(String json, ParameterizedType parameterizedType) {
-        final BEAN bean = gson.fromJson(json, parameterizedType); // if empty JSON, new-only instance
+        final BEAN bean = readByAdapter(json, findParameterizedAdapter(parameterizedType)); // if empty JSON, new-only instance
         if (bean != null) {
             return bean;
         } else { // e.g. empty string JSON
@@ -155,6 +168,40 @@ public class GsonJsonParser implements RealJsonParser // adapters here
         }
     }
 
+    protected TypeAdapter<?> findParameterizedAdapter(ParameterizedType parameterizedType) {
+        // ad-hoc parameterized types (e.g. from property generic info) are canonicalized by Gson per call
+        // so the adapter is cached here to be resolved only once per the type
+        TypeAdapter<?> adapter = parameterizedAdapterMap.get(parameterizedType);
+        if (adapter == null) {
+            adapter = gson.getAdapter(TypeToken.get(parameterizedType));
+            parameterizedAdapterMap.put(parameterizedType, adapter); // same adapter if conflicted
+        }
+        return adapter;
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <BEAN> BEAN readByAdapter(String json, TypeAdapter<?> adapter) { // same way as Gson's fromJson()
+        final JsonReader reader = new JsonReader(new StringReader(json));
+        reader.setLenient(true);
+        boolean empty = true;
+        try {
+            reader.peek();
+            empty = false;
+            final BEAN bean = (BEAN) adapter.read(reader);
+            if (bean != null && reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonIOException("JSON document was not fully consumed.");
+            }
+            return bean;
+        } catch (EOFException e) {
+            if (empty) { // e.g. empty string JSON
+                return null;
+            }
+            throw new JsonSyntaxException(e);
+        } catch (IllegalStateException | IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     protected <BEAN> BEAN newEmptyInstance(ParameterizedType parameterizedType) {
         final Class<?> rawClass = DfReflectionUtil.getRawClass(parameterizedType);
@@ -174,6 +221,19 @@ public class GsonJsonParser implements RealJsonParser // adapters here
         return gson.toJson(bean);
     }
 
+    @Override
+    public void warmUpMapping(Type beanType) { // is not null, already checked
+        // resolving the adapter analyzes the bean's properties (and nested beans)
+        // and the adapter is cached in Gson so first parsing does not need the analysis
+        // (only warming-up: field access stays on Gson's reflective adapter because
+        // its naming, exclusion and per-field adapter rules are needed for JsonMappingOption)
+        if (beanType instanceof ParameterizedType) { // e.g. List<SeaBody>
+            findParameterizedAdapter((ParameterizedType) beanType);
+        } else {
+            gson.getAdapter(TypeToken.get(beanType));
+        }
+    }
+
     // ===================================================================================
     //                                                                            Accessor
     //                                                                            ========
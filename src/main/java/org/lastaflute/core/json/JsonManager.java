@@ -16,6 +16,7 @@
 package org.lastaflute.core.json;
 
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 
 /**
  * @author jflute
@@ -54,4 +55,14 @@ public interface JsonManager {
      * @return The encoded JSON string. (NotNull)
      */
     String toJson(Object bean);
+
+    /**
+     * Warm up the mapping of the bean type before first parsing, e.g. resolving type adapters. <br>
+     * It is basically called at boot for JSON body and JSON response types of actions. <br>
+     * This is only warming-up of the parser's own caches, not code generation,
+     * e.g. Gson still reads and writes bean fields by its reflective adapter.
+     * @param beanType The type of JSON bean, also parameterized type. (NotNull)
+     */
+    default void warmUpMapping(Type beanType) { // do nothing as default
+    }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 package org.lastaflute.core.json;
 
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 
 /**
  * The parser of JSON resource.
@@ -55,4 +56,11 @@ public interface RealJsonParser {
      * @return The encoded JSON string. (NotNull)
      */
     String toJson(Object bean);
+
+    /**
+     * Warm up the mapping of the bean type before first parsing, e.g. resolving type adapters (not code generation).
+     * @param beanType The type of JSON bean, also parameterized type. (NotNull)
+     */
+    default void warmUpMapping(Type beanType) { // do nothing as default
+    }
 }
@@ -16,6 +16,7 @@
 package org.lastaflute.core.json;
 
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
@@ -224,6 +225,12 @@ public class SimpleJsonManager implements JsonManager {
         return realJsonParser.toJson(bean);
     }
 
+    @Override
+    public void warmUpMapping(Type beanType) {
+        assertArgumentNotNull("beanType", beanType);
+        realJsonParser.warmUpMapping(beanType);
+    }
+
     // ===================================================================================
     //                                                                        Small Helper
     //                                                                        ============
@@ -18,6 +18,7 @@ package org.lastaflute.core.magic;
 import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.dbflute.helper.message.ExceptionMessageBuilder;
@@ -33,7 +34,9 @@ import org.lastaflute.web.ruts.ActionRequestProcessor;
  * I mean, your logic should not depend on the existence of this cache. <br>
  * This cache is cleared when action execute ends (in the request processor),
  * and is cleared when task execute of s2chronos ends.
- * So you must set {@link ActionRequestProcessor} in your web.xml,
+ * So you must set {@link ActionRequestProcessor} in your web.xml, <br>
+ * Framework items are stored in array slots indexed by fixed numbers (no hashing),
+ * and other items are stored in map lazily created.
  * @author jflute
  */
 public class ThreadCacheContext {
@@ -66,11 +69,25 @@ public class ThreadCacheContext {
     //                                                ------
     public static final String FW_MAIL_COUNTER = "fw:mailCounter";
 
+    // -----------------------------------------------------
+    //                                        Framework Slot
+    //                                        --------------
+    protected static final int SLOT_REQUEST_PATH = 0;
+    protected static final int SLOT_ENTRY_METHOD = 1;
+    protected static final int SLOT_USER_BEAN = 2;
+    protected static final int SLOT_VALIDATOR_CALLED = 3;
+    protected static final int SLOT_VALIDATOR_TYPE_FAILURE = 4;
+    protected static final int SLOT_TRANSACTION_MEMORIES = 5;
+    protected static final int SLOT_MAIL_COUNTER = 6;
+    protected static final int SLOT_SIZE = 7;
+    protected static final String[] SLOT_KEYS = new String[] { FW_REQUEST_PATH, FW_ENTRY_METHOD, FW_USER_BEAN, FW_VALIDATOR_CALLED,
+            FW_VALIDATOR_TYPE_FAILURE, FW_TRANSACTION_MEMORIES, FW_MAIL_COUNTER }; // same order as slot index
+
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
     /** The thread-local for this. */
-    private static final ThreadLocal<Map<String, Object>> threadLocal = new ThreadLocal<Map<String, Object>>();
+    private static final ThreadLocal<ThreadCacheStore> threadLocal = new ThreadLocal<ThreadCacheStore>();
 
     // ===================================================================================
     //                                                                          Initialize
@@ -90,7 +107,30 @@ public class ThreadCacheContext {
      */
     public static void initialize() {
         clear();
-        threadLocal.set(new HashMap<String, Object>());
+        threadLocal.set(new ThreadCacheStore());
+    }
+
+    /**
+     * Initialize this cache with the inherited store, e.g. for asynchronous process. <br>
+     * The store is set as it is so you should give new-created store e.g. by {@link #inherit()}.
+     * @param inheritedStore The store of cached objects inherited from e.g. caller thread. (NotNull)
+     */
+    public static void initialize(ThreadCacheStore inheritedStore) {
+        if (inheritedStore == null) {
+            throw new IllegalArgumentException("The argument 'inheritedStore' should not be null.");
+        }
+        clear();
+        threadLocal.set(inheritedStore);
+    }
+
+    /**
+     * Inherit the current cache as new-created store, e.g. for asynchronous process. <br>
+     * The objects implementing {@link ThreadCompleted} are not inherited.
+     * @return The new-created store copied from current cache. (NotNull: empty if no cache)
+     */
+    public static ThreadCacheStore inherit() {
+        final ThreadCacheStore store = threadLocal.get();
+        return store != null ? store.inherit() : new ThreadCacheStore();
     }
 
     // ===================================================================================
@@ -104,10 +144,7 @@ public class ThreadCacheContext {
      */
     @SuppressWarnings("unchecked")
     public static <OBJ> OBJ getObject(String key) {
-        if (!exists()) {
-            throwThreadCacheNotInitializedException(key);
-        }
-        return (OBJ) threadLocal.get().get(key);
+        return (OBJ) prepareStore(key).get(key);
     }
 
     /**
@@ -116,10 +153,7 @@ public class ThreadCacheContext {
      * @param value The value of the object. (NullAllowed)
      */
     public static void setObject(String key, Object value) {
-        if (!exists()) {
-            throwThreadCacheNotInitializedException(key);
-        }
-        threadLocal.get().put(key, value);
+        prepareStore(key).put(key, value);
     }
 
     /**
@@ -128,10 +162,7 @@ public class ThreadCacheContext {
      * @return The removed value. (NullAllowed)
      */
     public static Object removeObject(String key) {
-        if (!exists()) {
-            throwThreadCacheNotInitializedException(key);
-        }
-        return threadLocal.get().remove(key);
+        return prepareStore(key).remove(key);
     }
 
     /**
@@ -140,10 +171,7 @@ public class ThreadCacheContext {
      * @return The determination, true or false. (true if the object exists and true)
      */
     public static boolean determineObject(String key) {
-        if (!exists()) {
-            throwThreadCacheNotInitializedException(key);
-        }
-        final Object obj = threadLocal.get().get(key);
+        final Object obj = prepareStore(key).get(key);
         return obj != null && (boolean) obj;
     }
 
@@ -155,6 +183,14 @@ public class ThreadCacheContext {
         threadLocal.set(null);
     }
 
+    protected static ThreadCacheStore prepareStore(String key) {
+        final ThreadCacheStore store = threadLocal.get();
+        if (store == null) {
+            throwThreadCacheNotInitializedException(key);
+        }
+        return store;
+    }
+
     protected static void throwThreadCacheNotInitializedException(String key) {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
         br.addNotice("The thread cache was not initialized yet.");
@@ -173,76 +209,90 @@ public class ThreadCacheContext {
     //                                                                           Framework
     //                                                                           =========
     public static Map<String, Object> getReadOnlyCacheMap() { // for framework
-        if (!exists()) {
+        final ThreadCacheStore store = threadLocal.get();
+        if (store == null) {
             return DfCollectionUtil.emptyMap();
         }
-        return Collections.unmodifiableMap(threadLocal.get());
+        return Collections.unmodifiableMap(store.toMap());
+    }
+
+    // -----------------------------------------------------
+    //                                         Slot Handling
+    //                                         -------------
+    protected static Object findSlot(int slotIndex) { // null if no cache
+        final ThreadCacheStore store = threadLocal.get();
+        return store != null ? store.slots[slotIndex] : null;
+    }
+
+    protected static Object getSlot(int slotIndex) {
+        return prepareStore(SLOT_KEYS[slotIndex]).slots[slotIndex];
+    }
+
+    protected static void setSlot(int slotIndex, Object value) {
+        prepareStore(SLOT_KEYS[slotIndex]).slots[slotIndex] = value;
     }
 
     // -----------------------------------------------------
     //                                             Core Item
     //                                             ---------
     public static String findRequestPath() {
-        return exists() ? (String) getObject(FW_REQUEST_PATH) : null;
+        return (String) findSlot(SLOT_REQUEST_PATH);
     }
 
     public static void registerRequestPath(String requestPath) {
-        setObject(FW_REQUEST_PATH, requestPath);
+        setSlot(SLOT_REQUEST_PATH, requestPath);
     }
 
     public static Method findEntryMethod() {
-        return exists() ? (Method) getObject(FW_ENTRY_METHOD) : null;
+        return (Method) findSlot(SLOT_ENTRY_METHOD);
     }
 
     public static void registerEntryMethod(Method entryMethod) {
-        setObject(FW_ENTRY_METHOD, entryMethod);
+        setSlot(SLOT_ENTRY_METHOD, entryMethod);
     }
 
     public static Object findUserBean() { // object not to depend on web
-        return exists() ? getObject(FW_USER_BEAN) : null;
+        return findSlot(SLOT_USER_BEAN);
     }
 
     public static void registerUserBean(Object userBean) {
-        setObject(FW_USER_BEAN, userBean);
+        setSlot(SLOT_USER_BEAN, userBean);
     }
 
     // -----------------------------------------------------
     //                                             Validator
     //                                             ---------
     public static boolean isValidatorCalled() {
-        return exists() && getObject(FW_VALIDATOR_CALLED) != null;
+        return findSlot(SLOT_VALIDATOR_CALLED) != null;
     }
 
     public static void markValidatorCalled() {
-        setObject(FW_VALIDATOR_CALLED, MARK_OBJ);
+        setSlot(SLOT_VALIDATOR_CALLED, MARK_OBJ);
     }
 
     public static Object findValidatorTypeFailure(Class<?> keyType) { // object not to depend on web
-        if (exists()) {
-            final Map<Class<?>, Object> failureMap = getObject(FW_VALIDATOR_TYPE_FAILURE);
-            return failureMap != null ? failureMap.get(keyType) : null;
-        } else {
-            return null;
-        }
+        @SuppressWarnings("unchecked")
+        final Map<Class<?>, Object> failureMap = (Map<Class<?>, Object>) findSlot(SLOT_VALIDATOR_TYPE_FAILURE);
+        return failureMap != null ? failureMap.get(keyType) : null;
     }
 
     public static void registerValidatorTypeFailure(Class<?> keyType, Object failureBean) {
-        Map<Class<?>, Object> failureMap = getObject(FW_VALIDATOR_TYPE_FAILURE);
+        @SuppressWarnings("unchecked")
+        Map<Class<?>, Object> failureMap = (Map<Class<?>, Object>) getSlot(SLOT_VALIDATOR_TYPE_FAILURE);
         if (failureMap == null) {
             failureMap = new HashMap<Class<?>, Object>();
-            setObject(FW_VALIDATOR_TYPE_FAILURE, failureMap);
+            setSlot(SLOT_VALIDATOR_TYPE_FAILURE, failureMap);
         }
         failureMap.put(keyType, failureBean);
     }
 
     public static void removeValidatorTypeFailure(Class<?> keyType) {
-        if (exists()) {
-            Map<Class<?>, Object> failureMap = getObject(FW_VALIDATOR_TYPE_FAILURE);
-            if (failureMap != null && failureMap.get(keyType) != null) {
-                failureMap.remove(keyType);
-                if (failureMap.isEmpty()) {
-                    removeObject(FW_VALIDATOR_TYPE_FAILURE);
-                }
+        @SuppressWarnings("unchecked")
+        final Map<Class<?>, Object> failureMap = (Map<Class<?>, Object>) findSlot(SLOT_VALIDATOR_TYPE_FAILURE);
+        if (failureMap != null && failureMap.get(keyType) != null) {
+            failureMap.remove(keyType);
+            if (failureMap.isEmpty()) {
+                setSlot(SLOT_VALIDATOR_TYPE_FAILURE, null);
             }
         }
     }
@@ -251,21 +301,131 @@ public class ThreadCacheContext {
     //                                           Transaction
     //                                           -----------
     public static SavedTransactionMemories findTransactionMemories() {
-        return exists() ? getObject(FW_TRANSACTION_MEMORIES) : null;
+        return (SavedTransactionMemories) findSlot(SLOT_TRANSACTION_MEMORIES);
     }
 
     public static void registerTransactionMemories(SavedTransactionMemories memories) {
-        setObject(FW_TRANSACTION_MEMORIES, memories);
+        setSlot(SLOT_TRANSACTION_MEMORIES, memories);
     }
 
     // -----------------------------------------------------
     //                                                 Mail
     //                                                ------
     public static PostedMailCounter findMailCounter() {
-        return exists() ? getObject(FW_MAIL_COUNTER) : null;
+        return (PostedMailCounter) findSlot(SLOT_MAIL_COUNTER);
     }
 
     public static void registerMailCounter(PostedMailCounter memories) {
-        setObject(FW_MAIL_COUNTER, memories);
+        setSlot(SLOT_MAIL_COUNTER, memories);
+    }
+
+    // ===================================================================================
+    //                                                                        Cache Store
+    //                                                                        ===========
+    /**
+     * The store of cached objects in the thread. <br>
+     * Framework items are in slots and others are in map.
+     */
+    public static class ThreadCacheStore {
+
+        protected final Object[] slots; // not null, fixed size
+        protected Map<String, Object> userMap; // null allowed, lazy-loaded
+
+        public ThreadCacheStore() {
+            slots = new Object[SLOT_SIZE];
+        }
+
+        protected ThreadCacheStore(Object[] slots, Map<String, Object> userMap) {
+            this.slots = slots;
+            this.userMap = userMap;
+        }
+
+        protected Object get(String key) {
+            final int slotIndex = findSlotIndex(key);
+            if (slotIndex >= 0) {
+                return slots[slotIndex];
+            }
+            return userMap != null ? userMap.get(key) : null;
+        }
+
+        protected void put(String key, Object value) {
+            final int slotIndex = findSlotIndex(key);
+            if (slotIndex >= 0) {
+                slots[slotIndex] = value;
+                return;
+            }
+            if (userMap == null) {
+                userMap = new HashMap<String, Object>();
+            }
+            userMap.put(key, value);
+        }
+
+        protected Object remove(String key) {
+            final int slotIndex = findSlotIndex(key);
+            if (slotIndex >= 0) {
+                final Object removed = slots[slotIndex];
+                slots[slotIndex] = null;
+                return removed;
+            }
+            return userMap != null ? userMap.remove(key) : null;
+        }
+
+        protected int findSlotIndex(String key) {
+            switch (key) {
+            case FW_REQUEST_PATH:
+                return SLOT_REQUEST_PATH;
+            case FW_ENTRY_METHOD:
+                return SLOT_ENTRY_METHOD;
+            case FW_USER_BEAN:
+                return SLOT_USER_BEAN;
+            case FW_VALIDATOR_CALLED:
+                return SLOT_VALIDATOR_CALLED;
+            case FW_VALIDATOR_TYPE_FAILURE:
+                return SLOT_VALIDATOR_TYPE_FAILURE;
+            case FW_TRANSACTION_MEMORIES:
+                return SLOT_TRANSACTION_MEMORIES;
+            case FW_MAIL_COUNTER:
+                return SLOT_MAIL_COUNTER;
+            default:
+                return -1; // not framework item
+            }
+        }
+
+        protected ThreadCacheStore inherit() {
+            final Object[] inheritedSlots = new Object[SLOT_SIZE];
+            for (int i = 0; i < SLOT_SIZE; i++) {
+                final Object value = slots[i];
+                inheritedSlots[i] = !(value instanceof ThreadCompleted) ? value : null; // cannot be inherited
+            }
+            Map<String, Object> inheritedMap = null;
+            if (userMap != null) {
+                inheritedMap = new HashMap<String, Object>(userMap.size());
+                for (Map.Entry<String, Object> entry : userMap.entrySet()) {
+                    if (!(entry.getValue() instanceof ThreadCompleted)) { // cannot be inherited
+                        inheritedMap.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+            return new ThreadCacheStore(inheritedSlots, inheritedMap);
+        }
+
+        protected Map<String, Object> toMap() {
+            final Map<String, Object> map = new LinkedHashMap<String, Object>();
+            for (int i = 0; i < SLOT_SIZE; i++) {
+                final Object value = slots[i];
+                if (value != null) {
+                    map.put(SLOT_KEYS[i], value);
+                }
+            }
+            if (userMap != null) {
+                map.putAll(userMap);
+            }
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            return "store:" + toMap();
+        }
     }
 }
@@ -19,7 +19,6 @@ import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -54,7 +53,7 @@ import org.lastaflute.core.direction.FwAssistantDirector;
 import org.lastaflute.core.direction.FwCoreDirection;
 import org.lastaflute.core.exception.ExceptionTranslator;
 import org.lastaflute.core.magic.ThreadCacheContext;
-import org.lastaflute.core.magic.ThreadCompleted;
+import org.lastaflute.core.magic.ThreadCacheContext.ThreadCacheStore;
 import org.lastaflute.core.magic.async.ConcurrentAsyncOption.ConcurrentAsyncInheritType;
 import org.lastaflute.core.magic.destructive.BowgunDestructiveAdjuster;
 import org.lastaflute.core.mail.PostedMailCounter;
@@ -271,12 +270,12 @@ public class SimpleAsyncManager implements AsyncManager {
     //                                                                     Create Runnable
     //                                                                     ===============
     protected Runnable createRunnable(ConcurrentAsyncCall call, String keyword) { // in caller thread
-        final Map<String, Object> threadCacheMap = inheritThreadCacheContext(call);
+        final ThreadCacheStore threadCacheStore = inheritThreadCacheContext(call);
         final AccessContext accessContext = inheritAccessContext(call);
         final CallbackContext callbackContext = inheritCallbackContext(call);
         final Map<String, Object> variousContextMap = findCallerVariousContextMap();
         return () -> { // in other thread
-            prepareThreadCacheContext(call, threadCacheMap);
+            prepareThreadCacheContext(call, threadCacheStore);
             preparePreparedAccessContext(call, accessContext);
             prepareCallbackContext(call, callbackContext);
             final Object variousPreparedObj = prepareVariousContext(call, variousContextMap);
@@ -334,18 +333,12 @@ public class SimpleAsyncManager implements AsyncManager {
     // ===================================================================================
     //                                                                        Thread Cache
     //                                                                        ============
-    protected Map<String, Object> inheritThreadCacheContext(ConcurrentAsyncCall call) {
-        return new HashMap<String, Object>(ThreadCacheContext.getReadOnlyCacheMap());
+    protected ThreadCacheStore inheritThreadCacheContext(ConcurrentAsyncCall call) {
+        return ThreadCacheContext.inherit(); // without thread-completed objects
     }
 
-    protected void prepareThreadCacheContext(ConcurrentAsyncCall call, Map<String, Object> threadCacheMap) {
-        ThreadCacheContext.initialize();
-        threadCacheMap.forEach((key, value) -> {
-            if (value instanceof ThreadCompleted) { // cannot be inherited
-                return;
-            }
-            ThreadCacheContext.setObject(key, value);
-        });
+    protected void prepareThreadCacheContext(ConcurrentAsyncCall call, ThreadCacheStore threadCacheStore) {
+        ThreadCacheContext.initialize(threadCacheStore);
     }
 
     protected void clearThreadCacheContext(ConcurrentAsyncCall call) {
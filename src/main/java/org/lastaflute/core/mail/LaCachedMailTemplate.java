@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.mail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.dbflute.optional.OptionalThing;
+
+/**
+ * The mail template parsed from the text of body file, cached by {@link LaProcessCachedDynamicTextAssist}. <br>
+ * The header meta (comment, subject, option and property lines) is before the delimiter line '&gt;&gt;&gt;',
+ * and the body is after it. The text without the delimiter (e.g. HTML variant) has only the body.
+ * @author jflute
+ * @since 0.8.5 (2016/09/10 Saturday)
+ */
+public class LaCachedMailTemplate {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    public static final String META_DELIMITER = ">>>";
+    protected static final String COMMENT_BEGIN = "/*";
+    protected static final String COMMENT_END = "*/";
+    protected static final String SUBJECT_LABEL = "subject:";
+    protected static final String OPTION_LABEL = "option:";
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String text; // whole text as resolved
+    protected final String headerMeta; // null allowed: no delimiter
+    protected final String subject; // null allowed: no subject line
+    protected final List<String> optionList; // not null, read-only
+    protected final String body; // not null
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    protected LaCachedMailTemplate(String text, String headerMeta, String subject, List<String> optionList, String body) {
+        this.text = text;
+        this.headerMeta = headerMeta;
+        this.subject = subject;
+        this.optionList = optionList;
+        this.body = body;
+    }
+
+    // ===================================================================================
+    //                                                                               Parse
+    //                                                                               =====
+    /**
+     * @param text The text of body file resolved by the assist. (NotNull)
+     * @return The new-created template parsed from the text. (NotNull)
+     */
+    public static LaCachedMailTemplate parse(String text) {
+        int lineBegin = 0;
+        while (lineBegin < text.length()) {
+            final int newline = text.indexOf('\n', lineBegin);
+            final int lineEnd = newline >= 0 ? newline : text.length();
+            if (text.substring(lineBegin, lineEnd).trim().equals(META_DELIMITER)) {
+                final String headerMeta = text.substring(0, lineBegin);
+                final String body = newline >= 0 ? text.substring(newline + 1) : "";
+                return parseHeaderMeta(text, headerMeta, body);
+            }
+            lineBegin = lineEnd + 1;
+        }
+        return new LaCachedMailTemplate(text, null, null, Collections.emptyList(), text); // no header meta
+    }
+
+    protected static LaCachedMailTemplate parseHeaderMeta(String text, String headerMeta, String body) {
+        String subject = null;
+        final List<String> optionList = new ArrayList<String>(2);
+        boolean inComment = false;
+        for (String line : headerMeta.split("\n")) {
+            final String trimmed = line.trim();
+            if (inComment || trimmed.startsWith(COMMENT_BEGIN)) { // e.g. /* [New Member's Registration] */
+                inComment = !trimmed.endsWith(COMMENT_END);
+                continue;
+            }
+            if (trimmed.startsWith(SUBJECT_LABEL)) {
+                subject = trimmed.substring(SUBJECT_LABEL.length()).trim();
+            } else if (trimmed.startsWith(OPTION_LABEL)) {
+                for (String option : trimmed.substring(OPTION_LABEL.length()).split(",")) {
+                    if (!option.trim().isEmpty()) {
+                        optionList.add(option.trim());
+                    }
+                }
+            } // property lines (-- !!...!!) are kept only in header meta
+        }
+        return new LaCachedMailTemplate(text, headerMeta, subject, Collections.unmodifiableList(optionList), body);
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "template:{subject=" + subject + ", options=" + optionList + ", body=" + body.length() + " chars}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    /**
+     * @return The whole text as resolved, returned to MailFlute as dynamic text. (NotNull)
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return The optional header meta before the delimiter. (NotNull, EmptyAllowed: when no delimiter)
+     */
+    public OptionalThing<String> getHeaderMeta() {
+        return OptionalThing.ofNullable(headerMeta, () -> {
+            throw new IllegalStateException("Not found the header meta (no delimiter) in the template: " + this);
+        });
+    }
+
+    /**
+     * @return The optional subject in the header meta. (NotNull, EmptyAllowed: when no subject line)
+     */
+    public OptionalThing<String> getSubject() {
+        return OptionalThing.ofNullable(subject, () -> {
+            throw new IllegalStateException("Not found the subject in the template: " + this);
+        });
+    }
+
+    /**
+     * @return The read-only list of options in the header meta, e.g. genAsIs. (NotNull, EmptyAllowed)
+     */
+    public List<String> getOptionList() {
+        return optionList;
+    }
+
+    /**
+     * @return The body after the delimiter, or the whole text when no delimiter. (NotNull)
+     */
+    public String getBody() {
+        return body;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.mail;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.dbflute.mail.Postcard;
+import org.dbflute.mail.send.embedded.receptionist.SMailDynamicTextAssist;
+import org.dbflute.optional.OptionalThing;
+import org.dbflute.util.DfReflectionUtil;
+import org.dbflute.util.DfTypeUtil;
+import org.lastaflute.di.DisposableUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The dynamic text assist that caches resolved mail templates in the whole process. <br>
+ * The templates are cached by body path (the HTML variant has its own path), file-system or not and receiver locale,
+ * parsed into header meta and body as {@link LaCachedMailTemplate} once at caching.
+ * So batch processes sending many same-template mails can avoid re-resolving the text per mail. <br>
+ * The cache is bounded by LRU of {@link #provideMaxCachedTemplateCount()} entries and cleared by HotDeploy,
+ * and you can prepare templates at boot by {@link #prewarm(Collection, Collection, boolean)}. <br>
+ * Register it to your postal personnel as dynamic text assist (same as {@link LaThreadCachedDynamicTextAssist}),
+ * and also direct the same instance by FwCoreDirection.directMailTextCache() so that Postbox prewarms it at boot.
+ * @author jflute
+ * @since 0.8.5 (2016/09/10 Saturday)
+ */
+public abstract class LaProcessCachedDynamicTextAssist implements SMailDynamicTextAssist {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final Logger logger = LoggerFactory.getLogger(LaProcessCachedDynamicTextAssist.class);
+    protected static final Object NONE = new Object();
+    protected static final int DEFAULT_MAX_CACHED_TEMPLATE_COUNT = 1000;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The LRU map of cached template, key is generated by path, filesystem and locale. (NotNull) */
+    protected final Map<String, Object> templateCacheMap = createTemplateCacheMap();
+
+    /** Is hot deploy requested? (true only when local development) */
+    protected volatile boolean hotDeployRequested;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public LaProcessCachedDynamicTextAssist() {
+        prepareHotDeploy();
+    }
+
+    protected Map<String, Object> createTemplateCacheMap() {
+        final int maxCount = provideMaxCachedTemplateCount();
+        return Collections.synchronizedMap(new LinkedHashMap<String, Object>(16, 0.75f, true) { // access order for LRU
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                return size() > maxCount;
+            }
+        });
+    }
+
+    protected int provideMaxCachedTemplateCount() { // you can override, called in constructor so return constant
+        return DEFAULT_MAX_CACHED_TEMPLATE_COUNT; // enough for normal applications
+    }
+
+    // ===================================================================================
+    //                                                                              Assist
+    //                                                                              ======
+    @Override
+    public String assist(Postcard postcard, String path, boolean filesystem, OptionalThing<Locale> receiverLocale) {
+        return assistTemplate(postcard, path, filesystem, receiverLocale).map(template -> template.getText()).orElse(null);
+    }
+
+    /**
+     * Find the cached template or resolve and cache it. <br>
+     * MailFlute receives only the text by {@link #assist(Postcard, String, boolean, OptionalThing)},
+     * and you can use the parsed header meta and body by this method.
+     * @param postcard The postcard to be sent. (NullAllowed: e.g. prewarm without sending)
+     * @param path The path of body file. (NotNull)
+     * @param filesystem Is the path for file system (not classpath)?
+     * @param receiverLocale The optional locale of receiver. (NotNull, EmptyAllowed)
+     * @return The optional template parsed from the text. (NotNull, EmptyAllowed: when not found)
+     */
+    public OptionalThing<LaCachedMailTemplate> assistTemplate(Postcard postcard, String path, boolean filesystem,
+            OptionalThing<Locale> receiverLocale) {
+        reloadIfNeeds();
+        final String cacheKey = generateCacheKey(path, filesystem, receiverLocale);
+        Object cached = templateCacheMap.get(cacheKey);
+        if (cached == null) { // resolved outside lock, the same text if resolved concurrently
+            final String assisted = doAssist(postcard, path, filesystem, receiverLocale);
+            cached = assisted != null ? LaCachedMailTemplate.parse(assisted) : NONE; // also cache not-found
+            templateCacheMap.put(cacheKey, cached);
+        }
+        final LaCachedMailTemplate template = cached != NONE ? (LaCachedMailTemplate) cached : null;
+        return OptionalThing.ofNullable(template, () -> {
+            throw new IllegalStateException("Not found the mail template: path=" + path + ", filesystem=" + filesystem);
+        });
+    }
+
+    protected String generateCacheKey(String path, boolean filesystem, OptionalThing<Locale> receiverLocale) {
+        return path + ":" + filesystem + ":" + receiverLocale.map(locale -> locale.toString()).orElse("none");
+    }
+
+    protected abstract String doAssist(Postcard postcard, String path, boolean filesystem, OptionalThing<Locale> receiverLocale);
+
+    // ===================================================================================
+    //                                                                             Prewarm
+    //                                                                             =======
+    /**
+     * Resolve templates of the postcards' body files before first sending, e.g. called at boot. <br>
+     * HTML variants are cached at first sending because they depend on postcard settings.
+     * @param postcardTypeList The list of postcard types having default constructor. (NotNull)
+     * @param localeList The list of receiver locales to be prepared, empty means no-locale only. (NotNull)
+     * @param filesystem Are the body files on file system (not classpath)? (same as your postal personnel)
+     */
+    public void prewarm(Collection<Class<? extends LaTypicalPostcard>> postcardTypeList, Collection<Locale> localeList,
+            boolean filesystem) {
+        assertArgumentNotNull("postcardTypeList", postcardTypeList);
+        assertArgumentNotNull("localeList", localeList);
+        for (Class<? extends LaTypicalPostcard> postcardType : postcardTypeList) {
+            final LaTypicalPostcard postcard = (LaTypicalPostcard) DfReflectionUtil.newInstance(postcardType);
+            final Postcard nativePostcard = postcard.toNativePostcard();
+            final String bodyFile = postcard.getBodyFile();
+            assistTemplate(nativePostcard, bodyFile, filesystem, OptionalThing.empty());
+            for (Locale locale : localeList) {
+                assistTemplate(nativePostcard, bodyFile, filesystem, OptionalThing.of(locale));
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("#mail ...Prewarming mail templates: postcards={}, cached={}", postcardTypeList.size(), templateCacheMap.size());
+        }
+    }
+
+    /**
+     * Prewarm templates of the postcards provided by {@link #providePrewarmedPostcardList()}, called by Postbox at boot.
+     * @return The count of cached templates after prewarming.
+     */
+    public int prewarmAtBoot() {
+        final List<Class<? extends LaTypicalPostcard>> postcardTypeList = providePrewarmedPostcardList();
+        if (!postcardTypeList.isEmpty()) {
+            prewarm(postcardTypeList, providePrewarmedLocaleList(), providePrewarmedFilesystem());
+        }
+        return templateCacheMap.size();
+    }
+
+    protected List<Class<? extends LaTypicalPostcard>> providePrewarmedPostcardList() { // you can override
+        return Collections.emptyList(); // no prewarm as default
+    }
+
+    protected List<Locale> providePrewarmedLocaleList() { // you can override
+        return Collections.emptyList(); // no-locale only as default
+    }
+
+    protected boolean providePrewarmedFilesystem() { // you can override
+        return false; // classpath as default, same as the default of postal personnel
+    }
+
+    // ===================================================================================
+    //                                                                          Hot Deploy
+    //                                                                          ==========
+    protected void prepareHotDeploy() { // only unused if cool
+        DisposableUtil.add(() -> requestHotDeploy());
+        hotDeployRequested = false;
+    }
+
+    protected void requestHotDeploy() { // called when request ending if HotDeploy
+        // no sync to avoid disposable thread locking this (or deadlock) and so no clearing here
+        hotDeployRequested = true;
+    }
+
+    protected void reloadIfNeeds() {
+        if (hotDeployRequested) {
+            synchronized (this) {
+                if (hotDeployRequested) {
+                    // INFO to find mistake that it uses HotDeploy in production
+                    logger.info("...Clearing process-cached mail templates by HotDeploy request");
+                    templateCacheMap.clear();
+                    prepareHotDeploy(); // for next HotDeploy
+                }
+            }
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return DfTypeUtil.toClassTitle(this) + ":{cached=" + templateCacheMap.size() + "}";
+    }
+
+    // ===================================================================================
+    //                                                                        Small Helper
+    //                                                                        ============
+    protected void assertArgumentNotNull(String variableName, Object value) {
+        if (variableName == null) {
+            throw new IllegalArgumentException("The variableName should not be null.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("The argument '" + variableName + "' should not be null.");
+        }
+    }
+}
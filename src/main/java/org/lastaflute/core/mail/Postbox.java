@@ -49,6 +49,9 @@ public class Postbox {
     /** Everybody knows, it's post office. (NullAllowed: null means no mail) */
     protected PostOffice postOffice;
 
+    /** The process-cached text assist of mail. (NullAllowed: null means no prewarm) */
+    protected LaProcessCachedDynamicTextAssist mailTextCache;
+
     /** Is hot deploy requested? (true only when local development) */
     protected boolean hotDeployRequested;
 
@@ -64,6 +67,10 @@ public class Postbox {
         final FwCoreDirection direction = assistCoreDirection();
         final SMailDeliveryDepartment deliveryDepartment = direction.assistMailDeliveryDepartment();
         postOffice = deliveryDepartment != null ? newPostOffice(deliveryDepartment) : null;
+        mailTextCache = postOffice != null ? direction.assistMailTextCache() : null;
+        if (mailTextCache != null) {
+            mailTextCache.prewarmAtBoot();
+        }
         prepareHotDeploy();
         showBootLogging();
     }
@@ -84,6 +91,9 @@ public class Postbox {
                 logger.info(" postOffice: " + buildPostOfficeExp());
                 logger.info(" postalParkingLot: " + department.getParkingLot());
                 logger.info(" postalPersonnel: " + department.getPersonnel());
+                if (mailTextCache != null) {
+                    logger.info(" mailTextCache: " + mailTextCache);
+                }
             } else {
                 logger.info(" postOffice: *no used");
             }
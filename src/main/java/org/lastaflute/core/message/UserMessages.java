@@ -17,15 +17,19 @@ package org.lastaflute.core.message;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
+ * The messages for user, e.g. validation errors. <br>
+ * Zero or one message (most requests) is held without map and list, and the map is prepared from the second message.
  * @author jflute
  */
 public class UserMessages implements Serializable {
@@ -40,6 +44,9 @@ public class UserMessages implements Serializable {
 
     protected static final UserMessages EMPTY_MESSAGES = new UserMessages().lock();
 
+    /** The shared read-only empty map for zero or one (inline) message, replaced by {@link #prepareMessageMap()}. */
+    protected static final Map<String, UserMessageItem> INLINE_MESSAGE_MAP = Collections.emptyMap();
+
     protected static final Comparator<UserMessageItem> actionItemComparator = (item1, item2) -> {
         return item1.getItemOrder() - item2.getItemOrder();
     };
@@ -47,7 +54,19 @@ public class UserMessages implements Serializable {
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
-    protected final Map<String, UserMessageItem> messageMap = new LinkedHashMap<String, UserMessageItem>();
+    /**
+     * The map of message item, key is property. <br>
+     * (NotNull: read-only empty map while zero or one message, the one message is held inline) <br>
+     * Sub-class should read it as it is but get it by {@link #prepareMessageMap()} to write.
+     */
+    protected Map<String, UserMessageItem> messageMap = INLINE_MESSAGE_MAP;
+
+    /** The property of the only one message. (NullAllowed: null while zero message or the map is used) */
+    protected String singleProperty;
+
+    /** The only one message held inline. (NullAllowed: null while zero message or the map is used) */
+    protected UserMessage singleMessage;
+
     protected boolean accessed;
     protected int itemCount;
     protected Map<String, Object> successAttributeMap; // lazy loaded
@@ -76,18 +95,47 @@ public class UserMessages implements Serializable {
         assertArgumentNotNull("property", property);
         assertArgumentNotNull("message", message);
         assertLocked();
-        final UserMessageItem item = messageMap.get(property);
+        if (singleMessage == null && messageMap.isEmpty()) { // first message, mainly here
+            ++itemCount;
+            singleProperty = property;
+            singleMessage = message;
+            return;
+        }
+        final Map<String, UserMessageItem> map = prepareMessageMap(); // promoted at second message
+        final UserMessageItem item = map.get(property);
         final List<UserMessage> messageList;
         if (item == null) {
             ++itemCount;
-            messageList = new ArrayList<UserMessage>();
-            messageMap.put(property, newUserMessageItem(messageList, itemCount, property));
+            messageList = new ArrayList<UserMessage>(2);
+            map.put(property, newUserMessageItem(messageList, itemCount, property));
         } else {
             messageList = item.getMessageList();
         }
         messageList.add(message);
     }
 
+    /**
+     * Prepare the writable message map, promoting the inline message into it if exists.
+     * @return The writable map of message item. (NotNull)
+     */
+    protected Map<String, UserMessageItem> prepareMessageMap() {
+        if (messageMap == INLINE_MESSAGE_MAP) {
+            messageMap = new LinkedHashMap<String, UserMessageItem>(4);
+        }
+        if (singleMessage != null) {
+            promoteSingleMessage();
+        }
+        return messageMap;
+    }
+
+    protected void promoteSingleMessage() {
+        final List<UserMessage> messageList = new ArrayList<UserMessage>(2);
+        messageList.add(singleMessage);
+        messageMap.put(singleProperty, newUserMessageItem(messageList, itemCount, singleProperty));
+        singleProperty = null;
+        singleMessage = null;
+    }
+
     protected UserMessageItem newUserMessageItem(List<UserMessage> messageList, int itemCount, String property) {
         return new UserMessageItem(messageList, itemCount, property);
     }
@@ -128,24 +176,31 @@ public class UserMessages implements Serializable {
     }
 
     protected Iterator<UserMessage> doAccessByFlatIterator() {
+        if (singleMessage != null) {
+            return new InlineMessageIterator();
+        }
         if (messageMap.isEmpty()) {
             return Collections.emptyIterator();
         }
-        final List<UserMessage> msgList = new ArrayList<UserMessage>();
-        final List<UserMessageItem> itemList = new ArrayList<UserMessageItem>(messageMap.size());
-        for (Iterator<UserMessageItem> ite = messageMap.values().iterator(); ite.hasNext();) {
-            itemList.add(ite.next());
+        final UserMessageItem[] items = messageMap.values().toArray(new UserMessageItem[messageMap.size()]);
+        if (items.length > 1) {
+            Arrays.sort(items, actionItemComparator); // basically already ordered by insertion
         }
-        Collections.sort(itemList, actionItemComparator);
-        for (Iterator<UserMessageItem> ite = itemList.iterator(); ite.hasNext();) {
-            for (Iterator<UserMessage> messages = ite.next().getMessageList().iterator(); messages.hasNext();) {
-                msgList.add(messages.next());
-            }
+        int total = 0;
+        for (UserMessageItem item : items) {
+            total += item.getMessageList().size();
+        }
+        final List<UserMessage> messageList = new ArrayList<UserMessage>(total);
+        for (UserMessageItem item : items) {
+            messageList.addAll(item.getMessageList());
         }
-        return msgList.iterator();
+        return messageList.iterator(); // copied list so remove() is allowed (but not reflected)
     }
 
     protected Iterator<UserMessage> doAccessByIteratorOf(String property) {
+        if (singleMessage != null) {
+            return singleProperty.equals(property) ? new InlineMessageIterator() : Collections.emptyIterator();
+        }
         if (messageMap.isEmpty()) {
             return Collections.emptyIterator();
         }
@@ -157,16 +212,25 @@ public class UserMessages implements Serializable {
     //                                                                   Property Handling
     //                                                                   =================
     public boolean hasMessageOf(String property) {
+        if (singleMessage != null) {
+            return singleProperty.equals(property);
+        }
         final UserMessageItem item = messageMap.get(property);
         return item != null && !item.getMessageList().isEmpty();
     }
 
     public boolean hasMessageOf(String property, String key) {
+        if (singleMessage != null) {
+            return singleProperty.equals(property) && singleMessage.getMessageKey().equals(key);
+        }
         final UserMessageItem item = messageMap.get(property);
         return item != null && item.getMessageList().stream().anyMatch(message -> message.getMessageKey().equals(key));
     }
 
     public Set<String> toPropertySet() {
+        if (singleMessage != null) {
+            return Collections.singleton(singleProperty);
+        }
         return !messageMap.isEmpty() ? Collections.unmodifiableSet(messageMap.keySet()) : Collections.emptySet();
     }
 
@@ -175,11 +239,15 @@ public class UserMessages implements Serializable {
     //                                                                   =================
     public void clear() {
         assertLocked();
-        messageMap.clear();
+        singleProperty = null;
+        singleMessage = null;
+        if (messageMap != INLINE_MESSAGE_MAP) {
+            messageMap.clear();
+        }
     }
 
     public boolean isEmpty() {
-        return messageMap.isEmpty();
+        return singleMessage == null && messageMap.isEmpty();
     }
 
     public boolean isAccessed() {
@@ -187,6 +255,9 @@ public class UserMessages implements Serializable {
     }
 
     public int size() {
+        if (singleMessage != null) {
+            return 1;
+        }
         int total = 0;
         for (Iterator<UserMessageItem> ite = messageMap.values().iterator(); ite.hasNext();) {
             total += ite.next().getMessageList().size();
@@ -196,6 +267,9 @@ public class UserMessages implements Serializable {
 
     public int size(String property) {
         assertArgumentNotNull("property", property);
+        if (singleMessage != null) {
+            return singleProperty.equals(property) ? 1 : 0;
+        }
         final UserMessageItem item = messageMap.get(property);
         return item != null ? item.getMessageList().size() : 0;
     }
@@ -235,6 +309,13 @@ public class UserMessages implements Serializable {
         successAttributeMap.put(key, value);
     }
 
+    /**
+     * @return Does it have at least one success attribute?
+     */
+    public boolean hasSuccessAttribute() {
+        return successAttributeMap != null && !successAttributeMap.isEmpty();
+    }
+
     /**
      * @return The read-only map of success attribute. (NotNull)
      */
@@ -273,9 +354,49 @@ public class UserMessages implements Serializable {
     //                                                                      ==============
     @Override
     public String toString() {
+        if (singleMessage != null) { // same format as map
+            return "{" + singleProperty + "=[" + singleMessage + "]}";
+        }
         return messageMap.toString();
     }
 
+    // ===================================================================================
+    //                                                                     Inline Iterator
+    //                                                                     ===============
+    /**
+     * The iterator of the inline message, which supports remove() as list iterator.
+     */
+    protected class InlineMessageIterator implements Iterator<UserMessage> {
+
+        protected boolean nextDone;
+        protected boolean removed;
+
+        @Override
+        public boolean hasNext() {
+            return !nextDone;
+        }
+
+        @Override
+        public UserMessage next() {
+            if (nextDone) {
+                throw new NoSuchElementException("No more inline message: " + UserMessages.this);
+            }
+            nextDone = true;
+            return singleMessage;
+        }
+
+        @Override
+        public void remove() {
+            if (!nextDone || removed) {
+                throw new IllegalStateException("Cannot remove the inline message before next() or twice: " + UserMessages.this);
+            }
+            assertLocked();
+            removed = true;
+            singleProperty = null;
+            singleMessage = null;
+        }
+    }
+
     // ===================================================================================
     //                                                                        Message Item
     //                                                                        ============
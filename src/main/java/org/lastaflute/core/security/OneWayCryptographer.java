@@ -16,8 +16,10 @@
 package org.lastaflute.core.security;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 
 import org.lastaflute.core.security.exception.CipherFailureException;
 
@@ -32,6 +34,7 @@ public class OneWayCryptographer {
     public static final String ALGORITHM_SHA256 = "SHA-256";
     public static final String ALGORITHM_SHA512 = "SHA-512";
     public static final String ENCODING_UTF8 = "UTF-8";
+    protected static final char[] HEX_CHARS = "0123456789abcdef".toCharArray();
 
     // ===================================================================================
     //                                                                           Attribute
@@ -39,6 +42,9 @@ public class OneWayCryptographer {
     protected final String algorithm;
     protected final String encoding;
 
+    /** The digest cached per thread because getInstance() is heavy and digest is not thread-safe. (NotNull) */
+    protected final ThreadLocal<MessageDigest> digestLocal = new ThreadLocal<MessageDigest>();
+
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
@@ -70,16 +76,55 @@ public class OneWayCryptographer {
         return doOneWay(plainText);
     }
 
+    /**
+     * Encrypt the bytes as one-way code, e.g. for cache key or ETag.
+     * @param plainBytes The plain bytes to be encrypted. (NotNull)
+     * @return The encrypted text as one-way code (hex). (NotNull)
+     * @throws CipherFailureException When the cipher fails.
+     */
+    public String oneway(byte[] plainBytes) {
+        assertArgumentNotNull("plainBytes", plainBytes);
+        return convertToCryptoString(digestBytes(plainBytes));
+    }
+
+    /**
+     * Encrypt the remaining bytes of the buffer as one-way code. <br>
+     * The position of the buffer is moved to its limit.
+     * @param plainBuffer The buffer of plain bytes to be encrypted. (NotNull)
+     * @return The encrypted text as one-way code (hex). (NotNull)
+     * @throws CipherFailureException When the cipher fails.
+     */
+    public String oneway(ByteBuffer plainBuffer) {
+        assertArgumentNotNull("plainBuffer", plainBuffer);
+        final MessageDigest digest = prepareDigest();
+        digest.update(plainBuffer);
+        return convertToCryptoString(digest.digest()); // also reset
+    }
+
+    /**
+     * Encrypt the text as one-way code expressed by URL-safe Base64, shorter than hex. <br>
+     * It is different code from oneway() so don't mix them for same purpose.
+     * @param plainText The plain text to be encrypted. (NotNull)
+     * @return The encrypted text as one-way code (URL-safe Base64 without padding). (NotNull)
+     * @throws CipherFailureException When the cipher fails.
+     */
+    public String onewayAsBase64(String plainText) {
+        assertArgumentNotNull("plainText", plainText);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digestBytes(encodePlainText(plainText)));
+    }
+
     protected String doOneWay(String plainText) {
+        return convertToCryptoString(digestBytes(encodePlainText(plainText)));
+    }
+
+    protected byte[] encodePlainText(String plainText) {
         final String encoding = getEncoding();
-        final MessageDigest digest = createDigest();
         try {
-            digest.update(toDigestBytes(plainText, encoding));
+            return toDigestBytes(plainText, encoding);
         } catch (UnsupportedEncodingException e) {
             String msg = "Unknown encoding: " + encoding;
             throw new CipherFailureException(msg);
         }
-        return convertToCryptoString(digest.digest());
     }
 
     protected byte[] toDigestBytes(String plainText, String encoding) throws UnsupportedEncodingException {
@@ -90,6 +135,21 @@ public class OneWayCryptographer {
         return encoding;
     }
 
+    protected byte[] digestBytes(byte[] plainBytes) {
+        return prepareDigest().digest(plainBytes); // also reset
+    }
+
+    protected MessageDigest prepareDigest() {
+        MessageDigest digest = digestLocal.get();
+        if (digest == null) {
+            digest = createDigest();
+            digestLocal.set(digest);
+        } else {
+            digest.reset(); // just in case, e.g. previous failure
+        }
+        return digest;
+    }
+
     protected MessageDigest createDigest() {
         final String algorithm = getAlgorithm();
         try {
@@ -105,11 +165,13 @@ public class OneWayCryptographer {
     }
 
     protected String convertToCryptoString(byte[] bytes) {
-        final StringBuilder sb = new StringBuilder();
-        for (byte bt : bytes) {
-            sb.append(String.format("%02x", bt));
+        final char[] hexChars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            final int value = bytes[i] & 0xff;
+            hexChars[i * 2] = HEX_CHARS[value >>> 4];
+            hexChars[i * 2 + 1] = HEX_CHARS[value & 0x0f];
         }
-        return sb.toString();
+        return new String(hexChars);
     }
 
     // ===================================================================================
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.security;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+import org.lastaflute.core.security.exception.CipherFailureException;
+
+/**
+ * The adaptive password hashing by PBKDF2 with salt and tunable iterations. <br>
+ * Hashing is intentionally heavy so concurrent hashing is limited by the gate,
+ * which keeps CPU for other requests even if many login requests come at once.
+ * <pre>
+ * PasswordHashCryptographer cryptographer = new PasswordHashCryptographer(100000, 8, 3000L);
+ * String stored = cryptographer.hash("plain"); <span style="color: #3F7E5E">// e.g. pbkdf2-sha256$100000$(salt)$(hash)</span>
+ * boolean matched = cryptographer.verify("plain", stored);
+ * </pre>
+ * @author jflute
+ * @since 0.8.5 (2016/09/19 Monday)
+ */
+public class PasswordHashCryptographer {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    public static final String ALGORITHM_PBKDF2_SHA256 = "PBKDF2WithHmacSHA256";
+    protected static final String HASH_PREFIX = "pbkdf2-sha256";
+    protected static final String DELIMITER = "$";
+    protected static final int SALT_LENGTH = 16; // bytes
+    protected static final int KEY_LENGTH = 256; // bits
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final int iterations; // for new hash, stored hash keeps its own iterations
+    protected final Semaphore hashingGate; // limits concurrent hashing
+    protected final long gateTimeoutMillis; // waiting time for the gate
+    protected final SecureRandom secureRandom = new SecureRandom(); // thread-safe
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param iterations The count of iterations for new hash, larger is safer and heavier. (NotMinus, NotZero)
+     * @param maxConcurrentHashing The max count of hashing at the same time, e.g. half of processors. (NotMinus, NotZero)
+     * @param gateTimeoutMillis The milliseconds to wait for the gate, failure if timeout. (NotMinus)
+     */
+    public PasswordHashCryptographer(int iterations, int maxConcurrentHashing, long gateTimeoutMillis) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("The argument 'iterations' should be positive: " + iterations);
+        }
+        if (maxConcurrentHashing <= 0) {
+            throw new IllegalArgumentException("The argument 'maxConcurrentHashing' should be positive: " + maxConcurrentHashing);
+        }
+        this.iterations = iterations;
+        this.hashingGate = new Semaphore(maxConcurrentHashing, true); // fair for login requests
+        this.gateTimeoutMillis = gateTimeoutMillis;
+    }
+
+    // ===================================================================================
+    //                                                                                Hash
+    //                                                                                ====
+    /**
+     * Hash the password with new random salt.
+     * @param plainPassword The plain password to be hashed. (NotNull)
+     * @return The expression of hash with algorithm, iterations and salt, for stored value. (NotNull)
+     * @throws CipherFailureException When the hashing fails or the gate is busy until timeout.
+     */
+    public String hash(String plainPassword) {
+        assertArgumentNotNull("plainPassword", plainPassword);
+        final byte[] salt = new byte[SALT_LENGTH];
+        secureRandom.nextBytes(salt);
+        final byte[] hashed = gatedHash(plainPassword, salt, iterations);
+        final Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return HASH_PREFIX + DELIMITER + iterations + DELIMITER + encoder.encodeToString(salt) + DELIMITER + encoder.encodeToString(hashed);
+    }
+
+    /**
+     * Verify the password by the stored hash, comparing in constant time.
+     * @param plainPassword The plain password to be verified. (NotNull)
+     * @param storedHash The stored expression of hash made by {@link #hash(String)}. (NotNull)
+     * @return true if the password matches the hash. (false if the hash is not our expression)
+     * @throws CipherFailureException When the hashing fails or the gate is busy until timeout.
+     */
+    public boolean verify(String plainPassword, String storedHash) {
+        assertArgumentNotNull("plainPassword", plainPassword);
+        assertArgumentNotNull("storedHash", storedHash);
+        final String[] parts = storedHash.split("\\$");
+        if (parts.length != 4 || !HASH_PREFIX.equals(parts[0])) {
+            return false;
+        }
+        final int storedIterations;
+        final byte[] salt;
+        final byte[] expected;
+        try {
+            storedIterations = Integer.parseInt(parts[1]);
+            final Base64.Decoder decoder = Base64.getDecoder();
+            salt = decoder.decode(parts[2]);
+            expected = decoder.decode(parts[3]);
+        } catch (IllegalArgumentException ignored) { // contains NumberFormatException
+            return false;
+        }
+        if (storedIterations <= 0) {
+            return false;
+        }
+        final byte[] actual = gatedHash(plainPassword, salt, storedIterations);
+        return MessageDigest.isEqual(expected, actual); // constant time
+    }
+
+    /**
+     * @param storedHash The stored expression of hash. (NotNull)
+     * @return true if the hash is made by fewer iterations than current setting, so you can re-hash it at login.
+     */
+    public boolean needsRehash(String storedHash) {
+        assertArgumentNotNull("storedHash", storedHash);
+        final String[] parts = storedHash.split("\\$");
+        if (parts.length != 4 || !HASH_PREFIX.equals(parts[0])) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException ignored) {
+            return true;
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                         Gated Hashing
+    //                                         -------------
+    protected byte[] gatedHash(String plainPassword, byte[] salt, int iterations) {
+        enterGate();
+        try {
+            return doHash(plainPassword, salt, iterations);
+        } finally {
+            hashingGate.release();
+        }
+    }
+
+    protected void enterGate() {
+        final boolean entered;
+        try {
+            entered = hashingGate.tryAcquire(gateTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CipherFailureException("Interrupted while waiting for the password hashing gate: " + this, e);
+        }
+        if (!entered) {
+            throw new CipherFailureException("The password hashing is too busy to enter the gate: " + this);
+        }
+    }
+
+    protected byte[] doHash(String plainPassword, byte[] salt, int iterations) {
+        final PBEKeySpec keySpec = new PBEKeySpec(plainPassword.toCharArray(), salt, iterations, KEY_LENGTH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM_PBKDF2_SHA256).generateSecret(keySpec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new CipherFailureException("Failed to hash the password by " + ALGORITHM_PBKDF2_SHA256, e);
+        } finally {
+            keySpec.clearPassword();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                        Small Helper
+    //                                                                        ============
+    protected void assertArgumentNotNull(String variableName, Object value) {
+        if (variableName == null) {
+            throw new IllegalArgumentException("The variableName should not be null.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("The argument '" + variableName + "' should not be null.");
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "{" + ALGORITHM_PBKDF2_SHA256 + ", iterations=" + iterations + ", available=" + hashingGate.availablePermits() + "}";
+    }
+}
@@ -19,6 +19,7 @@ import java.lang.reflect.Field;
 
 import javax.annotation.Resource;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.dbflute.util.DfReflectionUtil;
 import org.lastaflute.di.core.ExternalContext;
@@ -130,6 +131,21 @@ public abstract class ContainerUtil {
         context.setRequest(request);
     }
 
+    /**
+     * @param response The response for external context of Lasta Di. (NotNull)
+     */
+    public static void overrideExternalResponse(HttpServletResponse response) {
+        if (response == null) {
+            throw new IllegalArgumentException("The argument 'response' should not be null.");
+        }
+        final ExternalContext context = retrieveExternalContext();
+        final Object existing = context.getResponse();
+        if (existing == null) {
+            throw new IllegalStateException("Not found external response in Lasta Di container for your overriding by: " + response);
+        }
+        context.setResponse(response);
+    }
+
     // ===================================================================================
     //                                                                            Injector
     //                                                                            ========
@@ -0,0 +1,715 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.DecimalFormatSymbols;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import org.dbflute.jdbc.Classification;
+import org.dbflute.optional.OptionalThing;
+import org.dbflute.util.DfTypeUtil;
+import org.dbflute.util.DfTypeUtil.ParseBooleanException;
+import org.dbflute.util.DfTypeUtil.ParseDateException;
+
+/**
+ * The type conversion engine without exception for definitely-invalid values. <br>
+ * Parse methods return the result having the converted value or the failure,
+ * and the failure's exception (same type as DfTypeUtil's one) is created lazily only when requested. <br>
+ * So fuzzed or malicious parameters cost no stack trace in form mapping and type validation.
+ * <pre>
+ * ConversionResult&lt;Integer&gt; result = LaTypeConversionUtil.tryInteger("123");
+ * if (result.isSuccess()) {
+ *     Integer value = result.getValue();
+ * }
+ * </pre>
+ * Integral numbers are parsed here by the same rule as DfTypeUtil (grouping separator of default locale is ignored),
+ * and the other types are checked cheaply (shape of text) and then converted by DfTypeUtil only once. <br>
+ * So invalid values of plausible shape (e.g. 2016/13/45 as date, "rue" as boolean) still create the exception in DfTypeUtil.
+ * @author jflute
+ * @since 0.8.5 (2016/09/26 Monday)
+ */
+public class LaTypeConversionUtil {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final ConversionResult<Object> NULL_SUCCESS = new ConversionResult<Object>(null, null, null);
+    protected static final int BOOLEAN_MAX_LENGTH = 5; // "false"
+    protected static final String BOOLEAN_CHARS = "truefalsyno01 "; // true, false, t, f, 1, 0 (and yes, no, on, off just in case)
+    protected static final int DATE_MAX_LENGTH = 64; // enough for e.g. "BC2016/10/19 12:34:56.789"
+
+    /** The cached separators of default locale, to avoid creating symbols per parsing. (NullAllowed: before first parsing) */
+    protected static volatile NumberSeparators cachedSeparators;
+
+    // ===================================================================================
+    //                                                                              Native
+    //                                                                              ======
+    /**
+     * Convert the value to the native type if the type is supported by this engine.
+     * @param exp The expression of value, basically string. (NullAllowed: then null success, or default value if primitive)
+     * @param nativeType The type of native value e.g. Integer, LocalDate, CDef. (NotNull)
+     * @return The result of conversion, unsupported type returns the plain value as success. (NotNull)
+     */
+    public static ConversionResult<Object> tryNative(Object exp, Class<?> nativeType) {
+        assertArgumentNotNull("nativeType", nativeType);
+        final Class<?> wrapperType = nativeType.isPrimitive() ? toWrapperType(nativeType) : nativeType;
+        final ConversionResult<?> result;
+        if (Number.class.isAssignableFrom(wrapperType)) {
+            result = tryNumber(exp, wrapperType);
+        } else if (LocalDate.class.isAssignableFrom(wrapperType)) {
+            result = tryLocalDate(exp);
+        } else if (LocalDateTime.class.isAssignableFrom(wrapperType)) {
+            result = tryLocalDateTime(exp);
+        } else if (LocalTime.class.isAssignableFrom(wrapperType)) {
+            result = tryLocalTime(exp);
+        } else if (Boolean.class.isAssignableFrom(wrapperType)) {
+            result = tryBoolean(exp);
+        } else if (LaClassificationUtil.isCls(wrapperType)) {
+            result = tryClassification(wrapperType, exp);
+        } else if (nativeType.isPrimitive()) { // e.g. char
+            result = tryGuarded(() -> DfTypeUtil.toWrapper(exp, nativeType));
+        } else {
+            result = ConversionResult.success(exp);
+        }
+        if (nativeType.isPrimitive() && result.isSuccess() && result.getValue() == null) { // e.g. empty string for int
+            return ConversionResult.success(DfTypeUtil.toWrapper(null, nativeType)); // default value e.g. 0, false
+        }
+        @SuppressWarnings("unchecked")
+        final ConversionResult<Object> cast = (ConversionResult<Object>) result;
+        return cast;
+    }
+
+    protected static Class<?> toWrapperType(Class<?> primitiveType) {
+        if (int.class.equals(primitiveType)) {
+            return Integer.class;
+        } else if (long.class.equals(primitiveType)) {
+            return Long.class;
+        } else if (boolean.class.equals(primitiveType)) {
+            return Boolean.class;
+        } else if (short.class.equals(primitiveType)) {
+            return Short.class;
+        } else if (byte.class.equals(primitiveType)) {
+            return Byte.class;
+        } else if (double.class.equals(primitiveType)) {
+            return Double.class;
+        } else if (float.class.equals(primitiveType)) {
+            return Float.class;
+        }
+        return primitiveType; // e.g. char
+    }
+
+    // ===================================================================================
+    //                                                                              Number
+    //                                                                              ======
+    /**
+     * @param exp The expression of number, basically string. (NullAllowed: then null success)
+     * @param numberType The type of number e.g. Integer, Long, BigDecimal. (NotNull)
+     * @return The result of conversion. (NotNull)
+     */
+    public static ConversionResult<Number> tryNumber(Object exp, Class<?> numberType) {
+        assertArgumentNotNull("numberType", numberType);
+        final ConversionResult<?> result;
+        if (exp instanceof String) {
+            final String str = (String) exp;
+            if (Integer.class.equals(numberType)) {
+                result = tryInteger(str);
+            } else if (Long.class.equals(numberType)) {
+                result = tryLong(str);
+            } else if (BigDecimal.class.equals(numberType)) {
+                result = tryBigDecimal(str);
+            } else if (Short.class.equals(numberType)) {
+                result = tryShort(str);
+            } else if (Byte.class.equals(numberType)) {
+                result = tryByte(str);
+            } else if (BigInteger.class.equals(numberType)) {
+                result = tryBigInteger(str);
+            } else if (Double.class.equals(numberType)) {
+                result = tryDouble(str);
+            } else if (Float.class.equals(numberType)) {
+                result = tryFloat(str);
+            } else { // e.g. AtomicInteger
+                result = tryGuarded(() -> DfTypeUtil.toNumber(exp, numberType));
+            }
+        } else { // e.g. null, already number
+            result = tryGuarded(() -> DfTypeUtil.toNumber(exp, numberType));
+        }
+        @SuppressWarnings("unchecked")
+        final ConversionResult<Number> cast = (ConversionResult<Number>) result;
+        return cast;
+    }
+
+    // -----------------------------------------------------
+    //                                              Integral
+    //                                              --------
+    public static ConversionResult<Integer> tryInteger(String str) {
+        if (isBlank(str)) {
+            return nullSuccess();
+        }
+        final ConversionResult<Long> parsed = parseIntegral(str, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        return parsed.isSuccess() ? ConversionResult.success(parsed.getValue().intValue()) : parsed.castFailure();
+    }
+
+    public static ConversionResult<Long> tryLong(String str) {
+        if (isBlank(str)) {
+            return nullSuccess();
+        }
+        return parseIntegral(str, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    public static ConversionResult<Short> tryShort(String str) {
+        if (isBlank(str)) {
+            return nullSuccess();
+        }
+        final ConversionResult<Long> parsed = parseIntegral(str, Short.MIN_VALUE, Short.MAX_VALUE);
+        return parsed.isSuccess() ? ConversionResult.success(parsed.getValue().shortValue()) : parsed.castFailure();
+    }
+
+    public static ConversionResult<Byte> tryByte(String str) {
+        if (isBlank(str)) {
+            return nullSuccess();
+        }
+        final ConversionResult<Long> parsed = parseIntegral(str, Byte.MIN_VALUE, Byte.MAX_VALUE);
+        return parsed.isSuccess() ? ConversionResult.success(parsed.getValue().byteValue()) : parsed.castFailure();
+    }
+
+    /**
+     * Parse the integral number by the same rule as Long.parseLong() after DfTypeUtil's normalization,
+     * without creating any exception for invalid text.
+     * @param str The string expression of number. (NotNull, NotEmpty)
+     * @param min The minimum value of the type.
+     * @param max The maximum value of the type.
+     * @return The result of long value. (NotNull)
+     */
+    protected static ConversionResult<Long> parseIntegral(String str, long min, long max) {
+        final NumberSeparators separators = prepareSeparators();
+        final int length = str.length();
+        boolean negative = false;
+        int digitCount = 0;
+        int normalizedIndex = 0; // index in normalized string (without grouping separator)
+        long limit = -Long.MAX_VALUE; // accumulate negatively like Long.parseLong()
+        long result = 0;
+        for (int i = 0; i < length; i++) {
+            final char ch = str.charAt(i);
+            if (ch == separators.grouping) { // removed by normalization
+                continue;
+            }
+            if (normalizedIndex++ == 0 && (ch == '-' || ch == '+')) { // sign only at first
+                if (ch == '-') {
+                    negative = true;
+                    limit = Long.MIN_VALUE;
+                }
+                continue;
+            }
+            final int digit = Character.digit(ch, 10); // also full-width digit like Long.parseLong()
+            if (digit < 0) { // also decimal separator
+                return numberFailure(str);
+            }
+            ++digitCount;
+            if (result < limit / 10) { // overflow
+                return numberFailure(str);
+            }
+            result *= 10;
+            if (result < limit + digit) { // overflow
+                return numberFailure(str);
+            }
+            result -= digit;
+        }
+        if (digitCount == 0) { // e.g. sign only
+            return numberFailure(str);
+        }
+        final long value = negative ? result : -result;
+        if (value < min || value > max) {
+            return numberFailure(str);
+        }
+        return ConversionResult.success(value);
+    }
+
+    // -----------------------------------------------------
+    //                                               Decimal
+    //                                               -------
+    public static ConversionResult<BigDecimal> tryBigDecimal(String str) {
+        if (isBlank(str)) {
+            return nullSuccess();
+        }
+        if (!isDecimalShape(str, /*asciiOnly*/false)) {
+            return numberFailure(str);
+        }
+        return tryGuarded(() -> DfTypeUtil.toBigDecimal(str));
+    }
+
+    public static ConversionResult<BigInteger> tryBigInteger(String str) {
+        if (isBlank(str)) {
+            return nullSuccess();
+        }
+        if (!isDecimalShape(str, /*asciiOnly*/false)) { // decimal shape may be allowed by DfTypeUtil
+            return numberFailure(str);
+        }
+        return tryGuarded(() -> DfTypeUtil.toBigInteger(str));
+    }
+
+    public static ConversionResult<Double> tryDouble(String str) {
+        if (isBlank(str)) {
+            return nullSuccess();
+        }
+        if (!isFloatingMaybe(str)) {
+            return numberFailure(str);
+        }
+        return tryGuarded(() -> DfTypeUtil.toDouble(str));
+    }
+
+    public static ConversionResult<Float> tryFloat(String str) {
+        if (isBlank(str)) {
+            return nullSuccess();
+        }
+        if (!isFloatingMaybe(str)) {
+            return numberFailure(str);
+        }
+        return tryGuarded(() -> DfTypeUtil.toFloat(str));
+    }
+
+    protected static boolean isFloatingMaybe(String str) {
+        // Double.valueOf() also accepts e.g. NaN, Infinity, hex, suffix (1.0d) and surrounding spaces
+        // so only plain decimal shape is determined here, and the others are delegated to DfTypeUtil
+        return isDecimalShape(str.trim(), /*asciiOnly*/true) || containsFloatingKeyword(str);
+    }
+
+    protected static boolean containsFloatingKeyword(String str) {
+        final int length = str.length();
+        for (int i = 0; i < length; i++) {
+            switch (str.charAt(i)) {
+            case 'N': // NaN
+            case 'I': // Infinity
+            case 'x': // hex
+            case 'X':
+            case 'd': // suffix
+            case 'D':
+            case 'f':
+            case 'F':
+                return true;
+            default:
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Is the string decimal shape after DfTypeUtil's normalization? <br>
+     * e.g. 123, -1,234.5, .5, 5., 1.2E+3
+     * @param str The string expression of number. (NotNull)
+     * @param asciiOnly Does it allow only ASCII digits? (false: also e.g. full-width digits like BigDecimal)
+     * @return The determination, true or false.
+     */
+    protected static boolean isDecimalShape(String str, boolean asciiOnly) {
+        final NumberSeparators separators = prepareSeparators();
+        final int length = str.length();
+        int index = skipGrouping(str, 0, separators);
+        if (index < length && (str.charAt(index) == '-' || str.charAt(index) == '+')) {
+            ++index;
+        }
+        int mantissaDigits = 0;
+        boolean pointFound = false;
+        for (; index < length; index++) {
+            final char ch = str.charAt(index);
+            if (ch == separators.grouping) {
+                continue;
+            }
+            if (ch == separators.decimal || ch == '.') { // decimal separator is converted to '.'
+                if (pointFound) {
+                    return false;
+                }
+                pointFound = true;
+            } else if (isDecimalDigit(ch, asciiOnly)) {
+                ++mantissaDigits;
+            } else {
+                break; // may be exponent
+            }
+        }
+        if (mantissaDigits == 0) {
+            return false;
+        }
+        if (index == length) {
+            return true;
+        }
+        final char exponentMark = str.charAt(index);
+        if (exponentMark != 'e' && exponentMark != 'E') {
+            return false;
+        }
+        index = skipGrouping(str, index + 1, separators);
+        if (index < length && (str.charAt(index) == '-' || str.charAt(index) == '+')) {
+            ++index;
+        }
+        int exponentDigits = 0;
+        for (; index < length; index++) {
+            final char ch = str.charAt(index);
+            if (ch == separators.grouping) {
+                continue;
+            }
+            if (!isDecimalDigit(ch, asciiOnly)) {
+                return false;
+            }
+            ++exponentDigits;
+        }
+        return exponentDigits > 0;
+    }
+
+    protected static int skipGrouping(String str, int index, NumberSeparators separators) {
+        while (index < str.length() && str.charAt(index) == separators.grouping) {
+            ++index;
+        }
+        return index;
+    }
+
+    protected static boolean isDecimalDigit(char ch, boolean asciiOnly) {
+        return asciiOnly ? (ch >= '0' && ch <= '9') : Character.digit(ch, 10) >= 0;
+    }
+
+    protected static <VALUE> ConversionResult<VALUE> numberFailure(String str) {
+        return ConversionResult.failure(NumberFormatException.class, () -> {
+            return new NumberFormatException("For input string: \"" + str + "\"");
+        });
+    }
+
+    // -----------------------------------------------------
+    //                                            Separators
+    //                                            ----------
+    protected static NumberSeparators prepareSeparators() { // same locale as DfTypeUtil's normalization
+        final Locale locale = Locale.getDefault();
+        final NumberSeparators cached = cachedSeparators;
+        if (cached != null && cached.locale.equals(locale)) {
+            return cached;
+        }
+        final DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        final NumberSeparators separators = new NumberSeparators(locale, symbols.getGroupingSeparator(), symbols.getDecimalSeparator());
+        cachedSeparators = separators;
+        return separators;
+    }
+
+    protected static class NumberSeparators {
+
+        protected final Locale locale;
+        protected final char grouping;
+        protected final char decimal;
+
+        public NumberSeparators(Locale locale, char grouping, char decimal) {
+            this.locale = locale;
+            this.grouping = grouping;
+            this.decimal = decimal;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                             Boolean
+    //                                                                             =======
+    /**
+     * @param exp The expression of boolean, basically string e.g. true, false. (NullAllowed: then null success)
+     * @return The result of conversion. (NotNull)
+     */
+    public static ConversionResult<Boolean> tryBoolean(Object exp) {
+        if (exp instanceof String) {
+            final String str = (String) exp;
+            if (!isBooleanShapeMaybe(str)) {
+                return ConversionResult.failure(ParseBooleanException.class, () -> {
+                    return extractRealCause(() -> DfTypeUtil.toBoolean(str), str); // same message as DfTypeUtil
+                });
+            }
+        }
+        return tryGuarded(() -> DfTypeUtil.toBoolean(exp));
+    }
+
+    /**
+     * Does the string have possibility of boolean expression? (cheap check of shape) <br>
+     * The boolean expression is short and consists of only characters of e.g. true, false, t, f, 1, 0. <br>
+     * Empty string is delegated to DfTypeUtil. (and also rare junk of the characters, e.g. "rue")
+     * @param str The string expression of boolean. (NotNull)
+     * @return The determination, true or false. (false means definitely invalid)
+     */
+    protected static boolean isBooleanShapeMaybe(String str) {
+        final int length = str.length();
+        if (length > BOOLEAN_MAX_LENGTH) { // no boolean expression is so long
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (BOOLEAN_CHARS.indexOf(Character.toLowerCase(str.charAt(i))) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ===================================================================================
+    //                                                                           Java Time
+    //                                                                           =========
+    public static ConversionResult<LocalDate> tryLocalDate(Object exp) {
+        if (exp instanceof String && !isDateShapeMaybe((String) exp)) {
+            return dateFailure((String) exp, () -> DfTypeUtil.toLocalDate(exp));
+        }
+        return tryGuarded(() -> DfTypeUtil.toLocalDate(exp));
+    }
+
+    public static ConversionResult<LocalDateTime> tryLocalDateTime(Object exp) {
+        if (exp instanceof String && !isDateShapeMaybe((String) exp)) {
+            return dateFailure((String) exp, () -> DfTypeUtil.toLocalDateTime(exp));
+        }
+        return tryGuarded(() -> DfTypeUtil.toLocalDateTime(exp));
+    }
+
+    public static ConversionResult<LocalTime> tryLocalTime(Object exp) {
+        if (exp instanceof String && !isDateShapeMaybe((String) exp)) {
+            return dateFailure((String) exp, () -> DfTypeUtil.toLocalTime(exp));
+        }
+        return tryGuarded(() -> DfTypeUtil.toLocalTime(exp));
+    }
+
+    /**
+     * Does the string have possibility of date expression? (cheap check of shape) <br>
+     * The date expression needs digits and consists of date-time symbols,
+     * and letters are allowed only as era prefix (AD, BC) and as date-time separator 'T' between digits. <br>
+     * Empty string is delegated to DfTypeUtil (treated as null), and also rare junk of the shape, e.g. 2016/13/45.
+     * @param str The string expression of date. (NotNull)
+     * @return The determination, true or false. (false means definitely invalid)
+     */
+    protected static boolean isDateShapeMaybe(String str) {
+        if (str.trim().isEmpty()) {
+            return true;
+        }
+        final int length = str.length();
+        if (length > DATE_MAX_LENGTH) {
+            return false;
+        }
+        int index = skipEraPrefix(str);
+        boolean digitFound = false;
+        for (; index < length; index++) {
+            final char ch = str.charAt(index);
+            if (Character.isDigit(ch)) {
+                digitFound = true;
+            } else if (ch == 'T') { // e.g. 2016-10-19T12:34:56
+                if (!digitFound || index + 1 >= length || !Character.isDigit(str.charAt(index + 1))) {
+                    return false;
+                }
+            } else if (!isDateSymbol(ch)) {
+                return false;
+            }
+        }
+        return digitFound;
+    }
+
+    protected static int skipEraPrefix(String str) { // e.g. BC2016/10/19
+        int index = 0;
+        while (index < str.length() && str.charAt(index) == ' ') {
+            ++index;
+        }
+        if (str.regionMatches(/*ignoreCase*/true, index, "BC", 0, 2) || str.regionMatches(/*ignoreCase*/true, index, "AD", 0, 2)) {
+            return index + 2;
+        }
+        return index;
+    }
+
+    protected static boolean isDateSymbol(char ch) {
+        switch (ch) {
+        case '-':
+        case '/':
+        case ':':
+        case '.':
+        case ' ':
+        case '+':
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    protected static <VALUE> ConversionResult<VALUE> dateFailure(String str, Supplier<? extends Object> converter) {
+        return ConversionResult.failure(ParseDateException.class, () -> {
+            return extractRealCause(converter, str); // same message as DfTypeUtil
+        });
+    }
+
+    // ===================================================================================
+    //                                                                      Classification
+    //                                                                      ==============
+    /**
+     * @param cdefType The classification type of the code. (NotNull)
+     * @param code The code to find the classification. (NullAllowed: if null or empty, null success)
+     * @return The result of conversion, failure cause is IllegalArgumentException when unknown code. (NotNull)
+     */
+    public static ConversionResult<Classification> tryClassification(Class<?> cdefType, Object code) {
+        assertArgumentNotNull("cdefType", cdefType);
+        if (code == null || (code instanceof String && ((String) code).isEmpty())) {
+            return nullSuccess();
+        }
+        final OptionalThing<Classification> found = LaClassificationUtil.findByCode(cdefType, code); // no exception
+        if (found.isPresent()) {
+            return ConversionResult.success(found.get());
+        }
+        return ConversionResult.failure(IllegalArgumentException.class, () -> {
+            return new IllegalArgumentException("Unknown the classification code for " + cdefType.getName() + ": code=" + code);
+        });
+    }
+
+    // ===================================================================================
+    //                                                                             Guarded
+    //                                                                             =======
+    /**
+     * Convert by DfTypeUtil for the value that has passed the cheap check (or not checkable). <br>
+     * The exception is rare here, e.g. 2016/13/45 as date, so it is just caught as failure.
+     * @param <VALUE> The type of converted value.
+     * @param converter The callback for conversion by DfTypeUtil. (NotNull)
+     * @return The result of conversion. (NotNull)
+     */
+    protected static <VALUE> ConversionResult<VALUE> tryGuarded(Supplier<? extends Object> converter) {
+        try {
+            @SuppressWarnings("unchecked")
+            final VALUE value = (VALUE) converter.get();
+            return ConversionResult.success(value);
+        } catch (NumberFormatException | ParseDateException | ParseBooleanException e) {
+            return ConversionResult.failure(e.getClass(), () -> e);
+        }
+    }
+
+    /**
+     * Extract the real exception of DfTypeUtil for definitely-invalid value, called only when the cause is requested.
+     * @param converter The callback for conversion by DfTypeUtil, which should throw. (NotNull)
+     * @param exp The expression of value for message. (NullAllowed)
+     * @return The thrown exception by the converter. (NotNull)
+     */
+    protected static RuntimeException extractRealCause(Supplier<? extends Object> converter, Object exp) {
+        try {
+            converter.get();
+        } catch (RuntimeException e) {
+            return e;
+        }
+        // basically no way, the cheap check rejects only definitely-invalid values
+        return new IllegalStateException("The value was determined as failure but it can be converted: " + exp);
+    }
+
+    // ===================================================================================
+    //                                                                              Result
+    //                                                                              ======
+    /**
+     * The result of type conversion, having either the converted value or the failure.
+     * @param <VALUE> The type of converted value.
+     */
+    public static class ConversionResult<VALUE> {
+
+        protected final VALUE value; // null allowed (if failure, always null)
+        protected final Class<? extends RuntimeException> causeType; // null if success
+        protected final Supplier<? extends RuntimeException> causeProvider; // null if success
+        protected RuntimeException cause; // lazy-loaded, not volatile because creating twice is no problem
+
+        protected ConversionResult(VALUE value, Class<? extends RuntimeException> causeType,
+                Supplier<? extends RuntimeException> causeProvider) {
+            this.value = value;
+            this.causeType = causeType;
+            this.causeProvider = causeProvider;
+        }
+
+        public static <VALUE> ConversionResult<VALUE> success(VALUE value) {
+            if (value == null) {
+                return nullSuccess();
+            }
+            return new ConversionResult<VALUE>(value, null, null);
+        }
+
+        public static <VALUE> ConversionResult<VALUE> failure(Class<? extends RuntimeException> causeType,
+                Supplier<? extends RuntimeException> causeProvider) {
+            assertArgumentNotNull("causeType", causeType);
+            assertArgumentNotNull("causeProvider", causeProvider);
+            return new ConversionResult<VALUE>(null, causeType, causeProvider);
+        }
+
+        @SuppressWarnings("unchecked")
+        protected <OTHER> ConversionResult<OTHER> castFailure() { // only for failure
+            return (ConversionResult<OTHER>) this;
+        }
+
+        @Override
+        public String toString() {
+            return "conversion:{" + (isSuccess() ? value : "failure=" + causeType.getSimpleName()) + "}";
+        }
+
+        /**
+         * @return The determination, true if the conversion has succeeded.
+         */
+        public boolean isSuccess() {
+            return causeType == null;
+        }
+
+        /**
+         * @return The determination, true if the conversion has failed.
+         */
+        public boolean isFailure() {
+            return causeType != null;
+        }
+
+        /**
+         * @return The converted value. (NullAllowed: when null input or failure)
+         */
+        public VALUE getValue() {
+            return value;
+        }
+
+        /**
+         * @return The type of cause exception. (NullAllowed: when success)
+         */
+        public Class<? extends RuntimeException> getCauseType() {
+            return causeType;
+        }
+
+        /**
+         * Get the cause exception of failure, created at first call (so stack trace is here).
+         * @return The exception of the failure. (NullAllowed: when success)
+         */
+        public RuntimeException getCause() {
+            if (causeProvider == null) {
+                return null;
+            }
+            if (cause == null) {
+                cause = causeProvider.get();
+            }
+            return cause;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected static <VALUE> ConversionResult<VALUE> nullSuccess() {
+        return (ConversionResult<VALUE>) NULL_SUCCESS;
+    }
+
+    // ===================================================================================
+    //                                                                        Small Helper
+    //                                                                        ============
+    protected static boolean isBlank(String str) { // same as DfTypeUtil's null determination
+        return str.trim().isEmpty();
+    }
+
+    protected static void assertArgumentNotNull(String variableName, Object value) {
+        if (variableName == null) {
+            String msg = "The value should not be null: variableName=null value=" + value;
+            throw new IllegalArgumentException(msg);
+        }
+        if (value == null) {
+            String msg = "The value should not be null: variableName=" + variableName;
+            throw new IllegalArgumentException(msg);
+        }
+    }
+}
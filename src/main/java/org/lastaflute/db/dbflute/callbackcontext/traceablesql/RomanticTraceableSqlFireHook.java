@@ -43,11 +43,12 @@ public class RomanticTraceableSqlFireHook implements SqlFireHook {
 
     protected void saveCommandToRomanticTransaction(BehaviorCommandMeta meta, SqlFireReadyInfo fireReadyInfo) {
         final RomanticTransaction tx = TransactionRomanticContext.getRomanticTransaction();
-        if (tx != null) {
+        if (tx != null) { // also for watchdog even if no recording
             final String tableName = meta.getDBMeta().getTableDispName();
             final String commandName = meta.getCommandName();
             final Long beginMillis = InternalMapContext.getSqlBeforeTimeMillis(); // cannot get from ready info...
-            final TransactionCurrentSqlBuilder currentSqlBuilder = createCurrentSqlBuilder(fireReadyInfo.getSqlLogInfo());
+            final TransactionCurrentSqlBuilder currentSqlBuilder =
+                    tx.isTableCommandRecorded() ? createCurrentSqlBuilder(fireReadyInfo.getSqlLogInfo()) : null;
             tx.registerTableCommand(tableName, commandName, beginMillis, currentSqlBuilder);
         }
     }
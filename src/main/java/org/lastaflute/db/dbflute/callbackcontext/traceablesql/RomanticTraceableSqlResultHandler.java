@@ -32,7 +32,7 @@ public class RomanticTraceableSqlResultHandler implements SqlResultHandler {
     @Override
     public void handle(SqlResultInfo info) {
         final RomanticTransaction tx = TransactionRomanticContext.getRomanticTransaction();
-        if (tx != null) {
+        if (tx != null && tx.isRecentResultRecorded()) {
             final BehaviorCommandMeta meta = info.getMeta(); // not saved because of internal object
             final String tableName = meta.getDBMeta().getTableDispName();
             final String command = meta.getCommandName();
@@ -19,7 +19,9 @@ import org.lastaflute.core.direction.exception.FwRequiredAssistNotFoundException
 import org.lastaflute.db.dbcp.ConnectionPoolAdjustmentProvider;
 import org.lastaflute.db.dbcp.XAConnectionHook;
 import org.lastaflute.db.dbflute.classification.ListedClassificationProvider;
+import org.lastaflute.db.jta.romanticist.TransactionRecordingLevel;
 import org.lastaflute.db.jta.stage.VestibuleTxProvider;
+import org.lastaflute.db.jta.watchdog.TransactionWatchdogProvider;
 
 /**
  * @author jflute
@@ -41,6 +43,12 @@ public class FwDbDirection {
     protected XAConnectionHook newbornConnectionHook;
     protected VestibuleTxProvider vestibuleTxProvider;
 
+    // -----------------------------------------------------
+    //                                           Transaction
+    //                                           -----------
+    protected TransactionRecordingLevel transactionRecordingLevel;
+    protected TransactionWatchdogProvider transactionWatchdogProvider;
+
     // ===================================================================================
     //                                                                     Direct Property
     //                                                                     ===============
@@ -67,6 +75,19 @@ public class FwDbDirection {
         this.vestibuleTxProvider = vestibuleTxProvider;
     }
 
+    // -----------------------------------------------------
+    //                                           Transaction
+    //                                           -----------
+    public void directTransactionRecording(TransactionRecordingLevel transactionRecordingLevel) {
+        assertArgumentNotNull("transactionRecordingLevel", transactionRecordingLevel);
+        this.transactionRecordingLevel = transactionRecordingLevel;
+    }
+
+    public void directTransactionWatchdog(TransactionWatchdogProvider transactionWatchdogProvider) {
+        assertArgumentNotNull("transactionWatchdogProvider", transactionWatchdogProvider);
+        this.transactionWatchdogProvider = transactionWatchdogProvider;
+    }
+
     // ===================================================================================
     //                                                                              Assist
     //                                                                              ======
@@ -93,6 +114,17 @@ public class FwDbDirection {
         return vestibuleTxProvider; // not required, it's optional assist
     }
 
+    // -----------------------------------------------------
+    //                                           Transaction
+    //                                           -----------
+    public TransactionRecordingLevel assistTransactionRecordingLevel() { // not null, default is full
+        return transactionRecordingLevel != null ? transactionRecordingLevel : TransactionRecordingLevel.FULL;
+    }
+
+    public TransactionWatchdogProvider assistTransactionWatchdogProvider() {
+        return transactionWatchdogProvider; // not required, it's optional assist
+    }
+
     // ===================================================================================
     //                                                                       Assert Helper
     //                                                                       =============
@@ -15,20 +15,67 @@
  */
 package org.lastaflute.db.jta;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+import org.lastaflute.core.direction.FwAssistantDirector;
+import org.lastaflute.db.direction.FwDbDirection;
+import org.lastaflute.db.jta.romanticist.TransactionRecordingLevel;
 import org.lastaflute.jta.core.ExtendedTransaction;
 import org.lastaflute.jta.core.LaTransactionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * @author jflute
  */
 public class HookedTransactionManager extends LaTransactionManager {
 
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final Logger logger = LoggerFactory.getLogger(HookedTransactionManager.class);
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The assistant director (AD) for framework. (NotNull: after initialization) */
+    @Resource
+    protected FwAssistantDirector assistantDirector;
+
+    /** The level of bookkeeping in romantic transaction. (NotNull: after initialization) */
+    protected TransactionRecordingLevel recordingLevel = TransactionRecordingLevel.FULL;
+
+    // ===================================================================================
+    //                                                                          Initialize
+    //                                                                          ==========
+    /**
+     * Initialize this component. <br>
+     * This is basically called by DI setting file.
+     */
+    @PostConstruct
+    public synchronized void initialize() {
+        final FwDbDirection direction = assistantDirector.assistDbDirection();
+        recordingLevel = direction.assistTransactionRecordingLevel();
+        showBootLogging();
+    }
+
+    protected void showBootLogging() {
+        if (logger.isInfoEnabled()) {
+            logger.info("[Transaction Manager]");
+            logger.info(" recordingLevel: " + recordingLevel);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                         Transaction
+    //                                                                         ===========
     @Override
     protected ExtendedTransaction createTransaction() {
         return newRomanticTransaction();
     }
 
     protected RomanticTransaction newRomanticTransaction() {
-        return new RomanticTransaction();
+        return new RomanticTransaction(recordingLevel);
     }
 }
@@ -16,10 +16,6 @@
 package org.lastaflute.db.jta;
 
 import java.lang.reflect.Method;
-import java.util.Collections;
-import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -35,10 +31,14 @@ import org.dbflute.util.DfTraceViewUtil;
 import org.lastaflute.core.magic.ThreadCacheContext;
 import org.lastaflute.db.jta.romanticist.SavedTransactionMemories;
 import org.lastaflute.db.jta.romanticist.TransactionCurrentSqlBuilder;
+import org.lastaflute.db.jta.romanticist.TransactionFlightRecorder;
+import org.lastaflute.db.jta.romanticist.TransactionFlightSnapshot;
 import org.lastaflute.db.jta.romanticist.TransactionMemoriesProvider;
 import org.lastaflute.db.jta.romanticist.TransactionRomanticMemoriesBuilder;
+import org.lastaflute.db.jta.romanticist.TransactionRecordingLevel;
 import org.lastaflute.db.jta.romanticist.TransactionRomanticSnapshotBuilder;
 import org.lastaflute.db.jta.romanticist.TransactionSavedRecentResult;
+import org.lastaflute.db.jta.watchdog.LiveTransactionRegistry;
 import org.lastaflute.jta.core.LaTransaction;
 import org.lastaflute.jta.dbcp.ConnectionWrapper;
 
@@ -62,19 +62,37 @@ public class RomanticTransaction extends LaTransaction {
     //                                         -------------
     // basically to tell its state when other transactions fail
     protected long transactionBeginMillis; // set when transaction begins
-    protected Map<String, Set<String>> tableCommandMap; // lazy loaded, needs synchronized, e.g. map:{MEMBER = list:{selectList}}
 
-    // current state: might be overridden many times, needs synchronized
-    protected String currentTableName; // basically not null in command
-    protected String currentCommand; // basically not null in command
-    protected Long currentSqlBeginMillis; // null allowed (but almost not null)
-    protected TransactionCurrentSqlBuilder currentSqlBuilder; // basically not null in command
+    // statement activity: written by this transaction thread, read by watchdog
+    protected volatile long lastStatementMillis; // zero until first statement
+    protected volatile boolean statementRunning; // true between table command and clear current
 
-    // -----------------------------------------------------
-    //                                         Recent Result
-    //                                         -------------
-    // basically for simple debug of current tranasction
-    protected LinkedList<TransactionSavedRecentResult> recentResultList; // lazy loaded, needs synchronized
+    // requested by other thread (e.g. watchdog), and marked by this transaction thread
+    // because the status of transaction is not thread-safe
+    protected volatile boolean rollbackOnlyRequested;
+
+    // table commands, current SQL and recent results (for simple debug of current tranasction)
+    // only this transaction thread writes, and other threads read the snapshot without blocking
+    protected final TransactionFlightRecorder flightRecorder; // not null
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public RomanticTransaction() {
+        this(TransactionRecordingLevel.FULL);
+    }
+
+    /**
+     * @param recordingLevel The level of bookkeeping for romantic display. (NotNull)
+     */
+    public RomanticTransaction(TransactionRecordingLevel recordingLevel) {
+        flightRecorder = newTransactionFlightRecorder(recordingLevel);
+    }
+
+    protected TransactionFlightRecorder newTransactionFlightRecorder(TransactionRecordingLevel recordingLevel) {
+        // plus one because the old list removed the first only when over the limit (so kept 31 results)
+        return new TransactionFlightRecorder(recordingLevel, getRecentResultSavingLimit() + 1);
+    }
 
     // ===================================================================================
     //                                                                               Begin
@@ -89,6 +107,7 @@ public class RomanticTransaction extends LaTransaction {
         transactionBeginMillis = System.currentTimeMillis();
         super.begin(); // actually begin here
         saveRomanticTransactionToThread();
+        registerLiveTransaction();
     }
 
     protected void saveRomanticTransactionToThread() {
@@ -102,14 +121,23 @@ public class RomanticTransaction extends LaTransaction {
     public void commit() throws RollbackException, HeuristicMixedException, HeuristicRollbackException, SecurityException,
             IllegalStateException, SystemException {
         clearRomanticTransactionFromThread();
-        super.commit();
+        try {
+            applyRequestedRollbackOnly(); // commit fails by rollback exception if requested
+            super.commit();
+        } finally {
+            unregisterLiveTransaction();
+        }
     }
 
     @Override
     public void rollback() throws IllegalStateException, SecurityException, SystemException {
         registerMemoriesProviderIfNeeds("rollback"); // to show romantic memories in error message
         clearRomanticTransactionFromThread();
-        super.rollback();
+        try {
+            super.rollback();
+        } finally {
+            unregisterLiveTransaction();
+        }
     }
 
     protected void registerMemoriesProviderIfNeeds(String ending) {
@@ -128,6 +156,41 @@ public class RomanticTransaction extends LaTransaction {
         TransactionRomanticContext.clear();
     }
 
+    // -----------------------------------------------------
+    //                                         Rollback Only
+    //                                         -------------
+    /**
+     * Request this transaction to be rollback-only, callable from any thread e.g. watchdog. <br>
+     * The transaction thread marks it at the next statement or when it commits,
+     * so the status of transaction is changed only by its own thread.
+     */
+    public void requestRollbackOnly() {
+        rollbackOnlyRequested = true;
+    }
+
+    protected void applyRequestedRollbackOnly() { // only in this transaction thread
+        if (!rollbackOnlyRequested) { // mainly here
+            return;
+        }
+        rollbackOnlyRequested = false;
+        try {
+            setRollbackOnly();
+        } catch (SystemException e) {
+            throw new IllegalStateException("Failed to mark the transaction as rollback-only by request: " + this, e);
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                      Live Transaction
+    //                                      ----------------
+    protected void registerLiveTransaction() { // no-op if no watchdog
+        LiveTransactionRegistry.register(this);
+    }
+
+    protected void unregisterLiveTransaction() {
+        LiveTransactionRegistry.unregister(this);
+    }
+
     // ===================================================================================
     //                                                                            Romantic
     //                                                                            ========
@@ -136,9 +199,8 @@ public class RomanticTransaction extends LaTransaction {
      * @return The romantic expression for transaction snapshot. (NotNull)
      */
     public String toRomanticSnapshot(ConnectionWrapper wrapper) { // called when other transactions fail
-        synchronized (this) { // blocks registration
-            return createRomanticSnapshotBuilder().buildRomanticSnapshot(this, wrapper);
-        }
+        // no blocking registration, consistent by flight snapshot
+        return createRomanticSnapshotBuilder().buildRomanticSnapshot(this, captureFlightSnapshot(), wrapper);
     }
 
     protected TransactionRomanticSnapshotBuilder createRomanticSnapshotBuilder() {
@@ -150,9 +212,14 @@ public class RomanticTransaction extends LaTransaction {
      * @return The provider of optional romantic expression for transaction memories. (NotNull)
      */
     public TransactionMemoriesProvider toRomanticMemoriesProvider(String ending) { // called when this transaction fails
-        synchronized (this) { // blocks registration
-            return TransactionRomanticMemoriesBuilder.createMemoriesProvider(this, ending);
-        }
+        return TransactionRomanticMemoriesBuilder.createMemoriesProvider(this, captureFlightSnapshot(), ending);
+    }
+
+    /**
+     * @return The consistent snapshot of table commands, current SQL and recent results. (NotNull)
+     */
+    public TransactionFlightSnapshot captureFlightSnapshot() {
+        return flightRecorder.capture();
     }
 
     // ===================================================================================
@@ -178,49 +245,27 @@ public class RomanticTransaction extends LaTransaction {
     //                                         Table Command
     //                                         -------------
     public void registerTableCommand(String tableName, String command, Long beginMillis, TransactionCurrentSqlBuilder sqlBuilder) {
-        synchronized (this) { // toRomanticString() of exception thread looks the resources
-            doRegisterTableCommand(tableName, command, beginMillis, sqlBuilder);
-        }
+        // only this transaction thread registers, snapshot of exception thread is consistent by flight recorder
+        applyRequestedRollbackOnly();
+        statementRunning = true;
+        lastStatementMillis = beginMillis != null ? beginMillis : System.currentTimeMillis();
+        flightRecorder.recordTableCommand(tableName, command, beginMillis, sqlBuilder);
     }
 
-    protected void doRegisterTableCommand(String tableName, String command, Long beginMillis, TransactionCurrentSqlBuilder sqlBuilder) {
-        if (tableCommandMap == null) {
-            tableCommandMap = newTableCommandMap();
-        }
-        Set<String> commandSet = tableCommandMap.get(tableName);
-        if (commandSet == null) {
-            commandSet = newCommandSet();
-            tableCommandMap.put(tableName, commandSet);
-        }
-        commandSet.add(command);
-        currentTableName = tableName;
-        currentCommand = command;
-        currentSqlBeginMillis = beginMillis;
-        currentSqlBuilder = sqlBuilder;
-    }
-
-    protected Map<String, Set<String>> newTableCommandMap() {
-        return new LinkedHashMap<String, Set<String>>(); // plain because of synchronized
-    }
-
-    protected Set<String> newCommandSet() {
-        return new LinkedHashSet<String>();
+    /**
+     * @return Does it record table commands and current SQL? (false if recording is off)
+     */
+    public boolean isTableCommandRecorded() {
+        return flightRecorder.getRecordingLevel().isTableCommandRecorded();
     }
 
     // -----------------------------------------------------
     //                                         Clear Current
     //                                         -------------
     public void clearCurrent() {
-        synchronized (this) { // toRomanticString() of exception thread looks the resources
-            doClearCurrent();
-        }
-    }
-
-    protected void doClearCurrent() {
-        currentTableName = null;
-        currentCommand = null;
-        currentSqlBeginMillis = null;
-        currentSqlBuilder = null;
+        lastStatementMillis = System.currentTimeMillis(); // idle starts here
+        statementRunning = false;
+        flightRecorder.clearCurrent();
     }
 
     // ===================================================================================
@@ -228,55 +273,40 @@ public class RomanticTransaction extends LaTransaction {
     //                                                                       =============
     public void registerRecentResult(String tableName, String command, Long beginMillis, Long endMillis, Class<?> resultType,
             Object resultValue, BehaviorCommandMeta meta) {
-        synchronized (this) { // toRomanticString() of exception thread looks the resources
-            doRegisterRecentResult(tableName, command, beginMillis, endMillis, resultType, resultValue, meta);
+        if (!isRecentResultRecorded()) { // no conversion cost
+            return;
         }
+        doRegisterRecentResult(tableName, command, beginMillis, endMillis, resultType, resultValue, meta);
     }
 
     public void doRegisterRecentResult(String tableName, String command, Long beginMillis, Long endMillis, Class<?> resultType,
             Object resultValue, BehaviorCommandMeta meta) {
-        if (recentResultList == null) {
-            recentResultList = newRecentResult();
-        }
-        if (recentResultList.size() > getRecentResultSavingLimit()) {
-            recentResultList.removeFirst();
-        }
-        final long statementNo = prepareRecentResultStatementNo();
-        recentResultList
-                .add(createSavedRecentResult(statementNo, tableName, command, beginMillis, endMillis, resultType, resultValue, meta));
-    }
-
-    protected LinkedList<TransactionSavedRecentResult> newRecentResult() {
-        return new LinkedList<TransactionSavedRecentResult>(); // plain because of synchronized
+        final long statementNo = flightRecorder.nextStatementNo();
+        flightRecorder.recordRecentResult(
+                createSavedRecentResult(statementNo, tableName, command, beginMillis, endMillis, resultType, resultValue, meta));
     }
 
     protected int getRecentResultSavingLimit() {
         return 30;
     }
 
-    protected long prepareRecentResultStatementNo() {
-        return recentResultList.isEmpty() ? 1L : recentResultList.peekLast().getStatementNo() + 1;
-    }
-
     protected TransactionSavedRecentResult createSavedRecentResult(long statementNo, String tableName, String command, Long beginMillis,
             Long endMillis, Class<?> resultType, Object resultValue, BehaviorCommandMeta meta) {
         return new TransactionSavedRecentResult(statementNo, tableName, command, beginMillis, endMillis, resultType, resultValue, meta);
     }
 
+    /**
+     * @return Does it record recent results? (true only if full recording)
+     */
+    public boolean isRecentResultRecorded() {
+        return flightRecorder.getRecordingLevel().isRecentResultRecorded();
+    }
+
     // -----------------------------------------------------
     //                                          Clear Recent
     //                                          ------------
     public void clearRecent() {
-        synchronized (this) { // toRomanticString() of exception thread looks the resources
-            doClearRecent();
-        }
-    }
-
-    protected void doClearRecent() {
-        if (recentResultList != null) {
-            recentResultList.clear();
-        }
-        recentResultList = null;
+        flightRecorder.clearRecent();
     }
 
     // ===================================================================================
@@ -298,35 +328,40 @@ public class RomanticTransaction extends LaTransaction {
         return transactionBeginMillis;
     }
 
+    public long getLastStatementMillis() {
+        return lastStatementMillis;
+    }
+
+    public boolean isRollbackOnlyRequested() {
+        return rollbackOnlyRequested;
+    }
+
+    public boolean isStatementRunning() {
+        return statementRunning;
+    }
+
+    // current state accessors capture snapshot each time, so use captureFlightSnapshot() for consistent state
     public Map<String, Set<String>> getReadOnlyTableCommandMap() {
-        if (tableCommandMap != null) {
-            return Collections.unmodifiableMap(tableCommandMap);
-        } else {
-            return Collections.emptyMap();
-        }
+        return captureFlightSnapshot().getTableCommandMap();
     }
 
     public String getCurrentTableName() {
-        return currentTableName;
+        return captureFlightSnapshot().getCurrentTableName();
     }
 
     public String getCurrentCommand() {
-        return currentCommand;
+        return captureFlightSnapshot().getCurrentCommand();
     }
 
     public Long getCurrentSqlBeginMillis() {
-        return currentSqlBeginMillis;
+        return captureFlightSnapshot().getCurrentSqlBeginMillis();
     }
 
     public TransactionCurrentSqlBuilder getCurrentSqlBuilder() {
-        return currentSqlBuilder;
+        return captureFlightSnapshot().getCurrentSqlBuilder();
     }
 
     public List<TransactionSavedRecentResult> getReadOnlyRecentResultList() {
-        if (recentResultList != null) {
-            return Collections.unmodifiableList(recentResultList);
-        } else {
-            return Collections.emptyList();
-        }
+        return captureFlightSnapshot().getRecentResultList();
     }
 }
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.db.jta.romanticist;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The flight recorder of romantic transaction, which records table commands, current SQL and recent results. <br>
+ * The transaction thread is the only writer, and it writes to preallocated arrays (recent results are a ring buffer)
+ * under an uncontended write stamp. Other threads (e.g. when they fail) read a consistent snapshot optimistically
+ * like seqlock, retrying (or finally locking) only if the writer moves during the read.
+ * @author jflute
+ * @since 0.8.5 (2016/09/24 Saturday)
+ */
+public class TransactionFlightRecorder {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final int INITIAL_TABLE_COMMAND_CAPACITY = 8;
+    protected static final int OPTIMISTIC_READ_RETRY = 3;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final TransactionRecordingLevel recordingLevel; // not null
+    protected final StampedLock stampedLock = new StampedLock();
+
+    // -----------------------------------------------------
+    //                                         Table Command
+    //                                         -------------
+    // pairs of table and command, few kinds in one transaction so linear search
+    protected String[] commandTableNames; // null allowed when no recording
+    protected String[] commandNames; // null allowed when no recording
+    protected int tableCommandCount;
+
+    // -----------------------------------------------------
+    //                                         Current State
+    //                                         -------------
+    protected String currentTableName; // basically not null in command
+    protected String currentCommand; // basically not null in command
+    protected Long currentSqlBeginMillis; // null allowed (but almost not null)
+    protected TransactionCurrentSqlBuilder currentSqlBuilder; // basically not null in command
+
+    // -----------------------------------------------------
+    //                                         Recent Result
+    //                                         -------------
+    protected final TransactionSavedRecentResult[] recentResultRing; // null allowed when no recording
+    protected long recentResultCount; // total count since clear, also statement number
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param recordingLevel The level of recording. (NotNull)
+     * @param recentResultLimit The max size of saved recent results. (NotMinus, NotZero)
+     */
+    public TransactionFlightRecorder(TransactionRecordingLevel recordingLevel, int recentResultLimit) {
+        this.recordingLevel = recordingLevel;
+        if (recordingLevel.isTableCommandRecorded()) {
+            commandTableNames = new String[INITIAL_TABLE_COMMAND_CAPACITY];
+            commandNames = new String[INITIAL_TABLE_COMMAND_CAPACITY];
+        }
+        recentResultRing = recordingLevel.isRecentResultRecorded() ? new TransactionSavedRecentResult[recentResultLimit] : null;
+    }
+
+    // ===================================================================================
+    //                                                                       Table Command
+    //                                                                       =============
+    public void recordTableCommand(String tableName, String command, Long beginMillis, TransactionCurrentSqlBuilder sqlBuilder) {
+        if (!recordingLevel.isTableCommandRecorded()) {
+            return;
+        }
+        final long stamp = stampedLock.writeLock(); // uncontended because of single writer
+        try {
+            if (!existsTableCommand(tableName, command)) {
+                addTableCommand(tableName, command);
+            }
+            currentTableName = tableName;
+            currentCommand = command;
+            currentSqlBeginMillis = beginMillis;
+            currentSqlBuilder = sqlBuilder;
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+    }
+
+    protected boolean existsTableCommand(String tableName, String command) {
+        for (int i = 0; i < tableCommandCount; i++) {
+            if (tableName.equals(commandTableNames[i]) && command.equals(commandNames[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected void addTableCommand(String tableName, String command) {
+        if (tableCommandCount == commandTableNames.length) { // rare, grows before count for readers
+            commandTableNames = Arrays.copyOf(commandTableNames, tableCommandCount * 2);
+            commandNames = Arrays.copyOf(commandNames, tableCommandCount * 2);
+        }
+        commandTableNames[tableCommandCount] = tableName;
+        commandNames[tableCommandCount] = command;
+        ++tableCommandCount;
+    }
+
+    public void clearCurrent() {
+        if (!recordingLevel.isTableCommandRecorded()) {
+            return;
+        }
+        final long stamp = stampedLock.writeLock();
+        try {
+            currentTableName = null;
+            currentCommand = null;
+            currentSqlBeginMillis = null;
+            currentSqlBuilder = null;
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                       Recent Result
+    //                                                                       =============
+    /**
+     * @return The statement number of next recent result, starting from 1 after clear.
+     */
+    public long nextStatementNo() {
+        return recentResultCount + 1; // only writer thread calls
+    }
+
+    public void recordRecentResult(TransactionSavedRecentResult result) {
+        if (recentResultRing == null) {
+            return;
+        }
+        final long stamp = stampedLock.writeLock();
+        try {
+            recentResultRing[(int) (recentResultCount % recentResultRing.length)] = result;
+            ++recentResultCount;
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+    }
+
+    public void clearRecent() {
+        if (recentResultRing == null) {
+            return;
+        }
+        final long stamp = stampedLock.writeLock();
+        try {
+            Arrays.fill(recentResultRing, null);
+            recentResultCount = 0;
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                            Snapshot
+    //                                                                            ========
+    /**
+     * Capture the consistent snapshot of recorded state, callable from any thread.
+     * @return The snapshot of recorded state. (NotNull)
+     */
+    public TransactionFlightSnapshot capture() {
+        for (int i = 0; i < OPTIMISTIC_READ_RETRY; i++) {
+            final long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0L) { // not while writing
+                final TransactionFlightSnapshot snapshot = doCapture(); // may see torn state but validated
+                if (stampedLock.validate(stamp)) {
+                    return snapshot;
+                }
+            }
+        }
+        final long stamp = stampedLock.readLock(); // writer keeps moving, so wait for it
+        try {
+            return doCapture();
+        } finally {
+            stampedLock.unlockRead(stamp);
+        }
+    }
+
+    protected TransactionFlightSnapshot doCapture() { // must not fail even if torn
+        final Map<String, Set<String>> tableCommandMap = captureTableCommandMap();
+        final List<TransactionSavedRecentResult> recentResultList = captureRecentResultList();
+        return new TransactionFlightSnapshot(tableCommandMap, currentTableName, currentCommand, currentSqlBeginMillis, currentSqlBuilder,
+                recentResultList);
+    }
+
+    protected Map<String, Set<String>> captureTableCommandMap() {
+        final String[] tableNames = commandTableNames; // local for growing
+        final String[] commands = commandNames;
+        if (tableNames == null || commands == null) {
+            return Collections.emptyMap();
+        }
+        final int count = Math.min(tableCommandCount, Math.min(tableNames.length, commands.length));
+        if (count == 0) {
+            return Collections.emptyMap();
+        }
+        final Map<String, Set<String>> tableCommandMap = new LinkedHashMap<String, Set<String>>();
+        for (int i = 0; i < count; i++) {
+            final String tableName = tableNames[i];
+            final String command = commands[i];
+            if (tableName != null && command != null) { // just in case of torn read
+                tableCommandMap.computeIfAbsent(tableName, key -> new LinkedHashSet<String>()).add(command);
+            }
+        }
+        return Collections.unmodifiableMap(tableCommandMap);
+    }
+
+    protected List<TransactionSavedRecentResult> captureRecentResultList() {
+        if (recentResultRing == null) {
+            return Collections.emptyList();
+        }
+        final long count = recentResultCount;
+        final int size = (int) Math.min(count, recentResultRing.length);
+        if (size <= 0) {
+            return Collections.emptyList();
+        }
+        final List<TransactionSavedRecentResult> resultList = new ArrayList<TransactionSavedRecentResult>(size);
+        for (long no = count - size; no < count; no++) { // older first
+            final TransactionSavedRecentResult result = recentResultRing[(int) (no % recentResultRing.length)];
+            if (result != null) { // just in case of torn read
+                resultList.add(result);
+            }
+        }
+        return Collections.unmodifiableList(resultList);
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public TransactionRecordingLevel getRecordingLevel() {
+        return recordingLevel;
+    }
+}
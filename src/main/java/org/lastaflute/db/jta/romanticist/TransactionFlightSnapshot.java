@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.db.jta.romanticist;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The consistent snapshot of transaction flight recorder, immutable.
+ * @author jflute
+ * @since 0.8.5 (2016/09/24 Saturday)
+ */
+public class TransactionFlightSnapshot {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final Map<String, Set<String>> tableCommandMap; // not null, read-only
+    protected final String currentTableName; // null allowed
+    protected final String currentCommand; // null allowed
+    protected final Long currentSqlBeginMillis; // null allowed
+    protected final TransactionCurrentSqlBuilder currentSqlBuilder; // null allowed
+    protected final List<TransactionSavedRecentResult> recentResultList; // not null, read-only, older first
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public TransactionFlightSnapshot(Map<String, Set<String>> tableCommandMap, String currentTableName, String currentCommand,
+            Long currentSqlBeginMillis, TransactionCurrentSqlBuilder currentSqlBuilder, List<TransactionSavedRecentResult> recentResultList) {
+        this.tableCommandMap = tableCommandMap;
+        this.currentTableName = currentTableName;
+        this.currentCommand = currentCommand;
+        this.currentSqlBeginMillis = currentSqlBeginMillis;
+        this.currentSqlBuilder = currentSqlBuilder;
+        this.recentResultList = recentResultList;
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public Map<String, Set<String>> getTableCommandMap() {
+        return tableCommandMap;
+    }
+
+    public String getCurrentTableName() {
+        return currentTableName;
+    }
+
+    public String getCurrentCommand() {
+        return currentCommand;
+    }
+
+    public Long getCurrentSqlBeginMillis() {
+        return currentSqlBeginMillis;
+    }
+
+    public TransactionCurrentSqlBuilder getCurrentSqlBuilder() {
+        return currentSqlBuilder;
+    }
+
+    public List<TransactionSavedRecentResult> getRecentResultList() {
+        return recentResultList;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.db.jta.romanticist;
+
+/**
+ * The level of bookkeeping in romantic transaction, which is shown when transactions fail.
+ * @author jflute
+ * @since 0.8.5 (2016/09/24 Saturday)
+ */
+public enum TransactionRecordingLevel {
+
+    /** No recording, e.g. huge batch that does not need romantic display. */
+    OFF(false, false),
+
+    /** Table commands and current SQL only, without recent results. */
+    TABLE_COMMAND(true, false),
+
+    /** Table commands, current SQL and recent results. (default) */
+    FULL(true, true);
+
+    private final boolean tableCommandRecorded;
+    private final boolean recentResultRecorded;
+
+    private TransactionRecordingLevel(boolean tableCommandRecorded, boolean recentResultRecorded) {
+        this.tableCommandRecorded = tableCommandRecorded;
+        this.recentResultRecorded = recentResultRecorded;
+    }
+
+    public boolean isTableCommandRecorded() {
+        return tableCommandRecorded;
+    }
+
+    public boolean isRecentResultRecorded() {
+        return recentResultRecorded;
+    }
+}
@@ -58,11 +58,16 @@ public class TransactionRomanticMemoriesBuilder {
     }
 
     public static TransactionMemoriesProvider createMemoriesProvider(RomanticTransaction tx, String ending) {
+        return createMemoriesProvider(tx, tx.captureFlightSnapshot(), ending);
+    }
+
+    public static TransactionMemoriesProvider createMemoriesProvider(RomanticTransaction tx, TransactionFlightSnapshot flight,
+            String ending) {
         final String title = DfTypeUtil.toClassTitle(tx);
         final int hash = tx.hashCode();
         final long beginMillis = tx.getTransactionBeginMillis();
-        final Map<String, Set<String>> tableCommandMap = tx.getReadOnlyTableCommandMap();
-        final List<TransactionSavedRecentResult> recentResultList = tx.getReadOnlyRecentResultList();
+        final Map<String, Set<String>> tableCommandMap = flight.getTableCommandMap();
+        final List<TransactionSavedRecentResult> recentResultList = flight.getRecentResultList();
         final TransactionRomanticMemoriesBuilder builder =
                 new TransactionRomanticMemoriesBuilder(title, hash, beginMillis, tableCommandMap, recentResultList);
         return () -> builder.buildRomanticMemories(ending);
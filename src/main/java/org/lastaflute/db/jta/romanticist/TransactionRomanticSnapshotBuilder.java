@@ -49,16 +49,26 @@ public class TransactionRomanticSnapshotBuilder {
      * @return The romantic expression for transaction snapshot. (NotNull)
      */
     public String buildRomanticSnapshot(RomanticTransaction tx, ConnectionWrapper wrapper) {
+        return buildRomanticSnapshot(tx, tx.captureFlightSnapshot(), wrapper);
+    }
+
+    /**
+     * @param tx The transaction it looks so romantic. (NotNull)
+     * @param flight The consistent snapshot of the transaction's flight recorder. (NotNull)
+     * @param wrapper The wrapper of connection for the transaction to extract native process ID. (NotNull: but no check just in case)
+     * @return The romantic expression for transaction snapshot. (NotNull)
+     */
+    public String buildRomanticSnapshot(RomanticTransaction tx, TransactionFlightSnapshot flight, ConnectionWrapper wrapper) {
         final StringBuilder sb = new StringBuilder();
         sb.append("{").append(currentElapsedTimeExp(tx));
         setupXidExp(sb, tx, wrapper);
         setupEntryMethodExp(sb, tx);
         setupUserBeanExp(sb, tx);
-        setupTableCommandExp(sb, tx);
+        setupTableCommandExp(sb, flight);
         setupRequestPathExp(sb, tx); // might have long query string so last
         sb.append("}@").append(toHexHashExp(tx)).append("@").append(toHexHashExp(wrapper));
         // SQL display has lines so close here
-        setupCurrentSqlExp(sb, tx);
+        setupCurrentSqlExp(sb, tx, flight);
         return sb.toString();
     }
 
@@ -79,6 +89,10 @@ public class TransactionRomanticSnapshotBuilder {
     protected void setupXidExp(StringBuilder sb, RomanticTransaction tx, ConnectionWrapper wrapper) {
         sb.append(", ");
         final Xid xid = tx.getXid();
+        if (xid == null) { // e.g. ending transaction seen by watchdog thread
+            sb.append("*no xid");
+            return;
+        }
         final byte[] globalId = xid.getGlobalTransactionId();
         final byte[] branchId = xid.getBranchQualifier();
         if (globalId != null) {
@@ -156,8 +170,8 @@ public class TransactionRomanticSnapshotBuilder {
     // ===================================================================================
     //                                                                       Table Command
     //                                                                       =============
-    protected void setupTableCommandExp(StringBuilder sb, RomanticTransaction tx) {
-        final Map<String, Set<String>> tableCommandMap = tx.getReadOnlyTableCommandMap();
+    protected void setupTableCommandExp(StringBuilder sb, TransactionFlightSnapshot flight) {
+        final Map<String, Set<String>> tableCommandMap = flight.getTableCommandMap();
         if (!tableCommandMap.isEmpty()) {
             final StringBuilder mapSb = new StringBuilder();
             mapSb.append("map:{");
@@ -190,14 +204,14 @@ public class TransactionRomanticSnapshotBuilder {
     // ===================================================================================
     //                                                                         Current SQL
     //                                                                         ===========
-    protected void setupCurrentSqlExp(StringBuilder sb, RomanticTransaction tx) {
-        final TransactionCurrentSqlBuilder currentSqlBuilder = tx.getCurrentSqlBuilder();
+    protected void setupCurrentSqlExp(StringBuilder sb, RomanticTransaction tx, TransactionFlightSnapshot flight) {
+        final TransactionCurrentSqlBuilder currentSqlBuilder = flight.getCurrentSqlBuilder();
         if (currentSqlBuilder != null) {
             final String currentSql = currentSqlBuilder.buildSql();
             sb.append("\n/- - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - - -");
             sb.append(" (SQL now: ");
-            sb.append(tx.getCurrentTableName()).append("@").append(tx.getCurrentCommand());
-            final Long currentSqlBeginMillis = tx.getCurrentSqlBeginMillis();
+            sb.append(flight.getCurrentTableName()).append("@").append(flight.getCurrentCommand());
+            final Long currentSqlBeginMillis = flight.getCurrentSqlBeginMillis();
             if (currentSqlBeginMillis != null) {
                 sb.append(" [").append(tx.buildElapsedTimeExp(currentSqlBeginMillis)).append("]");
             }
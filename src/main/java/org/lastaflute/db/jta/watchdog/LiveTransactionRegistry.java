@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.db.jta.watchdog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.lastaflute.db.jta.RomanticTransaction;
+
+/**
+ * The registry of live romantic transactions, between begin and commit (or rollback). <br>
+ * It registers nothing until enabled by transaction watchdog, so no cost if no watchdog.
+ * @author jflute
+ * @since 0.8.5 (2016/09/25 Sunday)
+ */
+public class LiveTransactionRegistry {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The set of live transactions. (NotNull) */
+    private static final Set<RomanticTransaction> liveSet = ConcurrentHashMap.newKeySet();
+
+    /** Is the registry enabled? (true if watchdog is working) */
+    private static volatile boolean enabled;
+
+    // ===================================================================================
+    //                                                                            Register
+    //                                                                            ========
+    /**
+     * @param tx The transaction just begun. (NotNull)
+     */
+    public static void register(RomanticTransaction tx) {
+        if (enabled) {
+            liveSet.add(tx);
+        }
+    }
+
+    /**
+     * @param tx The transaction just ended. (NotNull)
+     */
+    public static void unregister(RomanticTransaction tx) {
+        liveSet.remove(tx); // always, might be registered before disabled
+    }
+
+    // ===================================================================================
+    //                                                                              Search
+    //                                                                              ======
+    /**
+     * @return The snapshot list of live transactions. (NotNull, EmptyAllowed)
+     */
+    public static List<RomanticTransaction> listLive() {
+        return new ArrayList<RomanticTransaction>(liveSet);
+    }
+
+    public static boolean isLive(RomanticTransaction tx) {
+        return liveSet.contains(tx);
+    }
+
+    // ===================================================================================
+    //                                                                              Switch
+    //                                                                              ======
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+        liveSet.clear();
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.db.jta.watchdog;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+
+import org.lastaflute.core.direction.FwAssistantDirector;
+import org.lastaflute.db.jta.RomanticTransaction;
+import org.lastaflute.db.jta.watchdog.TransactionWatchdogReport.SuspiciousKind;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The watchdog of live romantic transactions, which reports long-running and idle-in-transaction. <br>
+ * It works in a daemon thread only when {@link TransactionWatchdogProvider} is directed,
+ * so you can find pool-hogging transactions before they exhaust the connection pool.
+ * @author jflute
+ * @since 0.8.5 (2016/09/25 Sunday)
+ */
+public class TransactionWatchdog {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final Logger logger = LoggerFactory.getLogger(TransactionWatchdog.class);
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The assistant director (AD) for framework. (NotNull: after initialization) */
+    @Resource
+    protected FwAssistantDirector assistantDirector;
+
+    /** The provider of watchdog settings. (NullAllowed: if null, no watching) */
+    protected TransactionWatchdogProvider watchdogProvider;
+
+    /** The executor of watching, daemon thread. (NullAllowed: if no watching) */
+    protected ScheduledExecutorService watchingExecutor;
+
+    /** The set of keys for already-reported transaction and kind, to avoid repeated reports. (NotNull) */
+    protected final Set<String> reportedKeySet = ConcurrentHashMap.newKeySet();
+
+    // ===================================================================================
+    //                                                                          Initialize
+    //                                                                          ==========
+    /**
+     * Initialize this component. <br>
+     * This is basically called by DI setting file.
+     */
+    @PostConstruct
+    public synchronized void initialize() {
+        watchdogProvider = assistantDirector.assistDbDirection().assistTransactionWatchdogProvider();
+        if (watchdogProvider != null) {
+            startWatching(watchdogProvider.provideCheckIntervalMillis());
+        }
+        showBootLogging();
+    }
+
+    protected void startWatching(long intervalMillis) {
+        LiveTransactionRegistry.enable();
+        watchingExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "lastaflute-tx-watchdog");
+            thread.setDaemon(true); // not to block shutdown
+            return thread;
+        });
+        watchingExecutor.scheduleWithFixedDelay(() -> watch(), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    protected void showBootLogging() {
+        if (logger.isInfoEnabled()) {
+            logger.info("[Transaction Watchdog]");
+            logger.info(" watchdogProvider: " + watchdogProvider);
+            if (watchdogProvider != null) {
+                logger.info(" longRunningThreshold: " + watchdogProvider.provideLongRunningThresholdMillis() + " milliseconds");
+                logger.info(" idleThreshold: " + watchdogProvider.provideIdleThresholdMillis() + " milliseconds");
+                logger.info(" rollbackOnlyMarked: " + watchdogProvider.isRollbackOnlyMarked());
+            }
+        }
+    }
+
+    // ===================================================================================
+    //                                                                               Watch
+    //                                                                               =====
+    protected void watch() {
+        try {
+            doWatch(System.currentTimeMillis());
+        } catch (RuntimeException continued) { // to keep scheduling
+            logger.warn("Failed to watch live transactions.", continued);
+        }
+    }
+
+    protected void doWatch(long currentMillis) {
+        final List<RomanticTransaction> liveList = LiveTransactionRegistry.listLive();
+        final Set<String> liveKeySet = new HashSet<String>();
+        for (RomanticTransaction tx : liveList) {
+            try {
+                watchTransaction(tx, currentMillis, liveKeySet);
+            } catch (RuntimeException continued) { // e.g. ending transaction, to watch other transactions
+                logger.warn("Failed to watch the transaction: " + buildTransactionIdentity(tx), continued);
+            }
+        }
+        reportedKeySet.retainAll(liveKeySet); // forget ended (or recovered) transactions
+    }
+
+    protected void watchTransaction(RomanticTransaction tx, long currentMillis, Set<String> liveKeySet) {
+        final TransactionWatchdogReport report = judgeSuspicious(tx, currentMillis);
+        if (report == null) {
+            return;
+        }
+        final String reportedKey = buildReportedKey(tx, report.getSuspiciousKind());
+        liveKeySet.add(reportedKey);
+        if (reportedKeySet.add(reportedKey)) { // first time
+            handleSuspicious(tx, report);
+        }
+    }
+
+    protected String buildTransactionIdentity(RomanticTransaction tx) { // without snapshot (might be broken)
+        return "romanticTransaction@" + Integer.toHexString(System.identityHashCode(tx));
+    }
+
+    protected String buildReportedKey(RomanticTransaction tx, SuspiciousKind kind) {
+        return Integer.toHexString(System.identityHashCode(tx)) + ":" + tx.getTransactionBeginMillis() + ":" + kind;
+    }
+
+    protected void handleSuspicious(RomanticTransaction tx, TransactionWatchdogReport report) {
+        logger.warn("#tx_watchdog Found the suspicious transaction: " + report);
+        watchdogProvider.handleReport(report);
+        if (watchdogProvider.isRollbackOnlyMarked()) {
+            markRollbackOnly(tx);
+        }
+    }
+
+    protected void markRollbackOnly(RomanticTransaction tx) {
+        // not setRollbackOnly() here because the status of transaction is not thread-safe
+        // so the transaction thread marks it at the next statement or commit
+        tx.requestRollbackOnly();
+    }
+
+    // ===================================================================================
+    //                                                                             Inspect
+    //                                                                             =======
+    /**
+     * Inspect the live transactions now, without reporting and marking, e.g. for your monitoring action.
+     * @return The list of reports for suspicious transactions now. (NotNull, EmptyAllowed)
+     */
+    public List<TransactionWatchdogReport> inspect() {
+        final long currentMillis = System.currentTimeMillis();
+        final List<TransactionWatchdogReport> reportList = new ArrayList<TransactionWatchdogReport>();
+        for (RomanticTransaction tx : LiveTransactionRegistry.listLive()) {
+            try {
+                final TransactionWatchdogReport report = judgeSuspicious(tx, currentMillis);
+                if (report != null) {
+                    reportList.add(report);
+                }
+            } catch (RuntimeException continued) { // e.g. ending transaction
+                logger.debug("Failed to inspect the transaction: " + buildTransactionIdentity(tx), continued);
+            }
+        }
+        return reportList;
+    }
+
+    // -----------------------------------------------------
+    //                                              Judgment
+    //                                              --------
+    /**
+     * Judge the transaction is suspicious or not. <br>
+     * Long-running takes precedence: a long-running transaction is not also reported as idle-in-transaction
+     * (its idle time is in the report), and an idle transaction is reported again when it becomes long-running.
+     * @param tx The live transaction to be judged. (NotNull)
+     * @param currentMillis The current time as milliseconds.
+     * @return The report of suspicious transaction. (NullAllowed: when not suspicious)
+     */
+    protected TransactionWatchdogReport judgeSuspicious(RomanticTransaction tx, long currentMillis) {
+        if (watchdogProvider == null) {
+            return null;
+        }
+        final long beginMillis = tx.getTransactionBeginMillis();
+        if (beginMillis <= 0) { // no way, just in case
+            return null;
+        }
+        final long elapsedMillis = currentMillis - beginMillis;
+        final long idleMillis = tx.isStatementRunning() ? 0L : currentMillis - Math.max(beginMillis, tx.getLastStatementMillis());
+        final SuspiciousKind kind;
+        if (isOverThreshold(elapsedMillis, watchdogProvider.provideLongRunningThresholdMillis())) { // prior to idle
+            kind = SuspiciousKind.LONG_RUNNING;
+        } else if (isOverThreshold(idleMillis, watchdogProvider.provideIdleThresholdMillis())) {
+            kind = SuspiciousKind.IDLE_IN_TRANSACTION;
+        } else {
+            return null;
+        }
+        return new TransactionWatchdogReport(kind, elapsedMillis, idleMillis, tx.toRomanticSnapshot(null)); // no connection here
+    }
+
+    protected boolean isOverThreshold(long millis, long thresholdMillis) {
+        return thresholdMillis >= 0 && millis >= thresholdMillis;
+    }
+
+    // ===================================================================================
+    //                                                                             Destroy
+    //                                                                             =======
+    @PreDestroy
+    public synchronized void destroy() {
+        if (watchingExecutor != null) {
+            watchingExecutor.shutdownNow();
+            watchingExecutor = null;
+        }
+        LiveTransactionRegistry.disable();
+        reportedKeySet.clear();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.db.jta.watchdog;
+
+/**
+ * The provider of transaction watchdog, which watches long-running and idle-in-transaction. <br>
+ * The watchdog works only when this is directed. Minus threshold means no watching of the kind.
+ * @author jflute
+ * @since 0.8.5 (2016/09/25 Sunday)
+ */
+public interface TransactionWatchdogProvider {
+
+    /**
+     * @return The milliseconds of transaction duration to be reported as long-running. (MinusAllowed: no watching)
+     */
+    default long provideLongRunningThresholdMillis() {
+        return 60000L;
+    }
+
+    /**
+     * @return The milliseconds of idle time between statements to be reported as idle-in-transaction. (MinusAllowed: no watching)
+     */
+    default long provideIdleThresholdMillis() {
+        return 30000L;
+    }
+
+    /**
+     * @return The milliseconds of interval for watching. (NotMinus, NotZero)
+     */
+    default long provideCheckIntervalMillis() {
+        return 10000L;
+    }
+
+    /**
+     * Does the watchdog mark reported transactions as rollback-only? <br>
+     * The transaction fails when it ends, so it cannot hog connection after that with its changes committed. <br>
+     * The watchdog only requests it, and the transaction thread marks it at the next statement or commit.
+     * @return The determination, true or false. (default false: only reporting)
+     */
+    default boolean isRollbackOnlyMarked() {
+        return false;
+    }
+
+    /**
+     * Handle the report of suspicious transaction, called once per transaction and kind. <br>
+     * The report is also logged as warning by the watchdog.
+     * @param report The report of suspicious transaction. (NotNull)
+     */
+    default void handleReport(TransactionWatchdogReport report) {
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.db.jta.watchdog;
+
+/**
+ * The report of suspicious transaction found by watchdog, immutable.
+ * @author jflute
+ * @since 0.8.5 (2016/09/25 Sunday)
+ */
+public class TransactionWatchdogReport {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    public enum SuspiciousKind {
+        LONG_RUNNING, IDLE_IN_TRANSACTION
+    }
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final SuspiciousKind suspiciousKind; // not null
+    protected final long elapsedMillis; // from transaction begin
+    protected final long idleMillis; // zero if statement running
+    protected final String romanticSnapshot; // not null
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public TransactionWatchdogReport(SuspiciousKind suspiciousKind, long elapsedMillis, long idleMillis, String romanticSnapshot) {
+        this.suspiciousKind = suspiciousKind;
+        this.elapsedMillis = elapsedMillis;
+        this.idleMillis = idleMillis;
+        this.romanticSnapshot = romanticSnapshot;
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return suspiciousKind + " (elapsed=" + elapsedMillis + "ms, idle=" + idleMillis + "ms): " + romanticSnapshot;
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public SuspiciousKind getSuspiciousKind() {
+        return suspiciousKind;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getIdleMillis() {
+        return idleMillis;
+    }
+
+    public String getRomanticSnapshot() {
+        return romanticSnapshot;
+    }
+}
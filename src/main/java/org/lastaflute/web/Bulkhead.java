@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The declaration of concurrency bulkhead for the execute method. <br>
+ * The count of concurrent executions is bounded, and the excess request waits for a while
+ * and is rejected as 503 Service Unavailable if still full. <br>
+ * The bulkhead is entered before form population, so rejected requests are cheap.
+ * <pre>
+ * &#064;Execute
+ * &#064;Bulkhead(<span style="color: #CC4747">maxConcurrent</span>=4, <span style="color: #CC4747">queueTimeoutMillis</span>=500)
+ * public HtmlResponse index(SalesReportForm form) {
+ * }
+ * </pre>
+ * Executes that have the same group share one bulkhead, e.g. all heavy reports.
+ * @author jflute
+ * @since 0.8.5 (2016/10/03 Monday)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface Bulkhead {
+
+    /**
+     * The max count of concurrent executions of the execute method (or the group).
+     * @return The count of concurrent executions. (Positive)
+     */
+    int maxConcurrent();
+
+    /**
+     * The milliseconds that excess requests wait for a free slot. <br>
+     * If the time is over, the request is rejected as 503.
+     * @return The milliseconds of waiting. (NotMinus: zero means immediate rejection)
+     */
+    long queueTimeoutMillis() default 0L;
+
+    /**
+     * The group name of bulkhead shared by plural execute methods. <br>
+     * Define the same maxConcurrent in the group, or boot fails.
+     * @return The name of bulkhead group. (NotNull, EmptyAllowed: if empty, bulkhead per execute method)
+     */
+    String group() default "";
+}
@@ -37,9 +37,13 @@ public interface LastaWebKey {
     String USER_TIMEZONE_KEY = "lastaflute.action.USER_TIMEZONE"; // Request or Session
 
     String CSRF_TOKEN_KEY = "lastaflute.action.CSRF_TOKEN"; // Session
+    String CSRF_NONCE_KEY = "lastaflute.action.CSRF_NONCE"; // Request (cookie nonce of stateless token)
     String TRANSACTION_TOKEN_KEY = "lastaflute.action.TRANSACTION_TOKEN"; // Parameter and Session
     String DOUBLE_SUBMITTED_KEY = "lastaflute.action.DOUBLE_SUBMITTED_MARK"; // Request
 
+    String SESSION_ATTRIBUTE_VIEW_KEY = "lastaflute.session.ATTRIBUTE_VIEW"; // Request
+    String MULTIPART_REQUEST_HANDLER_KEY = "lastaflute.multipart.REQUEST_HANDLER"; // Request
+
     String DBFLUTE_SQL_COUNT_KEY = "lastaflute.dbflute.SQL_COUNT"; // Request
     String DBFLUTE_TRANSACTION_MEMORIES_KEY = "lastaflute.dbflute.TRANSACTION_MEMORIES"; // Request
     String MAILFLUTE_MAIL_COUNT_KEY = "lastaflute.mailflute.MAIL_COUNT"; // Request
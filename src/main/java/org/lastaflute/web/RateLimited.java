@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The declaration of rate limit for the execute method. <br>
+ * Requests are counted by token bucket per client, and the excess request is rejected as 429 Too Many Requests. <br>
+ * The client is identified by user, IP address or API key.
+ * <pre>
+ * &#064;Execute
+ * &#064;RateLimited(<span style="color: #CC4747">permits</span>=10, <span style="color: #CC4747">periodSeconds</span>=60, keyedBy=KeyType.USER)
+ * public JsonResponse&lt;ReportResult&gt; index(ReportBody body) {
+ * }
+ * </pre>
+ * Counters are in memory of the process as default,
+ * and you can share them between servers by ThrottleResourceProvider.
+ * @author jflute
+ * @since 0.8.5 (2016/10/03 Monday)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface RateLimited {
+
+    /**
+     * The count of permitted requests per period, also the burst size of the token bucket.
+     * @return The count of requests. (Positive)
+     */
+    int permits();
+
+    /**
+     * The seconds of the period that permits are refilled in.
+     * @return The seconds of period. (Positive)
+     */
+    int periodSeconds() default 1;
+
+    /**
+     * @return The type of client key for the bucket. (NotNull)
+     */
+    KeyType keyedBy() default KeyType.IP;
+
+    /**
+     * The header name of API key, used when the key type is API_KEY. <br>
+     * The request without the header (or with the key not validated by ThrottleResourceProvider) is counted by IP address.
+     * @return The name of request header. (NotNull)
+     */
+    String apiKeyHeader() default "X-API-Key";
+
+    /**
+     * The type of client key for rate limit.
+     */
+    enum KeyType {
+
+        /** per login user (user ID of user bean in session), by IP address if non-login */
+        USER,
+
+        /** per remote address of the request */
+        IP,
+
+        /** per value of the validated API key header, by IP address if no or invalid key */
+        API_KEY
+    }
+}
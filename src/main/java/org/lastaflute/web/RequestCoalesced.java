@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The declaration of request coalescing for the execute method. <br>
+ * Concurrent identical GET requests are collapsed into one execution of the action,
+ * and the others wait for it and receive a copy of the rendered response (JSON or HTML). <br>
+ * The requests are identical when they have the same request path (also URL parameters),
+ * query string, user locale, login users in session and values of the selected headers. <br>
+ * The waiting requests call the action hook (e.g. login check) before receiving the copy, but not the execute method.
+ * <pre>
+ * &#064;Execute
+ * &#064;RequestCoalesced(<span style="color: #CC4747">headers</span>={"Accept"})
+ * public JsonResponse&lt;RankingResult&gt; index(int categoryId) {
+ * }
+ * </pre>
+ * Unlike {@link ResponseCached}, nothing is kept after the execution.
+ * Don't use it for the page that contains session-specific data, e.g. CSRF token.
+ * And response with cookies, error status, redirection or Cache-Control: private/no-store is not shared,
+ * so waiting requests execute by themselves.
+ * @author jflute
+ * @since 0.8.5 (2016/09/22 Thursday)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface RequestCoalesced {
+
+    /**
+     * The names of request header to be part of request identity, e.g. Accept. <br>
+     * Other headers are ignored, so the response should not depend on them.
+     * @return The array of header names. (NotNull, EmptyAllowed: if empty, no header for identity)
+     */
+    String[] headers() default {};
+
+    /**
+     * The milliseconds that identical requests wait for the executing one. <br>
+     * If the time is over, the request executes the action by itself.
+     * @return The milliseconds of waiting. (NotMinus)
+     */
+    long waitMillis() default 3000L;
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The declaration of server-side response cache for the execute method. <br>
+ * The rendered response (JSON or HTML) of GET request is cached by request path (also URL parameters),
+ * the selected query parameters, user locale, login users in session and user segment (if provided by adjustment provider). <br>
+ * The action hook (e.g. login check) is called before replaying the cached response, but the execute method is not.
+ * <pre>
+ * &#064;Execute
+ * &#064;ResponseCached(<span style="color: #CC4747">ttlSeconds</span>=300, <span style="color: #CC4747">queryParams</span>={"page"})
+ * public HtmlResponse index(int categoryId) {
+ * }
+ * </pre>
+ * Don't use it for the page that contains session-specific data, e.g. CSRF token.
+ * And response with cookies, error status, redirection or Cache-Control: private/no-store is not cached.
+ * @author jflute
+ * @since 0.8.5 (2016/09/21 Wednesday)
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface ResponseCached {
+
+    /**
+     * @return The seconds of time to live for the cached response. (NotMinus, NotZero)
+     */
+    int ttlSeconds();
+
+    /**
+     * The names of query parameter to be part of cache key. <br>
+     * Other query parameters are ignored, so the response should not depend on them.
+     * @return The array of parameter names. (NotNull, EmptyAllowed: if empty, no query parameter for key)
+     */
+    String[] queryParams() default {};
+
+    /**
+     * The milliseconds that same-key requests wait for the one regenerating the response. <br>
+     * If the time is over, the request executes the action by itself.
+     * @return The milliseconds of waiting. (NotMinus)
+     */
+    long waitMillis() default 3000L;
+}
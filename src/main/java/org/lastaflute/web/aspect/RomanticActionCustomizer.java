@@ -16,12 +16,28 @@
 package org.lastaflute.web.aspect;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.dbflute.helper.message.ExceptionMessageBuilder;
 import org.dbflute.util.Srl;
 import org.lastaflute.core.direction.FwAssistantDirector;
+import org.lastaflute.core.json.JsonManager;
+import org.lastaflute.core.smartdeploy.ManagedHotdeploy;
 import org.lastaflute.core.util.ContainerUtil;
 import org.lastaflute.di.core.ComponentDef;
 import org.lastaflute.di.core.customizer.ComponentCustomizer;
@@ -34,7 +50,10 @@ import org.lastaflute.web.path.ActionAdjustmentProvider;
 import org.lastaflute.web.ruts.config.ActionExecute;
 import org.lastaflute.web.ruts.config.ActionMapping;
 import org.lastaflute.web.ruts.config.ExecuteOption;
+import org.lastaflute.web.ruts.config.ModuleConfig;
 import org.lastaflute.web.util.LaModuleConfigUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * You can get romantic action.
@@ -42,23 +61,96 @@ import org.lastaflute.web.util.LaModuleConfigUtil;
  */
 public class RomanticActionCustomizer implements ComponentCustomizer {
 
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final Logger logger = LoggerFactory.getLogger(RomanticActionCustomizer.class);
+    protected static final int MAX_ANALYSIS_PARALLELISM = 4; // boot analysis is not so heavy per action
+    protected static final long ANALYSIS_THREAD_KEEP_ALIVE_MILLIS = 1000L; // threads end soon after boot
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected ExecutorService analysisExecutor; // null allowed: lazy-loaded, only when parallel
+
     // ===================================================================================
     //                                                                           Customize
     //                                                                           =========
     @Override
     public void customize(ComponentDef componentDef) {
-        final ActionMapping actionMapping = createActionMapping(componentDef);
-        LaModuleConfigUtil.getModuleConfig().addActionMapping(actionMapping);
+        final ModuleConfig moduleConfig = LaModuleConfigUtil.getModuleConfig();
+        if (isCreateActionMappingInParallel(componentDef)) { // added in customized order when resolved at boot
+            moduleConfig.reserveActionMapping(submitActionMapping(componentDef));
+        } else {
+            moduleConfig.addActionMapping(createActionMapping(componentDef));
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                     Parallel Analysis
+    //                                     -----------------
+    // analysis of one action is confined to its own worker thread (new mapping and executes),
+    // and shared caches used by the analysis (e.g. verified bean types, analysis index) are concurrent
+    protected boolean isCreateActionMappingInParallel(ComponentDef componentDef) {
+        // hot deploy creates mapping lazily when it is found so it needs the mapping synchronously
+        return !ManagedHotdeploy.isHotdeploy() && provideAnalysisParallelism() > 1;
+    }
+
+    protected int provideAnalysisParallelism() {
+        return Math.min(Runtime.getRuntime().availableProcessors(), MAX_ANALYSIS_PARALLELISM);
+    }
+
+    protected Future<ActionMapping> submitActionMapping(ComponentDef componentDef) {
+        // container components are got in caller thread not to touch the container from workers
+        final ActionAdjustmentProvider adjustmentProvider = comeOnAdjustmentProvider();
+        final JsonManager jsonManager = comeOnJsonManager();
+        final ClassLoader callerLoader = Thread.currentThread().getContextClassLoader();
+        return prepareAnalysisExecutor().submit(() -> {
+            final Thread currentThread = Thread.currentThread();
+            final ClassLoader originalLoader = currentThread.getContextClassLoader();
+            currentThread.setContextClassLoader(callerLoader);
+            try {
+                return doCreateActionMapping(componentDef, adjustmentProvider, jsonManager);
+            } finally {
+                currentThread.setContextClassLoader(originalLoader);
+            }
+        });
+    }
+
+    protected synchronized ExecutorService prepareAnalysisExecutor() {
+        if (analysisExecutor == null) {
+            final int parallelism = provideAnalysisParallelism();
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism, ANALYSIS_THREAD_KEEP_ALIVE_MILLIS,
+                    TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), createAnalysisThreadFactory());
+            executor.allowCoreThreadTimeOut(true); // no shutdown needed, idle threads end after boot
+            analysisExecutor = executor;
+        }
+        return analysisExecutor;
+    }
+
+    protected ThreadFactory createAnalysisThreadFactory() {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, "lasta-action-analysis-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true); // not to block JVM exit
+            return thread;
+        };
     }
 
     // ===================================================================================
     //                                                                      Action Mapping
     //                                                                      ==============
     protected ActionMapping createActionMapping(ComponentDef actionDef) {
+        return doCreateActionMapping(actionDef, comeOnAdjustmentProvider(), comeOnJsonManager());
+    }
+
+    protected ActionMapping doCreateActionMapping(ComponentDef actionDef, ActionAdjustmentProvider adjustmentProvider,
+            JsonManager jsonManager) {
         final String actionName = buildActionName(actionDef);
         verifyPackageConvention(actionDef, actionName);
-        final ActionMapping mapping = newActionMapping(actionDef, actionName, comeOnAdjustmentProvider());
+        final ActionMapping mapping = newActionMapping(actionDef, actionName, adjustmentProvider);
         setupMethod(mapping);
+        warmUpJsonMapping(mapping, jsonManager);
         return mapping;
     }
 
@@ -119,15 +211,19 @@ public class RomanticActionCustomizer implements ComponentCustomizer {
     //                                                                       =============
     protected void setupMethod(ActionMapping actionMapping) {
         final Class<?> actionType = actionMapping.getActionDef().getComponentClass();
-        for (Method declaredMethod : actionType.getDeclaredMethods()) {
+        final List<Method> executeMethodList = new ArrayList<Method>();
+        final Set<String> executeNameSet = new HashSet<String>();
+        for (Method declaredMethod : getSortedDeclaredMethods(actionType)) {
             if (!isExecuteMethod(declaredMethod)) {
                 continue;
             }
-            final ActionExecute existing = actionMapping.getActionExecute(declaredMethod);
-            if (existing != null) {
+            if (!executeNameSet.add(declaredMethod.getName())) {
                 throwOverloadMethodCannotDefinedException(actionType);
             }
-            actionMapping.registerExecute(createActionExecute(actionMapping, declaredMethod));
+            executeMethodList.add(declaredMethod);
+        }
+        for (Method executeMethod : executeMethodList) { // in name order
+            actionMapping.registerExecute(createActionExecute(actionMapping, executeMethod));
         }
         verifyExecuteMethodSize(actionMapping, actionType);
         verifyExecuteMethodNotShadowingOthers(actionMapping, actionType);
@@ -135,6 +231,12 @@ public class RomanticActionCustomizer implements ComponentCustomizer {
         verifyExecuteMethodRestfulIndependent(actionMapping, actionType);
     }
 
+    protected Method[] getSortedDeclaredMethods(Class<?> actionType) { // declared order is unspecified by JDK
+        final Method[] declaredMethods = actionType.getDeclaredMethods();
+        Arrays.sort(declaredMethods, Comparator.comparing(Method::getName).thenComparing(Method::toString));
+        return declaredMethods; // same order in every boot, e.g. for execute map and first failure
+    }
+
     protected void throwOverloadMethodCannotDefinedException(final Class<?> actionType) {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
         br.addNotice("Cannot define overload method of action execute.");
@@ -363,9 +465,50 @@ public class RomanticActionCustomizer implements ComponentCustomizer {
         throw new ExecuteMethodIllegalDefinitionException(msg);
     }
 
+    // ===================================================================================
+    //                                                                        JSON Mapping
+    //                                                                        ============
+    protected void warmUpJsonMapping(ActionMapping actionMapping, JsonManager jsonManager) { // to avoid bean analyzing at first request
+        for (ActionExecute execute : actionMapping.getExecuteMap().values()) {
+            execute.getFormMeta().ifPresent(meta -> {
+                meta.getJsonBodyMappingType().ifPresent(bodyType -> {
+                    doWarmUpJsonMapping(jsonManager, bodyType);
+                });
+                meta.properties().forEach(property -> { // e.g. @JsonParameter List<SeaBean> beanList
+                    property.getJsonParameterMappingType().ifPresent(parameterType -> {
+                        doWarmUpJsonMapping(jsonManager, parameterType);
+                    });
+                });
+            });
+            execute.getJsonResponseBeanType().ifPresent(beanType -> {
+                doWarmUpJsonMapping(jsonManager, beanType);
+            });
+        }
+    }
+
+    protected void doWarmUpJsonMapping(JsonManager jsonManager, Type beanType) {
+        try {
+            jsonManager.warmUpMapping(beanType);
+        } catch (RuntimeException e) { // e.g. duplicate JSON field names in the bean
+            handleJsonMappingWarmUpFailure(beanType, e);
+        }
+    }
+
+    protected void handleJsonMappingWarmUpFailure(Type beanType, RuntimeException cause) {
+        // not thrown here because the bean might not be mapped actually, the same problem is thrown at actual mapping
+        logger.warn("Failed to warm up the JSON mapping at boot: " + beanType, cause);
+    }
+
+    protected JsonManager comeOnJsonManager() {
+        return ContainerUtil.getComponent(JsonManager.class);
+    }
+
     // ===================================================================================
     //                                                                      Action Execute
     //                                                                      ==============
+    // -----------------------------------------------------
+    //                                      Execute Creation
+    //                                      ----------------
     protected ActionExecute createActionExecute(ActionMapping actionMapping, Method executeMethod) {
         final Execute anno = getExecuteAnnotation(executeMethod); // exists, already checked
         final ExecuteOption executeOption = createExecuteOption(anno);
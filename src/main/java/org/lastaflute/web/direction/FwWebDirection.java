@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.function.Consumer;
 
 import javax.servlet.Filter;
@@ -26,10 +27,14 @@ import javax.servlet.Filter;
 import org.lastaflute.core.direction.exception.FwRequiredAssistNotFoundException;
 import org.lastaflute.web.api.ApiFailureHook;
 import org.lastaflute.web.path.ActionAdjustmentProvider;
+import org.lastaflute.web.ruts.cache.ResponseCacheResourceProvider;
 import org.lastaflute.web.ruts.multipart.MultipartResourceProvider;
+import org.lastaflute.web.ruts.process.profile.ActionProfilingProvider;
 import org.lastaflute.web.ruts.renderer.HtmlRenderingProvider;
+import org.lastaflute.web.ruts.throttle.ThrottleResourceProvider;
 import org.lastaflute.web.servlet.cookie.CookieResourceProvider;
 import org.lastaflute.web.servlet.filter.accesslog.AccessLogHandler;
+import org.lastaflute.web.servlet.filter.compress.ResponseCompressionHook;
 import org.lastaflute.web.servlet.filter.cors.CorsHook;
 import org.lastaflute.web.servlet.filter.hook.FilterHook;
 import org.lastaflute.web.servlet.filter.hook.FilterHookServletAdapter;
@@ -68,6 +73,7 @@ public class FwWebDirection {
     //                                               -------
     protected String appMessageName;
     protected List<String> extendsMessageNameList; // lazy loaded
+    protected List<Locale> prewarmMessageLocaleList; // null allowed
 
     // -----------------------------------------------------
     //                                              API Call
@@ -96,6 +102,21 @@ public class FwWebDirection {
     //                                             ---------
     protected MultipartResourceProvider multipartResourceProvider;
 
+    // -----------------------------------------------------
+    //                                        Response Cache
+    //                                        --------------
+    protected ResponseCacheResourceProvider responseCacheResourceProvider;
+
+    // -----------------------------------------------------
+    //                                              Throttle
+    //                                              --------
+    protected ThrottleResourceProvider throttleResourceProvider;
+
+    // -----------------------------------------------------
+    //                                      Action Profiling
+    //                                      ----------------
+    protected ActionProfilingProvider actionProfilingProvider;
+
     // -----------------------------------------------------
     //                                         Html Renderer
     //                                         -------------
@@ -158,6 +179,15 @@ public class FwWebDirection {
         return extendsMessageNameList;
     }
 
+    /**
+     * Load message bundles for the locales at boot not to stall first requests.
+     * @param locales The array of locales to be prepared. (NotNull)
+     */
+    public void directMessagePrewarm(Locale... locales) {
+        assertArgumentNotNull("locales", locales);
+        prewarmMessageLocaleList = Arrays.asList(locales);
+    }
+
     // -----------------------------------------------------
     //                                              API Call
     //                                              --------
@@ -180,6 +210,11 @@ public class FwWebDirection {
         getOutsideFilterHookList().add(hook); // before routing
     }
 
+    public void directCompression(ResponseCompressionHook hook) {
+        assertArgumentNotNull("hook", hook);
+        getOutsideFilterHookList().add(hook); // wraps response of all inner processes
+    }
+
     public void directServletFilter(Filter servletFilter, boolean inside) { // inside means after logging
         assertArgumentNotNull("servletFilter", servletFilter);
         final List<FilterHook> hookList = inside ? getInsideFilterHookList() : getOutsideFilterHookList();
@@ -228,10 +263,41 @@ public class FwWebDirection {
     // -----------------------------------------------------
     //                                             Multipart
     //                                             ---------
+    /**
+     * Direct the provider of multipart handling. <br>
+     * If not directed, the built-in streaming handler is used with the default limits
+     * (20MB per file and 50MB per request, see StreamingMultipartOption). <br>
+     * (it threw exception for multipart request before so direct it if your application needs larger files)
+     * @param multipartResourceProvider The provider of multipart handling. (NullAllowed: built-in handler)
+     */
     public void directMultipart(MultipartResourceProvider multipartResourceProvider) {
         this.multipartResourceProvider = multipartResourceProvider;
     }
 
+    // -----------------------------------------------------
+    //                                        Response Cache
+    //                                        --------------
+    public void directResponseCache(ResponseCacheResourceProvider responseCacheResourceProvider) {
+        assertArgumentNotNull("responseCacheResourceProvider", responseCacheResourceProvider);
+        this.responseCacheResourceProvider = responseCacheResourceProvider;
+    }
+
+    // -----------------------------------------------------
+    //                                              Throttle
+    //                                              --------
+    public void directThrottle(ThrottleResourceProvider throttleResourceProvider) {
+        assertArgumentNotNull("throttleResourceProvider", throttleResourceProvider);
+        this.throttleResourceProvider = throttleResourceProvider;
+    }
+
+    // -----------------------------------------------------
+    //                                      Action Profiling
+    //                                      ----------------
+    public void directActionProfiling(ActionProfilingProvider actionProfilingProvider) {
+        assertArgumentNotNull("actionProfilingProvider", actionProfilingProvider);
+        this.actionProfilingProvider = actionProfilingProvider;
+    }
+
     // -----------------------------------------------------
     //                                         Html Renderer
     //                                         -------------
@@ -288,6 +354,10 @@ public class FwWebDirection {
         return extendsMessageNameList != null ? extendsMessageNameList : Collections.emptyList();
     }
 
+    public List<Locale> assistPrewarmMessageLocaleList() { // empty allowed
+        return prewarmMessageLocaleList != null ? prewarmMessageLocaleList : Collections.emptyList();
+    }
+
     // -----------------------------------------------------
     //                                              API Call
     //                                              --------
@@ -332,6 +402,27 @@ public class FwWebDirection {
         return multipartResourceProvider; // not required, it's optional assist
     }
 
+    // -----------------------------------------------------
+    //                                        Response Cache
+    //                                        --------------
+    public ResponseCacheResourceProvider assistResponseCacheResourceProvider() {
+        return responseCacheResourceProvider; // not required, it's optional assist
+    }
+
+    // -----------------------------------------------------
+    //                                              Throttle
+    //                                              --------
+    public ThrottleResourceProvider assistThrottleResourceProvider() {
+        return throttleResourceProvider; // not required, it's optional assist
+    }
+
+    // -----------------------------------------------------
+    //                                      Action Profiling
+    //                                      ----------------
+    public ActionProfilingProvider assistActionProfilingProvider() {
+        return actionProfilingProvider; // not required, it's optional assist
+    }
+
     // -----------------------------------------------------
     //                                         Html Renderer
     //                                         -------------
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.exception;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.lastaflute.core.message.UserMessages;
+
+/**
+ * The exception thrown when the bulkhead of the execute method is full after waiting, sent as 503. <br>
+ * It is not client error strictly, but handled in the same way to be rejected cheaply, not logged as server error.
+ * @author jflute
+ * @since 0.8.5 (2016/10/03 Monday)
+ */
+public class ActionBulkheadFullException extends MessagingClientErrorException {
+
+    private static final long serialVersionUID = 1L;
+
+    protected static final String TITLE = "503 Service Unavailable";
+    protected static final int STATUS = HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+
+    public ActionBulkheadFullException(String debugMsg, UserMessages messages) {
+        super(debugMsg, TITLE, STATUS, messages);
+    }
+}
@@ -43,6 +43,9 @@ public abstract class TypicalUserBean<ID> implements UserBean<ID>, SyncCheckable
     /** The time-zone for the user. (NullAllowed) */
     protected TimeZone userTimeZone;
 
+    /** The version of state for session flushing, incremented when mutated. (NotMinus) */
+    protected long sessionVersion;
+
     // ===================================================================================
     //                                                                      Basic Override
     //                                                                      ==============
@@ -86,6 +89,7 @@ public abstract class TypicalUserBean<ID> implements UserBean<ID>, SyncCheckable
             throw new IllegalArgumentException("The argument 'lastestSyncCheckTime' should not be null.");
         }
         this.lastestSyncCheckTime = lastestSyncCheckTime;
+        incrementSessionVersion();
     }
 
     // ===================================================================================
@@ -105,6 +109,7 @@ public abstract class TypicalUserBean<ID> implements UserBean<ID>, SyncCheckable
             throw new IllegalArgumentException("The argument 'userLocale' should not be null.");
         }
         this.userLocale = userLocale;
+        incrementSessionVersion();
     }
 
     @Override
@@ -121,5 +126,22 @@ public abstract class TypicalUserBean<ID> implements UserBean<ID>, SyncCheckable
             throw new IllegalArgumentException("The argument 'userTimeZone' should not be null.");
         }
         this.userTimeZone = userTimeZone;
+        incrementSessionVersion();
+    }
+
+    // ===================================================================================
+    //                                                                     Session Version
+    //                                                                     ===============
+    @Override
+    public long getSessionVersion() {
+        return sessionVersion;
+    }
+
+    /**
+     * Increment the session version, call this when your sub-class state is mutated. <br>
+     * The same instance with unchanged version may be skipped in session flushing (if the option is enabled).
+     */
+    protected void incrementSessionVersion() {
+        ++sessionVersion;
     }
 }
@@ -26,4 +26,13 @@ public interface UserBean<ID> {
      * @return The ID of the login user. (NotNull)
      */
     ID getUserId();
+
+    /**
+     * Get the version of the user bean's state for session flushing. <br>
+     * The session attribute view can skip flushing the same instance whose version is not changed.
+     * @return The version incremented when mutated, or -1 if unversioned (always flushed).
+     */
+    default long getSessionVersion() {
+        return -1L;
+    }
 }
@@ -85,6 +85,17 @@ public interface ActionAdjustmentProvider {
         return false;
     }
 
+    /**
+     * Does it suppress percent-encoding of action URL (URL parts, GET parameters and hash)? <br>
+     * They are encoded as raw values as default, e.g. moreUrl("C++") to C%2B%2B. <br>
+     * Return true for compatibility if your application encodes them by itself (not encoded in old versions). <br>
+     * Or you can use EncodedUrlValue for each already-encoded value instead.
+     * @return The determination, true or false. If false, values are encoded. (called once at boot)
+     */
+    default boolean isSuppressActionUrlEncoding() {
+        return false;
+    }
+
     /**
      * Customize the request path for action mapping. <br>
      * This method is called many times so you should care the performance.
@@ -117,4 +128,14 @@ public interface ActionAdjustmentProvider {
     default ResponseReflectingOption adjustResponseReflecting() {
         return null;
     }
+
+    /**
+     * Provide the file path of action analysis index. <br>
+     * Form and JSON bean types verified at boot are saved in the index with their bytecode hash,
+     * so unchanged types skip the deep validator-annotation check at next boot.
+     * @return The path of the index file, e.g. target/lastaflute/action-analysis.idx (NullAllowed: if null, no index)
+     */
+    default String provideActionAnalysisIndexPath() {
+        return null;
+    }
 }
@@ -16,10 +16,16 @@
 package org.lastaflute.web.path;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
+import javax.servlet.ServletContext;
 
 import org.dbflute.helper.message.ExceptionMessageBuilder;
 import org.dbflute.optional.OptionalThing;
@@ -27,13 +33,21 @@ import org.dbflute.util.DfCollectionUtil;
 import org.dbflute.util.DfStringUtil;
 import org.dbflute.util.Srl;
 import org.lastaflute.core.direction.FwAssistantDirector;
+import org.lastaflute.core.smartdeploy.ManagedHotdeploy;
+import org.lastaflute.di.core.ExternalContext;
 import org.lastaflute.di.core.LaContainer;
+import org.lastaflute.di.core.factory.SingletonLaContainerFactory;
 import org.lastaflute.di.naming.NamingConvention;
 import org.lastaflute.di.util.LdiStringUtil;
+import org.lastaflute.web.LastaWebKey;
 import org.lastaflute.web.UrlChain;
 import org.lastaflute.web.direction.FwWebDirection;
 import org.lastaflute.web.exception.ActionClassPackageMismatchException;
 import org.lastaflute.web.ruts.config.ActionExecute;
+import org.lastaflute.web.ruts.config.ActionMapping;
+import org.lastaflute.web.ruts.config.ModuleConfig;
+import org.lastaflute.web.ruts.config.UrlPatternSegmentMatcher;
+import org.lastaflute.web.ruts.config.UrlPatternSegmentMatcher.SegmentType;
 import org.lastaflute.web.util.LaActionExecuteUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -51,6 +65,8 @@ public class ActionPathResolver {
 
     private static final UrlChain EMPTY_URL_CHAIN = new UrlChain(null);
 
+    protected static final int MAX_POOLED_BUILDER_CAPACITY = 1024; // large builder is not pooled
+
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
@@ -69,6 +85,15 @@ public class ActionPathResolver {
     /** The provider of action adjustment. (NotNull: after initialization) */
     protected ActionAdjustmentProvider actionAdjustmentProvider;
 
+    /** The encoder of URL parts, e.g. path segment, query parameter. (NotNull: after initialization) */
+    protected ActionUrlEncoder actionUrlEncoder;
+
+    /** The table of action path per action type, prepared by action mappings at boot. (NotNull) */
+    protected final Map<Class<?>, ActionPathEntry> actionPathTable = DfCollectionUtil.newConcurrentHashMap();
+
+    /** The pooled builder of action URL per thread, null while building. (NotNull) */
+    protected final ThreadLocal<StringBuilder> urlBuilderLocal = new ThreadLocal<StringBuilder>();
+
     // ===================================================================================
     //                                                                          Initialize
     //                                                                          ==========
@@ -80,6 +105,7 @@ public class ActionPathResolver {
     public synchronized void initialize() {
         final FwWebDirection direction = assistOptionalActionDirection();
         actionAdjustmentProvider = direction.assistActionAdjustmentProvider();
+        actionUrlEncoder = newActionUrlEncoder();
         showBootLogging();
     }
 
@@ -91,6 +117,7 @@ public class ActionPathResolver {
         if (logger.isInfoEnabled()) {
             logger.info("[Action Resolver]");
             logger.info(" actionAdjustmentProvider: " + actionAdjustmentProvider);
+            logger.info(" suppressActionUrlEncoding: " + actionAdjustmentProvider.isSuppressActionUrlEncoding());
         }
     }
 
@@ -293,7 +320,10 @@ public class ActionPathResolver {
     /**
      * Convert to URL string to move the action. <br>
      * e.g. ProductListAction with moreUrl(3) to /product/list/3 <br>
-     * And not contain context path.
+     * And not contain context path. <br>
+     * URL parts, GET parameters and hash should be raw values because they are percent-encoded here,
+     * so use EncodedUrlValue for already-encoded value (or suppress encoding by action adjustment provider). <br>
+     * If urlPattern of index() has fixed segments e.g. {}/purchase/{}, URL parts are embedded in it.
      * @param actionType The class type of action that it redirects to. (NotNull)
      * @param chain The chain of URL to build additional info on URL. (NotNull)
      * @return The URL string to move to the action. (NotNull)
@@ -301,67 +331,216 @@ public class ActionPathResolver {
     public String toActionUrl(Class<?> actionType, UrlChain chain) {
         assertArgumentNotNull("actionType", actionType);
         assertArgumentNotNull("chain", chain);
-        final String actionPath = resolveActionPath(actionType);
-        final List<Object> getParamList = extractGetParamList(chain);
-        final StringBuilder sb = new StringBuilder();
-        sb.append(actionPath);
-        buildUrlParts(sb, chain);
-        buildGetParam(sb, actionPath, getParamList);
-        buildHashOnUrl(sb, chain);
-        return sb.toString();
-    }
-
-    protected List<Object> extractGetParamList(UrlChain chain) {
-        final Object[] paramsOnGet = chain != null ? chain.getParamsOnGet() : null;
-        final List<Object> getParamList;
-        if (paramsOnGet != null) {
-            getParamList = DfCollectionUtil.newArrayList(paramsOnGet);
-        } else {
-            getParamList = DfCollectionUtil.emptyList();
+        final ActionPathEntry entry = findActionPathEntry(actionType);
+        final StringBuilder sb = borrowUrlBuilder();
+        try {
+            sb.append(entry.getActionPath());
+            buildUrlParts(sb, entry, chain);
+            buildGetParam(sb, entry.getActionPath(), chain);
+            buildHashOnUrl(sb, chain);
+            return sb.toString();
+        } finally {
+            returnUrlBuilder(sb);
         }
-        return getParamList;
     }
 
-    protected void buildUrlParts(StringBuilder sb, UrlChain chain) {
+    protected void buildUrlParts(StringBuilder sb, ActionPathEntry entry, UrlChain chain) {
         final Object[] urlParts = chain != null ? chain.getUrlParts() : null;
+        if (urlParts == null) {
+            return;
+        }
+        int partCount = 0;
+        for (Object param : urlParts) {
+            if (param != null) {
+                ++partCount;
+            }
+        }
+        final ActionUrlTemplate template = entry.findTemplate(partCount);
+        if (template != null) { // e.g. {}/purchase/{} with moreUrl(3, 4)
+            template.build(sb, urlParts, actionUrlEncoder);
+            return;
+        }
         boolean existsParts = false;
-        if (urlParts != null) {
-            for (Object param : urlParts) {
-                if (param != null) {
-                    sb.append(param).append("/");
-                    existsParts = true;
+        for (Object param : urlParts) {
+            if (param != null) {
+                if (existsParts) {
+                    sb.append("/");
                 }
+                actionUrlEncoder.appendPathSegment(sb, param);
+                existsParts = true;
             }
         }
-        if (existsParts) {
-            sb.delete(sb.length() - 1, sb.length()); // e.g. member/edit/3/ to member/edit/3
-        }
     }
 
-    protected void buildGetParam(StringBuilder sb, String actionPath, List<Object> getParamList) {
-        int index = 0;
-        for (Object param : getParamList) {
+    protected void buildGetParam(StringBuilder sb, String actionPath, UrlChain chain) {
+        final Object[] paramsOnGet = chain != null ? chain.getParamsOnGet() : null;
+        if (paramsOnGet == null) {
+            return;
+        }
+        for (int index = 0; index < paramsOnGet.length; index++) { // e.g. name, value, name, value...
             if (index == 0) { // first loop
                 sb.append("?");
             } else {
-                if (index % 2 == 0) {
-                    sb.append("&");
-                } else if (index % 2 == 1) {
-                    sb.append("=");
-                } else { // no way
-                    String msg = "no way: url=" + actionPath + " get-params=" + getParamList;
-                    throw new IllegalStateException(msg);
-                }
+                sb.append(index % 2 == 0 ? "&" : "=");
+            }
+            final Object param = paramsOnGet[index];
+            if (param != null) {
+                actionUrlEncoder.appendQueryComponent(sb, param);
             }
-            sb.append(param != null ? param : "");
-            ++index;
         }
     }
 
     protected void buildHashOnUrl(StringBuilder sb, UrlChain chain) {
         final Object hash = chain != null ? chain.getHashOnUrl() : null;
         if (hash != null) {
-            sb.append("#").append(hash);
+            sb.append("#");
+            actionUrlEncoder.appendHash(sb, hash);
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                           URL Builder
+    //                                           -----------
+    protected StringBuilder borrowUrlBuilder() {
+        final StringBuilder pooled = urlBuilderLocal.get();
+        if (pooled == null) { // first time in the thread or nested call e.g. from toString() of parameter
+            return new StringBuilder(64);
+        }
+        urlBuilderLocal.set(null); // for nested call
+        return pooled;
+    }
+
+    protected void returnUrlBuilder(StringBuilder sb) {
+        if (sb.capacity() <= MAX_POOLED_BUILDER_CAPACITY) { // large one is released
+            sb.setLength(0);
+            urlBuilderLocal.set(sb);
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                      ActionPath Table
+    //                                      ----------------
+    /**
+     * Prepare the table of action path by action mappings, called at boot after container initialization. <br>
+     * Nothing is prepared when hot deploy because action classes are reloaded.
+     * @param moduleConfig The module configuration that has action mappings. (NotNull)
+     */
+    public void prepareActionPathTable(ModuleConfig moduleConfig) {
+        assertArgumentNotNull("moduleConfig", moduleConfig);
+        if (isHotdeploy()) {
+            return;
+        }
+        for (ActionMapping mapping : moduleConfig.getActionMappingList()) {
+            final Class<?> actionType = mapping.getActionDef().getComponentClass();
+            actionPathTable.put(actionType, createActionPathEntry(actionType, OptionalThing.of(mapping)));
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("...Preparing action path table: {} actions", actionPathTable.size());
+        }
+    }
+
+    protected ActionPathEntry findActionPathEntry(Class<?> actionType) {
+        final ActionPathEntry prepared = actionPathTable.get(actionType);
+        if (prepared != null) { // mainly here
+            return prepared;
+        }
+        final ActionPathEntry entry = createActionPathEntry(actionType, findActionMapping(actionType));
+        if (!isHotdeploy()) { // class is not reloaded so keep it
+            actionPathTable.put(actionType, entry);
+        }
+        return entry;
+    }
+
+    protected boolean isHotdeploy() {
+        return ManagedHotdeploy.isHotdeploy();
+    }
+
+    protected OptionalThing<ActionMapping> findActionMapping(Class<?> actionType) {
+        final ExternalContext externalContext = SingletonLaContainerFactory.getExternalContext();
+        final Object application = externalContext != null ? externalContext.getApplication() : null;
+        if (!(application instanceof ServletContext)) { // e.g. unit test without servlet
+            return OptionalThing.empty();
+        }
+        final ModuleConfig moduleConfig = (ModuleConfig) ((ServletContext) application).getAttribute(LastaWebKey.MODULE_CONFIG_KEY);
+        final String componentName = namingConvention.fromClassNameToComponentName(actionType.getName());
+        if (moduleConfig == null || !container.getRoot().hasComponentDef(componentName)) { // e.g. not action class
+            return OptionalThing.empty();
+        }
+        return moduleConfig.findActionMapping(componentName);
+    }
+
+    protected ActionPathEntry createActionPathEntry(Class<?> actionType, OptionalThing<ActionMapping> optMapping) {
+        final String actionPath = doResolveActionPath(actionType);
+        final Map<Integer, ActionUrlTemplate> templateMap = optMapping.map(mapping -> {
+            return prepareUrlTemplateMap(mapping);
+        }).orElse(Collections.emptyMap());
+        return new ActionPathEntry(actionPath, templateMap);
+    }
+
+    protected Map<Integer, ActionUrlTemplate> prepareUrlTemplateMap(ActionMapping mapping) {
+        // only index executes because URL parts of named execute start with method name
+        final List<UrlPatternSegmentMatcher> matcherList = new ArrayList<UrlPatternSegmentMatcher>(4);
+        for (ActionExecute execute : mapping.getExecuteMap().values()) {
+            if (execute.isIndexMethod()) {
+                execute.getPreparedUrlPattern().getSegmentMatcher().ifPresent(matcher -> matcherList.add(matcher));
+            }
+        }
+        return prepareUrlTemplateMap(matcherList);
+    }
+
+    protected Map<Integer, ActionUrlTemplate> prepareUrlTemplateMap(List<UrlPatternSegmentMatcher> indexMatcherList) {
+        final Map<Integer, ActionUrlTemplate> templateMap = new HashMap<Integer, ActionUrlTemplate>(4);
+        final Set<Integer> ambiguousSet = new HashSet<Integer>(4);
+        for (UrlPatternSegmentMatcher matcher : indexMatcherList) {
+            if (!hasLiteralSegment(matcher)) { // e.g. {}/{} is same as no template
+                continue;
+            }
+            final ActionUrlTemplate template = newActionUrlTemplate(matcher);
+            final ActionUrlTemplate existing = templateMap.put(template.getParameterCount(), template);
+            if (existing != null && !existing.toString().equals(template.toString())) { // e.g. get$index and post$index are same
+                ambiguousSet.add(template.getParameterCount());
+            }
+        }
+        templateMap.keySet().removeAll(ambiguousSet); // cannot determine so no template
+        return templateMap;
+    }
+
+    protected boolean hasLiteralSegment(UrlPatternSegmentMatcher matcher) {
+        for (int i = 0; i < matcher.getSegmentCount(); i++) {
+            if (matcher.getSegmentType(i) == SegmentType.LITERAL) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected ActionUrlTemplate newActionUrlTemplate(UrlPatternSegmentMatcher matcher) {
+        return new ActionUrlTemplate(matcher);
+    }
+
+    protected ActionUrlEncoder newActionUrlEncoder() {
+        return new ActionUrlEncoder(actionAdjustmentProvider.isSuppressActionUrlEncoding());
+    }
+
+    /**
+     * The entry of action path table, action path and URL templates by parameter count.
+     */
+    protected static class ActionPathEntry {
+
+        protected final String actionPath; // not null, e.g. /product/list/
+        protected final Map<Integer, ActionUrlTemplate> templateMap; // not null, empty allowed
+
+        public ActionPathEntry(String actionPath, Map<Integer, ActionUrlTemplate> templateMap) {
+            this.actionPath = actionPath;
+            this.templateMap = templateMap;
+        }
+
+        public ActionUrlTemplate findTemplate(int partCount) { // null allowed: when no template
+            return !templateMap.isEmpty() ? templateMap.get(partCount) : null;
+        }
+
+        public String getActionPath() {
+            return actionPath;
         }
     }
 
@@ -369,6 +548,11 @@ public class ActionPathResolver {
     //                                    Resolve ActionPath
     //                                    ------------------
     public String resolveActionPath(Class<?> actionType) {
+        assertArgumentNotNull("actionType", actionType);
+        return findActionPathEntry(actionType).getActionPath();
+    }
+
+    protected String doResolveActionPath(Class<?> actionType) {
         final String delimiter = "/";
         return delimiter + decamelize(toSimpleActionName(actionType), delimiter) + delimiter;
     }
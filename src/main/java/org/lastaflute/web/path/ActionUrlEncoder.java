@@ -0,0 +1,138 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.path;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The percent-encoder for parts of action URL, path segment, query parameter and hash. <br>
+ * Characters allowed in the component are appended as they are, others are encoded as UTF-8 bytes. <br>
+ * Values should be raw (not encoded) so '%' and '+' are also encoded, e.g. C++ to C%2B%2B in query. <br>
+ * If the application has already encoded a value, wrap it by {@link EncodedUrlValue} to append it as it is.
+ * @author jflute
+ * @since 0.8.5 (2016/10/04 Tuesday)
+ */
+public class ActionUrlEncoder {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    /** The ASCII characters allowed in path segment, also slash for plural segments in one part. */
+    protected static final boolean[] PATH_ALLOWED = prepareAllowedTable("!$&'()*+,;=:@/");
+
+    /** The ASCII characters allowed in query name or value, delimiters of query and plus (space of form) are encoded. */
+    protected static final boolean[] QUERY_ALLOWED = prepareAllowedTable("!$'(),;:@/?");
+
+    /** The ASCII characters allowed in hash (fragment). */
+    protected static final boolean[] HASH_ALLOWED = prepareAllowedTable("!$&'()*+,;=:@/?");
+
+    protected static boolean[] prepareAllowedTable(String allowedSymbols) {
+        final boolean[] table = new boolean[128];
+        for (char ch = 'a'; ch <= 'z'; ch++) {
+            table[ch] = true;
+        }
+        for (char ch = 'A'; ch <= 'Z'; ch++) {
+            table[ch] = true;
+        }
+        for (char ch = '0'; ch <= '9'; ch++) {
+            table[ch] = true;
+        }
+        for (char ch : "-._~".toCharArray()) { // unreserved
+            table[ch] = true;
+        }
+        for (char ch : allowedSymbols.toCharArray()) {
+            table[ch] = true;
+        }
+        return table;
+    }
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final boolean suppressEncoding; // true: all values are treated as encoded, same as old versions
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public ActionUrlEncoder() {
+        this(false);
+    }
+
+    /**
+     * @param suppressEncoding Does it append all values as they are? (for compatibility, application encodes them)
+     */
+    public ActionUrlEncoder(boolean suppressEncoding) {
+        this.suppressEncoding = suppressEncoding;
+    }
+
+    // ===================================================================================
+    //                                                                              Append
+    //                                                                              ======
+    /**
+     * @param sb The builder of URL to append. (NotNull)
+     * @param value The raw value of URL part, e.g. 3, sea/land, or encoded value. (NotNull)
+     */
+    public void appendPathSegment(StringBuilder sb, Object value) {
+        doAppend(sb, value, PATH_ALLOWED);
+    }
+
+    /**
+     * @param sb The builder of URL to append. (NotNull)
+     * @param value The raw name or value of query parameter, e.g. keyword, sea&amp;land, or encoded value. (NotNull)
+     */
+    public void appendQueryComponent(StringBuilder sb, Object value) {
+        doAppend(sb, value, QUERY_ALLOWED);
+    }
+
+    /**
+     * @param sb The builder of URL to append. (NotNull)
+     * @param value The raw hash on URL without '#', e.g. result, or encoded value. (NotNull)
+     */
+    public void appendHash(StringBuilder sb, Object value) {
+        doAppend(sb, value, HASH_ALLOWED);
+    }
+
+    protected void doAppend(StringBuilder sb, Object obj, boolean[] allowed) {
+        if (suppressEncoding || obj instanceof EncodedUrlValue) { // encoded by application
+            sb.append(obj.toString());
+            return;
+        }
+        final String value = obj.toString();
+        final int length = value.length();
+        int plainStart = 0;
+        for (int i = 0; i < length; i++) {
+            final char ch = value.charAt(i);
+            if (ch < 128 && allowed[ch]) {
+                continue;
+            }
+            sb.append(value, plainStart, i); // mainly no copy until here
+            final int codePoint = Character.codePointAt(value, i);
+            final int charCount = Character.charCount(codePoint);
+            appendEncoded(sb, value.substring(i, i + charCount)); // surrogate pair as one code point
+            i = i + charCount - 1;
+            plainStart = i + 1;
+        }
+        sb.append(value, plainStart, length);
+    }
+
+    protected void appendEncoded(StringBuilder sb, String ch) {
+        for (byte bt : ch.getBytes(StandardCharsets.UTF_8)) {
+            sb.append('%').append(HEX_DIGITS[(bt >> 4) & 0x0F]).append(HEX_DIGITS[bt & 0x0F]);
+        }
+    }
+}
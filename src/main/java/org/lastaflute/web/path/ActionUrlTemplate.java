@@ -0,0 +1,93 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.path;
+
+import org.lastaflute.web.ruts.config.UrlPatternSegmentMatcher;
+import org.lastaflute.web.ruts.config.UrlPatternSegmentMatcher.SegmentType;
+
+/**
+ * The compiled template of URL parts for the urlPattern of action execute. <br>
+ * e.g. urlPattern "{}/purchase/{}" with moreUrl(3, 4) to 3/purchase/4
+ * @author jflute
+ * @since 0.8.5 (2016/10/04 Tuesday)
+ */
+public class ActionUrlTemplate {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String[] literals; // not null, null element means parameter
+    protected final int parameterCount;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public ActionUrlTemplate(UrlPatternSegmentMatcher segmentMatcher) {
+        final int segmentCount = segmentMatcher.getSegmentCount();
+        this.literals = new String[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            final boolean literal = segmentMatcher.getSegmentType(i) == SegmentType.LITERAL;
+            this.literals[i] = literal ? segmentMatcher.getLiteral(i) : null;
+        }
+        this.parameterCount = segmentMatcher.getParameterCount();
+    }
+
+    // ===================================================================================
+    //                                                                               Build
+    //                                                                               =====
+    /**
+     * @param sb The builder of URL, which has action path. (NotNull)
+     * @param urlParts The parts of URL, null elements are ignored, same count as parameters. (NotNull)
+     * @param encoder The encoder of path segment. (NotNull)
+     */
+    public void build(StringBuilder sb, Object[] urlParts, ActionUrlEncoder encoder) {
+        int partIndex = 0;
+        for (int i = 0; i < literals.length; i++) {
+            if (i > 0) {
+                sb.append('/');
+            }
+            final String literal = literals[i];
+            if (literal != null) {
+                sb.append(literal);
+            } else {
+                while (urlParts[partIndex] == null) { // skip null parts same as no template
+                    ++partIndex;
+                }
+                encoder.appendPathSegment(sb, urlParts[partIndex]);
+                ++partIndex;
+            }
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < literals.length; i++) {
+            sb.append(i > 0 ? "/" : "").append(literals[i] != null ? literals[i] : "{}");
+        }
+        return "template:{" + sb + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public int getParameterCount() {
+        return parameterCount;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.path;
+
+/**
+ * The value already percent-encoded by application, appended to action URL as it is. <br>
+ * Other values of URL parts, GET parameters and hash are raw, and encoded by the framework.
+ * <pre>
+ * redirectWith(ProductListAction.class, params("keyword", EncodedUrlValue.of("C%2B%2B")));
+ * </pre>
+ * @author jflute
+ * @since 0.8.5 (2016/10/04 Tuesday)
+ */
+public class EncodedUrlValue {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String encoded; // not null
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    protected EncodedUrlValue(String encoded) {
+        this.encoded = encoded;
+    }
+
+    /**
+     * @param encoded The percent-encoded value, e.g. C%2B%2B. (NotNull)
+     * @return The new-created value to be appended as it is. (NotNull)
+     */
+    public static EncodedUrlValue of(String encoded) {
+        if (encoded == null) {
+            throw new IllegalArgumentException("The argument 'encoded' should not be null.");
+        }
+        return new EncodedUrlValue(encoded);
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof EncodedUrlValue && encoded.equals(((EncodedUrlValue) obj).encoded);
+    }
+
+    @Override
+    public int hashCode() {
+        return encoded.hashCode();
+    }
+
+    @Override
+    public String toString() { // used as URL expression
+        return encoded;
+    }
+}
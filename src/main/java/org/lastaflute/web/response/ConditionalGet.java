@@ -0,0 +1,103 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.response;
+
+import java.time.Instant;
+
+import org.dbflute.optional.OptionalThing;
+
+/**
+ * The declaration of conditional GET for action response, e.g. ETag and Last-Modified. <br>
+ * Version key and Last-Modified are evaluated before rendering so matched request does not render anything.
+ * @author jflute
+ * @since 0.8.5 (2016/09/20 Tuesday)
+ */
+public class ConditionalGet {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected String versionKey; // null allowed, for weak ETag before rendering
+    protected boolean contentHashed; // strong ETag by rendered body
+    protected Instant lastModified; // null allowed
+
+    // ===================================================================================
+    //                                                                             Setting
+    //                                                                             =======
+    public void versionKey(String versionKey) {
+        this.versionKey = versionKey;
+    }
+
+    public void contentHashed() {
+        this.contentHashed = true;
+    }
+
+    public void lastModified(Instant lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    // ===================================================================================
+    //                                                                          Entity Tag
+    //                                                                          ==========
+    /**
+     * Does the If-None-Match header match the ETag? (weak comparison for GET and HEAD) <br>
+     * The header can be the list of entity tags separated by comma, or "*" that matches any.
+     * @param ifNoneMatch The value of If-None-Match header of the request. (NotNull)
+     * @param etag The ETag of the response, strong or weak. (NotNull)
+     * @return The determination, true if matched.
+     */
+    public static boolean matchesIfNoneMatch(String ifNoneMatch, String etag) {
+        final String opaqueTag = removeWeakPrefix(etag);
+        for (String element : ifNoneMatch.split(",")) { // opaque tag of LastaFlute does not contain comma
+            final String requested = element.trim();
+            if (requested.equals("*") || removeWeakPrefix(requested).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected static String removeWeakPrefix(String etag) {
+        return etag.startsWith("W/") ? etag.substring("W/".length()) : etag;
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "conditional:{version=" + versionKey + ", contentHashed=" + contentHashed + ", lastModified=" + lastModified + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public OptionalThing<String> getVersionKey() {
+        return OptionalThing.ofNullable(versionKey, () -> {
+            throw new IllegalStateException("Not found the version key: " + toString());
+        });
+    }
+
+    public boolean isContentHashed() {
+        return contentHashed;
+    }
+
+    public OptionalThing<Instant> getLastModified() {
+        return OptionalThing.ofNullable(lastModified, () -> {
+            throw new IllegalStateException("Not found the last modified: " + toString());
+        });
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.lastaflute.web.response;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -74,6 +75,11 @@ public class HtmlResponse implements ActionResponse, Redirectable {
     //                                         -------------
     protected ResponseHook afterTxCommitHook; // null allowed
 
+    // -----------------------------------------------------
+    //                                       Conditional GET
+    //                                       ---------------
+    protected ConditionalGet conditionalGet; // null allowed, lazy loaded
+
     // -----------------------------------------------------
     //                                            Validation
     //                                            ----------
@@ -327,6 +333,44 @@ public class HtmlResponse implements ActionResponse, Redirectable {
         return this;
     }
 
+    // -----------------------------------------------------
+    //                                       Conditional GET
+    //                                       ---------------
+    /**
+     * Enable (weak) ETag by the version key of the content, evaluated before rendering. <br>
+     * If If-None-Match of the request matches it, 304 (Not Modified) is returned without rendering.
+     * <pre>
+     * return asHtml(path_Member_MemberJsp).etagByVersion(member.getVersionNo() + ":" + member.getUpdateDatetime());
+     * </pre>
+     * @param versionKey The key changed when the content is changed, e.g. version no, update datetime. (NotNull)
+     * @return this. (NotNull)
+     */
+    public HtmlResponse etagByVersion(String versionKey) {
+        assertArgumentNotNull("versionKey", versionKey);
+        assertDefinedState("etagByVersion");
+        prepareConditionalGet().versionKey(versionKey);
+        return this;
+    }
+
+    /**
+     * Set Last-Modified of the content, evaluated with If-Modified-Since before rendering.
+     * @param lastModified The instant when the content is modified. (NotNull)
+     * @return this. (NotNull)
+     */
+    public HtmlResponse lastModified(Instant lastModified) {
+        assertArgumentNotNull("lastModified", lastModified);
+        assertDefinedState("lastModified");
+        prepareConditionalGet().lastModified(lastModified);
+        return this;
+    }
+
+    protected ConditionalGet prepareConditionalGet() {
+        if (conditionalGet == null) {
+            conditionalGet = new ConditionalGet();
+        }
+        return conditionalGet;
+    }
+
     // -----------------------------------------------------
     //                                             Validator
     //                                             ---------
@@ -499,6 +543,16 @@ public class HtmlResponse implements ActionResponse, Redirectable {
         });
     }
 
+    // -----------------------------------------------------
+    //                                       Conditional GET
+    //                                       ---------------
+    public OptionalThing<ConditionalGet> getConditionalGet() {
+        return OptionalThing.ofNullable(conditionalGet, () -> {
+            String msg = "Not found the conditional GET: " + HtmlResponse.this.toString();
+            throw new IllegalStateException(msg);
+        });
+    }
+
     // -----------------------------------------------------
     //                                             Validator
     //                                             ---------
@@ -15,6 +15,7 @@
  */
 package org.lastaflute.web.response;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -54,6 +55,7 @@ public class JsonResponse<RESULT> implements ApiResponse {
     protected ResponseHook afterTxCommitHook;
     protected Class<?>[] validatorGroups;
     protected boolean validatorSuppressed;
+    protected ConditionalGet conditionalGet; // null allowed, lazy loaded
 
     // ===================================================================================
     //                                                                         Constructor
@@ -189,6 +191,56 @@ public class JsonResponse<RESULT> implements ApiResponse {
         return this;
     }
 
+    // -----------------------------------------------------
+    //                                       Conditional GET
+    //                                       ---------------
+    /**
+     * Enable (weak) ETag by the version key of the content, evaluated before rendering. <br>
+     * If If-None-Match of the request matches it, 304 (Not Modified) is returned without rendering.
+     * <pre>
+     * return asJson(bean).etagByVersion(member.getVersionNo() + ":" + member.getUpdateDatetime());
+     * </pre>
+     * @param versionKey The key changed when the content is changed, e.g. version no, update datetime. (NotNull)
+     * @return this. (NotNull)
+     */
+    public JsonResponse<RESULT> etagByVersion(String versionKey) {
+        assertArgumentNotNull("versionKey", versionKey);
+        assertDefinedState("etagByVersion");
+        prepareConditionalGet().versionKey(versionKey);
+        return this;
+    }
+
+    /**
+     * Enable strong ETag by hash of the rendered JSON. <br>
+     * If If-None-Match of the request matches it, 304 (Not Modified) is returned without body. <br>
+     * The JSON is rendered even if matched so use {@link #etagByVersion(String)} if you can.
+     * @return this. (NotNull)
+     */
+    public JsonResponse<RESULT> etagByContent() {
+        assertDefinedState("etagByContent");
+        prepareConditionalGet().contentHashed();
+        return this;
+    }
+
+    /**
+     * Set Last-Modified of the content, evaluated with If-Modified-Since before rendering.
+     * @param lastModified The instant when the content is modified. (NotNull)
+     * @return this. (NotNull)
+     */
+    public JsonResponse<RESULT> lastModified(Instant lastModified) {
+        assertArgumentNotNull("lastModified", lastModified);
+        assertDefinedState("lastModified");
+        prepareConditionalGet().lastModified(lastModified);
+        return this;
+    }
+
+    protected ConditionalGet prepareConditionalGet() {
+        if (conditionalGet == null) {
+            conditionalGet = new ConditionalGet();
+        }
+        return conditionalGet;
+    }
+
     // -----------------------------------------------------
     //                                             Validator
     //                                             ---------
@@ -315,6 +367,16 @@ public class JsonResponse<RESULT> implements ApiResponse {
         });
     }
 
+    // -----------------------------------------------------
+    //                                       Conditional GET
+    //                                       ---------------
+    public OptionalThing<ConditionalGet> getConditionalGet() {
+        return OptionalThing.ofNullable(conditionalGet, () -> {
+            String msg = "Not found the conditional GET: " + JsonResponse.this.toString();
+            throw new IllegalStateException(msg);
+        });
+    }
+
     // -----------------------------------------------------
     //                                             Validator
     //                                             ---------
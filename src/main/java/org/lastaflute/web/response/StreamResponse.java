@@ -138,6 +138,19 @@ public class StreamResponse implements ActionResponse {
         headerMap.put(ResponseManager.HEADER_CONTENT_DISPOSITION, new String[] { disposition });
     }
 
+    /**
+     * Declare the data as precompressed gzip, e.g. prepared 'sea.json.gz'. <br>
+     * You should check that Accept-Encoding of the request contains 'gzip' before it. <br>
+     * Response compression does not compress the response again because of the Content-Encoding.
+     * @return this. (NotNull)
+     */
+    public StreamResponse headerContentEncodingGzip() {
+        assertDefinedState("headerContentEncodingGzip");
+        headerMap.put("Content-Encoding", new String[] { "gzip" });
+        headerMap.put("Vary", new String[] { "Accept-Encoding" });
+        return this;
+    }
+
     // ===================================================================================
     //                                                                         HTTP Status
     //                                                                         ===========
@@ -27,7 +27,12 @@ import org.lastaflute.core.util.ContainerUtil;
 import org.lastaflute.db.jta.stage.NoneTransactionStage;
 import org.lastaflute.db.jta.stage.TransactionStage;
 import org.lastaflute.db.jta.stage.VestibuleTxProvider;
+import org.lastaflute.web.RequestCoalesced;
+import org.lastaflute.web.ResponseCached;
 import org.lastaflute.web.path.ActionAdjustmentProvider;
+import org.lastaflute.web.ruts.cache.ActionRequestCoalescer;
+import org.lastaflute.web.ruts.cache.ActionResponseCache;
+import org.lastaflute.web.ruts.cache.ResponseReplayGate;
 import org.lastaflute.web.ruts.config.ActionExecute;
 import org.lastaflute.web.ruts.config.ModuleConfig;
 import org.lastaflute.web.ruts.process.ActionCoinHelper;
@@ -35,9 +40,14 @@ import org.lastaflute.web.ruts.process.ActionFormMapper;
 import org.lastaflute.web.ruts.process.ActionResponseReflector;
 import org.lastaflute.web.ruts.process.ActionRuntime;
 import org.lastaflute.web.ruts.process.RequestUrlParam;
+import org.lastaflute.web.ruts.process.profile.ActionPhase;
+import org.lastaflute.web.ruts.process.profile.ActionProfileAggregator;
+import org.lastaflute.web.ruts.process.profile.ActionRequestProfile;
 import org.lastaflute.web.ruts.renderer.HtmlRenderer;
 import org.lastaflute.web.ruts.renderer.HtmlRenderingProvider;
+import org.lastaflute.web.ruts.throttle.ActionThrottler;
 import org.lastaflute.web.servlet.request.RequestManager;
+import org.lastaflute.web.servlet.session.SessionManager;
 
 /**
  * @author jflute
@@ -70,6 +80,18 @@ public class ActionRequestProcessor {
     /** The cache of transaction stage, just same as cachedAssistantDirector. (NotNull: after lazy-load) */
     protected TransactionStage cachedTransactionStage;
 
+    /** The cache of action response cache, just same as cachedAssistantDirector. (NotNull: after lazy-load) */
+    protected ActionResponseCache cachedActionResponseCache;
+
+    /** The cache of action request coalescer, just same as cachedAssistantDirector. (NotNull: after lazy-load) */
+    protected ActionRequestCoalescer cachedActionRequestCoalescer;
+
+    /** The cache of action throttler, just same as cachedAssistantDirector. (NotNull: after lazy-load) */
+    protected ActionThrottler cachedActionThrottler;
+
+    /** The cache of action profile aggregator, just same as cachedAssistantDirector. (NotNull: after lazy-load) */
+    protected ActionProfileAggregator cachedActionProfileAggregator;
+
     // ===================================================================================
     //                                                                          Initialize
     //                                                                          ==========
@@ -98,10 +120,23 @@ public class ActionRequestProcessor {
                 ThreadCacheContext.initialize();
             }
             final ActionRuntime runtime = createActionRuntime(execute, urlParam);
-            fire(runtime); // #to_action
+            final OptionalThing<ActionRequestProfile> profile = beginRequestProfile(runtime);
+            final boolean sessionViewBegun = getSessionManager().beginAttributeView(); // false if disabled or nested
+            try {
+                fire(runtime); // #to_action
+            } finally {
+                if (sessionViewBegun) {
+                    getSessionManager().finishAttributeView(); // flush rest of written attributes
+                }
+                profile.ifPresent(pro -> getActionProfileAggregator().finishProfile(runtime, pro));
+            }
         } finally {
             if (!exists) {
-                ThreadCacheContext.clear();
+                try {
+                    actionFormMapper.finishMultipartRequest(); // e.g. deleting temporary files of uploaded files
+                } finally {
+                    ThreadCacheContext.clear();
+                }
             }
         }
     }
@@ -110,6 +145,12 @@ public class ActionRequestProcessor {
         return new ActionRuntime(getRequestManager().getRequestPath(), execute, urlParam);
     }
 
+    protected OptionalThing<ActionRequestProfile> beginRequestProfile(ActionRuntime runtime) {
+        final OptionalThing<ActionRequestProfile> profile = getActionProfileAggregator().beginProfile(runtime);
+        profile.ifPresent(pro -> runtime.manageRequestProfile(pro));
+        return profile;
+    }
+
     // ===================================================================================
     //                                                                               Fire
     //                                                                              ======
@@ -120,16 +161,76 @@ public class ActionRequestProcessor {
      * @throws ServletException When the action fails about the Servlet.
      */
     protected void fire(ActionRuntime runtime) throws IOException, ServletException {
-        final ActionResponseReflector reflector = createResponseReflector(runtime);
-        ready(runtime, reflector);
+        startPhase(runtime, ActionPhase.READY);
+        final ActionResponseReflector reflector;
+        try {
+            reflector = createResponseReflector(runtime);
+            ready(runtime, reflector);
+        } finally {
+            stopPhase(runtime, ActionPhase.READY);
+        }
 
-        final OptionalThing<VirtualForm> form = prepareActionForm(runtime);
-        populateParameter(runtime, form);
+        final OptionalThing<ResponseCached> responseCached = determineResponseCached(runtime);
+        if (responseCached.isPresent()) { // e.g. heavy and shared GET page
+            final ResponseReplayGate gate = () -> passReplayGate(runtime, reflector);
+            getActionResponseCache().serve(runtime, responseCached.get(), gate, () -> doFire(runtime, reflector));
+            return;
+        }
+        final OptionalThing<RequestCoalesced> requestCoalesced = determineRequestCoalesced(runtime);
+        if (requestCoalesced.isPresent()) { // e.g. heavy page at upstream cache miss
+            final ResponseReplayGate gate = () -> passReplayGate(runtime, reflector);
+            getActionRequestCoalescer().coalesce(runtime, requestCoalesced.get(), gate, () -> doFire(runtime, reflector));
+        } else { // mainly here
+            doFire(runtime, reflector);
+        }
+    }
 
+    protected void doFire(ActionRuntime runtime, ActionResponseReflector reflector) throws IOException, ServletException {
+        if (runtime.getActionExecute().isThrottled()) { // e.g. heavy report action
+            // before form population so that excess requests are rejected cheaply
+            getActionThrottler().throttle(runtime, () -> doFireThrottled(runtime, reflector));
+        } else { // mainly here
+            doFireThrottled(runtime, reflector);
+        }
+    }
+
+    protected void doFireThrottled(ActionRuntime runtime, ActionResponseReflector reflector) throws IOException, ServletException {
+        startPhase(runtime, ActionPhase.FORM_POPULATION);
+        final OptionalThing<VirtualForm> form;
+        try {
+            form = prepareActionForm(runtime);
+            populateParameter(runtime, form);
+        } finally {
+            stopPhase(runtime, ActionPhase.FORM_POPULATION);
+        }
+
+        startPhase(runtime, ActionPhase.ACTION_EXECUTION);
         final VirtualAction action = createAction(runtime, reflector);
-        final NextJourney journey = performAction(action, form, runtime); // #to_action
+        final NextJourney journey;
+        try {
+            journey = performAction(action, form, runtime); // #to_action
+        } finally {
+            stopPhase(runtime, ActionPhase.ACTION_EXECUTION);
+        }
 
-        toNext(runtime, journey);
+        startPhase(runtime, ActionPhase.RENDERING);
+        try {
+            getSessionManager().flushAttributeView(); // before redirect or rendering (may read session)
+            toNext(runtime, journey);
+        } finally {
+            stopPhase(runtime, ActionPhase.RENDERING);
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                         Request Phase
+    //                                         -------------
+    protected void startPhase(ActionRuntime runtime, ActionPhase phase) {
+        runtime.getRequestProfile().ifPresent(pro -> pro.start(phase));
+    }
+
+    protected void stopPhase(ActionRuntime runtime, ActionPhase phase) {
+        runtime.getRequestProfile().ifPresent(pro -> pro.stop(phase));
     }
 
     // ===================================================================================
@@ -148,6 +249,52 @@ public class ActionRequestProcessor {
         actionCoinHelper.resolveLocale(runtime);
     }
 
+    // -----------------------------------------------------
+    //                                        Response Cache
+    //                                        --------------
+    protected OptionalThing<ResponseCached> determineResponseCached(ActionRuntime runtime) {
+        final OptionalThing<ResponseCached> responseCached = runtime.getActionExecute().getResponseCached();
+        if (responseCached.isPresent() && !getRequestManager().isHttpMethodGet()) { // only GET is cacheable
+            return OptionalThing.empty();
+        }
+        return responseCached;
+    }
+
+    protected boolean passReplayGate(ActionRuntime runtime, ActionResponseReflector reflector) throws IOException, ServletException {
+        final VirtualAction action = createAction(runtime, reflector);
+        OptionalThing<NextJourney> hookJourney = OptionalThing.empty();
+        boolean hookOnlySupported = true;
+        try {
+            hookJourney = action.executeHookOnly(); // e.g. login check, without execute method
+        } catch (UnsupportedOperationException e) { // e.g. custom virtual action
+            hookOnlySupported = false;
+        } catch (RuntimeException e) {
+            hookJourney = OptionalThing.of(handleActionFailureException(action, OptionalThing.empty(), runtime, e));
+        } finally {
+            actionCoinHelper.clearContextJustInCase();
+        }
+        if (!hookOnlySupported) { // normal execution instead of replaying, the hook is called in it
+            doFire(runtime, reflector);
+            return false;
+        }
+        if (hookJourney.isPresent()) { // e.g. login redirect
+            toNext(runtime, hookJourney.get());
+            return false;
+        }
+        return true;
+    }
+
+    // -----------------------------------------------------
+    //                                      Request Coalesce
+    //                                      ----------------
+    protected OptionalThing<RequestCoalesced> determineRequestCoalesced(ActionRuntime runtime) {
+        final OptionalThing<RequestCoalesced> requestCoalesced = runtime.getActionExecute().getRequestCoalesced();
+        if (requestCoalesced.isPresent() && !getRequestManager().isHttpMethodGet()) { // only GET is idempotent
+            return OptionalThing.empty();
+        }
+        return requestCoalesced;
+    }
+
     // ===================================================================================
     //                                                                         Action Form
     //                                                                         ===========
@@ -259,6 +406,10 @@ public class ActionRequestProcessor {
         return cachedAssistantDirector;
     }
 
+    protected SessionManager getSessionManager() {
+        return getRequestManager().getSessionManager();
+    }
+
     protected RequestManager getRequestManager() {
         if (cachedRequestManager != null) {
             return cachedRequestManager;
@@ -284,4 +435,56 @@ public class ActionRequestProcessor {
         }
         return cachedTransactionStage;
     }
+
+    protected ActionResponseCache getActionResponseCache() {
+        if (cachedActionResponseCache != null) {
+            return cachedActionResponseCache;
+        }
+        synchronized (this) {
+            if (cachedActionResponseCache != null) {
+                return cachedActionResponseCache;
+            }
+            cachedActionResponseCache = ContainerUtil.getComponent(ActionResponseCache.class);
+        }
+        return cachedActionResponseCache;
+    }
+
+    protected ActionRequestCoalescer getActionRequestCoalescer() {
+        if (cachedActionRequestCoalescer != null) {
+            return cachedActionRequestCoalescer;
+        }
+        synchronized (this) {
+            if (cachedActionRequestCoalescer != null) {
+                return cachedActionRequestCoalescer;
+            }
+            cachedActionRequestCoalescer = ContainerUtil.getComponent(ActionRequestCoalescer.class);
+        }
+        return cachedActionRequestCoalescer;
+    }
+
+    protected ActionThrottler getActionThrottler() {
+        if (cachedActionThrottler != null) {
+            return cachedActionThrottler;
+        }
+        synchronized (this) {
+            if (cachedActionThrottler != null) {
+                return cachedActionThrottler;
+            }
+            cachedActionThrottler = ContainerUtil.getComponent(ActionThrottler.class);
+        }
+        return cachedActionThrottler;
+    }
+
+    protected ActionProfileAggregator getActionProfileAggregator() {
+        if (cachedActionProfileAggregator != null) {
+            return cachedActionProfileAggregator;
+        }
+        synchronized (this) {
+            if (cachedActionProfileAggregator != null) {
+                return cachedActionProfileAggregator;
+            }
+            cachedActionProfileAggregator = ContainerUtil.getComponent(ActionProfileAggregator.class);
+        }
+        return cachedActionProfileAggregator;
+    }
 }
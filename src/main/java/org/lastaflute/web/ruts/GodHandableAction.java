@@ -44,6 +44,7 @@ import org.lastaflute.web.ruts.config.ActionExecute;
 import org.lastaflute.web.ruts.process.ActionResponseReflector;
 import org.lastaflute.web.ruts.process.ActionRuntime;
 import org.lastaflute.web.ruts.process.exception.ActionCreateFailureException;
+import org.lastaflute.web.ruts.process.profile.ActionPhase;
 import org.lastaflute.web.servlet.filter.RequestLoggingFilter.WholeShowRequestAttribute;
 import org.lastaflute.web.servlet.request.RequestManager;
 import org.lastaflute.web.util.LaActionExecuteUtil;
@@ -138,6 +139,37 @@ public class GodHandableAction implements VirtualAction {
         }
     }
 
+    // -----------------------------------------------------
+    //                                             Hook Only
+    //                                             ---------
+    @Override
+    public OptionalThing<NextJourney> executeHookOnly() { // e.g. before replaying cached response
+        final ActionHook hook = prepareActionHook();
+        try {
+            final ActionResponse before = processHookBefore(hook); // with login check
+            if (before.isDefined()) { // e.g. login required
+                return OptionalThing.of(toHookJourney(before));
+            } else { // mainly here
+                return OptionalThing.empty(); // can go on
+            }
+        } catch (RuntimeException e) {
+            final ActionResponse monologue = tellExceptionMonologue(hook, e);
+            return OptionalThing.of(toHookJourney(monologue));
+        } catch (Error e) {
+            redCardableAssist.translateToHotdeployErrorIfPossible(e);
+            throw e;
+        } finally {
+            processHookFinally(hook);
+        }
+    }
+
+    protected NextJourney toHookJourney(ActionResponse response) {
+        final NextJourney journey = reflect(response);
+        setupDisplayData(journey);
+        showTransition(journey);
+        return journey;
+    }
+
     protected ActionHook prepareActionHook() {
         return action instanceof ActionHook ? (ActionHook) action : null;
     }
@@ -207,7 +239,12 @@ public class GodHandableAction implements VirtualAction {
     //                                      Reflect Response
     //                                      ----------------
     protected NextJourney reflect(ActionResponse response) {
-        return reflector.reflect(response);
+        runtime.getRequestProfile().ifPresent(pro -> pro.start(ActionPhase.RESPONSE_REFLECTION));
+        try {
+            return reflector.reflect(response);
+        } finally {
+            runtime.getRequestProfile().ifPresent(pro -> pro.stop(ActionPhase.RESPONSE_REFLECTION));
+        }
     }
 
     // -----------------------------------------------------
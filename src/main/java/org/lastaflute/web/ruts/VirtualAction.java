@@ -23,4 +23,15 @@ import org.dbflute.optional.OptionalThing;
 public interface VirtualAction {
 
     NextJourney execute(OptionalThing<VirtualForm> form);
+
+    /**
+     * Execute only the action hook (e.g. god-hand prologue for login check and hookBefore) without execute method. <br>
+     * It is used before replaying the response generated by other request, e.g. response cache. <br>
+     * The default implementation does not support it, and then the action is executed normally instead of replaying.
+     * @return The optional journey of the response returned by the hook. (NotNull, EmptyAllowed: if the hook allows to go on)
+     * @throws UnsupportedOperationException When the action cannot execute only the hook.
+     */
+    default OptionalThing<NextJourney> executeHookOnly() {
+        throw new UnsupportedOperationException("Cannot execute only the action hook: " + getClass().getName());
+    }
 }
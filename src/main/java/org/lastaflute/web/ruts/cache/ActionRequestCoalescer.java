@@ -0,0 +1,44 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+
+import org.lastaflute.web.RequestCoalesced;
+import org.lastaflute.web.ruts.process.ActionRuntime;
+
+/**
+ * The coalescer of concurrent identical requests declared by {@link RequestCoalesced}.
+ * @author jflute
+ * @since 0.8.5 (2016/09/22 Thursday)
+ */
+public interface ActionRequestCoalescer {
+
+    /**
+     * Execute the action as leader, or wait for the identical executing request and replay its response. <br>
+     * The shared response is replayed only after the gate (e.g. login check by action hook) is passed.
+     * @param runtime The runtime of current action, locale already resolved. (NotNull)
+     * @param coalesced The declaration of request coalescing. (NotNull)
+     * @param gate The callback to check the request before replaying shared response. (NotNull)
+     * @param generator The callback to execute the action and render the response. (NotNull)
+     * @throws IOException When the action fails about the IO.
+     * @throws ServletException When the action fails about the Servlet.
+     */
+    void coalesce(ActionRuntime runtime, RequestCoalesced coalesced, ResponseReplayGate gate, ResponseGenerator generator)
+            throws IOException, ServletException;
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+
+import org.lastaflute.web.ResponseCached;
+import org.lastaflute.web.ruts.process.ActionRuntime;
+
+/**
+ * The server-side cache of rendered action response declared by {@link ResponseCached}. <br>
+ * You can invalidate cached responses e.g. when the master data is updated.
+ * @author jflute
+ * @since 0.8.5 (2016/09/21 Wednesday)
+ */
+public interface ActionResponseCache {
+
+    // ===================================================================================
+    //                                                                               Serve
+    //                                                                               =====
+    /**
+     * Serve the cached response, or generate it by the action and cache it. <br>
+     * Same-key requests during generation wait for it and share the generated response. <br>
+     * The cached response is replayed only after the gate (e.g. login check by action hook) is passed.
+     * @param runtime The runtime of current action, locale already resolved. (NotNull)
+     * @param cached The declaration of response cache. (NotNull)
+     * @param gate The callback to check the request before replaying cached response. (NotNull)
+     * @param generator The callback to execute the action and render the response. (NotNull)
+     * @throws IOException When the action fails about the IO.
+     * @throws ServletException When the action fails about the Servlet.
+     */
+    void serve(ActionRuntime runtime, ResponseCached cached, ResponseReplayGate gate, ResponseGenerator generator)
+            throws IOException, ServletException;
+
+    // ===================================================================================
+    //                                                                          Invalidate
+    //                                                                          ==========
+    /**
+     * @param actionType The type of action whose cached responses are invalidated. (NotNull)
+     */
+    void invalidate(Class<?> actionType);
+
+    /**
+     * @param actionType The type of action whose cached responses are invalidated. (NotNull)
+     * @param methodName The name of execute method whose cached responses are invalidated. (NotNull)
+     */
+    void invalidate(Class<?> actionType, String methodName);
+
+    /**
+     * Invalidate all cached responses.
+     */
+    void invalidateAll();
+}
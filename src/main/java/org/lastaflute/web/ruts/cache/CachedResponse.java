@@ -0,0 +1,150 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+
+import org.lastaflute.web.response.ConditionalGet;
+
+/**
+ * The rendered response stored in response cache, immutable.
+ * @author jflute
+ * @since 0.8.5 (2016/09/21 Wednesday)
+ */
+public class CachedResponse {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final int status;
+    protected final String contentType; // null allowed
+    protected final Map<String, List<String>> headerMap; // not null, read-only
+    protected final byte[] body; // not null
+    protected final long expireMillis; // epoch millis
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public CachedResponse(int status, String contentType, Map<String, List<String>> headerMap, byte[] body, long expireMillis) {
+        this.status = status;
+        this.contentType = contentType;
+        this.headerMap = headerMap;
+        this.body = body;
+        this.expireMillis = expireMillis;
+    }
+
+    // ===================================================================================
+    //                                                                              Replay
+    //                                                                              ======
+    /**
+     * Write the cached response to the current response.
+     * @param response The response of current request. (NotNull)
+     * @throws IOException When it fails to write the body.
+     */
+    public void replay(HttpServletResponse response) throws IOException {
+        replay(response, null);
+    }
+
+    /**
+     * Write the cached response to the current response, or 304 (Not Modified) if the ETag matches.
+     * @param response The response of current request. (NotNull)
+     * @param ifNoneMatch The value of If-None-Match header of current request. (NullAllowed: if no header)
+     * @throws IOException When it fails to write the body.
+     */
+    public void replay(HttpServletResponse response, String ifNoneMatch) throws IOException {
+        final boolean notModified = isNotModified(ifNoneMatch);
+        response.setStatus(notModified ? HttpServletResponse.SC_NOT_MODIFIED : status);
+        headerMap.forEach((name, values) -> {
+            for (String value : values) {
+                response.addHeader(name, value);
+            }
+        });
+        if (notModified) { // without body
+            return;
+        }
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        response.setContentLength(body.length);
+        final ServletOutputStream out = response.getOutputStream();
+        out.write(body);
+        out.flush();
+    }
+
+    protected boolean isNotModified(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        final String etag = findEtag();
+        return etag != null && ConditionalGet.matchesIfNoneMatch(ifNoneMatch, etag);
+    }
+
+    protected String findEtag() { // null allowed
+        for (Entry<String, List<String>> entry : headerMap.entrySet()) {
+            if ("ETag".equalsIgnoreCase(entry.getKey()) && !entry.getValue().isEmpty()) {
+                return entry.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    // ===================================================================================
+    //                                                                       Determination
+    //                                                                       =============
+    public boolean isExpired(long currentMillis) {
+        return currentMillis >= expireMillis;
+    }
+
+    /**
+     * @return The weight of the response for cache capacity, basically body size. (NotMinus)
+     */
+    public int getWeight() {
+        return body.length + 256; // with rough overhead of headers
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "cached:{" + status + ", " + contentType + ", size=" + body.length + ", expire=" + expireMillis + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public Map<String, List<String>> getHeaderMap() {
+        return headerMap;
+    }
+
+    public long getExpireMillis() {
+        return expireMillis;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+/**
+ * The count-min sketch of access frequency with 4-bit-like saturated counters and periodic aging. <br>
+ * It is used as TinyLFU admission: a new entry can replace a victim only when it is accessed more frequently.
+ * (no lock: concurrent increments may be lost, which only makes the estimate a little lower)
+ * @author jflute
+ * @since 0.8.5 (2016/09/21 Wednesday)
+ */
+public class FrequencySketch {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final int DEPTH = 4;
+    protected static final int MAX_COUNT = 15;
+    protected static final int[] SEEDS = { 0x97cb3127, 0xb72c5f8d, 0x5a1b4c6f, 0xe3c2a1d9 };
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final byte[][] table; // [depth][width]
+    protected final int widthMask; // width is power of two
+    protected final int sampleSize; // aging when additions reach it
+    protected int additions;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param estimatedSize The estimated count of entries in the cache. (NotMinus)
+     */
+    public FrequencySketch(int estimatedSize) {
+        final int width = Math.max(64, Integer.highestOneBit(Math.max(1, estimatedSize - 1)) << 1);
+        this.table = new byte[DEPTH][width];
+        this.widthMask = width - 1;
+        this.sampleSize = width * 10;
+    }
+
+    // ===================================================================================
+    //                                                                           Increment
+    //                                                                           =========
+    public void increment(int hash) {
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            final int index = indexOf(hash, i);
+            if (table[i][index] < MAX_COUNT) {
+                ++table[i][index];
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            age();
+        }
+    }
+
+    protected void age() { // to forget old popularity
+        for (byte[] row : table) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] = (byte) (row[i] >>> 1);
+            }
+        }
+        additions = additions >>> 1;
+    }
+
+    // ===================================================================================
+    //                                                                           Frequency
+    //                                                                           =========
+    public int frequency(int hash) {
+        int min = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            min = Math.min(min, table[i][indexOf(hash, i)]);
+        }
+        return min;
+    }
+
+    protected int indexOf(int hash, int depth) {
+        int spread = (hash ^ SEEDS[depth]) * 0x9e3779b9; // golden ratio mixing
+        spread ^= spread >>> 16;
+        return spread & widthMask;
+    }
+}
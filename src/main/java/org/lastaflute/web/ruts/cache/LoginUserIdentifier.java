@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import javax.servlet.http.HttpSession;
+
+import org.lastaflute.core.magic.ThreadCacheContext;
+import org.lastaflute.web.LastaWebKey;
+import org.lastaflute.web.login.UserBean;
+import org.lastaflute.web.servlet.request.RequestManager;
+
+/**
+ * The identifier of login user for the response shared between requests, e.g. response cache, request coalescing. <br>
+ * The user beans saved in session identify the login users before the action is executed,
+ * and the user bean prepared by god-hand prologue (in thread cache) verifies that the response was generated for them.
+ * @author jflute
+ * @since 0.8.5 (2016/09/21 Wednesday)
+ */
+public class LoginUserIdentifier {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final String USER_BEAN_KEY_PREFIX = LastaWebKey.USER_BEAN_KEY + "."; // suffix added per assist
+
+    // ===================================================================================
+    //                                                                            Identify
+    //                                                                            ========
+    /**
+     * Identify the login users in session of the request, e.g. [MemberBean=3].
+     * @param requestManager The manager of request to find session. (NotNull)
+     * @return The sorted list of login user expressions. (NotNull, EmptyAllowed: if non-login)
+     */
+    public List<String> identifySessionLogin(RequestManager requestManager) {
+        final HttpSession session = requestManager.getRequest().getSession(false); // not create
+        if (session == null) {
+            return Collections.emptyList();
+        }
+        final List<String> userList = new ArrayList<String>(1);
+        final Enumeration<String> attributeNames = session.getAttributeNames();
+        while (attributeNames.hasMoreElements()) {
+            final String name = attributeNames.nextElement();
+            if (name.startsWith(USER_BEAN_KEY_PREFIX)) {
+                final Object userBean = requestManager.getSessionManager().getAttribute(name, Object.class).orElse(null);
+                if (userBean instanceof UserBean) {
+                    userList.add(buildUserExp((UserBean<?>) userBean));
+                }
+            }
+        }
+        Collections.sort(userList); // for stable key
+        return userList;
+    }
+
+    /**
+     * Is the response generated for the identified login users? (called after action execution) <br>
+     * The login user prepared by god-hand prologue should be one of them, or no login user in the action.
+     * @param sessionLoginList The list of login users identified before the action. (NotNull, EmptyAllowed)
+     * @return The determination, true if the response can be shared with the same identity.
+     */
+    public boolean isGeneratedFor(List<String> sessionLoginList) {
+        final Object userBean = ThreadCacheContext.findUserBean(); // null if no prologue or non-login
+        if (!(userBean instanceof UserBean)) {
+            return true;
+        }
+        return sessionLoginList.contains(buildUserExp((UserBean<?>) userBean));
+    }
+
+    protected String buildUserExp(UserBean<?> userBean) {
+        return userBean.getClass().getSimpleName() + "=" + userBean.getUserId();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import org.lastaflute.web.ruts.process.ActionRuntime;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/09/21 Wednesday)
+ */
+public interface ResponseCacheResourceProvider {
+
+    /**
+     * @return The max total bytes of cached responses in the process. (NotMinus)
+     */
+    default long provideMaxCachedBytes() {
+        return 64L * 1024L * 1024L; // as default
+    }
+
+    /**
+     * @return The max bytes of one cached response, larger response is not cached. (NotMinus)
+     */
+    default int provideMaxResponseBytes() {
+        return 1024 * 1024; // as default
+    }
+
+    /**
+     * @return The estimated count of cached responses, used for admission sketch. (NotMinus)
+     */
+    default int provideEstimatedResponseCount() {
+        return 10000; // as default
+    }
+
+    /**
+     * Provide the user segment as part of cache key, e.g. device type. <br>
+     * Login users in session are already part of the key, so the response is cached per login user.
+     * @param runtime The runtime of current action. (NotNull)
+     * @return The expression of user segment. (NullAllowed: if null, no segment)
+     */
+    default String provideUserSegment(ActionRuntime runtime) {
+        return null;
+    }
+}
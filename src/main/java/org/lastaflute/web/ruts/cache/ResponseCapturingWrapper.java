@@ -0,0 +1,319 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * The response wrapper that captures the written response with passing through it to the original response. <br>
+ * The captured response can be cached or shared with other same requests.
+ * @author jflute
+ * @since 0.8.5 (2016/09/21 Wednesday)
+ */
+public class ResponseCapturingWrapper extends HttpServletResponseWrapper {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final int maxBodySize; // over body is not captured
+    protected final ByteArrayOutputStream captured = new ByteArrayOutputStream(4096);
+    protected ServletOutputStream stream; // null allowed, lazy
+    protected PrintWriter writer; // null allowed, lazy
+    protected final Map<String, List<String>> writtenHeaderMap = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+    protected boolean uncapturable; // e.g. cookie, redirect, too large
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public ResponseCapturingWrapper(HttpServletResponse response, int maxBodySize) {
+        super(response);
+        this.maxBodySize = maxBodySize;
+    }
+
+    // ===================================================================================
+    //                                                                       Output Stream
+    //                                                                       =============
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("The getWriter() has already been called: " + this);
+        }
+        if (stream == null) {
+            stream = newCapturingStream(super.getOutputStream());
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("The getOutputStream() has already been called: " + this);
+            }
+            stream = newCapturingStream(super.getOutputStream());
+            writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    protected ServletOutputStream newCapturingStream(ServletOutputStream original) {
+        return new ServletOutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                original.write(b);
+                capture(new byte[] { (byte) b }, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                original.write(b, off, len);
+                capture(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                original.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                original.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return original.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                uncapturable = true; // asynchronous writing cannot be captured
+                original.setWriteListener(writeListener);
+            }
+        };
+    }
+
+    protected void capture(byte[] b, int off, int len) {
+        if (uncapturable) {
+            return;
+        }
+        if (captured.size() + len > maxBodySize) {
+            uncapturable = true;
+            captured.reset(); // release memory
+            return;
+        }
+        captured.write(b, off, len);
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        captured.reset();
+        writtenHeaderMap.clear();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        captured.reset();
+    }
+
+    // ===================================================================================
+    //                                                                      Written Header
+    //                                                                      ==============
+    // headers written by filters before the action are not captured because they are written again in replay
+    @Override
+    public void setHeader(String name, String value) {
+        super.setHeader(name, value);
+        keepWrittenHeader(name);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        super.addHeader(name, value);
+        keepWrittenHeader(name);
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        super.setDateHeader(name, date);
+        keepWrittenHeader(name);
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        super.addDateHeader(name, date);
+        keepWrittenHeader(name);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        super.setIntHeader(name, value);
+        keepWrittenHeader(name);
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        super.addIntHeader(name, value);
+        keepWrittenHeader(name);
+    }
+
+    protected void keepWrittenHeader(String name) { // formatted by container
+        final Collection<String> values = getHeaders(name);
+        if (values == null || values.isEmpty()) { // e.g. removed by null value
+            writtenHeaderMap.remove(name);
+        } else {
+            writtenHeaderMap.put(name, Collections.unmodifiableList(new ArrayList<String>(values)));
+        }
+    }
+
+    // ===================================================================================
+    //                                                                        Uncapturable
+    //                                                                        ============
+    @Override
+    public void addCookie(Cookie cookie) {
+        uncapturable = true; // user-specific response
+        super.addCookie(cookie);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        uncapturable = true;
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        uncapturable = true;
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        uncapturable = true;
+        super.sendRedirect(location);
+    }
+
+    // ===================================================================================
+    //                                                                      Captured State
+    //                                                                      ==============
+    /**
+     * Convert the captured response to the cached response.
+     * @param expireMillis The epoch millis when the response is expired.
+     * @return The captured response. (NullAllowed: if not capturable e.g. cookie, error status, Cache-Control: private)
+     */
+    public CachedResponse toCachedResponse(long expireMillis) {
+        if (writer != null) {
+            writer.flush(); // to captured bytes
+        }
+        final int status = getStatus();
+        if (uncapturable || status != SC_OK || containsHeader("Set-Cookie") || isUncacheableByHeader()) {
+            return null;
+        }
+        return new CachedResponse(status, getContentType(), extractHeaderMap(), captured.toByteArray(), expireMillis);
+    }
+
+    protected boolean isUncacheableByHeader() {
+        for (String directive : extractHeaderElementList("Cache-Control")) {
+            final String directiveName = directive.contains("=") ? directive.substring(0, directive.indexOf('=')).trim() : directive;
+            if ("private".equalsIgnoreCase(directiveName) || "no-store".equalsIgnoreCase(directiveName)) {
+                return true; // not for shared cache
+            }
+        }
+        for (String varyName : extractHeaderElementList("Vary")) {
+            if (!isCacheKeyVaryHeader(varyName)) { // e.g. '*', User-Agent
+                return true; // the response depends on request header out of cache key
+            }
+        }
+        // the body depends on Accept-Encoding if encoded by the action (compression by filter is after the cache)
+        return writtenHeaderMap.containsKey("Content-Encoding");
+    }
+
+    protected List<String> extractHeaderElementList(String name) {
+        final Collection<String> values = getHeaders(name);
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<String> elementList = new ArrayList<String>();
+        for (String value : values) {
+            for (String element : value.split(",")) {
+                final String trimmed = element.trim();
+                if (!trimmed.isEmpty()) {
+                    elementList.add(trimmed);
+                }
+            }
+        }
+        return elementList;
+    }
+
+    protected boolean isCacheKeyVaryHeader(String varyName) {
+        return "Accept-Encoding".equalsIgnoreCase(varyName) // cached body is not encoded
+                || "Accept-Language".equalsIgnoreCase(varyName); // user locale is part of key
+    }
+
+    protected Map<String, List<String>> extractHeaderMap() {
+        if (writtenHeaderMap.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, List<String>> headerMap = new LinkedHashMap<String, List<String>>(writtenHeaderMap.size());
+        writtenHeaderMap.forEach((name, values) -> {
+            if (isCapturedHeader(name)) {
+                headerMap.put(name, values);
+            }
+        });
+        return Collections.unmodifiableMap(headerMap);
+    }
+
+    protected boolean isCapturedHeader(String name) { // not depending on each response
+        return !"Content-Type".equalsIgnoreCase(name) // set separately
+                && !"Content-Length".equalsIgnoreCase(name) // set by body
+                && !"Transfer-Encoding".equalsIgnoreCase(name) // by container
+                && !"Date".equalsIgnoreCase(name) // by container
+                && !"Set-Cookie".equalsIgnoreCase(name); // user-specific
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "capturing:{size=" + captured.size() + ", uncapturable=" + uncapturable + "}";
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+
+/**
+ * The callback to pass the gate before replaying the response generated by other request. <br>
+ * The action hook (e.g. god-hand prologue for login check) is called here because the action is not executed.
+ * @author jflute
+ * @since 0.8.5 (2016/09/21 Wednesday)
+ */
+@FunctionalInterface
+public interface ResponseReplayGate {
+
+    /**
+     * @return The determination, true if the response can be replayed, false if already responded e.g. login redirect.
+     * @throws IOException When the hook fails about the IO.
+     * @throws ServletException When the hook fails about the Servlet.
+     */
+    boolean pass() throws IOException, ServletException;
+}
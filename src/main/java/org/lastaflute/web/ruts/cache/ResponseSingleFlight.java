@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletResponse;
+
+import org.dbflute.util.DfCollectionUtil;
+import org.lastaflute.core.util.ContainerUtil;
+
+/**
+ * The single-flight of response generation, used by response cache and request coalescer. <br>
+ * The first request of the key is leader to generate the response,
+ * and concurrent requests of the same key are followers to wait for the leader's response.
+ * @author jflute
+ * @since 0.8.5 (2016/09/22 Thursday)
+ */
+public class ResponseSingleFlight {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The map of responses being generated by leader request, key is flight key. (NotNull) */
+    protected final Map<String, CompletableFuture<CachedResponse>> flightMap = DfCollectionUtil.newConcurrentHashMap();
+
+    // ===================================================================================
+    //                                                                                 Fly
+    //                                                                                 ===
+    /**
+     * Generate the response as leader, or wait for the leader of the same key as follower.
+     * @param key The key of the flight, identical requests have the same key. (NotNull)
+     * @param waitMillis The milliseconds that follower waits for the leader. (NotMinus)
+     * @param leader The callback to generate the response as leader. (NotNull)
+     * @param follower The callback to receive the leader's response as follower. (NotNull)
+     * @throws IOException When the callback fails about the IO.
+     * @throws ServletException When the callback fails about the Servlet.
+     */
+    public void fly(String key, long waitMillis, FlightLeader leader, FlightFollower follower) throws IOException, ServletException {
+        final CompletableFuture<CachedResponse> mine = new CompletableFuture<CachedResponse>();
+        final CompletableFuture<CachedResponse> flying = flightMap.putIfAbsent(key, mine);
+        if (flying != null) { // follower
+            follower.follow(waitForLeader(flying, waitMillis));
+            return;
+        }
+        CachedResponse generated = null;
+        try {
+            generated = leader.lead();
+        } finally {
+            flightMap.remove(key, mine); // later requests are new flight
+            mine.complete(generated); // null if failure or not shareable
+        }
+    }
+
+    protected CachedResponse waitForLeader(CompletableFuture<CachedResponse> flying, long waitMillis) {
+        try {
+            return flying.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The callback for leader of the flight.
+     */
+    @FunctionalInterface
+    public static interface FlightLeader {
+
+        /**
+         * @return The generated response to be shared with followers. (NullAllowed: if not shareable)
+         * @throws IOException When the generation fails about the IO.
+         * @throws ServletException When the generation fails about the Servlet.
+         */
+        CachedResponse lead() throws IOException, ServletException;
+    }
+
+    /**
+     * The callback for follower of the flight.
+     */
+    @FunctionalInterface
+    public static interface FlightFollower {
+
+        /**
+         * @param shared The response generated by leader. (NullAllowed: if timeout, failure or not shareable)
+         * @throws IOException When the follower fails about the IO.
+         * @throws ServletException When the follower fails about the Servlet.
+         */
+        void follow(CachedResponse shared) throws IOException, ServletException;
+    }
+
+    // ===================================================================================
+    //                                                                             Capture
+    //                                                                             =======
+    /**
+     * Generate the response with capturing it for sharing.
+     * @param original The original response of current request. (NotNull)
+     * @param maxResponseBytes The max size of captured body, larger response is not captured. (NotMinus)
+     * @param expireMillis The time when the captured response expires.
+     * @param generator The callback to execute the action and render the response. (NotNull)
+     * @return The captured response. (NullAllowed: if not capturable e.g. cookie, error status, too large)
+     * @throws IOException When the action fails about the IO.
+     * @throws ServletException When the action fails about the Servlet.
+     */
+    public CachedResponse capture(HttpServletResponse original, int maxResponseBytes, long expireMillis, ResponseGenerator generator)
+            throws IOException, ServletException {
+        final ResponseCapturingWrapper wrapper = new ResponseCapturingWrapper(original, maxResponseBytes);
+        ContainerUtil.overrideExternalResponse(wrapper); // for response manager and HTML rendering
+        try {
+            generator.generate();
+            return wrapper.toCachedResponse(expireMillis);
+        } finally {
+            ContainerUtil.overrideExternalResponse(original);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public int countFlying() {
+        return flightMap.size();
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.lastaflute.core.direction.FwAssistantDirector;
+import org.lastaflute.web.RequestCoalesced;
+import org.lastaflute.web.ruts.config.ActionExecute;
+import org.lastaflute.web.ruts.process.ActionRuntime;
+import org.lastaflute.web.servlet.request.RequestManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/09/22 Thursday)
+ */
+public class SimpleActionRequestCoalescer implements ActionRequestCoalescer {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final Logger logger = LoggerFactory.getLogger(SimpleActionRequestCoalescer.class);
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The assistant director (AD) for framework. (NotNull: after initialization) */
+    @Resource
+    protected FwAssistantDirector assistantDirector;
+
+    @Resource
+    protected RequestManager requestManager;
+
+    /** The max size of shared response body, larger response is not shared. (NotMinus: after initialization) */
+    protected int maxResponseBytes;
+
+    /** The identifier of login user for request identity. (NotNull) */
+    protected final LoginUserIdentifier loginUserIdentifier = new LoginUserIdentifier();
+
+    /** The single-flight of executing identical requests, key is request identity. (NotNull) */
+    protected final ResponseSingleFlight singleFlight = newResponseSingleFlight();
+
+    // ===================================================================================
+    //                                                                          Initialize
+    //                                                                          ==========
+    @PostConstruct
+    public void initialize() {
+        final ResponseCacheResourceProvider provider = assistantDirector.assistWebDirection().assistResponseCacheResourceProvider();
+        maxResponseBytes = (provider != null ? provider : SimpleActionResponseCache.DEFAULT_RESOURCE_PROVIDER).provideMaxResponseBytes();
+    }
+
+    protected ResponseSingleFlight newResponseSingleFlight() {
+        return new ResponseSingleFlight();
+    }
+
+    // ===================================================================================
+    //                                                                            Coalesce
+    //                                                                            ========
+    @Override
+    public void coalesce(ActionRuntime runtime, RequestCoalesced coalesced, ResponseReplayGate gate, ResponseGenerator generator)
+            throws IOException, ServletException {
+        final List<String> sessionLoginList = identifySessionLogin();
+        final String identity = buildRequestIdentity(runtime, coalesced, sessionLoginList);
+        singleFlight.fly(identity, coalesced.waitMillis(), () -> executeAsLeader(generator, sessionLoginList), shared -> {
+            if (shared != null) {
+                logger.debug("#flow ...Serving the response executed by identical request: {}", shared);
+                replay(shared, gate);
+            } else { // timeout or not shareable
+                generator.generate();
+            }
+        });
+    }
+
+    protected CachedResponse executeAsLeader(ResponseGenerator generator, List<String> sessionLoginList)
+            throws IOException, ServletException {
+        final CachedResponse executed = executeWithCapture(generator);
+        if (executed != null && !isGeneratedFor(sessionLoginList)) { // e.g. login user only in shared storage
+            logger.debug("#flow ...Not sharing the response for unidentified login user: {}", sessionLoginList);
+            return null;
+        }
+        return executed; // shared with followers, not kept after execution
+    }
+
+    protected void replay(CachedResponse sharedResponse, ResponseReplayGate gate) throws IOException, ServletException {
+        if (!gate.pass()) { // e.g. login redirect by action hook
+            return;
+        }
+        writeSharedResponse(sharedResponse);
+    }
+
+    protected void writeSharedResponse(CachedResponse sharedResponse) throws IOException {
+        final String ifNoneMatch = requestManager.getRequest().getHeader("If-None-Match"); // null allowed
+        sharedResponse.replay(requestManager.getResponseManager().getResponse(), ifNoneMatch);
+    }
+
+    protected CachedResponse executeWithCapture(ResponseGenerator generator) throws IOException, ServletException {
+        final HttpServletResponse original = requestManager.getResponseManager().getResponse();
+        final long expireMillis = System.currentTimeMillis(); // already expired, only for sharing
+        return singleFlight.capture(original, maxResponseBytes, expireMillis, generator);
+    }
+
+    // -----------------------------------------------------
+    //                                            Login User
+    //                                            ----------
+    protected List<String> identifySessionLogin() {
+        return loginUserIdentifier.identifySessionLogin(requestManager);
+    }
+
+    protected boolean isGeneratedFor(List<String> sessionLoginList) {
+        return loginUserIdentifier.isGeneratedFor(sessionLoginList);
+    }
+
+    // -----------------------------------------------------
+    //                                      Request Identity
+    //                                      ----------------
+    protected String buildRequestIdentity(ActionRuntime runtime, RequestCoalesced coalesced, List<String> sessionLoginList) {
+        final ActionExecute execute = runtime.getActionExecute();
+        final HttpServletRequest request = requestManager.getRequest();
+        final StringBuilder sb = new StringBuilder(64);
+        sb.append(execute.getActionType().getName()).append("@").append(execute.getExecuteMethod().getName());
+        sb.append("|").append(runtime.getRequestPath()); // contains URL parameters
+        final String queryString = request.getQueryString();
+        sb.append("?").append(queryString != null ? queryString : "");
+        sb.append("|").append(requestManager.getUserLocale());
+        sb.append("|").append(sessionLoginList); // login or not, and who
+        for (String headerName : coalesced.headers()) {
+            sb.append("|").append(headerName).append("=").append(extractHeaderValueList(request, headerName));
+        }
+        return sb.toString();
+    }
+
+    protected List<String> extractHeaderValueList(HttpServletRequest request, String headerName) {
+        final Enumeration<String> headers = request.getHeaders(headerName);
+        return headers != null ? Collections.list(headers) : Collections.emptyList();
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "coalescer:{executing=" + singleFlight.countFlying() + "}";
+    }
+}
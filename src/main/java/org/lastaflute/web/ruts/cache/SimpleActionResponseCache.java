@@ -0,0 +1,272 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.lastaflute.core.direction.FwAssistantDirector;
+import org.lastaflute.web.ResponseCached;
+import org.lastaflute.web.ruts.config.ActionExecute;
+import org.lastaflute.web.ruts.process.ActionRuntime;
+import org.lastaflute.web.servlet.request.RequestManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/09/21 Wednesday)
+ */
+public class SimpleActionResponseCache implements ActionResponseCache {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final Logger logger = LoggerFactory.getLogger(SimpleActionResponseCache.class);
+    protected static final ResponseCacheResourceProvider DEFAULT_RESOURCE_PROVIDER = new ResponseCacheResourceProvider() {
+    };
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The assistant director (AD) for framework. (NotNull: after initialization) */
+    @Resource
+    protected FwAssistantDirector assistantDirector;
+
+    @Resource
+    protected RequestManager requestManager;
+
+    /** The provider of cache resources, e.g. capacity. (NotNull: after initialization) */
+    protected ResponseCacheResourceProvider resourceProvider;
+
+    /** The store of cached responses. (NotNull: after initialization) */
+    protected TinyLfuResponseStore responseStore;
+
+    /** The identifier of login user for cache key. (NotNull) */
+    protected final LoginUserIdentifier loginUserIdentifier = new LoginUserIdentifier();
+
+    /** The single-flight of regenerating response at cache miss, key is cache key. (NotNull) */
+    protected final ResponseSingleFlight singleFlight = newResponseSingleFlight();
+
+    // ===================================================================================
+    //                                                                          Initialize
+    //                                                                          ==========
+    @PostConstruct
+    public void initialize() {
+        final ResponseCacheResourceProvider provided = assistantDirector.assistWebDirection().assistResponseCacheResourceProvider();
+        resourceProvider = provided != null ? provided : DEFAULT_RESOURCE_PROVIDER;
+        responseStore = createResponseStore(resourceProvider);
+    }
+
+    protected TinyLfuResponseStore createResponseStore(ResponseCacheResourceProvider provider) {
+        return new TinyLfuResponseStore(provider.provideMaxCachedBytes(), provider.provideEstimatedResponseCount());
+    }
+
+    protected ResponseSingleFlight newResponseSingleFlight() {
+        return new ResponseSingleFlight();
+    }
+
+    // ===================================================================================
+    //                                                                               Serve
+    //                                                                               =====
+    @Override
+    public void serve(ActionRuntime runtime, ResponseCached cached, ResponseReplayGate gate, ResponseGenerator generator)
+            throws IOException, ServletException {
+        final List<String> sessionLoginList = identifySessionLogin();
+        final String cacheKey = buildCacheKey(runtime, cached, sessionLoginList);
+        final CachedResponse found = responseStore.get(cacheKey, currentMillis());
+        if (found != null) {
+            logger.debug("#flow ...Serving the cached response: {}", found);
+            replay(found, gate);
+            return;
+        }
+        singleFlight.fly(cacheKey, cached.waitMillis(), () -> generateAsLeader(cached, generator, cacheKey, sessionLoginList), shared -> {
+            if (shared != null) {
+                logger.debug("#flow ...Serving the response generated by other request: {}", shared);
+                replay(shared, gate);
+            } else { // timeout or not cacheable
+                generator.generate();
+            }
+        });
+    }
+
+    protected CachedResponse generateAsLeader(ResponseCached cached, ResponseGenerator generator, String cacheKey,
+            List<String> sessionLoginList) throws IOException, ServletException {
+        final long generation = responseStore.getGeneration(); // before generating to detect invalidation
+        CachedResponse generated = generateWithCapture(generator, currentMillis() + TimeUnit.SECONDS.toMillis(cached.ttlSeconds()));
+        if (generated != null && !isGeneratedFor(sessionLoginList)) { // e.g. login user only in shared storage
+            logger.debug("#flow ...Not caching the response for unidentified login user: {}", sessionLoginList);
+            generated = null;
+        }
+        if (generated != null && responseStore.getGeneration() != generation) { // e.g. master updated while generating
+            logger.debug("#flow ...Not caching the response invalidated while generating: {}", cacheKey);
+            generated = null; // also not shared with followers
+        }
+        if (generated != null) {
+            responseStore.put(cacheKey, generated, currentMillis(), generation); // checks the generation again atomically
+        }
+        return generated; // shared with followers
+    }
+
+    protected void replay(CachedResponse cachedResponse, ResponseReplayGate gate) throws IOException, ServletException {
+        if (!gate.pass()) { // e.g. login redirect by action hook
+            return;
+        }
+        writeCachedResponse(cachedResponse);
+    }
+
+    protected void writeCachedResponse(CachedResponse cachedResponse) throws IOException {
+        final String ifNoneMatch = requestManager.getRequest().getHeader("If-None-Match"); // null allowed
+        cachedResponse.replay(requestManager.getResponseManager().getResponse(), ifNoneMatch);
+    }
+
+    protected CachedResponse generateWithCapture(ResponseGenerator generator, long expireMillis) throws IOException, ServletException {
+        final HttpServletResponse original = requestManager.getResponseManager().getResponse();
+        return singleFlight.capture(original, resourceProvider.provideMaxResponseBytes(), expireMillis, generator);
+    }
+
+    protected long currentMillis() {
+        return System.currentTimeMillis(); // not business time because of technical expiration
+    }
+
+    // -----------------------------------------------------
+    //                                            Login User
+    //                                            ----------
+    protected List<String> identifySessionLogin() {
+        return loginUserIdentifier.identifySessionLogin(requestManager);
+    }
+
+    protected boolean isGeneratedFor(List<String> sessionLoginList) {
+        return loginUserIdentifier.isGeneratedFor(sessionLoginList);
+    }
+
+    // -----------------------------------------------------
+    //                                             Cache Key
+    //                                             ---------
+    protected String buildCacheKey(ActionRuntime runtime, ResponseCached cached, List<String> sessionLoginList) {
+        final StringBuilder sb = new StringBuilder(64);
+        sb.append(buildKeyPrefix(runtime.getActionExecute()));
+        appendKeyElement(sb, runtime.getRequestPath()); // contains URL parameters
+        final String[] queryParams = cached.queryParams();
+        if (queryParams.length > 0) {
+            appendQueryParamKey(sb, requestManager.getRequest(), queryParams);
+        }
+        sb.append("|").append(requestManager.getUserLocale());
+        sb.append("|").append(sessionLoginList); // login or not, and who
+        final String segment = resourceProvider.provideUserSegment(runtime);
+        if (segment != null) {
+            sb.append("|");
+            appendKeyElement(sb, segment);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Append the query parameters as one name=value entry per value, percent-encoded. <br>
+     * So e.g. "?a=1,%202" (one value) and "?a=1&amp;a=2" (two values) are different keys.
+     * @param sb The builder of cache key. (NotNull)
+     * @param request The current request to get parameter values. (NotNull)
+     * @param queryParams The array of parameter names declared by the annotation. (NotNull)
+     */
+    protected void appendQueryParamKey(StringBuilder sb, HttpServletRequest request, String[] queryParams) {
+        for (String paramName : queryParams) {
+            final String[] values = request.getParameterValues(paramName);
+            if (values == null) { // name only, different from empty value
+                sb.append("|");
+                appendKeyElement(sb, paramName);
+                continue;
+            }
+            for (String value : values) {
+                sb.append("|");
+                appendKeyElement(sb, paramName);
+                sb.append("=");
+                appendKeyElement(sb, value);
+            }
+        }
+    }
+
+    protected void appendKeyElement(StringBuilder sb, String element) { // delimiters in the element are encoded
+        try {
+            sb.append(URLEncoder.encode(element, "UTF-8"));
+        } catch (UnsupportedEncodingException e) { // no way
+            throw new IllegalStateException("Unknown encoding: UTF-8", e);
+        }
+    }
+
+    protected String buildKeyPrefix(ActionExecute execute) {
+        return buildKeyPrefix(execute.getActionType(), execute.getExecuteMethod().getName());
+    }
+
+    protected String buildKeyPrefix(Class<?> actionType, String methodName) {
+        return buildKeyPrefix(actionType) + methodName + "|";
+    }
+
+    protected String buildKeyPrefix(Class<?> actionType) {
+        return actionType.getName() + "@";
+    }
+
+    // ===================================================================================
+    //                                                                          Invalidate
+    //                                                                          ==========
+    @Override
+    public void invalidate(Class<?> actionType) {
+        assertArgumentNotNull("actionType", actionType);
+        final String prefix = buildKeyPrefix(actionType);
+        responseStore.removeIf(key -> key.startsWith(prefix));
+    }
+
+    @Override
+    public void invalidate(Class<?> actionType, String methodName) {
+        assertArgumentNotNull("actionType", actionType);
+        assertArgumentNotNull("methodName", methodName);
+        final String prefix = buildKeyPrefix(actionType, methodName);
+        responseStore.removeIf(key -> key.startsWith(prefix));
+    }
+
+    @Override
+    public void invalidateAll() {
+        responseStore.clear();
+    }
+
+    // ===================================================================================
+    //                                                                        Small Helper
+    //                                                                        ============
+    protected void assertArgumentNotNull(String variableName, Object value) {
+        if (variableName == null) {
+            throw new IllegalArgumentException("The variableName should not be null.");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("The argument '" + variableName + "' should not be null.");
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "responseCache:{" + responseStore + ", generating=" + singleFlight.countFlying() + "}";
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import org.dbflute.util.DfCollectionUtil;
+
+/**
+ * The bounded store of cached response with LRU eviction and TinyLFU admission. <br>
+ * When the store is full, the new response is admitted only if it is accessed more frequently than the victim,
+ * so one-off responses (e.g. crawler access) cannot push popular responses out. <br>
+ * The capacity is weighted by body size. <br>
+ * Hit access does not lock: the recency is stamped on the entry and the LRU order is resolved only when eviction is needed.
+ * Put and removal are synchronized, which are only at cache miss or invalidation.
+ * @author jflute
+ * @since 0.8.5 (2016/09/21 Wednesday)
+ */
+public class TinyLfuResponseStore {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final long maxWeight; // total weight of responses
+    protected final Map<String, StoredResponse> responseMap = DfCollectionUtil.newConcurrentHashMap();
+    protected final FrequencySketch sketch;
+    protected final AtomicLong accessClock = new AtomicLong(); // for recency stamp
+    protected long currentWeight; // guarded by this
+    protected volatile long generation; // incremented by invalidation
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param maxWeight The max total weight (basically bytes) of responses. (NotMinus)
+     * @param estimatedSize The estimated count of responses for frequency sketch. (NotMinus)
+     */
+    public TinyLfuResponseStore(long maxWeight, int estimatedSize) {
+        this.maxWeight = maxWeight;
+        this.sketch = new FrequencySketch(estimatedSize);
+    }
+
+    // ===================================================================================
+    //                                                                           Get & Put
+    //                                                                           =========
+    /**
+     * @param key The key of cache. (NotNull)
+     * @param currentMillis The current time to check expiration.
+     * @return The cached response. (NullAllowed: if not found or expired)
+     */
+    public CachedResponse get(String key, long currentMillis) {
+        sketch.increment(key.hashCode()); // also miss access for admission
+        final StoredResponse stored = responseMap.get(key);
+        if (stored == null) {
+            return null;
+        }
+        if (stored.getResponse().isExpired(currentMillis)) {
+            removeExpired(key, stored);
+            return null;
+        }
+        stored.touch(accessClock.incrementAndGet());
+        return stored.getResponse();
+    }
+
+    protected synchronized void removeExpired(String key, StoredResponse stored) {
+        if (responseMap.remove(key, stored)) { // not replaced yet
+            currentWeight -= stored.getResponse().getWeight();
+        }
+    }
+
+    /**
+     * @param key The key of cache. (NotNull)
+     * @param response The cached response. (NotNull)
+     * @param currentMillis The current time to evict expired entries.
+     * @return true if the response is stored, false if rejected by capacity or admission.
+     */
+    public synchronized boolean put(String key, CachedResponse response, long currentMillis) {
+        return doPut(key, response, currentMillis);
+    }
+
+    /**
+     * Put the response only if no invalidation has happened since the generation was taken. <br>
+     * It prevents the response generated before invalidation from being stored after the invalidation.
+     * @param key The key of cache. (NotNull)
+     * @param response The cached response. (NotNull)
+     * @param currentMillis The current time to evict expired entries.
+     * @param expectedGeneration The generation taken by {@link #getGeneration()} before generating the response.
+     * @return true if the response is stored, false if rejected by invalidation, capacity or admission.
+     */
+    public synchronized boolean put(String key, CachedResponse response, long currentMillis, long expectedGeneration) {
+        if (generation != expectedGeneration) { // invalidated while generating
+            return false;
+        }
+        return doPut(key, response, currentMillis);
+    }
+
+    protected boolean doPut(String key, CachedResponse response, long currentMillis) {
+        final int weight = response.getWeight();
+        if (weight > maxWeight) {
+            return false;
+        }
+        final List<String> victimKeyList = selectVictimKeyList(key, weight, currentMillis);
+        if (victimKeyList == null) { // rejected without eviction
+            return false;
+        }
+        for (String victimKey : victimKeyList) {
+            removeEntry(victimKey);
+        }
+        removeEntry(key); // replace
+        responseMap.put(key, new StoredResponse(response, accessClock.incrementAndGet()));
+        currentWeight += weight;
+        return true;
+    }
+
+    /**
+     * Select the victims to make room for the candidate, deciding admission before any eviction.
+     * @param key The key of the candidate. (NotNull)
+     * @param weight The weight of the candidate. (NotMinus)
+     * @param currentMillis The current time to determine expired victims.
+     * @return The list of victim keys in LRU order. (NullAllowed: if rejected because a victim is more popular)
+     */
+    protected List<String> selectVictimKeyList(String key, int weight, long currentMillis) {
+        final StoredResponse existing = responseMap.get(key);
+        long freedWeight = existing != null ? existing.getResponse().getWeight() : 0L; // replaced
+        if (currentWeight - freedWeight + weight <= maxWeight) {
+            return Collections.emptyList();
+        }
+        final int candidateFrequency = sketch.frequency(key.hashCode());
+        final List<String> victimKeyList = new ArrayList<String>();
+        for (VictimCandidate victim : prepareLruCandidateList()) { // least recently used first
+            if (victim.getKey().equals(key)) { // already freed
+                continue;
+            }
+            final CachedResponse victimResponse = victim.getStored().getResponse();
+            if (!victimResponse.isExpired(currentMillis) && candidateFrequency <= sketch.frequency(victim.getKey().hashCode())) {
+                return null; // victim is more popular
+            }
+            victimKeyList.add(victim.getKey());
+            freedWeight += victimResponse.getWeight();
+            if (currentWeight - freedWeight + weight <= maxWeight) {
+                break;
+            }
+        }
+        return victimKeyList;
+    }
+
+    protected List<VictimCandidate> prepareLruCandidateList() {
+        final List<VictimCandidate> candidateList = new ArrayList<VictimCandidate>(responseMap.size());
+        for (Entry<String, StoredResponse> entry : responseMap.entrySet()) {
+            candidateList.add(new VictimCandidate(entry.getKey(), entry.getValue())); // fix the stamp for sorting
+        }
+        candidateList.sort(Comparator.comparingLong(VictimCandidate::getAccessTick));
+        return candidateList;
+    }
+
+    // ===================================================================================
+    //                                                                              Remove
+    //                                                                              ======
+    public synchronized void remove(String key) {
+        removeEntry(key);
+    }
+
+    public synchronized void removeIf(Predicate<String> keyDeterminer) {
+        ++generation;
+        final Iterator<Entry<String, StoredResponse>> ite = responseMap.entrySet().iterator();
+        while (ite.hasNext()) {
+            final Entry<String, StoredResponse> entry = ite.next();
+            if (keyDeterminer.test(entry.getKey())) {
+                currentWeight -= entry.getValue().getResponse().getWeight();
+                ite.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        ++generation;
+        responseMap.clear();
+        currentWeight = 0;
+    }
+
+    protected void removeEntry(String key) {
+        final StoredResponse removed = responseMap.remove(key);
+        if (removed != null) {
+            currentWeight -= removed.getResponse().getWeight();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                          Generation
+    //                                                                          ==========
+    /**
+     * @return The generation of the store, incremented by invalidation (removeIf and clear).
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    // ===================================================================================
+    //                                                                     Stored Response
+    //                                                                     ===============
+    protected static class StoredResponse {
+
+        protected final CachedResponse response;
+        protected volatile long accessTick; // recency stamp, larger is more recent
+
+        public StoredResponse(CachedResponse response, long accessTick) {
+            this.response = response;
+            this.accessTick = accessTick;
+        }
+
+        public void touch(long accessTick) {
+            this.accessTick = accessTick;
+        }
+
+        public CachedResponse getResponse() {
+            return response;
+        }
+
+        public long getAccessTick() {
+            return accessTick;
+        }
+    }
+
+    protected static class VictimCandidate {
+
+        protected final String key;
+        protected final StoredResponse stored;
+        protected final long accessTick; // fixed at snapshot
+
+        public VictimCandidate(String key, StoredResponse stored) {
+            this.key = key;
+            this.stored = stored;
+            this.accessTick = stored.getAccessTick();
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public StoredResponse getStored() {
+            return stored;
+        }
+
+        public long getAccessTick() {
+            return accessTick;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public synchronized String toString() {
+        return "store:{size=" + responseMap.size() + ", weight=" + currentWeight + "/" + maxWeight + "}";
+    }
+}
@@ -18,6 +18,8 @@ package org.lastaflute.web.ruts.config;
 import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
@@ -29,10 +31,15 @@ import org.dbflute.optional.OptionalThing;
 import org.dbflute.util.Srl;
 import org.lastaflute.core.util.ContainerUtil;
 import org.lastaflute.db.jta.stage.TransactionGenre;
+import org.lastaflute.web.Bulkhead;
+import org.lastaflute.web.RateLimited;
+import org.lastaflute.web.RequestCoalesced;
+import org.lastaflute.web.ResponseCached;
 import org.lastaflute.web.api.ApiAction;
 import org.lastaflute.web.exception.ActionFormNotFoundException;
 import org.lastaflute.web.exception.UrlParamArgsNotFoundException;
 import org.lastaflute.web.response.ApiResponse;
+import org.lastaflute.web.response.JsonResponse;
 import org.lastaflute.web.ruts.VirtualForm;
 import org.lastaflute.web.ruts.config.analyzer.ExecuteArgAnalyzer;
 import org.lastaflute.web.ruts.config.analyzer.ExecuteArgAnalyzer.ExecuteArgBox;
@@ -40,6 +47,7 @@ import org.lastaflute.web.ruts.config.analyzer.MethodNameAnalyzer;
 import org.lastaflute.web.ruts.config.analyzer.UrlPatternAnalyzer;
 import org.lastaflute.web.ruts.config.analyzer.UrlPatternAnalyzer.UrlPatternChosenBox;
 import org.lastaflute.web.ruts.config.analyzer.UrlPatternAnalyzer.UrlPatternRegexpBox;
+import org.lastaflute.web.ruts.config.checker.ExecuteMethodAnalysisIndex;
 import org.lastaflute.web.ruts.config.checker.ExecuteMethodChecker;
 import org.lastaflute.web.servlet.request.RequestManager;
 import org.lastaflute.web.util.LaActionExecuteUtil;
@@ -65,6 +73,10 @@ public class ActionExecute implements Serializable {
     protected final TransactionGenre transactionGenre; // not null
     protected final boolean suppressValidatorCallCheck;
     protected final OptionalThing<Integer> sqlExecutionCountLimit; // not null, empty allowed
+    protected final OptionalThing<ResponseCached> responseCached; // not null, empty allowed
+    protected final OptionalThing<RequestCoalesced> requestCoalesced; // not null, empty allowed
+    protected final OptionalThing<RateLimited> rateLimited; // not null, empty allowed
+    protected final OptionalThing<Bulkhead> bulkhead; // not null, empty allowed
 
     // -----------------------------------------------------
     //                                     Defined Parameter
@@ -102,6 +114,10 @@ public class ActionExecute implements Serializable {
         this.transactionGenre = chooseTransactionGenre(executeOption);
         this.suppressValidatorCallCheck = executeOption.isSuppressValidatorCallCheck();
         this.sqlExecutionCountLimit = createOptionalSqlExecutionCountLimit(executeOption);
+        this.responseCached = analyzeResponseCached(executeMethod);
+        this.requestCoalesced = analyzeRequestCoalesced(executeMethod);
+        this.rateLimited = analyzeRateLimited(executeMethod);
+        this.bulkhead = analyzeBulkhead(executeMethod);
 
         // defined parameter (needed in URL pattern analyzing)
         final ExecuteArgAnalyzer executeArgAnalyzer = newExecuteArgAnalyzer();
@@ -149,6 +165,57 @@ public class ActionExecute implements Serializable {
         });
     }
 
+    // -----------------------------------------------------
+    //                                        Response Cache
+    //                                        --------------
+    protected OptionalThing<ResponseCached> analyzeResponseCached(Method executeMethod) {
+        final ResponseCached cached = executeMethod.getAnnotation(ResponseCached.class);
+        if (cached != null && cached.ttlSeconds() <= 0) {
+            String msg = "The ttlSeconds of @ResponseCached should be positive: " + cached.ttlSeconds() + ", " + executeMethod;
+            throw new IllegalStateException(msg);
+        }
+        return OptionalThing.ofNullable(cached, () -> {
+            throw new IllegalStateException("Not found the @ResponseCached annotation: " + toSimpleMethodExp());
+        });
+    }
+
+    protected OptionalThing<RequestCoalesced> analyzeRequestCoalesced(Method executeMethod) {
+        final RequestCoalesced coalesced = executeMethod.getAnnotation(RequestCoalesced.class);
+        if (coalesced != null && coalesced.waitMillis() < 0) {
+            String msg = "The waitMillis of @RequestCoalesced should not be minus: " + coalesced.waitMillis() + ", " + executeMethod;
+            throw new IllegalStateException(msg);
+        }
+        return OptionalThing.ofNullable(coalesced, () -> {
+            throw new IllegalStateException("Not found the @RequestCoalesced annotation: " + toSimpleMethodExp());
+        });
+    }
+
+    // -----------------------------------------------------
+    //                                              Throttle
+    //                                              --------
+    protected OptionalThing<RateLimited> analyzeRateLimited(Method executeMethod) {
+        final RateLimited limited = executeMethod.getAnnotation(RateLimited.class);
+        if (limited != null && (limited.permits() <= 0 || limited.periodSeconds() <= 0)) {
+            String msg = "The permits and periodSeconds of @RateLimited should be positive: " + limited + ", " + executeMethod;
+            throw new IllegalStateException(msg);
+        }
+        return OptionalThing.ofNullable(limited, () -> {
+            throw new IllegalStateException("Not found the @RateLimited annotation: " + toSimpleMethodExp());
+        });
+    }
+
+    protected OptionalThing<Bulkhead> analyzeBulkhead(Method executeMethod) {
+        final Bulkhead bulkhead = executeMethod.getAnnotation(Bulkhead.class);
+        if (bulkhead != null && (bulkhead.maxConcurrent() <= 0 || bulkhead.queueTimeoutMillis() < 0)) {
+            String msg = "The maxConcurrent of @Bulkhead should be positive and queueTimeoutMillis not minus: " + bulkhead + ", "
+                    + executeMethod;
+            throw new IllegalStateException(msg);
+        }
+        return OptionalThing.ofNullable(bulkhead, () -> {
+            throw new IllegalStateException("Not found the @Bulkhead annotation: " + toSimpleMethodExp());
+        });
+    }
+
     // -----------------------------------------------------
     //                                              Analyzer
     //                                              --------
@@ -239,7 +306,12 @@ public class ActionExecute implements Serializable {
     //                                      Check Definition
     //                                      ----------------
     protected void checkExecuteMethod(ExecuteArgAnalyzer executeArgAnalyzer) {
-        new ExecuteMethodChecker(executeMethod, formMeta).checkAll(executeArgAnalyzer);
+        new ExecuteMethodChecker(executeMethod, formMeta, findAnalysisIndex()).checkAll(executeArgAnalyzer);
+    }
+
+    protected ExecuteMethodAnalysisIndex findAnalysisIndex() { // null allowed
+        final String indexPath = actionMapping.getActionAdjustmentProvider().provideActionAnalysisIndexPath(); // null allowed
+        return indexPath != null ? ExecuteMethodAnalysisIndex.findIndex(indexPath) : null;
     }
 
     // ===================================================================================
@@ -253,7 +325,7 @@ public class ActionExecute implements Serializable {
             return false;
         }
         if (!isParameterEmpty(paramPath)) {
-            return handleOptionalParameterMapping(paramPath) || preparedUrlPattern.matcher(paramPath).find();
+            return handleOptionalParameterMapping(paramPath) || preparedUrlPattern.matches(paramPath);
         } else {
             // should not be called if param is empty, old code is like this:
             //return "index".equals(urlPattern);
@@ -347,6 +419,26 @@ public class ActionExecute implements Serializable {
         return ApiAction.class.isAssignableFrom(getActionMapping().getActionDef().getComponentClass());
     }
 
+    /**
+     * Get the type of JSON bean in the JSON response, e.g. SeaBean of JsonResponse&lt;SeaBean&gt;.
+     * @return The optional type of JSON bean, also parameterized e.g. List&lt;SeaBean&gt;. (NotNull, EmptyAllowed: when not JSON response)
+     */
+    public OptionalThing<Type> getJsonResponseBeanType() {
+        Type beanType = null;
+        if (JsonResponse.class.isAssignableFrom(executeMethod.getReturnType())) {
+            final Type genericReturnType = executeMethod.getGenericReturnType();
+            if (genericReturnType instanceof ParameterizedType) { // basically true
+                final Type[] argTypes = ((ParameterizedType) genericReturnType).getActualTypeArguments();
+                if (argTypes.length > 0 && (argTypes[0] instanceof Class<?> || argTypes[0] instanceof ParameterizedType)) {
+                    beanType = argTypes[0]; // e.g. SeaBean, List<SeaBean>, not wildcard and type variable
+                }
+            }
+        }
+        return OptionalThing.ofNullable(beanType, () -> {
+            throw new IllegalStateException("Not found the JSON response bean type: " + toSimpleMethodExp());
+        });
+    }
+
     // ===================================================================================
     //                                                                         Action Form
     //                                                                         ===========
@@ -419,6 +511,41 @@ public class ActionExecute implements Serializable {
         return sqlExecutionCountLimit;
     }
 
+    /**
+     * @return The optional annotation of server-side response cache. (NotNull, EmptyAllowed: when no cache)
+     */
+    public OptionalThing<ResponseCached> getResponseCached() {
+        return responseCached;
+    }
+
+    /**
+     * @return The optional annotation of request coalescing. (NotNull, EmptyAllowed: when no coalescing)
+     */
+    public OptionalThing<RequestCoalesced> getRequestCoalesced() {
+        return requestCoalesced;
+    }
+
+    /**
+     * @return The optional annotation of rate limit. (NotNull, EmptyAllowed: when no limit)
+     */
+    public OptionalThing<RateLimited> getRateLimited() {
+        return rateLimited;
+    }
+
+    /**
+     * @return The optional annotation of concurrency bulkhead. (NotNull, EmptyAllowed: when no bulkhead)
+     */
+    public OptionalThing<Bulkhead> getBulkhead() {
+        return bulkhead;
+    }
+
+    /**
+     * @return Is the execute method throttled by rate limit or bulkhead?
+     */
+    public boolean isThrottled() {
+        return rateLimited.isPresent() || bulkhead.isPresent();
+    }
+
     // -----------------------------------------------------
     //                                     Defined Parameter
     //                                     -----------------
@@ -19,6 +19,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -35,6 +36,7 @@ import org.lastaflute.di.helper.beans.factory.BeanDescFactory;
 import org.lastaflute.web.exception.ActionFormCreateFailureException;
 import org.lastaflute.web.ruts.VirtualForm;
 import org.lastaflute.web.ruts.VirtualForm.RealFormSupplier;
+import org.lastaflute.web.ruts.config.analyzer.ExecuteArgAnalyzer;
 import org.lastaflute.web.util.LaActionExecuteUtil;
 import org.lastaflute.web.validation.ActionValidator;
 
@@ -243,6 +245,30 @@ public class ActionFormMeta {
         });
     }
 
+    // -----------------------------------------------------
+    //                                             JSON Body
+    //                                             ---------
+    /**
+     * @return The optional type for JSON body mapping, also parameterized for list body. (NotNull, EmptyAllowed: when not JSON body)
+     */
+    public OptionalThing<Type> getJsonBodyMappingType() {
+        final Type mappingType;
+        if (isJsonBodyType(formType)) { // e.g. SeaBody
+            mappingType = formType;
+        } else if (getListFormParameterGenericType().filter(tp -> isJsonBodyType(tp)).isPresent()) { // e.g. List<SeaBody>
+            mappingType = getListFormParameterParameterizedType().get();
+        } else {
+            mappingType = null;
+        }
+        return OptionalThing.ofNullable(mappingType, () -> {
+            throw new IllegalStateException("Not found the JSON body mapping type: " + formType);
+        });
+    }
+
+    protected boolean isJsonBodyType(Class<?> tp) {
+        return tp.getName().endsWith(ExecuteArgAnalyzer.BODY_SUFFIX);
+    }
+
     // -----------------------------------------------------
     //                                              Analyzed
     //                                              --------
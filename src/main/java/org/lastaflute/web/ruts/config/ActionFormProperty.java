@@ -16,8 +16,15 @@
 package org.lastaflute.web.ruts.config;
 
 import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
 
+import org.dbflute.optional.OptionalThing;
+import org.lastaflute.di.helper.beans.ParameterizedClassDesc;
 import org.lastaflute.di.helper.beans.PropertyDesc;
+import org.lastaflute.web.api.JsonParameter;
 
 /**
  * @author modified by jflute (originated in Seasar)
@@ -33,12 +40,51 @@ public class ActionFormProperty implements Serializable {
     //                                                                           Attribute
     //                                                                           =========
     protected final PropertyDesc propertyDesc;
+    protected final OptionalThing<Type> jsonParameterMappingType; // not null, empty allowed
 
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
     public ActionFormProperty(PropertyDesc propertyDesc) {
         this.propertyDesc = propertyDesc;
+        this.jsonParameterMappingType = OptionalThing.ofNullable(analyzeJsonParameterMappingType(propertyDesc), () -> {
+            throw new IllegalStateException("Not found the JSON parameter mapping type: " + propertyDesc);
+        });
+    }
+
+    // -----------------------------------------------------
+    //                                        JSON Parameter
+    //                                        --------------
+    protected Type analyzeJsonParameterMappingType(PropertyDesc pd) { // resolved here not to walk generics per request
+        if (!isJsonParameterAnnotated(pd)) {
+            return null;
+        }
+        final Class<?> propertyType = pd.getPropertyType();
+        if (List.class.equals(propertyType)) { // e.g. public List<SeaBean> beanList;
+            if (!pd.isParameterized()) { // e.g. public List anyList; (checked at mapping)
+                return null;
+            }
+            final ParameterizedClassDesc paramedDesc = pd.getParameterizedClassDesc();
+            if (Object.class.equals(paramedDesc.getGenericFirstType())) { // e.g. public List<?> beanList; (checked at mapping)
+                return null;
+            }
+            final Type paramedType = paramedDesc.getParameterizedType();
+            return paramedType instanceof ParameterizedType ? paramedType : null;
+        } else { // e.g. public SeaBean seaBean;
+            return propertyType;
+        }
+    }
+
+    protected boolean isJsonParameterAnnotated(PropertyDesc pd) { // first level only, nested are checked at mapping
+        final Class<JsonParameter> annoType = JsonParameter.class;
+        final Field field = pd.getField();
+        if (field != null && field.getAnnotation(annoType) != null) {
+            return true;
+        }
+        if (pd.hasReadMethod() && pd.getReadMethod().getAnnotation(annoType) != null) {
+            return true;
+        }
+        return pd.hasWriteMethod() && pd.getWriteMethod().getAnnotation(annoType) != null;
     }
 
     // ===================================================================================
@@ -62,4 +108,11 @@ public class ActionFormProperty implements Serializable {
     public PropertyDesc getPropertyDesc() {
         return propertyDesc;
     }
+
+    /**
+     * @return The optional type for JSON parameter mapping, also parameterized for list. (NotNull, EmptyAllowed: when not JSON parameter)
+     */
+    public OptionalThing<Type> getJsonParameterMappingType() {
+        return jsonParameterMappingType;
+    }
 }
\ No newline at end of file
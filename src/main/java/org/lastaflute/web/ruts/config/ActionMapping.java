@@ -205,6 +205,10 @@ public class ActionMapping {
         return actionName;
     }
 
+    public ActionAdjustmentProvider getActionAdjustmentProvider() {
+        return adjustmentProvider;
+    }
+
     public Map<String, ActionExecute> getExecuteMap() {
         return executeMap;
     }
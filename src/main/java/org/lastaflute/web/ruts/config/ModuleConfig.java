@@ -17,16 +17,22 @@ package org.lastaflute.web.ruts.config;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
+import org.dbflute.helper.message.ExceptionMessageBuilder;
 import org.dbflute.optional.OptionalThing;
 import org.dbflute.util.DfTypeUtil;
 import org.lastaflute.core.smartdeploy.ManagedHotdeploy;
 import org.lastaflute.di.Disposable;
 import org.lastaflute.di.DisposableUtil;
 import org.lastaflute.di.core.factory.SingletonLaContainerFactory;
+import org.lastaflute.web.Bulkhead;
+import org.lastaflute.web.ruts.config.checker.ExecuteMethodChecker;
 
 /**
  * @author modified by jflute (originated in Seasar and Struts)
@@ -43,6 +49,9 @@ public class ModuleConfig implements Disposable, Serializable {
     //                                                                           =========
     protected final Map<String, ActionMapping> actionMappingMap = new HashMap<String, ActionMapping>();
     protected final List<ActionMapping> actionMappingList = new ArrayList<ActionMapping>();
+    protected final Map<String, ActionExecute> bulkheadGroupMap = new HashMap<String, ActionExecute>(); // first declaration
+    protected final List<Future<ActionMapping>> reservedMappingList = new ArrayList<Future<ActionMapping>>(); // in reserved order
+    protected volatile boolean reserved; // true while reserved mappings exist
     protected volatile boolean initialized;
 
     // ===================================================================================
@@ -67,6 +76,9 @@ public class ModuleConfig implements Disposable, Serializable {
         if (!initialized) {
             initialize();
         }
+        if (reserved) { // basically resolved at boot, just in case
+            resolveReservedActionMapping();
+        }
         final ActionMapping mapping = actionMappingMap.get(actionName);
         if (mapping != null) {
             return OptionalThing.of(mapping);
@@ -88,16 +100,108 @@ public class ModuleConfig implements Disposable, Serializable {
     //                                                                       Configuration
     //                                                                       =============
     public void addActionMapping(ActionMapping mapping) {
+        verifyBulkheadGroup(mapping);
         actionMappingMap.put(mapping.getActionName(), mapping);
         actionMappingList.add(mapping);
     }
 
+    // -----------------------------------------------------
+    //                                      Reserved Mapping
+    //                                      ----------------
+    /**
+     * Reserve the action mapping being created in other thread, added when resolved. <br>
+     * Mappings are added in reserved order so the result is same as serial registration.
+     * @param preparing The future of action mapping being created. (NotNull)
+     */
+    public synchronized void reserveActionMapping(Future<ActionMapping> preparing) {
+        reservedMappingList.add(preparing);
+        reserved = true;
+    }
+
+    /**
+     * Wait for the reserved action mappings and add them in reserved order. <br>
+     * Called at boot after container initialization, and also by finding mapping just in case.
+     * @throws RuntimeException The first failure in reserved order, thrown as it is (not wrapped).
+     */
+    public synchronized void resolveReservedActionMapping() {
+        if (!reserved) {
+            return;
+        }
+        try {
+            for (Future<ActionMapping> preparing : reservedMappingList) {
+                addActionMapping(waitForReservedMapping(preparing));
+            }
+        } finally {
+            reservedMappingList.clear(); // failure is thrown only once, boot basically fails
+            reserved = false;
+        }
+    }
+
+    protected ActionMapping waitForReservedMapping(Future<ActionMapping> preparing) {
+        try {
+            return preparing.get();
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) { // e.g. illegal definition of execute method
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Failed to create the action mapping.", cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the action mapping.", e);
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                        Bulkhead Group
+    //                                        --------------
+    protected void verifyBulkheadGroup(ActionMapping mapping) { // one semaphore per group so the same max is needed
+        for (ActionExecute execute : mapping.getExecuteMap().values()) {
+            execute.getBulkhead().filter(bulkhead -> !bulkhead.group().isEmpty()).ifPresent(bulkhead -> {
+                final ActionExecute existing = bulkheadGroupMap.get(bulkhead.group());
+                if (existing == null) {
+                    bulkheadGroupMap.put(bulkhead.group(), execute);
+                    return;
+                }
+                final Bulkhead existingBulkhead = existing.getBulkhead().get();
+                if (existingBulkhead.maxConcurrent() != bulkhead.maxConcurrent()) {
+                    throwBulkheadGroupMaxConcurrentDifferentException(bulkhead, execute, existingBulkhead, existing);
+                }
+            });
+        }
+    }
+
+    protected void throwBulkheadGroupMaxConcurrentDifferentException(Bulkhead bulkhead, ActionExecute execute, Bulkhead existingBulkhead,
+            ActionExecute existing) {
+        final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
+        br.addNotice("The maxConcurrent of @Bulkhead in the same group is different.");
+        br.addItem("Advice");
+        br.addElement("Execute methods in the same group share one bulkhead,");
+        br.addElement("so define the same maxConcurrent for them.");
+        br.addItem("Group");
+        br.addElement(bulkhead.group());
+        br.addItem("Execute Method");
+        br.addElement(execute.toSimpleMethodExp() + " maxConcurrent=" + bulkhead.maxConcurrent());
+        br.addItem("Existing Method");
+        br.addElement(existing.toSimpleMethodExp() + " maxConcurrent=" + existingBulkhead.maxConcurrent());
+        final String msg = br.buildExceptionMessage();
+        throw new IllegalStateException(msg);
+    }
+
     // ===================================================================================
     //                                                                           HotDeploy
     //                                                                           =========
     public void dispose() {
+        synchronized (this) {
+            reservedMappingList.clear();
+            reserved = false;
+        }
         actionMappingMap.clear();
         actionMappingList.clear();
+        bulkheadGroupMap.clear();
+        ExecuteMethodChecker.clearVerifiedBeanType(); // reloaded classes should be checked again
         initialized = false;
     }
 
@@ -110,4 +214,14 @@ public class ModuleConfig implements Disposable, Serializable {
         final String hash = Integer.toHexString(hashCode());
         return title + ":{mapping=" + actionMappingMap.size() + "}@" + hash;
     }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public List<ActionMapping> getActionMappingList() { // read-only
+        if (reserved) { // basically resolved at boot, just in case
+            resolveReservedActionMapping();
+        }
+        return Collections.unmodifiableList(actionMappingList);
+    }
 }
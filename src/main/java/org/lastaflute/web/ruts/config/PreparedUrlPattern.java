@@ -16,9 +16,12 @@
 package org.lastaflute.web.ruts.config;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.dbflute.optional.OptionalThing;
 import org.lastaflute.web.ruts.config.analyzer.UrlPatternAnalyzer.UrlPatternChosenBox;
 import org.lastaflute.web.ruts.config.analyzer.UrlPatternAnalyzer.UrlPatternRegexpBox;
 
@@ -38,6 +41,7 @@ public class PreparedUrlPattern implements Serializable {
     protected final boolean specified; // true if urlPattern is defined by annotation
     protected final Pattern regexpPattern; // not null e.g. ^([^/]+)$ or ^([^/]+)/([^/]+)$ or ^sea/([^/]+)$
     protected final boolean methodNamePrefix; // true if urlPattern is [method]/...
+    protected final UrlPatternSegmentMatcher segmentMatcher; // null allowed: when exotic pattern (uses regexp)
 
     // ===================================================================================
     //                                                                         Constructor
@@ -50,6 +54,7 @@ public class PreparedUrlPattern implements Serializable {
         this.specified = chosenBox.isSpecified();
         this.regexpPattern = regexpBox.getRegexpPattern();
         this.methodNamePrefix = chosenBox.isMethodNamePrefix();
+        this.segmentMatcher = regexpBox.getSegmentMatcher().orElse(null);
         assertArgumentNotNull("resolvedUrlPattern of chosenBox", resolvedUrlPattern);
         assertArgumentNotNull("sourceUrlPattern of chosenBox", sourceUrlPattern);
         assertArgumentNotNull("regexpPattern of regexpBox", regexpPattern);
@@ -63,6 +68,39 @@ public class PreparedUrlPattern implements Serializable {
         return regexpPattern.matcher(paramPath);
     }
 
+    /**
+     * @param paramPath The parameter path from URL, e.g. sea/3 (NotNull)
+     * @return Does the path match with the URL pattern?
+     */
+    public boolean matches(String paramPath) {
+        assertArgumentNotNull("paramPath", paramPath);
+        if (segmentMatcher != null) { // mainly here
+            return segmentMatcher.matches(paramPath);
+        }
+        return regexpPattern.matcher(paramPath).find();
+    }
+
+    /**
+     * @param paramPath The parameter path from URL, e.g. sea/3 (NotNull)
+     * @return The list of parameter values in order, e.g. [3] (NullAllowed: when not matched)
+     */
+    public List<String> extractParamList(String paramPath) {
+        assertArgumentNotNull("paramPath", paramPath);
+        if (segmentMatcher != null) { // mainly here
+            return segmentMatcher.extractParamList(paramPath);
+        }
+        final Matcher matcher = regexpPattern.matcher(paramPath);
+        if (!matcher.find()) {
+            return null;
+        }
+        final int groupCount = matcher.groupCount();
+        final List<String> paramList = new ArrayList<String>(groupCount);
+        for (int i = 0; i < groupCount; i++) {
+            paramList.add(matcher.group(i + 1)); // group 1 origin (0 provides all string)
+        }
+        return paramList;
+    }
+
     // ===================================================================================
     //                                                                        Small Helper
     //                                                                        ============
@@ -110,4 +148,14 @@ public class PreparedUrlPattern implements Serializable {
     public boolean isMethodNamePrefix() {
         return methodNamePrefix;
     }
+
+    public boolean hasSegmentMatcher() {
+        return segmentMatcher != null;
+    }
+
+    public OptionalThing<UrlPatternSegmentMatcher> getSegmentMatcher() {
+        return OptionalThing.ofNullable(segmentMatcher, () -> {
+            throw new IllegalStateException("Not found the segment matcher (exotic pattern): " + resolvedUrlPattern);
+        });
+    }
 }
\ No newline at end of file
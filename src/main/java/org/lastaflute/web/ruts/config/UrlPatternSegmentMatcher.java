@@ -0,0 +1,171 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.config;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The precompiled matcher of URL pattern by path segments, without regular expression. <br>
+ * Only simple patterns are supported: every segment is literal or parameter e.g. sea/{}/land/{}. <br>
+ * Parameters are extracted by index scanning so no matcher and no group array per request.
+ * @author jflute
+ * @since 0.8.5 (2016/10/02 Sunday)
+ */
+public class UrlPatternSegmentMatcher implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    public enum SegmentType {
+        /** fixed text, e.g. sea, also resolved method keyword */
+        LITERAL,
+        /** one segment parameter, same as ([^/]+) */
+        PARAMETER,
+        /** one segment number parameter, digits and '-', '.' only */
+        NUMBER
+    }
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final SegmentType[] segmentTypes; // not null, empty allowed when empty pattern
+    protected final String[] literals; // not null, null element when parameter
+    protected final int parameterCount;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public UrlPatternSegmentMatcher(List<SegmentType> segmentTypeList, List<String> literalList) {
+        if (segmentTypeList == null || literalList == null || segmentTypeList.size() != literalList.size()) {
+            throw new IllegalArgumentException("The arguments should be same-size lists: " + segmentTypeList + ", " + literalList);
+        }
+        this.segmentTypes = segmentTypeList.toArray(new SegmentType[segmentTypeList.size()]);
+        this.literals = literalList.toArray(new String[literalList.size()]);
+        int count = 0;
+        for (SegmentType segmentType : segmentTypes) {
+            if (segmentType != SegmentType.LITERAL) {
+                ++count;
+            }
+        }
+        this.parameterCount = count;
+    }
+
+    // ===================================================================================
+    //                                                                               Match
+    //                                                                               =====
+    /**
+     * @param paramPath The parameter path from URL, e.g. sea/3/land/4 (NotNull)
+     * @return Does the path match with the pattern?
+     */
+    public boolean matches(String paramPath) {
+        return doMatch(paramPath, null);
+    }
+
+    /**
+     * @param paramPath The parameter path from URL, e.g. sea/3/land/4 (NotNull)
+     * @return The read-only list of parameter values in order, e.g. [3, 4] (NullAllowed: when not matched)
+     */
+    public List<String> extractParamList(String paramPath) {
+        final String[] values = new String[parameterCount];
+        return doMatch(paramPath, values) ? Arrays.asList(values) : null;
+    }
+
+    protected boolean doMatch(String paramPath, String[] values) {
+        final int length = paramPath.length();
+        final int segmentCount = segmentTypes.length;
+        if (segmentCount == 0) {
+            return length == 0;
+        }
+        int start = 0;
+        int parameterIndex = 0;
+        for (int i = 0; i < segmentCount; i++) {
+            int end = paramPath.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            final boolean last = i == segmentCount - 1;
+            if (last ? end != length : end == length) { // different segment count
+                return false;
+            }
+            final SegmentType segmentType = segmentTypes[i];
+            if (segmentType == SegmentType.LITERAL) {
+                final String literal = literals[i];
+                if (literal.length() != end - start || !paramPath.regionMatches(start, literal, 0, literal.length())) {
+                    return false;
+                }
+            } else {
+                if (end == start) { // empty segment
+                    return false;
+                }
+                if (segmentType == SegmentType.NUMBER && !isNumberSegment(paramPath, start, end)) {
+                    return false;
+                }
+                if (values != null) {
+                    values[parameterIndex] = paramPath.substring(start, end);
+                }
+                ++parameterIndex;
+            }
+            start = end + 1;
+        }
+        return true;
+    }
+
+    protected boolean isNumberSegment(String paramPath, int start, int end) { // same as ELEMENT_NUMBER_PATTERN
+        for (int i = start; i < end; i++) {
+            final char ch = paramPath.charAt(i);
+            if (!((ch >= '0' && ch <= '9') || ch == '-' || ch == '.')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < segmentTypes.length; i++) {
+            sb.append(i > 0 ? "/" : "");
+            sb.append(segmentTypes[i] == SegmentType.LITERAL ? literals[i] : "{" + segmentTypes[i].name().toLowerCase() + "}");
+        }
+        return "segment:{" + sb + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public int getSegmentCount() {
+        return segmentTypes.length;
+    }
+
+    public SegmentType getSegmentType(int index) {
+        return segmentTypes[index];
+    }
+
+    public String getLiteral(int index) { // null when parameter
+        return literals[index];
+    }
+
+    public int getParameterCount() {
+        return parameterCount;
+    }
+}
@@ -31,6 +31,8 @@ import org.lastaflute.web.exception.UrlPatternEndBraceNotFoundException;
 import org.lastaflute.web.exception.UrlPatternFrontOrRearSlashUnneededException;
 import org.lastaflute.web.exception.UrlPatternMethodKeywordWithOptionalArgException;
 import org.lastaflute.web.exception.UrlPatternNonsenseSettingException;
+import org.lastaflute.web.ruts.config.UrlPatternSegmentMatcher;
+import org.lastaflute.web.ruts.config.UrlPatternSegmentMatcher.SegmentType;
 import org.lastaflute.web.util.LaActionExecuteUtil;
 
 /**
@@ -42,9 +44,10 @@ public class UrlPatternAnalyzer {
     //                                                                          Definition
     //                                                                          ==========
     public static final String ELEMENT_BASIC_PATTERN = "([^/]+)";
-    public static final String ELEMENT_NUMBER_PATTERN = "([^/&&\\-\\.\\d]+)";
+    public static final String ELEMENT_NUMBER_PATTERN = "([\\-\\.\\d]+)"; // explicit class, negation with && differs since JDK9
     public static final String METHOD_KEYWORD_MARK = "@word";
     public static final String REST_DELIMITER = "$";
+    protected static final String REGEXP_META_CHARS = "\\.[](){}*+?^|"; // except '$' escaped as plain
 
     // ===================================================================================
     //                                                                             Extract
@@ -370,7 +373,8 @@ public class UrlPatternAnalyzer {
             }
         }
         assertEndBraceExists(executeMethod, urlPattern, index);
-        return new UrlPatternRegexpBox(buildRegexpPattern(sb.toString()), varList);
+        final UrlPatternSegmentMatcher segmentMatcher = compileSegmentMatcher(urlPattern, urlParamTypeList, optionalGenericTypeMap);
+        return new UrlPatternRegexpBox(buildRegexpPattern(sb.toString()), varList, segmentMatcher);
     }
 
     protected void setupParameterPattern(StringBuilder sb, List<Class<?>> urlParamTypeList, Map<Integer, Class<?>> optionalGenericTypeMap,
@@ -412,11 +416,17 @@ public class UrlPatternAnalyzer {
 
         protected final Pattern regexpPattern;
         protected final List<String> varList;
+        protected final UrlPatternSegmentMatcher segmentMatcher; // null allowed: when exotic pattern
 
         public UrlPatternRegexpBox(Pattern regexpPattern, List<String> varList) {
+            this(regexpPattern, varList, null);
+        }
+
+        public UrlPatternRegexpBox(Pattern regexpPattern, List<String> varList, UrlPatternSegmentMatcher segmentMatcher) {
             assertArgumentNotNull("regexpPattern", regexpPattern);
             this.regexpPattern = regexpPattern;
             this.varList = varList != null ? Collections.unmodifiableList(varList) : Collections.emptyList();
+            this.segmentMatcher = segmentMatcher;
         }
 
         protected void assertArgumentNotNull(String variableName, Object value) {
@@ -435,6 +445,54 @@ public class UrlPatternAnalyzer {
         public List<String> getVarList() {
             return varList;
         }
+
+        public OptionalThing<UrlPatternSegmentMatcher> getSegmentMatcher() {
+            return OptionalThing.ofNullable(segmentMatcher, () -> {
+                throw new IllegalStateException("Not found the segment matcher (exotic pattern): " + regexpPattern);
+            });
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                       Segment Matcher
+    //                                       ---------------
+    /**
+     * Compile the URL pattern to segment matcher if simple pattern, e.g. sea/{}/land/{}.
+     * @param urlPattern The resolved URL pattern, method keywords are already resolved. (NotNull)
+     * @param urlParamTypeList The list of parameter types to determine number parameter. (NotNull)
+     * @param optionalGenericTypeMap The map of generic type for optional parameter. (NotNull)
+     * @return The segment matcher for the pattern. (NullAllowed: when exotic pattern handled by regular expression)
+     */
+    protected UrlPatternSegmentMatcher compileSegmentMatcher(String urlPattern, List<Class<?>> urlParamTypeList,
+            Map<Integer, Class<?>> optionalGenericTypeMap) {
+        final List<SegmentType> segmentTypeList = new ArrayList<SegmentType>();
+        final List<String> literalList = new ArrayList<String>();
+        if (!urlPattern.isEmpty()) { // empty when index() without parameter
+            int parameterIndex = -1;
+            for (String segment : Srl.splitList(urlPattern, "/")) {
+                if (segment.equals("{}")) {
+                    ++parameterIndex;
+                    final boolean number = needsNumberTypePattern(urlParamTypeList, optionalGenericTypeMap, parameterIndex);
+                    segmentTypeList.add(number ? SegmentType.NUMBER : SegmentType.PARAMETER);
+                    literalList.add(null);
+                } else if (isPlainLiteralSegment(segment)) {
+                    segmentTypeList.add(SegmentType.LITERAL);
+                    literalList.add(segment);
+                } else { // e.g. {}-{}, sea{}, sea.land (dot means any character in regexp)
+                    return null;
+                }
+            }
+        }
+        return new UrlPatternSegmentMatcher(segmentTypeList, literalList);
+    }
+
+    protected boolean isPlainLiteralSegment(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (REGEXP_META_CHARS.indexOf(segment.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
     }
 
     // -----------------------------------------------------
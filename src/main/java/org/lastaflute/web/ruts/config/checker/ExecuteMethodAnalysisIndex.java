@@ -0,0 +1,386 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.config.checker;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+
+import org.dbflute.util.Srl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The on-disk index of form and bean types whose validator annotations are already verified. <br>
+ * Each entry keeps the bytecode hash of all types walked by the check (with their super classes and field annotations),
+ * so only entries whose classes are unchanged skip re-checking at next boot. <br>
+ * The class file stamp (last-modified and size) is also kept with the hash, and the bytecode is hashed again
+ * only when the stamp is changed or unknown, so unchanged classes are not read at every boot. <br>
+ * The index is just cache, so it is ignored (and rebuilt) when it cannot be read or written.
+ * @author jflute
+ * @since 0.8.5 (2016/09/15 Thursday)
+ */
+public class ExecuteMethodAnalysisIndex {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final Logger logger = LoggerFactory.getLogger(ExecuteMethodAnalysisIndex.class);
+
+    protected static final String HEADER_MARK = "#"; // comment line
+    protected static final String ENTRY_DELIMITER = "\t"; // between root type and dependencies
+    protected static final String DEPENDENCY_DELIMITER = ","; // between dependencies
+    protected static final String HASH_DELIMITER = "="; // between class name and hash
+    protected static final String STAMP_DELIMITER = "@"; // between hash and class file stamp (optional)
+
+    /** The map of index per file path, cleared when action mappings are disposed. (NotNull) */
+    protected static final Map<String, ExecuteMethodAnalysisIndex> indexMap = new ConcurrentHashMap<String, ExecuteMethodAnalysisIndex>();
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final File indexFile; // not null
+    protected final Map<String, Map<String, String>> entryMap; // not null, key is root type name, value is class name to hash
+    protected final Map<Class<?>, String> hashCacheMap = new ConcurrentHashMap<Class<?>, String>(); // per process
+    protected final Map<Class<?>, String> stampCacheMap = new ConcurrentHashMap<Class<?>, String>(); // per process
+    protected volatile boolean writable = true; // false after write failure
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public ExecuteMethodAnalysisIndex(File indexFile) {
+        this.indexFile = indexFile;
+        this.entryMap = new ConcurrentHashMap<String, Map<String, String>>(loadIndex());
+    }
+
+    // ===================================================================================
+    //                                                                        Index Holder
+    //                                                                        ============
+    /**
+     * @param indexPath The file path of the index. (NotNull)
+     * @return The index for the path, shared in the process. (NotNull)
+     */
+    public static ExecuteMethodAnalysisIndex findIndex(String indexPath) {
+        return indexMap.computeIfAbsent(indexPath, key -> new ExecuteMethodAnalysisIndex(new File(key)));
+    }
+
+    /**
+     * Clear the held indexes to read reloaded classes again, called when action mappings are disposed.
+     */
+    public static void clearIndex() {
+        indexMap.clear();
+    }
+
+    // ===================================================================================
+    //                                                                       Verified Type
+    //                                                                       =============
+    /**
+     * @param rootType The root type of the check, e.g. form type or JSON bean type. (NotNull)
+     * @return The determination, true if verified before and all related classes are unchanged.
+     */
+    public boolean isVerified(Class<?> rootType) {
+        final Map<String, String> dependencyMap = entryMap.get(rootType.getName());
+        if (dependencyMap == null) {
+            return false;
+        }
+        final ClassLoader loader = rootType.getClassLoader();
+        for (Entry<String, String> entry : dependencyMap.entrySet()) {
+            final Class<?> dependency;
+            try {
+                dependency = Class.forName(entry.getKey(), false, loader);
+            } catch (ClassNotFoundException | LinkageError ignored) { // e.g. removed class
+                return false;
+            }
+            if (!isUnchangedClass(dependency, entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected boolean isUnchangedClass(Class<?> dependency, String recorded) { // recorded is hash@stamp or hash
+        if (recorded.contains(STAMP_DELIMITER)) {
+            final String recordedStamp = Srl.substringFirstRear(recorded, STAMP_DELIMITER);
+            if (recordedStamp.equals(findClassFileStamp(dependency))) { // mainly here, no reading of bytecode
+                return true;
+            }
+        }
+        // stamp changed (e.g. rebuilt) or unknown (e.g. old index), so compare the content
+        return Srl.substringFirstFront(recorded, STAMP_DELIMITER).equals(findBytecodeHash(dependency));
+    }
+
+    /**
+     * @param rootType The root type of the check, e.g. form type or JSON bean type. (NotNull)
+     * @param checkedTypes The types walked by the check, may not contain the root type. (NotNull)
+     */
+    public void markVerified(Class<?> rootType, Collection<Class<?>> checkedTypes) {
+        final Set<Class<?>> dependencySet = new LinkedHashSet<Class<?>>();
+        collectDependency(rootType, dependencySet);
+        for (Class<?> checkedType : checkedTypes) {
+            collectDependency(checkedType, dependencySet);
+        }
+        final Map<String, String> dependencyMap = new LinkedHashMap<String, String>(dependencySet.size());
+        for (Class<?> dependency : dependencySet) {
+            final String hash = findBytecodeHash(dependency);
+            if (hash == null) { // e.g. generated class, cannot be indexed
+                return;
+            }
+            final String stamp = findClassFileStamp(dependency); // null allowed
+            dependencyMap.put(dependency.getName(), stamp != null ? hash + STAMP_DELIMITER + stamp : hash);
+        }
+        entryMap.put(rootType.getName(), dependencyMap);
+        appendEntry(rootType.getName(), dependencyMap);
+    }
+
+    protected void collectDependency(Class<?> type, Set<Class<?>> dependencySet) {
+        for (Class<?> current = type; current != null && !isStableType(current); current = current.getSuperclass()) {
+            if (!dependencySet.add(current)) {
+                break; // super classes are already collected
+            }
+            for (Field field : current.getDeclaredFields()) { // annotation definitions also change the check result
+                for (Annotation anno : field.getAnnotations()) {
+                    final Class<? extends Annotation> annoType = anno.annotationType();
+                    if (!isStableType(annoType)) {
+                        dependencySet.add(annoType);
+                    }
+                }
+            }
+        }
+    }
+
+    protected boolean isStableType(Class<?> type) { // not changed in the process life
+        return type.isPrimitive() || type.isArray() || type.getClassLoader() == null; // e.g. JDK classes
+    }
+
+    // ===================================================================================
+    //                                                                       Bytecode Hash
+    //                                                                       =============
+    protected String findBytecodeHash(Class<?> type) { // null allowed: e.g. generated class
+        final String cached = hashCacheMap.get(type);
+        if (cached != null) {
+            return cached;
+        }
+        final String hash = calculateBytecodeHash(type);
+        if (hash != null) {
+            hashCacheMap.put(type, hash);
+        }
+        return hash;
+    }
+
+    protected String calculateBytecodeHash(Class<?> type) {
+        final ClassLoader loader = type.getClassLoader();
+        if (loader == null) { // no way
+            return null;
+        }
+        final String resourcePath = type.getName().replace('.', '/') + ".class";
+        try (InputStream ins = loader.getResourceAsStream(resourcePath)) {
+            if (ins == null) { // e.g. generated class
+                return null;
+            }
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] buffer = new byte[4096];
+            int read;
+            while ((read = ins.read(buffer)) >= 0) {
+                digest.update(buffer, 0, read);
+            }
+            return toHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.debug("Failed to calculate the bytecode hash: {}", type, e);
+            return null;
+        }
+    }
+
+    protected String toHex(byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    // ===================================================================================
+    //                                                                    Class File Stamp
+    //                                                                    ================
+    protected String findClassFileStamp(Class<?> type) { // null allowed: e.g. unknown protocol
+        final String cached = stampCacheMap.get(type);
+        if (cached != null) {
+            return cached;
+        }
+        final String stamp = calculateClassFileStamp(type);
+        if (stamp != null) {
+            stampCacheMap.put(type, stamp);
+        }
+        return stamp;
+    }
+
+    protected String calculateClassFileStamp(Class<?> type) {
+        final ClassLoader loader = type.getClassLoader();
+        if (loader == null) { // no way
+            return null;
+        }
+        final URL url = loader.getResource(type.getName().replace('.', '/') + ".class");
+        if (url == null) { // e.g. generated class
+            return null;
+        }
+        try {
+            if ("file".equals(url.getProtocol())) { // e.g. classes directory
+                final File classFile = new File(url.toURI());
+                return classFile.exists() ? classFile.lastModified() + ":" + classFile.length() : null;
+            }
+            final URLConnection conn = url.openConnection();
+            if (conn instanceof JarURLConnection) { // e.g. jar in WEB-INF/lib
+                conn.setUseCaches(true); // the jar file is shared with class loading
+                final JarEntry entry = ((JarURLConnection) conn).getJarEntry();
+                return entry != null && entry.getTime() >= 0 ? entry.getTime() + ":" + entry.getSize() : null;
+            }
+            return null; // unknown protocol, hash only
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            logger.debug("Failed to get the class file stamp: {}", type, e);
+            return null;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                          Index File
+    //                                                                          ==========
+    protected Map<String, Map<String, String>> loadIndex() {
+        if (!indexFile.exists()) {
+            return new LinkedHashMap<String, Map<String, String>>();
+        }
+        final Map<String, Map<String, String>> loadedMap = new LinkedHashMap<String, Map<String, String>>();
+        int lineCount = 0;
+        try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith(HEADER_MARK)) {
+                    continue;
+                }
+                ++lineCount;
+                final String rootName = Srl.substringFirstFront(line, ENTRY_DELIMITER);
+                final Map<String, String> dependencyMap = new LinkedHashMap<String, String>();
+                for (String dependency : Srl.splitList(Srl.substringFirstRear(line, ENTRY_DELIMITER), DEPENDENCY_DELIMITER)) {
+                    if (dependency.contains(HASH_DELIMITER)) {
+                        dependencyMap.put(Srl.substringFirstFront(dependency, HASH_DELIMITER),
+                                Srl.substringFirstRear(dependency, HASH_DELIMITER));
+                    }
+                }
+                if (!dependencyMap.isEmpty()) {
+                    loadedMap.put(rootName, dependencyMap); // later line wins
+                }
+            }
+        } catch (IOException | RuntimeException e) { // broken index is rebuilt
+            logger.info("Failed to read the action analysis index so ignore it: {}", indexFile, e);
+            return new LinkedHashMap<String, Map<String, String>>();
+        }
+        if (lineCount > loadedMap.size()) { // has overridden lines
+            rewriteIndex(loadedMap);
+        }
+        return loadedMap;
+    }
+
+    protected synchronized void appendEntry(String rootName, Map<String, String> dependencyMap) {
+        if (!writable) {
+            return;
+        }
+        final List<String> lineList = new ArrayList<String>(2);
+        if (!indexFile.exists()) {
+            lineList.add(buildHeaderLine());
+        }
+        lineList.add(buildEntryLine(rootName, dependencyMap));
+        try {
+            prepareParentDirectory();
+            Files.write(indexFile.toPath(), lineList, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException | RuntimeException e) {
+            handleWriteFailure(e);
+        }
+    }
+
+    protected synchronized void rewriteIndex(Map<String, Map<String, String>> loadedMap) {
+        try {
+            prepareParentDirectory();
+            try (BufferedWriter writer = Files.newBufferedWriter(indexFile.toPath(), StandardCharsets.UTF_8)) {
+                writer.write(buildHeaderLine());
+                writer.newLine();
+                for (Entry<String, Map<String, String>> entry : loadedMap.entrySet()) {
+                    writer.write(buildEntryLine(entry.getKey(), entry.getValue()));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            handleWriteFailure(e);
+        }
+    }
+
+    protected void prepareParentDirectory() throws IOException {
+        final File parentDir = indexFile.getAbsoluteFile().getParentFile();
+        if (parentDir != null && !parentDir.exists()) {
+            Files.createDirectories(parentDir.toPath());
+        }
+    }
+
+    protected String buildHeaderLine() {
+        return HEADER_MARK + " action analysis index: rootType<TAB>className=bytecodeHash@classFileStamp,...";
+    }
+
+    protected String buildEntryLine(String rootName, Map<String, String> dependencyMap) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(rootName).append(ENTRY_DELIMITER);
+        int index = 0;
+        for (Entry<String, String> entry : dependencyMap.entrySet()) {
+            if (index > 0) {
+                sb.append(DEPENDENCY_DELIMITER);
+            }
+            sb.append(entry.getKey()).append(HASH_DELIMITER).append(entry.getValue());
+            ++index;
+        }
+        return sb.toString();
+    }
+
+    protected void handleWriteFailure(Exception e) {
+        writable = false; // no retry in the process
+        logger.info("Failed to write the action analysis index so stop writing: {}", indexFile, e);
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public File getIndexFile() {
+        return indexFile;
+    }
+}
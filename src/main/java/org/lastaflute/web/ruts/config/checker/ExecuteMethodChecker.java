@@ -27,9 +27,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.dbflute.helper.message.ExceptionMessageBuilder;
 import org.dbflute.jdbc.Classification;
@@ -59,18 +61,35 @@ public class ExecuteMethodChecker implements Serializable {
     //                                                                          ==========
     private static final long serialVersionUID = 1L;
 
+    /**
+     * The set of form and bean types whose validator annotations are already verified in the process. <br>
+     * Forms and JSON beans are often shared by execute methods so it avoids deep re-checking at boot. (NotNull)
+     */
+    protected static final Set<Class<?>> verifiedBeanTypeSet = ConcurrentHashMap.newKeySet();
+
     // ===================================================================================
     //                                                                           Attribute
     //                                                                           =========
     protected final Method executeMethod; // not null
     protected final OptionalThing<ActionFormMeta> formMeta;
+    protected final ExecuteMethodAnalysisIndex analysisIndex; // null allowed: if null, no on-disk index
 
     // ===================================================================================
     //                                                                         Constructor
     //                                                                         ===========
     public ExecuteMethodChecker(Method executeMethod, OptionalThing<ActionFormMeta> formMeta) {
+        this(executeMethod, formMeta, null);
+    }
+
+    /**
+     * @param executeMethod The execute method of action. (NotNull)
+     * @param formMeta The optional meta of action form. (NotNull, EmptyAllowed)
+     * @param analysisIndex The on-disk index to skip unchanged beans at boot. (NullAllowed: if null, no index)
+     */
+    public ExecuteMethodChecker(Method executeMethod, OptionalThing<ActionFormMeta> formMeta, ExecuteMethodAnalysisIndex analysisIndex) {
         this.executeMethod = executeMethod;
         this.formMeta = formMeta;
+        this.analysisIndex = analysisIndex;
     }
 
     // ===================================================================================
@@ -213,6 +232,9 @@ public class ExecuteMethodChecker implements Serializable {
     //                                                                      ==============
     protected void checkFormValidator() {
         formMeta.ifPresent(meta -> {
+            if (isVerifiedBeanType(meta.getFormType())) { // already checked by other execute method or previous boot
+                return;
+            }
             final Deque<String> pathDeque = new LinkedList<String>(); // recycled
             final Set<Class<?>> mismatchedCheckedTypeSet = DfCollectionUtil.newHashSet(meta.getFormType());
             final Set<Class<?>> lonelyCheckedTypeSet = DfCollectionUtil.newHashSet(meta.getFormType());
@@ -225,6 +247,7 @@ public class ExecuteMethodChecker implements Serializable {
                     checkFormLonelyValidatorAnnotation(property, field, pathDeque, lonelyCheckedTypeSet);
                 }
             }
+            markVerifiedBeanType(meta.getFormType(), mismatchedCheckedTypeSet, lonelyCheckedTypeSet); // no exception here
         });
     }
 
@@ -315,6 +338,10 @@ public class ExecuteMethodChecker implements Serializable {
     }
 
     protected void doCheckJsonBeanValidator(Class<?> jsonBeanType, Map<String, Class<?>> genericMap) {
+        final boolean verifiable = genericMap.isEmpty(); // generic bean depends on its arguments
+        if (verifiable && isVerifiedBeanType(jsonBeanType)) { // already checked by other execute method or previous boot
+            return;
+        }
         final Deque<String> pathDeque = new LinkedList<String>(); // recycled
         final Set<Class<?>> mismatchedCheckedTypeSet = DfCollectionUtil.newHashSet(jsonBeanType);
         final Set<Class<?>> lonelyCheckedTypeSet = DfCollectionUtil.newHashSet(jsonBeanType);
@@ -330,6 +357,9 @@ public class ExecuteMethodChecker implements Serializable {
                 checkJsonBeanLonelyValidatorAnnotation(jsonBeanType, pd, field, pathDeque, lonelyCheckedTypeSet, genericMap);
             }
         }
+        if (verifiable) {
+            markVerifiedBeanType(jsonBeanType, mismatchedCheckedTypeSet, lonelyCheckedTypeSet); // no exception here
+        }
     }
 
     protected void checkJsonBeanMismatchedValidatorAnnotation(Class<?> jsonBeanType, PropertyDesc pd, Field field, Deque<String> pathDeque,
@@ -351,4 +381,40 @@ public class ExecuteMethodChecker implements Serializable {
             return baseInfoMap;
         } , pathDeque, checkedTypeSet);
     }
+
+    // ===================================================================================
+    //                                                                       Verified Bean
+    //                                                                       =============
+    protected boolean isVerifiedBeanType(Class<?> beanType) {
+        if (verifiedBeanTypeSet.contains(beanType)) {
+            return true;
+        }
+        if (analysisIndex != null && analysisIndex.isVerified(beanType)) { // unchanged since previous boot
+            verifiedBeanTypeSet.add(beanType);
+            return true;
+        }
+        return false;
+    }
+
+    protected void markVerifiedBeanType(Class<?> beanType, Set<Class<?>> mismatchedCheckedTypeSet, Set<Class<?>> lonelyCheckedTypeSet) {
+        verifiedBeanTypeSet.add(beanType);
+        if (analysisIndex != null) {
+            final Set<Class<?>> checkedTypeSet = new LinkedHashSet<Class<?>>(mismatchedCheckedTypeSet);
+            checkedTypeSet.addAll(lonelyCheckedTypeSet);
+            checkedTypeSet.add(getClass()); // check rules themselves
+            checkedTypeSet.add(ExecuteMethodValidatorChecker.class);
+            analysisIndex.markVerified(beanType, checkedTypeSet);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                          Hot Deploy
+    //                                                                          ==========
+    /**
+     * Clear the verified types to check reloaded classes again, called when action mappings are disposed.
+     */
+    public static void clearVerifiedBeanType() {
+        verifiedBeanTypeSet.clear();
+        ExecuteMethodAnalysisIndex.clearIndex();
+    }
 }
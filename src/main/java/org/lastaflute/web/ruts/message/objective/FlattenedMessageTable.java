@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.message.objective;
+
+import java.io.Serializable;
+import java.text.Format;
+import java.text.MessageFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.dbflute.util.DfCollectionUtil;
+
+/**
+ * The flattened table of messages for a locale. <br>
+ * Each key is resolved through the application, extends and locale-fallback bundles only once,
+ * and the later lookups are just one hash probe.
+ * @author jflute
+ * @since 0.8.5 (2016/09/29 Thursday)
+ */
+public class FlattenedMessageTable implements Serializable {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final long serialVersionUID = 1L;
+
+    protected static final int NOT_FOUND_CACHE_LIMIT = 10000; // not to grow unlimitedly by e.g. dynamic keys
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final Locale locale; // not null
+    protected final Map<String, FlattenedMessage> messageMap = DfCollectionUtil.newConcurrentHashMap();
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public FlattenedMessageTable(Locale locale) {
+        this.locale = locale;
+    }
+
+    // ===================================================================================
+    //                                                                              Lookup
+    //                                                                              ======
+    /**
+     * @param key The key of message. (NotNull)
+     * @param rawProvider The provider of raw message from bundle hierarchy, called only at first. (NotNull)
+     * @return The flattened message, which may have null message. (NotNull)
+     */
+    public FlattenedMessage find(String key, Function<String, String> rawProvider) {
+        final FlattenedMessage cached = messageMap.get(key); // mainly here
+        if (cached != null) {
+            return cached;
+        }
+        final FlattenedMessage created = new FlattenedMessage(rawProvider.apply(key)); // outside lock
+        if (created.getRawMessage() == null && messageMap.size() >= NOT_FOUND_CACHE_LIMIT) {
+            return created; // not cached
+        }
+        final FlattenedMessage existing = messageMap.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+
+    public int size() {
+        return messageMap.size();
+    }
+
+    @Override
+    public String toString() {
+        return "flattened:{" + locale + ", size=" + messageMap.size() + "}";
+    }
+
+    // ===================================================================================
+    //                                                                   Flattened Message
+    //                                                                   =================
+    public static class FlattenedMessage implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        protected final String rawMessage; // null allowed: when not found
+        protected volatile boolean resolved; // resolution is idempotent so no lock
+        protected volatile String resolvedMessage; // label variables resolved, null allowed
+        protected volatile MessageFormat compiledFormat; // null allowed: when not compiled yet or no need
+        protected volatile boolean formatShared; // false if it has sub-formats (not thread-safe)
+        protected volatile boolean formatPrepared;
+
+        public FlattenedMessage(String rawMessage) {
+            this.rawMessage = rawMessage;
+        }
+
+        public String getRawMessage() {
+            return rawMessage;
+        }
+
+        public boolean isResolved() {
+            return resolved;
+        }
+
+        public String getResolvedMessage() {
+            return resolvedMessage;
+        }
+
+        public void acceptResolvedMessage(String resolvedMessage) {
+            this.resolvedMessage = resolvedMessage;
+            this.resolved = true;
+        }
+
+        public boolean isFormatPrepared() {
+            return formatPrepared;
+        }
+
+        /**
+         * @param format The compiled format for the resolved message. (NullAllowed: means no need to format e.g. no braces)
+         */
+        public void acceptCompiledFormat(MessageFormat format) {
+            if (format != null) {
+                boolean hasSubformat = false;
+                for (Format subformat : format.getFormats()) {
+                    if (subformat != null) { // e.g. {0,number}
+                        hasSubformat = true;
+                        break;
+                    }
+                }
+                this.formatShared = !hasSubformat;
+            }
+            this.compiledFormat = format;
+            this.formatPrepared = true;
+        }
+
+        /**
+         * @return The compiled format to be used by current thread. (NullAllowed: when no need to format)
+         */
+        public MessageFormat prepareThreadFormat() {
+            final MessageFormat format = compiledFormat;
+            if (format == null) {
+                return null;
+            }
+            return formatShared ? format : (MessageFormat) format.clone(); // sub-format is not thread-safe
+        }
+    }
+}
@@ -18,7 +18,7 @@ package org.lastaflute.web.ruts.message.objective;
 import java.io.Serializable;
 import java.text.MessageFormat;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -47,6 +47,7 @@ import org.lastaflute.web.ruts.message.exception.MessageLabelByLabelParameterNot
 import org.lastaflute.web.ruts.message.exception.MessageLabelByLabelVariableInfinityLoopException;
 import org.lastaflute.web.ruts.message.exception.MessageLabelByLabelVariableInvalidKeyException;
 import org.lastaflute.web.ruts.message.exception.MessageLabelByLabelVariableNotFoundException;
+import org.lastaflute.web.ruts.message.objective.FlattenedMessageTable.FlattenedMessage;
 
 /**
  * @author jflute
@@ -84,7 +85,9 @@ public class ObjectiveMessageResources implements MessageResources, Disposable,
     //                                                                           =========
     protected boolean returnNull = true; // as default
     protected boolean escape = true; // as default
-    protected final Map<String, MessageFormat> formatMap = new HashMap<String, MessageFormat>();
+
+    /** The map of flattened message table, which has resolved messages and compiled formats. (NotNull) */
+    protected final Map<Locale, FlattenedMessageTable> flattenedTableMap = newConcurrentHashMap();
 
     /**
      * The cache of assistant director, which can be lazy-loaded when you get it.
@@ -197,30 +200,44 @@ public class ObjectiveMessageResources implements MessageResources, Disposable,
     }
 
     protected String formatMessage(Locale locale, String key, Object args[]) {
-        MessageFormat format = null;
-        final String formatKey = messageKey(locale, key);
-        synchronized (formatMap) {
-            format = (MessageFormat) formatMap.get(formatKey);
-            if (format == null) {
-                final String formatString = getMessage(locale, key);
-                if (formatString == null) {
-                    return returnNull ? null : ("???" + formatKey + "???");
-                }
-                format = new MessageFormat(escape(formatString));
-                format.setLocale(locale);
-                formatMap.put(formatKey, format);
-            }
+        final FlattenedMessage flattened = findFlattenedMessage(locale, key);
+        final String formatString = resolveFlattenedMessage(locale, key, flattened);
+        if (formatString == null) {
+            return returnNull ? null : ("???" + messageKey(locale, key) + "???");
+        }
+        if (!flattened.isFormatPrepared()) { // compiled once per locale and key
+            flattened.acceptCompiledFormat(needsFormat(formatString) ? createMessageFormat(locale, formatString) : null);
         }
-        return format.format(args);
+        final MessageFormat format = flattened.prepareThreadFormat();
+        return format != null ? format.format(args) : formatString;
+    }
+
+    protected boolean needsFormat(String formatString) {
+        // the format returns the pattern as it is if no brace and no quote
+        return formatString.indexOf('{') >= 0 || formatString.indexOf('\'') >= 0;
+    }
+
+    protected MessageFormat createMessageFormat(Locale locale, String formatString) {
+        final MessageFormat format = new MessageFormat(escape(formatString));
+        format.setLocale(locale);
+        return format;
     }
 
     protected String doGetMessage(Locale locale, String key) {
         // almost same as super's (seasar's) process
-        // only changed is how to get bundle
-        final MessageResourceBundle bundle = getBundle(locale);
-        final String message = bundle.get(key);
+        // only changed is how to get bundle (and flattened cache)
+        final FlattenedMessage flattened = findFlattenedMessage(locale, key);
+        return resolveFlattenedMessage(locale, key, flattened); // also resolve label variables
+    }
+
+    protected String resolveFlattenedMessage(Locale locale, String key, FlattenedMessage flattened) {
+        if (flattened.isResolved()) { // mainly here
+            return flattened.getResolvedMessage();
+        }
         final Set<String> callerKeySet = createCallerKeySet();
-        return resolveLabelVariableMessage(locale, key, message, callerKeySet); // also resolve label variables
+        final String resolved = resolveLabelVariableMessage(locale, key, flattened.getRawMessage(), callerKeySet);
+        flattened.acceptResolvedMessage(resolved); // not reached if exception (so thrown every time)
+        return resolved;
     }
 
     protected HashSet<String> createCallerKeySet() {
@@ -242,6 +259,44 @@ public class ObjectiveMessageResources implements MessageResources, Disposable,
         }
     }
 
+    // ===================================================================================
+    //                                                                   Flattened Message
+    //                                                                   =================
+    /**
+     * Find the flattened message of the key, which is searched through bundle hierarchy only at first.
+     * @param locale The locale of current request. (NotNull)
+     * @param key The key of the message. (NotNull)
+     * @return The flattened message, which may have null message if not found. (NotNull)
+     */
+    protected FlattenedMessage findFlattenedMessage(Locale locale, String key) {
+        return prepareFlattenedTable(locale).find(key, rawKey -> getBundle(locale).get(rawKey));
+    }
+
+    protected String findRawMessage(Locale locale, String key) { // null allowed
+        return findFlattenedMessage(locale, key).getRawMessage();
+    }
+
+    protected FlattenedMessageTable prepareFlattenedTable(Locale locale) {
+        final FlattenedMessageTable table = flattenedTableMap.get(locale);
+        if (table != null) {
+            return table;
+        }
+        return flattenedTableMap.computeIfAbsent(locale, key -> new FlattenedMessageTable(key));
+    }
+
+    /**
+     * Load bundles (with extends) for the locales before first request, e.g. called at boot.
+     * @param localeList The list of locales to be prepared. (NotNull, EmptyAllowed)
+     */
+    public void prewarm(Collection<Locale> localeList) {
+        assertArgumentNotNull("localeList", localeList);
+        prepareDisposable();
+        for (Locale locale : localeList) {
+            getBundle(locale); // loads application and extends bundles
+            prepareFlattenedTable(locale);
+        }
+    }
+
     // ===================================================================================
     //                                                                    Extends Handling
     //                                                                    ================
@@ -493,7 +548,6 @@ public class ObjectiveMessageResources implements MessageResources, Disposable,
      * @return The list of filtered parameters resolved label arguments. (NotNull, EmptyAllowed)
      */
     protected List<Object> resolveLabelParameter(Locale locale, String key, Object[] args) {
-        final MessageResourceBundle bundle = getBundle(locale);
         if (args == null || args.length == 0) {
             return DfCollectionUtil.emptyList();
         }
@@ -501,7 +555,7 @@ public class ObjectiveMessageResources implements MessageResources, Disposable,
         for (Object arg : args) {
             if (canBeLabelKey(arg)) {
                 final String labelKey = (String) arg;
-                final String label = bundle.get(labelKey);
+                final String label = findRawMessage(locale, labelKey);
                 if (label != null) {
                     resolvedList.add(label);
                     continue;
@@ -556,7 +610,6 @@ public class ObjectiveMessageResources implements MessageResources, Disposable,
             return message;
         }
         callerKeySet.add(key);
-        final MessageResourceBundle bundle = getBundle(locale);
         String resolved = message;
         for (ScopeInfo scopeInfo : scopeList) {
             final String labelKey = scopeInfo.getContent();
@@ -567,7 +620,7 @@ public class ObjectiveMessageResources implements MessageResources, Disposable,
             if (callerKeySet.contains(labelKey)) { // infinity loop
                 throwMessageLabelByLabelVariableInfinityLoopException(locale, labelVar, callerKeySet);
             }
-            String label = bundle.get(labelKey);
+            String label = findRawMessage(locale, labelKey);
             if (label != null) {
                 label = resolveLabelVariableMessage(locale, labelKey, label, callerKeySet);
                 resolved = DfStringUtil.replace(resolved, labelVar, label);
@@ -634,7 +687,7 @@ public class ObjectiveMessageResources implements MessageResources, Disposable,
     @Override
     public void dispose() {
         bundleCacheMap.clear();
-        formatMap.clear();
+        flattenedTableMap.clear();
         initialized = false;
     }
 
@@ -16,9 +16,18 @@
 package org.lastaflute.web.ruts.multipart;
 
 /**
+ * The provider of multipart handling. <br>
+ * The built-in streaming handler is used if no provider (with 20MB per file and 50MB per request as default limits),
+ * which threw exception for multipart request before, so you can customize it like this:
+ * <pre>
+ * () <span style="font-size: 120%">-</span>&gt; <span style="color: #70226C">new</span> StreamingMultipartRequestHandler(<span style="color: #70226C">new</span> StreamingMultipartOption().limitFileSize(...).selectFileSink(...))
+ * </pre>
  * @author jflute
  */
 public interface MultipartResourceProvider {
 
+    /**
+     * @return The new-created handler of multipart request, called per request. (NotNull)
+     */
     MultipartRequestHandler createHandler();
 }
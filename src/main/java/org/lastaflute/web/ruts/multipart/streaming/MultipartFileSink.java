@@ -0,0 +1,54 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.multipart.streaming;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * The sink to receive file part body directly while parsing the request stream, e.g. to storage. <br>
+ * The body is not buffered in memory or temporary file so you can pipe huge files.
+ * <pre>
+ * (header, body) <span style="font-size: 120%">-</span>&gt; {
+ *     <span style="color: #70226C">return</span> storage.put(header.getFileName(), body); <span style="color: #3F7E5E">// returns e.g. storage key as receipt</span>
+ * }
+ * </pre>
+ * @author jflute
+ * @since 0.8.5 (2016/10/01 Saturday)
+ */
+@FunctionalInterface
+public interface MultipartFileSink {
+
+    /**
+     * Receive the file part body. <br>
+     * The body throws MultipartExceededException when it exceeds the limit so don't catch it.
+     * @param header The header of the file part. (NotNull)
+     * @param body The input stream of the part body, ending at the boundary, no need to close. (NotNull)
+     * @return The receipt of the sink, e.g. storage key, which can be got from form file. (NullAllowed)
+     * @throws IOException When it fails to read or write.
+     */
+    Object receive(MultipartPartHeader header, InputStream body) throws IOException;
+
+    /**
+     * Discard the output of the sink when the request fails, e.g. size limit exceeded. <br>
+     * Called for the failed part (maybe partially written) and also for parts already received in the request.
+     * @param header The header of the file part. (NotNull)
+     * @param receipt The receipt returned by receive(). (NullAllowed: when receive() failed or returned null)
+     */
+    default void discard(MultipartPartHeader header, Object receipt) { // you can override
+        // nothing as default, override it to delete e.g. partial storage object
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.multipart.streaming;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.dbflute.optional.OptionalThing;
+
+/**
+ * The selector of file sink per file part, called before the part body is read. <br>
+ * Multipart is parsed before action execution so actions select sinks here e.g. by request path and field name.
+ * @author jflute
+ * @since 0.8.5 (2016/10/01 Saturday)
+ */
+@FunctionalInterface
+public interface MultipartFileSinkSelector {
+
+    /**
+     * @param request The multipart request. (NotNull)
+     * @param header The header of the file part. (NotNull)
+     * @return The optional sink for the part. (NotNull, EmptyAllowed: then buffered as normal form file)
+     */
+    OptionalThing<MultipartFileSink> select(HttpServletRequest request, MultipartPartHeader header);
+}
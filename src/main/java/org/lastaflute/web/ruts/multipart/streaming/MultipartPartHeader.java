@@ -0,0 +1,149 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.multipart.streaming;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.dbflute.optional.OptionalThing;
+import org.dbflute.util.DfTypeUtil;
+
+/**
+ * The header information of one multipart part, e.g. field name, file name and content type.
+ * @author jflute
+ * @since 0.8.5 (2016/10/01 Saturday)
+ */
+public class MultipartPartHeader {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    public static final String CONTENT_DISPOSITION = "content-disposition";
+    public static final String CONTENT_TYPE = "content-type";
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final Map<String, String> headerMap; // key is lower-case
+    protected final String fieldName; // null allowed: when no name
+    protected final String fileName; // null allowed: when text part, empty allowed: when no file selected
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public MultipartPartHeader(Map<String, String> headerMap) {
+        if (headerMap == null) {
+            throw new IllegalArgumentException("The argument 'headerMap' should not be null.");
+        }
+        this.headerMap = headerMap;
+        final String disposition = headerMap.get(CONTENT_DISPOSITION);
+        this.fieldName = disposition != null ? extractDispositionParameter(disposition, "name") : null;
+        final String rawFileName = disposition != null ? extractDispositionParameter(disposition, "filename") : null;
+        this.fileName = rawFileName != null ? extractBaseFileName(rawFileName) : null;
+    }
+
+    protected String extractDispositionParameter(String disposition, String parameterName) {
+        // e.g. form-data; name="sea"; filename="land.txt"
+        final int length = disposition.length();
+        int index = disposition.indexOf(';');
+        while (index >= 0 && index < length) {
+            int nameStart = index + 1;
+            while (nameStart < length && disposition.charAt(nameStart) == ' ') {
+                ++nameStart;
+            }
+            final int equalIndex = disposition.indexOf('=', nameStart);
+            if (equalIndex < 0) {
+                return null;
+            }
+            final String name = disposition.substring(nameStart, equalIndex).trim();
+            final int valueStart = equalIndex + 1;
+            final String value;
+            final int nextIndex;
+            if (valueStart < length && disposition.charAt(valueStart) == '"') { // quoted
+                final StringBuilder sb = new StringBuilder();
+                int current = valueStart + 1;
+                while (current < length && disposition.charAt(current) != '"') {
+                    final char ch = disposition.charAt(current);
+                    if (ch == '\\' && current + 1 < length && disposition.charAt(current + 1) == '"') { // escaped quote
+                        sb.append('"');
+                        current += 2;
+                    } else {
+                        sb.append(ch);
+                        ++current;
+                    }
+                }
+                value = sb.toString();
+                nextIndex = disposition.indexOf(';', current);
+            } else {
+                final int semicolonIndex = disposition.indexOf(';', valueStart);
+                final int valueEnd = semicolonIndex >= 0 ? semicolonIndex : length;
+                value = disposition.substring(valueStart, valueEnd).trim();
+                nextIndex = semicolonIndex;
+            }
+            if (name.equalsIgnoreCase(parameterName)) {
+                return value;
+            }
+            index = nextIndex;
+        }
+        return null;
+    }
+
+    protected String extractBaseFileName(String rawFileName) { // e.g. old IE sends full path
+        final int separatorIndex = Math.max(rawFileName.lastIndexOf('/'), rawFileName.lastIndexOf('\\'));
+        return separatorIndex >= 0 ? rawFileName.substring(separatorIndex + 1) : rawFileName;
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return DfTypeUtil.toClassTitle(this) + ":{" + fieldName + ", " + fileName + ", " + getContentType() + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    /**
+     * @return Is the part file part? (has file name, even if empty when no file selected)
+     */
+    public boolean isFile() {
+        return fileName != null;
+    }
+
+    public OptionalThing<String> getHeader(String headerName) {
+        final String value = headerMap.get(headerName.toLowerCase());
+        return OptionalThing.ofNullable(value, () -> {
+            throw new IllegalStateException("Not found the header in the part: " + headerName + ", " + headerMap.keySet());
+        });
+    }
+
+    public Map<String, String> getHeaderMap() { // read-only
+        return Collections.unmodifiableMap(headerMap);
+    }
+
+    public String getFieldName() { // null allowed
+        return fieldName;
+    }
+
+    public String getFileName() { // null allowed
+        return fileName;
+    }
+
+    public String getContentType() { // null allowed
+        return headerMap.get(CONTENT_TYPE);
+    }
+}
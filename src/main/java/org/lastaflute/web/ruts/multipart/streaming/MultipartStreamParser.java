@@ -0,0 +1,332 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.multipart.streaming;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The incremental parser of multipart stream (RFC 7578), reading the request body only once by fixed buffer. <br>
+ * Part bodies are provided as input stream ending at the next boundary so they are not materialized here.
+ * <pre>
+ * parser.skipPreamble();
+ * do {
+ *     Map&lt;String, String&gt; headerMap = parser.readHeaders(charset);
+ *     InputStream body = parser.openPartBody(); // must be read to the end before next part
+ *     ...
+ * } while (parser.hasNextPart());
+ * </pre>
+ * @author jflute
+ * @since 0.8.5 (2016/10/01 Saturday)
+ */
+public class MultipartStreamParser {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final byte CR = 0x0D;
+    protected static final byte LF = 0x0A;
+    protected static final byte DASH = 0x2D;
+    protected static final int HEADER_SIZE_MAX = 10240; // same as commons-fileupload
+    protected static final int PREAMBLE_OFFSET = 2; // first boundary may be without CRLF
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final InputStream input;
+    protected final byte[] delimiter; // CRLF--boundary
+    protected final byte[] buffer;
+    protected int head; // index of next byte in buffer
+    protected int tail; // index after last valid byte in buffer
+    protected boolean lastPartDone;
+    protected int scannedIndex; // no delimiter starts before this index in buffer, to avoid rescanning
+    protected int foundIndex = -1; // index of found delimiter in buffer, minus if not found yet
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public MultipartStreamParser(InputStream input, byte[] boundary, int bufferSize) {
+        if (input == null) {
+            throw new IllegalArgumentException("The argument 'input' should not be null.");
+        }
+        if (boundary == null || boundary.length == 0) {
+            throw new IllegalArgumentException("The argument 'boundary' should not be null or empty.");
+        }
+        this.input = input;
+        this.delimiter = new byte[boundary.length + 4];
+        this.delimiter[0] = CR;
+        this.delimiter[1] = LF;
+        this.delimiter[2] = DASH;
+        this.delimiter[3] = DASH;
+        System.arraycopy(boundary, 0, this.delimiter, 4, boundary.length);
+        if (bufferSize < delimiter.length * 2) { // needs room to keep partial delimiter
+            throw new IllegalArgumentException("Too small buffer size for the boundary: " + bufferSize);
+        }
+        this.buffer = new byte[bufferSize];
+    }
+
+    // ===================================================================================
+    //                                                                            Boundary
+    //                                                                            ========
+    /**
+     * Skip the preamble and the first boundary.
+     * @return Does it have at least one part? (false if e.g. only close delimiter)
+     * @throws IOException When the stream is broken or malformed.
+     */
+    public boolean skipPreamble() throws IOException {
+        final PartBodyInputStream preamble = new PartBodyInputStream(PREAMBLE_OFFSET);
+        drain(preamble);
+        return !lastPartDone;
+    }
+
+    /**
+     * @return Does it have next part? (means the previous part body has been read to the end)
+     */
+    public boolean hasNextPart() {
+        return !lastPartDone;
+    }
+
+    protected void readBoundaryTail() throws IOException { // after delimiter
+        final byte first = readByte();
+        final byte second = readByte();
+        if (first == DASH && second == DASH) { // close delimiter
+            lastPartDone = true;
+        } else if (first != CR || second != LF) {
+            throw new IOException("Unexpected bytes after multipart boundary: " + first + ", " + second);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                              Header
+    //                                                                              ======
+    /**
+     * Read headers of the current part.
+     * @param charset The charset to decode header bytes, e.g. file name. (NotNull)
+     * @return The map of headers, key is lower-case header name. (NotNull, EmptyAllowed)
+     * @throws IOException When the stream is broken or headers are too large.
+     */
+    public Map<String, String> readHeaders(Charset charset) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        int matched = 0; // of CRLFCRLF
+        while (matched < 4) {
+            final byte current = readByte();
+            if (current == ((matched % 2 == 0) ? CR : LF)) {
+                ++matched;
+            } else {
+                matched = current == CR ? 1 : 0;
+            }
+            if (out.size() >= HEADER_SIZE_MAX) {
+                throw new IOException("Too large headers of multipart part: max=" + HEADER_SIZE_MAX);
+            }
+            out.write(current);
+            if (matched == 2 && out.size() == 2) { // no header, only blank line
+                break;
+            }
+        }
+        return parseHeaders(new String(out.toByteArray(), charset));
+    }
+
+    protected Map<String, String> parseHeaders(String headerExp) {
+        final Map<String, String> headerMap = new LinkedHashMap<String, String>(4);
+        for (String line : headerExp.split("\r\n")) {
+            final int colonIndex = line.indexOf(':');
+            if (colonIndex <= 0) { // e.g. empty line
+                continue;
+            }
+            final String name = line.substring(0, colonIndex).trim().toLowerCase();
+            final String value = line.substring(colonIndex + 1).trim();
+            headerMap.putIfAbsent(name, value); // first one is enough, basically no duplicate
+        }
+        return headerMap;
+    }
+
+    // ===================================================================================
+    //                                                                           Part Body
+    //                                                                           =========
+    /**
+     * Open the input stream of the current part body, which ends at the next boundary. <br>
+     * The returned stream should be read to the end (or drained) before next part.
+     * @return The input stream of part body, not closing request stream. (NotNull)
+     */
+    public InputStream openPartBody() {
+        return new PartBodyInputStream(0);
+    }
+
+    /**
+     * Read the rest of the stream and throw it away.
+     * @param body The input stream of part body. (NotNull)
+     * @return The count of drained bytes.
+     * @throws IOException When the stream is broken or malformed.
+     */
+    public long drain(InputStream body) throws IOException {
+        long total = 0;
+        final byte[] skipped = new byte[1024];
+        int read;
+        while ((read = body.read(skipped)) >= 0) {
+            total += read;
+        }
+        return total;
+    }
+
+    protected class PartBodyInputStream extends InputStream {
+
+        protected final int delimiterOffset; // to search "--boundary" for preamble
+        protected boolean ended;
+
+        public PartBodyInputStream(int delimiterOffset) {
+            this.delimiterOffset = delimiterOffset;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (prepareAvailable() <= 0) {
+                return -1;
+            }
+            return buffer[head++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            final int available = prepareAvailable();
+            if (available <= 0) {
+                return -1;
+            }
+            final int size = Math.min(available, length);
+            System.arraycopy(buffer, head, bytes, offset, size);
+            head += size;
+            return size;
+        }
+
+        @Override
+        public int available() throws IOException {
+            if (ended) {
+                return 0;
+            }
+            final int found = indexOfDelimiter(delimiterOffset);
+            return found >= 0 ? found - head : Math.max(tail - head - keptLength(), 0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            drain(this); // to position next part, and request stream is not closed here
+        }
+
+        protected int prepareAvailable() throws IOException { // returns zero if ended
+            if (ended) {
+                return 0;
+            }
+            while (true) {
+                final int found = indexOfDelimiter(delimiterOffset);
+                if (found == head) { // reaches delimiter
+                    head += delimiter.length - delimiterOffset;
+                    clearScanned();
+                    readBoundaryTail();
+                    ended = true;
+                    return 0;
+                }
+                if (found > head) {
+                    return found - head;
+                }
+                final int safe = tail - head - keptLength(); // may be part of delimiter at the end
+                if (safe > 0) {
+                    return safe;
+                }
+                if (!fill()) {
+                    throw new IOException("Unexpected end of multipart stream (no boundary).");
+                }
+            }
+        }
+
+        protected int keptLength() {
+            return delimiter.length - delimiterOffset - 1;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                              Buffer
+    //                                                                              ======
+    /**
+     * Find the delimiter in the buffered window. <br>
+     * The scanned range is remembered so byte-at-a-time reading does not rescan the window (linear in total).
+     * @param delimiterOffset The offset of delimiter to search, e.g. without CRLF for preamble.
+     * @return The index of the delimiter in buffer, or minus if not found in the window.
+     */
+    protected int indexOfDelimiter(int delimiterOffset) {
+        if (foundIndex >= head) { // already found, until the delimiter is consumed
+            return foundIndex;
+        }
+        final int delimiterLength = delimiter.length - delimiterOffset;
+        final byte first = delimiter[delimiterOffset];
+        final int start = Math.max(head, scannedIndex);
+        final int last = tail - delimiterLength;
+        for (int i = start; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < delimiterLength && buffer[i + j] == delimiter[delimiterOffset + j]) {
+                ++j;
+            }
+            if (j == delimiterLength) {
+                foundIndex = i;
+                return i;
+            }
+        }
+        scannedIndex = Math.max(start, last + 1); // the rest may be partial delimiter so rescanned after fill
+        return -1;
+    }
+
+    protected void clearScanned() { // after the delimiter is consumed
+        scannedIndex = head;
+        foundIndex = -1;
+    }
+
+    protected byte readByte() throws IOException {
+        if (head == tail && !fill()) {
+            throw new IOException("Unexpected end of multipart stream.");
+        }
+        return buffer[head++];
+    }
+
+    protected boolean fill() throws IOException { // false if end of stream
+        if (head > 0) { // compact
+            final int rest = tail - head;
+            System.arraycopy(buffer, head, buffer, 0, rest);
+            scannedIndex = Math.max(scannedIndex - head, 0);
+            if (foundIndex >= 0) {
+                foundIndex = foundIndex - head; // basically not here because found delimiter needs no fill
+            }
+            head = 0;
+            tail = rest;
+        }
+        if (tail == buffer.length) { // basically no way because of buffer size check
+            throw new IllegalStateException("The buffer is full without delimiter: size=" + buffer.length);
+        }
+        final int read = input.read(buffer, tail, buffer.length - tail);
+        if (read < 0) {
+            return false;
+        }
+        tail += read;
+        return true;
+    }
+}
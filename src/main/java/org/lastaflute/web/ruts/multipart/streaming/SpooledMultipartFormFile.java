@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.multipart.streaming;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+
+import org.dbflute.optional.OptionalThing;
+import org.dbflute.util.DfTypeUtil;
+import org.lastaflute.web.ruts.multipart.MultipartFormFile;
+
+/**
+ * The form file spooled while streaming, held in memory up to threshold, or else in temporary file. <br>
+ * Use {@link #getInputStream()} for large files because {@link #getFileData()} reads the whole file to memory.
+ * @author jflute
+ * @since 0.8.5 (2016/10/01 Saturday)
+ */
+public class SpooledMultipartFormFile implements MultipartFormFile {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String fileName;
+    protected final String contentType; // null allowed
+    protected final long fileLength;
+    protected byte[] memoryData; // null allowed: when spooled to file or destroyed
+    protected File spoolFile; // null allowed: when in memory or destroyed
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public SpooledMultipartFormFile(MultipartPartHeader header, byte[] memoryData) {
+        this.fileName = header.getFileName();
+        this.contentType = header.getContentType();
+        this.fileLength = memoryData.length;
+        this.memoryData = memoryData;
+    }
+
+    public SpooledMultipartFormFile(MultipartPartHeader header, File spoolFile, long fileLength) {
+        this.fileName = header.getFileName();
+        this.contentType = header.getContentType();
+        this.fileLength = fileLength;
+        this.spoolFile = spoolFile;
+    }
+
+    // ===================================================================================
+    //                                                                           File Data
+    //                                                                           =========
+    @Override
+    public byte[] getFileData() throws IOException { // materializes spooled file so be careful
+        if (memoryData != null) {
+            return memoryData;
+        }
+        return spoolFile != null ? Files.readAllBytes(spoolFile.toPath()) : new byte[0];
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        if (memoryData != null) {
+            return new ByteArrayInputStream(memoryData);
+        }
+        return spoolFile != null ? new FileInputStream(spoolFile) : new ByteArrayInputStream(new byte[0]);
+    }
+
+    /**
+     * @return Is the file data held in memory? (false if spooled to temporary file)
+     */
+    public boolean isInMemory() {
+        return memoryData != null;
+    }
+
+    /**
+     * @return The optional temporary file, deleted when request ends, so move it if you keep. (NotNull, EmptyAllowed: when in memory)
+     */
+    public OptionalThing<File> getSpoolFile() {
+        return OptionalThing.ofNullable(spoolFile, () -> {
+            throw new IllegalStateException("Not found the spool file (in memory or destroyed): " + fileName);
+        });
+    }
+
+    @Override
+    public void destroy() {
+        memoryData = null;
+        if (spoolFile != null) {
+            if (spoolFile.exists() && !spoolFile.delete()) {
+                spoolFile.deleteOnExit(); // e.g. still opened on Windows
+            }
+            spoolFile = null;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        final String place = memoryData != null ? "memory" : (spoolFile != null ? spoolFile.getName() : "destroyed");
+        return DfTypeUtil.toClassTitle(this) + ":{" + fileName + ", " + contentType + ", " + fileLength + ", " + place + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public int getFileSize() { // interface is int, use getFileLength() for over 2GB
+        return (int) Math.min(fileLength, Integer.MAX_VALUE);
+    }
+
+    public long getFileLength() {
+        return fileLength;
+    }
+
+    @Override
+    public String getFileName() {
+        return fileName;
+    }
+}
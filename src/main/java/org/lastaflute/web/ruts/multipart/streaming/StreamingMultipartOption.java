@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.multipart.streaming;
+
+import java.io.File;
+
+import org.dbflute.optional.OptionalThing;
+import org.dbflute.util.DfTypeUtil;
+
+/**
+ * The option of streaming multipart handling, e.g. spool threshold, size limits and file sinks.
+ * <pre>
+ * new StreamingMultipartOption().spoolThreshold(256 * 1024).limitFileSize(200 * 1024 * 1024).selectFileSink(...)
+ * </pre>
+ * @author jflute
+ * @since 0.8.5 (2016/10/01 Saturday)
+ */
+public class StreamingMultipartOption {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    public static final int DEFAULT_SPOOL_THRESHOLD = 64 * 1024;
+    public static final long DEFAULT_MAX_FILE_SIZE = 20L * 1024 * 1024; // bounded as default, change it if large files
+    public static final long DEFAULT_MAX_TOTAL_SIZE = 50L * 1024 * 1024;
+    public static final int DEFAULT_MAX_TEXT_SIZE = 1024 * 1024;
+    public static final int DEFAULT_BUFFER_SIZE = 8 * 1024;
+    public static final long NO_LIMIT = -1L;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected int spoolThreshold = DEFAULT_SPOOL_THRESHOLD; // in memory until this size
+    protected long maxFileSize = DEFAULT_MAX_FILE_SIZE; // per file
+    protected long maxTotalSize = DEFAULT_MAX_TOTAL_SIZE; // whole request body
+    protected int maxTextSize = DEFAULT_MAX_TEXT_SIZE; // per text parameter
+    protected int bufferSize = DEFAULT_BUFFER_SIZE;
+    protected File spoolDirectory; // null allowed: default temporary directory
+    protected MultipartFileSinkSelector fileSinkSelector; // null allowed: no sink
+
+    // ===================================================================================
+    //                                                                              Facade
+    //                                                                              ======
+    // -----------------------------------------------------
+    //                                                 Spool
+    //                                                 -----
+    public StreamingMultipartOption spoolThreshold(int spoolThreshold) {
+        assertNotMinus("spoolThreshold", spoolThreshold);
+        this.spoolThreshold = spoolThreshold;
+        return this;
+    }
+
+    public StreamingMultipartOption spoolDirectory(File spoolDirectory) {
+        if (spoolDirectory == null) {
+            throw new IllegalArgumentException("The argument 'spoolDirectory' should not be null.");
+        }
+        this.spoolDirectory = spoolDirectory;
+        return this;
+    }
+
+    public StreamingMultipartOption bufferSize(int bufferSize) {
+        assertNotMinus("bufferSize", bufferSize);
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    // -----------------------------------------------------
+    //                                                 Limit
+    //                                                 -----
+    public StreamingMultipartOption limitFileSize(long maxFileSize) {
+        assertNotMinus("maxFileSize", maxFileSize);
+        this.maxFileSize = maxFileSize;
+        return this;
+    }
+
+    public StreamingMultipartOption limitTotalSize(long maxTotalSize) {
+        assertNotMinus("maxTotalSize", maxTotalSize);
+        this.maxTotalSize = maxTotalSize;
+        return this;
+    }
+
+    /**
+     * Remove the limits of file size and total size, e.g. when the sink streams to storage and front server limits it.
+     * @return this. (NotNull)
+     */
+    public StreamingMultipartOption unlimitFileAndTotalSize() {
+        this.maxFileSize = NO_LIMIT;
+        this.maxTotalSize = NO_LIMIT;
+        return this;
+    }
+
+    public StreamingMultipartOption limitTextSize(int maxTextSize) {
+        assertNotMinus("maxTextSize", maxTextSize);
+        this.maxTextSize = maxTextSize;
+        return this;
+    }
+
+    // -----------------------------------------------------
+    //                                                  Sink
+    //                                                  ----
+    public StreamingMultipartOption selectFileSink(MultipartFileSinkSelector fileSinkSelector) {
+        if (fileSinkSelector == null) {
+            throw new IllegalArgumentException("The argument 'fileSinkSelector' should not be null.");
+        }
+        this.fileSinkSelector = fileSinkSelector;
+        return this;
+    }
+
+    // ===================================================================================
+    //                                                                        Small Helper
+    //                                                                        ============
+    protected void assertNotMinus(String variableName, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("The argument '" + variableName + "' should not be minus: " + value);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        final String title = DfTypeUtil.toClassTitle(this);
+        return title + ":{spool=" + spoolThreshold + ", file=" + maxFileSize + ", total=" + maxTotalSize + ", text=" + maxTextSize
+                + ", sink=" + (fileSinkSelector != null) + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public int getSpoolThreshold() {
+        return spoolThreshold;
+    }
+
+    public OptionalThing<File> getSpoolDirectory() {
+        return OptionalThing.ofNullable(spoolDirectory, () -> {
+            throw new IllegalStateException("Not found the spool directory (use default temporary directory).");
+        });
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public long getMaxFileSize() { // minus means no limit
+        return maxFileSize;
+    }
+
+    public long getMaxTotalSize() { // minus means no limit
+        return maxTotalSize;
+    }
+
+    public int getMaxTextSize() {
+        return maxTextSize;
+    }
+
+    public OptionalThing<MultipartFileSinkSelector> getFileSinkSelector() {
+        return OptionalThing.ofNullable(fileSinkSelector, () -> {
+            throw new IllegalStateException("Not found the file sink selector.");
+        });
+    }
+}
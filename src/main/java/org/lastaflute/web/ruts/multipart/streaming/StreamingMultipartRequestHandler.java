@@ -0,0 +1,425 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.multipart.streaming;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+import org.dbflute.optional.OptionalThing;
+import org.dbflute.util.Srl;
+import org.lastaflute.web.ruts.multipart.MultipartFormFile;
+import org.lastaflute.web.ruts.multipart.MultipartRequestHandler;
+import org.lastaflute.web.ruts.multipart.MultipartRequestWrapper;
+import org.lastaflute.web.ruts.multipart.exception.MultipartExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The built-in multipart handler parsing the request stream incrementally. <br>
+ * File parts are held in memory up to spool threshold and spooled to temporary files over it,
+ * or received by file sink directly without buffering. <br>
+ * The size limits are checked while streaming (and total size by content length before reading)
+ * so exceeded request does not consume memory or disk, and partial temporary files and sink outputs are discarded. <br>
+ * This is used if no multipart provider is directed, with 20MB per file and 50MB per request as default limits.
+ * @author jflute
+ * @since 0.8.5 (2016/10/01 Saturday)
+ */
+public class StreamingMultipartRequestHandler implements MultipartRequestHandler {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final Logger logger = LoggerFactory.getLogger(StreamingMultipartRequestHandler.class);
+    protected static final String BOUNDARY_PARAMETER = "boundary=";
+    protected static final String SPOOL_FILE_PREFIX = "lastaflute-multipart-";
+    protected static final String SPOOL_FILE_SUFFIX = ".tmp";
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final StreamingMultipartOption option;
+    protected final Map<String, String[]> textElements = new LinkedHashMap<String, String[]>();
+    protected final Map<String, MultipartFormFile> fileElements = new LinkedHashMap<String, MultipartFormFile>();
+    protected final List<MultipartFormFile> receivedFileList = new ArrayList<MultipartFormFile>(); // to destroy
+    protected final List<Runnable> sinkDiscarderList = new ArrayList<Runnable>(); // to discard sunk outputs when failure
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public StreamingMultipartRequestHandler() {
+        this(new StreamingMultipartOption());
+    }
+
+    public StreamingMultipartRequestHandler(StreamingMultipartOption option) {
+        if (option == null) {
+            throw new IllegalArgumentException("The argument 'option' should not be null.");
+        }
+        this.option = option;
+    }
+
+    // ===================================================================================
+    //                                                                            Handling
+    //                                                                            ========
+    @Override
+    public void handleRequest(HttpServletRequest request) throws ServletException {
+        final long contentLength = request.getContentLengthLong(); // minus if unknown e.g. chunked
+        final long maxTotalSize = option.getMaxTotalSize();
+        if (maxTotalSize >= 0 && contentLength > maxTotalSize) { // before reading
+            saveExceededException(request, createTotalExceededException(contentLength, maxTotalSize));
+            return;
+        }
+        final byte[] boundary = extractBoundary(request);
+        final Charset charset = prepareCharset(request);
+        try {
+            final InputStream input = wrapTotalLimit(request.getInputStream());
+            final MultipartStreamParser parser = newMultipartStreamParser(input, boundary);
+            if (!parser.skipPreamble()) {
+                return;
+            }
+            do {
+                final MultipartPartHeader header = new MultipartPartHeader(parser.readHeaders(charset));
+                final InputStream body = parser.openPartBody();
+                if (header.getFieldName() != null) { // basically true, just in case
+                    if (header.isFile()) {
+                        handleFilePart(request, header, body);
+                    } else {
+                        handleTextPart(request, header, body, charset);
+                    }
+                }
+                parser.drain(body); // to next part
+            } while (parser.hasNextPart());
+        } catch (MultipartExceededException e) {
+            discardSunkOutputs();
+            rollback();
+            saveExceededException(request, e);
+        } catch (IOException e) {
+            discardSunkOutputs();
+            rollback();
+            throw new ServletException("Failed to parse the multipart request: " + request, e);
+        } catch (RuntimeException e) { // e.g. sink failure
+            discardSunkOutputs();
+            rollback();
+            throw e;
+        }
+    }
+
+    protected byte[] extractBoundary(HttpServletRequest request) throws ServletException {
+        final String contentType = request.getContentType(); // e.g. multipart/form-data; boundary=----xxx
+        if (contentType == null || !contentType.contains(BOUNDARY_PARAMETER)) {
+            throw new ServletException("Not found the boundary in the content type: " + contentType);
+        }
+        String boundary = Srl.substringFirstRear(contentType, BOUNDARY_PARAMETER);
+        if (boundary.contains(";")) {
+            boundary = Srl.substringFirstFront(boundary, ";");
+        }
+        boundary = Srl.unquoteDouble(boundary.trim());
+        if (boundary.isEmpty()) {
+            throw new ServletException("Empty boundary in the content type: " + contentType);
+        }
+        return boundary.getBytes(StandardCharsets.ISO_8859_1); // boundary is US-ASCII
+    }
+
+    protected Charset prepareCharset(HttpServletRequest request) {
+        final String encoding = request.getCharacterEncoding(); // basically set by filter
+        return encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+    }
+
+    protected MultipartStreamParser newMultipartStreamParser(InputStream input, byte[] boundary) {
+        return new MultipartStreamParser(input, boundary, option.getBufferSize());
+    }
+
+    // ===================================================================================
+    //                                                                           Text Part
+    //                                                                           =========
+    protected void handleTextPart(HttpServletRequest request, MultipartPartHeader header, InputStream body, Charset charset)
+            throws IOException {
+        final String fieldName = header.getFieldName();
+        final int maxTextSize = option.getMaxTextSize();
+        final InputStream limited = new LimitedInputStream(body, maxTextSize, actual -> {
+            return createTextExceededException(fieldName, actual, maxTextSize);
+        });
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(64);
+        final byte[] chunk = new byte[256];
+        int read;
+        while ((read = limited.read(chunk)) >= 0) {
+            out.write(chunk, 0, read);
+        }
+        addTextElement(request, fieldName, new String(out.toByteArray(), charset));
+    }
+
+    protected void addTextElement(HttpServletRequest request, String name, String value) {
+        final String[] existing = textElements.get(name);
+        final String[] values;
+        if (existing != null) {
+            values = new String[existing.length + 1];
+            System.arraycopy(existing, 0, values, 0, existing.length);
+            values[existing.length] = value;
+        } else {
+            values = new String[] { value };
+        }
+        textElements.put(name, values);
+        if (request instanceof MultipartRequestWrapper) { // to be found by request.getParameter()
+            ((MultipartRequestWrapper) request).setParameter(name, value);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                           File Part
+    //                                                                           =========
+    protected void handleFilePart(HttpServletRequest request, MultipartPartHeader header, InputStream body) throws IOException {
+        final long maxFileSize = option.getMaxFileSize();
+        final LimitedInputStream limited = new LimitedInputStream(body, maxFileSize, actual -> {
+            return createFileExceededException(header, actual, maxFileSize);
+        });
+        final OptionalThing<MultipartFileSink> sink = findFileSink(request, header);
+        final MultipartFormFile formFile;
+        if (sink.isPresent()) {
+            final MultipartFileSink fileSink = sink.get();
+            Object receipt = null;
+            try {
+                receipt = fileSink.receive(header, limited);
+                final byte[] rest = new byte[1024];
+                while (limited.read(rest) >= 0) { // the sink may not read to the end
+                }
+            } catch (IOException | RuntimeException e) { // e.g. exceeded while receiving
+                discardSinkQuietly(fileSink, header, receipt); // partial output
+                throw e;
+            }
+            final Object sunkReceipt = receipt;
+            sinkDiscarderList.add(() -> discardSinkQuietly(fileSink, header, sunkReceipt)); // if later part fails
+            formFile = new SunkMultipartFormFile(header, limited.getCount(), receipt);
+        } else {
+            formFile = spoolFilePart(header, limited);
+        }
+        receivedFileList.add(formFile);
+        fileElements.put(header.getFieldName(), formFile);
+    }
+
+    protected void discardSinkQuietly(MultipartFileSink sink, MultipartPartHeader header, Object receipt) {
+        try {
+            sink.discard(header, receipt);
+        } catch (RuntimeException continued) { // not to hide the original failure
+            logger.info("Failed to discard the sink output: " + header + ", " + receipt, continued);
+        }
+    }
+
+    protected OptionalThing<MultipartFileSink> findFileSink(HttpServletRequest request, MultipartPartHeader header) {
+        return option.getFileSinkSelector().flatMap(selector -> selector.select(request, header));
+    }
+
+    // -----------------------------------------------------
+    //                                                 Spool
+    //                                                 -----
+    protected MultipartFormFile spoolFilePart(MultipartPartHeader header, InputStream body) throws IOException {
+        final int threshold = option.getSpoolThreshold();
+        final byte[] chunk = new byte[option.getBufferSize()];
+        ByteArrayOutputStream memory = new ByteArrayOutputStream(Math.min(threshold, chunk.length));
+        File spoolFile = null;
+        OutputStream spoolOut = null;
+        long length = 0;
+        boolean completed = false;
+        try {
+            int read;
+            while ((read = body.read(chunk)) >= 0) {
+                length += read;
+                if (spoolOut == null && length > threshold) { // switch to file
+                    spoolFile = createSpoolFile();
+                    spoolOut = new FileOutputStream(spoolFile);
+                    memory.writeTo(spoolOut);
+                    memory = null; // release
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("...Spooling multipart file to temporary file: {} to {}", header.getFileName(), spoolFile);
+                    }
+                }
+                if (spoolOut != null) {
+                    spoolOut.write(chunk, 0, read);
+                } else {
+                    memory.write(chunk, 0, read);
+                }
+            }
+            completed = true;
+        } finally {
+            if (spoolOut != null) {
+                spoolOut.close();
+            }
+            if (!completed && spoolFile != null) { // e.g. exceeded
+                spoolFile.delete();
+            }
+        }
+        if (spoolFile != null) {
+            return new SpooledMultipartFormFile(header, spoolFile, length);
+        } else {
+            return new SpooledMultipartFormFile(header, memory.toByteArray());
+        }
+    }
+
+    protected File createSpoolFile() throws IOException {
+        return File.createTempFile(SPOOL_FILE_PREFIX, SPOOL_FILE_SUFFIX, option.getSpoolDirectory().orElse(null));
+    }
+
+    // ===================================================================================
+    //                                                                               Limit
+    //                                                                               =====
+    protected InputStream wrapTotalLimit(InputStream input) {
+        final long maxTotalSize = option.getMaxTotalSize();
+        if (maxTotalSize < 0) {
+            return input;
+        }
+        return new LimitedInputStream(input, maxTotalSize, actual -> createTotalExceededException(actual, maxTotalSize));
+    }
+
+    protected MultipartExceededException createTotalExceededException(long actual, long permitted) {
+        final String msg = "The request body exceeded the max size: actual(at least)=" + actual + ", permitted=" + permitted;
+        return new MultipartExceededException(msg, actual, permitted, null);
+    }
+
+    protected MultipartExceededException createFileExceededException(MultipartPartHeader header, long actual, long permitted) {
+        final String msg = "The file exceeded the max size: " + header + ", actual(at least)=" + actual + ", permitted=" + permitted;
+        return new MultipartExceededException(msg, actual, permitted, null);
+    }
+
+    protected MultipartExceededException createTextExceededException(String fieldName, long actual, long permitted) {
+        final String msg = "The text parameter exceeded the max size: " + fieldName + ", actual(at least)=" + actual + ", permitted="
+                + permitted;
+        return new MultipartExceededException(msg, actual, permitted, null);
+    }
+
+    protected void saveExceededException(HttpServletRequest request, MultipartExceededException e) {
+        logger.debug("...Saving exceeded multipart exception: {}", e.getMessage());
+        request.setAttribute(MAX_LENGTH_EXCEEDED_KEY, e);
+    }
+
+    protected static class LimitedInputStream extends FilterInputStream {
+
+        protected final long limit; // minus means no limit
+        protected final LongFunction<MultipartExceededException> exceededCreator;
+        protected long count;
+
+        public LimitedInputStream(InputStream in, long limit, LongFunction<MultipartExceededException> exceededCreator) {
+            super(in);
+            this.limit = limit;
+            this.exceededCreator = exceededCreator;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int read = super.read();
+            if (read >= 0) {
+                countUp(1);
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            final int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                countUp(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+            countUp(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException { // request stream is closed by container
+        }
+
+        protected void countUp(long read) {
+            count += read;
+            if (limit >= 0 && count > limit) {
+                throw exceededCreator.apply(count);
+            }
+        }
+
+        public long getCount() {
+            return count;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                     Rollback/Finish
+    //                                                                     ===============
+    protected void discardSunkOutputs() { // only when failure, sunk outputs are application's after success
+        for (Runnable discarder : sinkDiscarderList) {
+            discarder.run();
+        }
+        sinkDiscarderList.clear();
+    }
+
+    @Override
+    public void rollback() { // deletes temporary files
+        for (MultipartFormFile formFile : receivedFileList) {
+            formFile.destroy();
+        }
+        receivedFileList.clear();
+        sinkDiscarderList.clear(); // already discarded if failure
+        fileElements.clear();
+        textElements.clear();
+    }
+
+    @Override
+    public void finish() { // called when request ends
+        rollback();
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    @Override
+    public Map<String, Object> getAllElements() {
+        final Map<String, Object> allElements = new LinkedHashMap<String, Object>(textElements.size() + fileElements.size());
+        allElements.putAll(textElements);
+        allElements.putAll(fileElements);
+        return allElements;
+    }
+
+    @Override
+    public Map<String, MultipartFormFile> getFileElements() {
+        return Collections.unmodifiableMap(fileElements);
+    }
+
+    @Override
+    public Map<String, String[]> getTextElements() {
+        return Collections.unmodifiableMap(textElements);
+    }
+}
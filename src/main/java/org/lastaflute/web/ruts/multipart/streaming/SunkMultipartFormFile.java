@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.multipart.streaming;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.dbflute.optional.OptionalThing;
+import org.dbflute.util.DfTypeUtil;
+import org.lastaflute.web.ruts.multipart.MultipartFormFile;
+
+/**
+ * The form file whose body has been received by file sink, so it has only meta data and receipt.
+ * @author jflute
+ * @since 0.8.5 (2016/10/01 Saturday)
+ */
+public class SunkMultipartFormFile implements MultipartFormFile {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String fileName;
+    protected final String contentType; // null allowed
+    protected final long fileLength;
+    protected final Object receipt; // null allowed
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public SunkMultipartFormFile(MultipartPartHeader header, long fileLength, Object receipt) {
+        this.fileName = header.getFileName();
+        this.contentType = header.getContentType();
+        this.fileLength = fileLength;
+        this.receipt = receipt;
+    }
+
+    // ===================================================================================
+    //                                                                           File Data
+    //                                                                           =========
+    @Override
+    public byte[] getFileData() throws IOException {
+        throw new IllegalStateException("The file data has been already received by sink: " + toString());
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        throw new IllegalStateException("The file data has been already received by sink: " + toString());
+    }
+
+    /**
+     * @param <RECEIPT> The type of receipt.
+     * @param receiptType The type of receipt returned by the sink. (NotNull)
+     * @return The optional receipt of the sink, e.g. storage key. (NotNull, EmptyAllowed: when sink returned null)
+     */
+    public <RECEIPT> OptionalThing<RECEIPT> getReceipt(Class<RECEIPT> receiptType) {
+        if (receiptType == null) {
+            throw new IllegalArgumentException("The argument 'receiptType' should not be null.");
+        }
+        return OptionalThing.ofNullable(receiptType.cast(receipt), () -> {
+            throw new IllegalStateException("Not found the receipt of the sink: " + toString());
+        });
+    }
+
+    @Override
+    public void destroy() { // nothing to release
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return DfTypeUtil.toClassTitle(this) + ":{" + fileName + ", " + contentType + ", " + fileLength + ", " + receipt + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public int getFileSize() {
+        return (int) Math.min(fileLength, Integer.MAX_VALUE);
+    }
+
+    public long getFileLength() {
+        return fileLength;
+    }
+
+    @Override
+    public String getFileName() {
+        return fileName;
+    }
+}
@@ -43,7 +43,6 @@ import org.dbflute.jdbc.Classification;
 import org.dbflute.optional.OptionalThing;
 import org.dbflute.util.DfCollectionUtil;
 import org.dbflute.util.DfReflectionUtil;
-import org.dbflute.util.DfTypeUtil;
 import org.dbflute.util.DfTypeUtil.ParseBooleanException;
 import org.dbflute.util.DfTypeUtil.ParseDateException;
 import org.dbflute.util.Srl;
@@ -54,6 +53,8 @@ import org.lastaflute.core.message.UserMessages;
 import org.lastaflute.core.util.ContainerUtil;
 import org.lastaflute.core.util.LaClassificationUtil;
 import org.lastaflute.core.util.LaClassificationUtil.ClassificationUnknownCodeException;
+import org.lastaflute.core.util.LaTypeConversionUtil;
+import org.lastaflute.core.util.LaTypeConversionUtil.ConversionResult;
 import org.lastaflute.di.core.aop.javassist.AspectWeaver;
 import org.lastaflute.di.helper.beans.BeanDesc;
 import org.lastaflute.di.helper.beans.ParameterizedClassDesc;
@@ -63,6 +64,7 @@ import org.lastaflute.di.helper.misc.ParameterizedRef;
 import org.lastaflute.di.util.LdiArrayUtil;
 import org.lastaflute.di.util.LdiClassUtil;
 import org.lastaflute.di.util.LdiModifierUtil;
+import org.lastaflute.web.LastaWebKey;
 import org.lastaflute.web.api.JsonParameter;
 import org.lastaflute.web.direction.FwWebDirection;
 import org.lastaflute.web.exception.Forced400BadRequestException;
@@ -82,6 +84,7 @@ import org.lastaflute.web.ruts.config.analyzer.ExecuteArgAnalyzer;
 import org.lastaflute.web.ruts.multipart.MultipartRequestHandler;
 import org.lastaflute.web.ruts.multipart.MultipartRequestWrapper;
 import org.lastaflute.web.ruts.multipart.MultipartResourceProvider;
+import org.lastaflute.web.ruts.multipart.streaming.StreamingMultipartRequestHandler;
 import org.lastaflute.web.ruts.process.exception.ActionFormPopulateFailureException;
 import org.lastaflute.web.ruts.process.exception.RequestUndefinedParameterInFormException;
 import org.lastaflute.web.ruts.process.populate.FormSimpleTextParameterFilter;
@@ -148,6 +151,7 @@ public class ActionFormMapper {
             final MultipartRequestWrapper wrapper = newMultipartRequestWrapper(requestManager.getRequest());
             ContainerUtil.overrideExternalRequest(wrapper);
             multipartHandler = createMultipartRequestHandler();
+            wrapper.setAttribute(LastaWebKey.MULTIPART_REQUEST_HANDLER_KEY, multipartHandler); // to finish when request ends
             multipartHandler.handleRequest(wrapper);
             if (MultipartRequestHandler.findExceededException(wrapper) != null) {
                 return; // you can confirm exceeded by the static find method
@@ -178,8 +182,8 @@ public class ActionFormMapper {
 
     protected MultipartRequestHandler createMultipartRequestHandler() {
         final MultipartResourceProvider provider = assistWebDirection().assistMultipartResourceProvider();
-        if (provider == null) {
-            throw new IllegalStateException("No provider for multipart request in assistant director.");
+        if (provider == null) { // streaming with default option
+            return createBuiltInMultipartRequestHandler();
         }
         final MultipartRequestHandler handler = provider.createHandler();
         if (handler == null) {
@@ -188,6 +192,23 @@ public class ActionFormMapper {
         return handler;
     }
 
+    protected MultipartRequestHandler createBuiltInMultipartRequestHandler() {
+        return new StreamingMultipartRequestHandler();
+    }
+
+    /**
+     * Finish the multipart handler of the request if exists, e.g. deleting temporary files. <br>
+     * Called when the (outer) request ends because form files are used in action execution.
+     */
+    public void finishMultipartRequest() {
+        final HttpServletRequest request = requestManager.getRequest();
+        final Object handler = request.getAttribute(LastaWebKey.MULTIPART_REQUEST_HANDLER_KEY);
+        if (handler != null) {
+            request.removeAttribute(LastaWebKey.MULTIPART_REQUEST_HANDLER_KEY);
+            ((MultipartRequestHandler) handler).finish();
+        }
+    }
+
     protected Map<String, Object> getAllParameters(MultipartRequestHandler multipartHandler) {
         final HttpServletRequest request = requestManager.getRequest();
         final Map<String, Object> paramMap = new LinkedHashMap<String, Object>();
@@ -676,7 +697,11 @@ public class ActionFormMapper {
 
     protected Object parseJsonParameter(VirtualForm virtualForm, Object bean, String name, String json, PropertyDesc pd) {
         final JsonManager jsonManager = getJsonManager();
-        final Class<?> propertyType = pd.getPropertyType();
+        final Type mappingType = findPreparedJsonParameterMappingType(virtualForm, bean, name); // null allowed
+        if (mappingType != null) { // first level property, generics already walked at boot
+            return parsePreparedJsonParameter(jsonManager, bean, name, json, mappingType);
+        }
+        final Class<?> propertyType = pd.getPropertyType(); // nested bean property or program mistake
         if (isListJsonProperty(propertyType)) { // e.g. public List<...> beanList;
             if (!pd.isParameterized()) { // e.g. public List anyList;
                 throwListJsonPropertyNonGenericException(bean, name, json, pd); // program mistake
@@ -709,6 +734,38 @@ public class ActionFormMapper {
         }
     }
 
+    protected Type findPreparedJsonParameterMappingType(VirtualForm virtualForm, Object bean, String name) {
+        if (bean != virtualForm.getRealForm()) { // nested bean, not prepared
+            return null;
+        }
+        final ActionFormProperty property = virtualForm.getFormMeta().getProperty(name); // null allowed
+        if (property == null) {
+            return null;
+        }
+        final OptionalThing<Type> optType = property.getJsonParameterMappingType();
+        return optType.isPresent() ? optType.get() : null;
+    }
+
+    protected Object parsePreparedJsonParameter(JsonManager jsonManager, Object bean, String name, String json, Type mappingType) {
+        if (mappingType instanceof ParameterizedType) { // e.g. public List<SeaBean> beanList;
+            final ParameterizedType paramedType = (ParameterizedType) mappingType;
+            try {
+                return jsonManager.fromJsonParameteried(json, paramedType);
+            } catch (RuntimeException e) {
+                throwListJsonParameterParseFailureException(bean, name, json, paramedType, e);
+                return null; // unreachable
+            }
+        } else { // e.g. public SeaBean seaBean;
+            final Class<?> propertyType = (Class<?>) mappingType;
+            try {
+                return jsonManager.fromJson(json, propertyType);
+            } catch (RuntimeException e) {
+                throwJsonParameterParseFailureException(bean, name, json, propertyType, e);
+                return null; // unreachable
+            }
+        }
+    }
+
     // -----------------------------------------------------
     //                                             List JSON
     //                                             ---------
@@ -845,43 +902,58 @@ public class ActionFormMapper {
         throw new RequestClassifiationConvertFailureException(msg, e);
     }
 
+    protected ConversionResult<Object> tryVerifiedClassification(Object bean, String name, Object code, Class<?> propertyType) {
+        final ConversionResult<Classification> result = LaTypeConversionUtil.tryClassification(propertyType, code);
+        if (result.isSuccess()) {
+            return ConversionResult.success(result.getValue());
+        }
+        return ConversionResult.failure(RequestClassifiationConvertFailureException.class, () -> { // simple message same as verified
+            String msg = "Cannot convert the code to the classification: " + code + " to " + propertyType.getSimpleName();
+            return new RequestClassifiationConvertFailureException(msg, result.getCause());
+        });
+    }
+
     // -----------------------------------------------------
     //                                       Property Native
     //                                       ---------------
     protected Object prepareNativeValue(VirtualForm virtualForm, Object bean, String name, Object exp, PropertyDesc pd,
             StringBuilder pathSb, FormMappingOption option) {
         final Class<?> propertyType = pd.getPropertyType();
-        try {
-            final Object filtered = filterIfSimpleText(exp, option, name, propertyType);
-            return convertToNativeIfPossible(bean, name, filtered, propertyType, option);
-        } catch (RuntimeException e) {
-            if (isTypeFailureException(e)) {
-                virtualForm.acceptTypeFailure(pathSb.toString(), exp); // to render failure value
-                handleTypeFailure(virtualForm, bean, name, exp, pd, propertyType, pathSb, e);
-                return null;
-            } else {
-                throw e;
-            }
+        final Object filtered = filterIfSimpleText(exp, option, name, propertyType);
+        final ConversionResult<Object> result = tryConvertToNative(bean, name, filtered, propertyType, option); // parse once
+        if (result.isFailure()) { // no exception here for e.g. fuzzed parameter
+            virtualForm.acceptTypeFailure(pathSb.toString(), exp); // to render failure value
+            handleTypeFailure(virtualForm, bean, name, exp, pd, propertyType, pathSb, result);
+            return null;
         }
+        return result.getValue();
     }
 
     protected Object convertToNativeIfPossible(Object bean, String name, Object exp, Class<?> propertyType, FormMappingOption option) {
+        final ConversionResult<Object> result = tryConvertToNative(bean, name, exp, propertyType, option);
+        if (result.isFailure()) {
+            throw result.getCause(); // e.g. NumberFormatException, created here
+        }
+        return result.getValue();
+    }
+
+    protected ConversionResult<Object> tryConvertToNative(Object bean, String name, Object exp, Class<?> propertyType,
+            FormMappingOption option) {
         // not to depend on conversion logic in BeanDesc
-        final Object converted;
         if (propertyType.isPrimitive()) {
             if (propertyType.equals(boolean.class) && isCheckboxOn(exp)) {
-                converted = true;
+                return ConversionResult.success(true);
             } else {
-                converted = DfTypeUtil.toWrapper(exp, propertyType);
+                return LaTypeConversionUtil.tryNative(exp, propertyType);
             }
         } else if (String.class.isAssignableFrom(propertyType)) {
             if (option.isKeepEmptyStringParameter()) {
-                converted = exp != null ? exp : ""; // empty string as default
+                return ConversionResult.success(exp != null ? exp : ""); // empty string as default
             } else { // filter empty to null or plain
-                return exp instanceof String && ((String) exp).isEmpty() ? null : exp;
+                return ConversionResult.success(exp instanceof String && ((String) exp).isEmpty() ? null : exp);
             }
         } else if (Number.class.isAssignableFrom(propertyType)) {
-            converted = DfTypeUtil.toNumber(exp, propertyType);
+            return LaTypeConversionUtil.tryNative(exp, propertyType);
             // old date types are unsupported for LocalDate invitation
             //} else if (Timestamp.class.isAssignableFrom(propertyType)) {
             //    filtered = DfTypeUtil.toTimestamp(exp);
@@ -889,20 +961,17 @@ public class ActionFormMapper {
             //    filtered = DfTypeUtil.toTime(exp);
             //} else if (java.util.Date.class.isAssignableFrom(propertyType)) {
             //    filtered = DfTypeUtil.toDate(exp);
-        } else if (LocalDate.class.isAssignableFrom(propertyType)) { // #date_parade
-            converted = DfTypeUtil.toLocalDate(exp);
-        } else if (LocalDateTime.class.isAssignableFrom(propertyType)) {
-            converted = DfTypeUtil.toLocalDateTime(exp);
-        } else if (LocalTime.class.isAssignableFrom(propertyType)) {
-            converted = DfTypeUtil.toLocalTime(exp);
+        } else if (LocalDate.class.isAssignableFrom(propertyType) // #date_parade
+                || LocalDateTime.class.isAssignableFrom(propertyType) //
+                || LocalTime.class.isAssignableFrom(propertyType)) {
+            return LaTypeConversionUtil.tryNative(exp, propertyType);
         } else if (Boolean.class.isAssignableFrom(propertyType)) {
-            converted = isCheckboxOn(exp) ? true : DfTypeUtil.toBoolean(exp);
+            return isCheckboxOn(exp) ? ConversionResult.success(true) : LaTypeConversionUtil.tryNative(exp, propertyType);
         } else if (isClassificationProperty(propertyType)) { // means CDef
-            converted = toVerifiedClassification(bean, name, exp, propertyType);
+            return tryVerifiedClassification(bean, name, exp, propertyType);
         } else { // e.g. multipart form file or unsupported type
-            converted = exp;
+            return ConversionResult.success(exp);
         }
-        return converted;
     }
 
     protected boolean isCheckboxOn(Object exp) {
@@ -914,16 +983,21 @@ public class ActionFormMapper {
     //                                          ------------
     protected void handleTypeFailure(VirtualForm virtualForm, Object bean, String name, Object exp, PropertyDesc pd, Class<?> propertyType,
             StringBuilder pathSb, RuntimeException cause) {
+        handleTypeFailure(virtualForm, bean, name, exp, pd, propertyType, pathSb, ConversionResult.failure(cause.getClass(), () -> cause));
+    }
+
+    protected void handleTypeFailure(VirtualForm virtualForm, Object bean, String name, Object exp, PropertyDesc pd, Class<?> propertyType,
+            StringBuilder pathSb, ConversionResult<?> failure) {
         final ValidateTypeFailure annotation = extractTypeFailureAnnotation(pd);
         if (annotation != null) {
             if (ThreadCacheContext.exists()) { // just in case
-                saveTypeFailureBean(virtualForm, bean, name, exp, propertyType, pathSb, annotation, cause);
+                saveTypeFailureBean(virtualForm, bean, name, exp, propertyType, pathSb, annotation, failure);
             } else { // basically no way
-                logger.debug("*Not found the thread cache for validation of type failure: {}", pathSb, cause);
+                logger.debug("*Not found the thread cache for validation of type failure: {} {}", pathSb, failure);
             }
             return;
         } else {
-            throw cause;
+            throw failure.getCause(); // created only here (bad request)
         }
     }
 
@@ -946,15 +1020,15 @@ public class ActionFormMapper {
     }
 
     protected Object saveTypeFailureBean(VirtualForm virtualForm, Object bean, String name, Object exp, Class<?> propertyType,
-            StringBuilder pathSb, ValidateTypeFailure annotation, RuntimeException cause) {
+            StringBuilder pathSb, ValidateTypeFailure annotation, ConversionResult<?> failure) {
         final String propertyPath = pathSb.toString();
-        showTypeFailure(propertyPath, propertyType, exp, cause);
-        prepareTypeFailureBean(virtualForm).register(createTypeFailureElement(bean, propertyPath, propertyType, exp, annotation, cause));
+        showTypeFailure(propertyPath, propertyType, exp, failure);
+        prepareTypeFailureBean(virtualForm).register(createTypeFailureElement(bean, propertyPath, propertyType, exp, annotation, failure));
         return null; // set null to form here, checked later by thread local
     }
 
-    protected void showTypeFailure(String propertyPath, Class<?> propertyType, Object exp, RuntimeException cause) {
-        final String causeExp = cause.getClass().getSimpleName();
+    protected void showTypeFailure(String propertyPath, Class<?> propertyType, Object exp, ConversionResult<?> failure) {
+        final String causeExp = failure.getCauseType().getSimpleName();
         logger.debug("...Registering type failure as validation: {}({}) '{}' {}", propertyPath, propertyType, exp, causeExp);
     }
 
@@ -969,9 +1043,9 @@ public class ActionFormMapper {
     }
 
     protected TypeFailureElement createTypeFailureElement(Object bean, String propertyPath, Class<?> propertyType, Object exp,
-            ValidateTypeFailure annotation, RuntimeException cause) {
-        return new TypeFailureElement(propertyPath, propertyType, exp, annotation, cause, () -> {
-            throwTypeFailureBadRequest(bean, propertyPath, propertyType, exp, cause);
+            ValidateTypeFailure annotation, ConversionResult<?> failure) {
+        return new TypeFailureElement(propertyPath, propertyType, exp, annotation, failure.getCauseType(), () -> failure.getCause(), () -> {
+            throwTypeFailureBadRequest(bean, propertyPath, propertyType, exp, failure.getCause());
         });
     }
 
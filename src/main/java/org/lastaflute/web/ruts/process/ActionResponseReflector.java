@@ -18,11 +18,16 @@ package org.lastaflute.web.ruts.process;
 import java.lang.reflect.Parameter;
 import java.util.function.Consumer;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.dbflute.optional.OptionalThing;
+import org.lastaflute.core.security.OneWayCryptographer;
 import org.lastaflute.web.LastaWebKey;
 import org.lastaflute.web.path.ActionAdjustmentProvider;
 import org.lastaflute.web.path.ResponseReflectingOption;
 import org.lastaflute.web.response.ActionResponse;
+import org.lastaflute.web.response.ConditionalGet;
 import org.lastaflute.web.response.HtmlResponse;
 import org.lastaflute.web.response.JsonResponse;
 import org.lastaflute.web.response.StreamResponse;
@@ -48,6 +53,7 @@ public class ActionResponseReflector {
     //                                                                          ==========
     private static final Logger logger = LoggerFactory.getLogger(ActionResponseReflector.class);
     private static final ResponseReflectingOption NULLOBJ_REFLECTING_OPTION = new ResponseReflectingOption(); // simple cache, private to be immutable
+    protected static final OneWayCryptographer ETAG_CRYPTOGRAPHER = OneWayCryptographer.createSha256Cryptographer(); // thread-safe
 
     // ===================================================================================
     //                                                                           Attribute
@@ -106,6 +112,9 @@ public class ActionResponseReflector {
         if (response.isReturnAsEmptyBody()) {
             return undefinedJourney();
         }
+        if (isNotModifiedBeforeRendering(responseManager, response.getConditionalGet())) {
+            return undefinedJourney(); // without rendering
+        }
         if (response.isReturnAsHtmlDirectly()) {
             writeHtmlDirectly(response);
             return undefinedJourney();
@@ -200,6 +209,9 @@ public class ActionResponseReflector {
         if (response.isReturnAsEmptyBody()) {
             return undefinedJourney();
         }
+        if (isNotModifiedBeforeRendering(responseManager, response.getConditionalGet())) {
+            return undefinedJourney(); // without serialization and validation
+        }
         final String json;
         if (response.isReturnAsJsonDirectly()) {
             json = response.getDirectJson().get();
@@ -208,6 +220,9 @@ public class ActionResponseReflector {
             validateJsonBeanIfNeeds(jsonResult, response);
             json = requestManager.getJsonManager().toJson(jsonResult);
         }
+        if (isNotModifiedAfterRendering(responseManager, response.getConditionalGet(), json)) {
+            return undefinedJourney(); // without body
+        }
         response.getCallback().ifPresent(callback -> {
             final String script = callback + "(" + json + ")";
             responseManager.writeAsJavaScript(script);
@@ -280,6 +295,89 @@ public class ActionResponseReflector {
         throw new IllegalStateException(msg);
     }
 
+    // ===================================================================================
+    //                                                                     Conditional GET
+    //                                                                     ===============
+    protected boolean isNotModifiedBeforeRendering(ResponseManager responseManager, OptionalThing<ConditionalGet> optConditional) {
+        if (!optConditional.isPresent() || !isConditionalGetTarget() || !isConditionalGetStatus(responseManager)) {
+            return false;
+        }
+        final ConditionalGet conditional = optConditional.get();
+        final HttpServletResponse response = responseManager.getResponse();
+        final String versionEtag = conditional.getVersionKey().map(key -> buildVersionEtag(key)).orElse(null);
+        if (versionEtag != null) {
+            response.setHeader("ETag", versionEtag);
+        }
+        conditional.getLastModified().ifPresent(lastModified -> {
+            response.setDateHeader("Last-Modified", lastModified.toEpochMilli());
+        });
+        final OptionalThing<String> optIfNoneMatch = requestManager.getHeader("If-None-Match");
+        if (optIfNoneMatch.isPresent()) { // prior to If-Modified-Since
+            if (versionEtag != null && matchesEtag(optIfNoneMatch.get(), versionEtag)) {
+                return handleNotModified(responseManager, conditional);
+            }
+            return false; // content ETag may be checked after rendering
+        }
+        if (conditional.getLastModified().isPresent()) {
+            final long ifModifiedSince = extractIfModifiedSince();
+            final long lastModifiedSeconds = conditional.getLastModified().get().toEpochMilli() / 1000L; // HTTP date is seconds
+            if (ifModifiedSince >= 0 && lastModifiedSeconds <= ifModifiedSince / 1000L) {
+                return handleNotModified(responseManager, conditional);
+            }
+        }
+        return false;
+    }
+
+    protected boolean isNotModifiedAfterRendering(ResponseManager responseManager, OptionalThing<ConditionalGet> optConditional,
+            String body) {
+        if (!optConditional.isPresent() || !optConditional.get().isContentHashed() || !isConditionalGetTarget()
+                || !isConditionalGetStatus(responseManager)) {
+            return false;
+        }
+        final String contentEtag = buildContentEtag(body);
+        responseManager.getResponse().setHeader("ETag", contentEtag); // strong, prior to version ETag
+        final OptionalThing<String> optIfNoneMatch = requestManager.getHeader("If-None-Match");
+        if (optIfNoneMatch.isPresent() && matchesEtag(optIfNoneMatch.get(), contentEtag)) {
+            return handleNotModified(responseManager, optConditional.get());
+        }
+        return false;
+    }
+
+    protected boolean isConditionalGetTarget() {
+        return requestManager.isHttpMethodGet() || requestManager.isHttpMethod("head");
+    }
+
+    protected boolean isConditionalGetStatus(ResponseManager responseManager) { // e.g. not for 404 page with body
+        return responseManager.getResponse().getStatus() == HttpServletResponse.SC_OK; // already set by action response
+    }
+
+    protected String buildVersionEtag(String versionKey) {
+        return "W/\"" + ETAG_CRYPTOGRAPHER.onewayAsBase64(versionKey) + "\""; // weak, not byte-for-byte
+    }
+
+    protected String buildContentEtag(String body) {
+        return "\"" + ETAG_CRYPTOGRAPHER.onewayAsBase64(body) + "\"";
+    }
+
+    protected boolean matchesEtag(String ifNoneMatch, String etag) { // weak comparison for GET
+        return ConditionalGet.matchesIfNoneMatch(ifNoneMatch, etag);
+    }
+
+    protected long extractIfModifiedSince() { // minus if no header
+        final HttpServletRequest request = requestManager.getRequest();
+        try {
+            return request.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException ignored) { // invalid date by client
+            return -1L;
+        }
+    }
+
+    protected boolean handleNotModified(ResponseManager responseManager, ConditionalGet conditional) {
+        logger.debug("...Returning 304 (Not Modified) by conditional GET: {}", conditional);
+        responseManager.setResponseStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        return true;
+    }
+
     // ===================================================================================
     //                                                                   Undefined Journey
     //                                                                   =================
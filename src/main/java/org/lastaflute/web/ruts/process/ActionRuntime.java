@@ -33,6 +33,7 @@ import org.lastaflute.web.response.HtmlResponse;
 import org.lastaflute.web.response.JsonResponse;
 import org.lastaflute.web.ruts.VirtualForm;
 import org.lastaflute.web.ruts.config.ActionExecute;
+import org.lastaflute.web.ruts.process.profile.ActionRequestProfile;
 import org.lastaflute.web.util.LaParamWrapperUtil;
 
 /**
@@ -59,6 +60,7 @@ public class ActionRuntime {
     protected UserMessages validationErrors;
     protected Map<String, Object> displayDataMap; // lazy loaded
     protected DisplayDataValidator displayDataValidator; // is set when html responce reflecting
+    protected ActionRequestProfile requestProfile; // null allowed, is set when profiling enabled
 
     @FunctionalInterface
     public static interface DisplayDataValidator {
@@ -383,6 +385,21 @@ public class ActionRuntime {
         this.displayDataValidator = displayDataValidator;
     }
 
+    /**
+     * Get the profile of the request, allocated bytes and CPU time per phase.
+     * @return The optional request profile. (NotNull, EmptyAllowed: when profiling is not enabled or not target)
+     */
+    public OptionalThing<ActionRequestProfile> getRequestProfile() {
+        return OptionalThing.ofNullable(requestProfile, () -> {
+            throw new IllegalStateException("Not found the request profile, profiling is not enabled: " + requestPath);
+        });
+    }
+
+    public void manageRequestProfile(ActionRequestProfile requestProfile) {
+        assertArgumentNotNull("requestProfile", requestProfile);
+        this.requestProfile = requestProfile;
+    }
+
     // ===================================================================================
     //                                                                        Small Helper
     //                                                                        ============
@@ -26,7 +26,6 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.regex.Matcher;
 
 import org.dbflute.helper.message.ExceptionMessageBuilder;
 import org.dbflute.optional.OptionalThing;
@@ -140,21 +139,25 @@ public class RequestUrlParamAnalyzer {
     }
 
     protected List<String> prepareParamList(ActionExecute execute, String paramPath, List<Class<?>> urlParamTypeList) {
+        // segment matcher (index scanning) for simple pattern, or else regular expression
+        final List<String> matchedList = execute.getPreparedUrlPattern().extractParamList(adjustParamPathPrefix(execute, paramPath));
+        if (matchedList != null) { // mainly here
+            return matchedList;
+        }
+        // e.g. optional parameter and actually no set it
         final List<String> paramList = new ArrayList<String>(urlParamTypeList.size());
-        final Matcher matcher = execute.getPreparedUrlPattern().matcher(adjustParamPathPrefix(execute, paramPath));
-        if (matcher.find()) {
-            for (int i = 0; i < urlParamTypeList.size(); i++) {
-                paramList.add(matcher.group(i + 1)); // group 1 origin (0 provides all string)
-            }
-        } else { // e.g. optional parameter and actually no set it
-            final List<String> elementList = Srl.splitList(paramPath, "/"); // if contains pure slash, %2F here
-            for (String element : elementList) {
-                paramList.add(element); // group 1 origin (0 provides all string)
-            }
-            final int diffCount = urlParamTypeList.size() - elementList.size();
-            for (int i = 0; i < diffCount; i++) { // adjust to same count
-                paramList.add(null); // dummy value e.g. for optional parameter
+        int start = 0;
+        while (true) { // split by slash without intermediate list, if contains pure slash, %2F here
+            final int end = paramPath.indexOf('/', start);
+            if (end < 0) {
+                paramList.add(paramPath.substring(start));
+                break;
             }
+            paramList.add(paramPath.substring(start, end));
+            start = end + 1;
+        }
+        while (paramList.size() < urlParamTypeList.size()) { // adjust to same count
+            paramList.add(null); // dummy value e.g. for optional parameter
         }
         return paramList;
     }
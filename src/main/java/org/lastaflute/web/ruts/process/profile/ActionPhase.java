@@ -0,0 +1,44 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.process.profile;
+
+/**
+ * The phase of action request processing measured by request profile. <br>
+ * Validation and response reflection are called inside action execution,
+ * so the resources of action execution contain them.
+ * @author jflute
+ * @since 0.8.5 (2016/09/23 Friday)
+ */
+public enum ActionPhase {
+
+    /** From action runtime creation to ready, e.g. locale resolution, after routing. */
+    READY,
+
+    /** Form creation and population of request parameters (or JSON body). */
+    FORM_POPULATION,
+
+    /** Validation by action validator, called in action execution. */
+    VALIDATION,
+
+    /** Action hooks and the execute method, containing validation and response reflection. */
+    ACTION_EXECUTION,
+
+    /** Reflection of action response, e.g. JSON writing, called in action execution. */
+    RESPONSE_REFLECTION,
+
+    /** HTML rendering (or redirection) after action execution. */
+    RENDERING
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.process.profile;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+
+import org.dbflute.optional.OptionalThing;
+import org.dbflute.util.DfCollectionUtil;
+import org.lastaflute.core.direction.FwAssistantDirector;
+import org.lastaflute.web.ruts.config.ActionExecute;
+import org.lastaflute.web.ruts.process.ActionRuntime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The aggregator of action request profiles, which is enabled by {@link ActionProfilingProvider}. <br>
+ * You can find heavy actions by the snapshot without attaching profiler, e.g. from your monitoring action.
+ * <pre>
+ * List&lt;ActionProfileSnapshot&gt; snapshotList = actionProfileAggregator.<span style="color: #CC4747">snapshot()</span>; <span style="color: #3F7E5E">// allocated bytes desc</span>
+ * </pre>
+ * @author jflute
+ * @since 0.8.5 (2016/09/23 Friday)
+ */
+public class ActionProfileAggregator {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final Logger logger = LoggerFactory.getLogger(ActionProfileAggregator.class);
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The assistant director (AD) for framework. (NotNull: after initialization) */
+    @Resource
+    protected FwAssistantDirector assistantDirector;
+
+    /** The provider of action profiling. (NullAllowed: if null, no profiling) */
+    protected ActionProfilingProvider profilingProvider;
+
+    /** The map of statistics, key is action FQCN and method e.g. product.ProductListAction@index. (NotNull) */
+    protected final Map<String, ActionProfileStatistics> statisticsMap = DfCollectionUtil.newConcurrentHashMap();
+
+    // ===================================================================================
+    //                                                                          Initialize
+    //                                                                          ==========
+    @PostConstruct
+    public synchronized void initialize() {
+        profilingProvider = assistantDirector.assistWebDirection().assistActionProfilingProvider();
+        showBootLogging();
+    }
+
+    protected void showBootLogging() {
+        if (logger.isInfoEnabled()) {
+            logger.info("[Action Profile]");
+            logger.info(" profilingProvider: " + profilingProvider);
+            if (profilingProvider != null) {
+                logger.info(" allocationSupported: " + ThreadResourceMeter.isAllocationSupported());
+                logger.info(" cpuTimeSupported: " + ThreadResourceMeter.isCpuTimeSupported());
+            }
+        }
+    }
+
+    // ===================================================================================
+    //                                                                             Profile
+    //                                                                             =======
+    /**
+     * Begin the profile of the request if profiling is enabled.
+     * @param runtime The runtime of current action. (NotNull)
+     * @return The optional profile of the request. (NotNull, EmptyAllowed: when not profiled)
+     */
+    public OptionalThing<ActionRequestProfile> beginProfile(ActionRuntime runtime) {
+        if (profilingProvider == null || !profilingProvider.isProfiled(runtime)) {
+            return OptionalThing.empty();
+        }
+        return OptionalThing.of(new ActionRequestProfile());
+    }
+
+    /**
+     * Finish the profile of the request and aggregate it per action.
+     * @param runtime The runtime of finished action. (NotNull)
+     * @param profile The profile of the request. (NotNull)
+     */
+    public void finishProfile(ActionRuntime runtime, ActionRequestProfile profile) {
+        profile.finish();
+        final String actionKey = buildActionKey(runtime.getActionExecute());
+        statisticsMap.computeIfAbsent(actionKey, key -> new ActionProfileStatistics(key)).aggregate(profile);
+        if (profilingProvider != null) {
+            profilingProvider.handleProfile(runtime, profile);
+        }
+    }
+
+    protected String buildActionKey(ActionExecute execute) { // FQCN not to merge same-name actions in other packages
+        return execute.getActionType().getName() + "@" + execute.getExecuteMethod().getName();
+    }
+
+    // ===================================================================================
+    //                                                                            Snapshot
+    //                                                                            ========
+    /**
+     * @return The list of snapshots per action, ordered by total allocated bytes desc. (NotNull, EmptyAllowed)
+     */
+    public List<ActionProfileSnapshot> snapshot() {
+        final List<ActionProfileSnapshot> snapshotList = new ArrayList<ActionProfileSnapshot>(statisticsMap.size());
+        for (ActionProfileStatistics statistics : statisticsMap.values()) {
+            snapshotList.add(statistics.toSnapshot());
+        }
+        snapshotList.sort(Comparator.comparingLong(ActionProfileSnapshot::getTotalAllocatedBytes).reversed());
+        return snapshotList;
+    }
+
+    /**
+     * Clear the aggregated statistics, e.g. after monitoring collects the snapshot.
+     */
+    public void reset() {
+        statisticsMap.clear();
+    }
+
+    public boolean isProfilingEnabled() {
+        return profilingProvider != null;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.process.profile;
+
+/**
+ * The immutable snapshot of aggregated profiles for one action execute.
+ * @author jflute
+ * @since 0.8.5 (2016/09/23 Friday)
+ */
+public class ActionProfileSnapshot {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String actionKey; // e.g. org.docksidestage.app.web.product.ProductListAction@index
+    protected final long requestCount;
+    protected final long totalAllocatedBytes;
+    protected final long maxAllocatedBytes;
+    protected final long totalCpuTimeNanos;
+    protected final long maxCpuTimeNanos;
+    protected final long totalElapsedNanos;
+    protected final long[] phaseAllocatedBytes; // indexed by phase ordinal, copied
+    protected final long[] phaseCpuTimeNanos; // indexed by phase ordinal, copied
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public ActionProfileSnapshot(String actionKey, long requestCount, long totalAllocatedBytes, long maxAllocatedBytes,
+            long totalCpuTimeNanos, long maxCpuTimeNanos, long totalElapsedNanos, long[] phaseAllocatedBytes, long[] phaseCpuTimeNanos) {
+        this.actionKey = actionKey;
+        this.requestCount = requestCount;
+        this.totalAllocatedBytes = totalAllocatedBytes;
+        this.maxAllocatedBytes = maxAllocatedBytes;
+        this.totalCpuTimeNanos = totalCpuTimeNanos;
+        this.maxCpuTimeNanos = maxCpuTimeNanos;
+        this.totalElapsedNanos = totalElapsedNanos;
+        this.phaseAllocatedBytes = phaseAllocatedBytes.clone();
+        this.phaseCpuTimeNanos = phaseCpuTimeNanos.clone();
+    }
+
+    // ===================================================================================
+    //                                                                           Calculate
+    //                                                                           =========
+    public long getAverageAllocatedBytes() {
+        return requestCount > 0 ? totalAllocatedBytes / requestCount : 0L;
+    }
+
+    public long getAverageCpuTimeNanos() {
+        return requestCount > 0 ? totalCpuTimeNanos / requestCount : 0L;
+    }
+
+    public long getAverageElapsedNanos() {
+        return requestCount > 0 ? totalElapsedNanos / requestCount : 0L;
+    }
+
+    public long getAverageAllocatedBytes(ActionPhase phase) {
+        return requestCount > 0 ? phaseAllocatedBytes[phase.ordinal()] / requestCount : 0L;
+    }
+
+    public long getAverageCpuTimeNanos(ActionPhase phase) {
+        return requestCount > 0 ? phaseCpuTimeNanos[phase.ordinal()] / requestCount : 0L;
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "snapshot:{" + actionKey + ", count=" + requestCount + ", avg=" + getAverageAllocatedBytes() + "B/"
+                + getAverageCpuTimeNanos() / 1000L + "us, max=" + maxAllocatedBytes + "B/" + maxCpuTimeNanos / 1000L + "us}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public String getActionKey() {
+        return actionKey;
+    }
+
+    public long getRequestCount() {
+        return requestCount;
+    }
+
+    public long getTotalAllocatedBytes() {
+        return totalAllocatedBytes;
+    }
+
+    public long getMaxAllocatedBytes() {
+        return maxAllocatedBytes;
+    }
+
+    public long getTotalCpuTimeNanos() {
+        return totalCpuTimeNanos;
+    }
+
+    public long getMaxCpuTimeNanos() {
+        return maxCpuTimeNanos;
+    }
+
+    public long getTotalElapsedNanos() {
+        return totalElapsedNanos;
+    }
+
+    public long getTotalAllocatedBytes(ActionPhase phase) {
+        return phaseAllocatedBytes[phase.ordinal()];
+    }
+
+    public long getTotalCpuTimeNanos(ActionPhase phase) {
+        return phaseCpuTimeNanos[phase.ordinal()];
+    }
+}
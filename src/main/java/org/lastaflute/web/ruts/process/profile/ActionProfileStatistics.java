@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.process.profile;
+
+/**
+ * The mutable statistics of profiles for one action execute, thread-safe by synchronization.
+ * @author jflute
+ * @since 0.8.5 (2016/09/23 Friday)
+ */
+public class ActionProfileStatistics {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String actionKey;
+    protected long requestCount;
+    protected long totalAllocatedBytes;
+    protected long maxAllocatedBytes;
+    protected long totalCpuTimeNanos;
+    protected long maxCpuTimeNanos;
+    protected long totalElapsedNanos;
+    protected final long[] phaseAllocatedBytes = new long[ActionRequestProfile.PHASES.length];
+    protected final long[] phaseCpuTimeNanos = new long[ActionRequestProfile.PHASES.length];
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public ActionProfileStatistics(String actionKey) {
+        this.actionKey = actionKey;
+    }
+
+    // ===================================================================================
+    //                                                                           Aggregate
+    //                                                                           =========
+    public synchronized void aggregate(ActionRequestProfile profile) {
+        ++requestCount;
+        final long allocated = profile.getTotalAllocatedBytes();
+        totalAllocatedBytes += allocated;
+        maxAllocatedBytes = Math.max(maxAllocatedBytes, allocated);
+        final long cpuTime = profile.getTotalCpuTimeNanos();
+        totalCpuTimeNanos += cpuTime;
+        maxCpuTimeNanos = Math.max(maxCpuTimeNanos, cpuTime);
+        totalElapsedNanos += profile.getTotalElapsedNanos();
+        for (ActionPhase phase : ActionRequestProfile.PHASES) {
+            phaseAllocatedBytes[phase.ordinal()] += profile.getAllocatedBytes(phase);
+            phaseCpuTimeNanos[phase.ordinal()] += profile.getCpuTimeNanos(phase);
+        }
+    }
+
+    public synchronized ActionProfileSnapshot toSnapshot() {
+        return new ActionProfileSnapshot(actionKey, requestCount, totalAllocatedBytes, maxAllocatedBytes, totalCpuTimeNanos,
+                maxCpuTimeNanos, totalElapsedNanos, phaseAllocatedBytes, phaseCpuTimeNanos);
+    }
+}
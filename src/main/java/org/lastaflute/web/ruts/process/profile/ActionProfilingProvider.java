@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.process.profile;
+
+import org.lastaflute.web.ruts.process.ActionRuntime;
+
+/**
+ * The provider of action profiling, which enables per-request profile when directed. <br>
+ * The profile is measured by ThreadMXBean (allocated bytes and CPU time) on the request thread.
+ * @author jflute
+ * @since 0.8.5 (2016/09/23 Friday)
+ */
+public interface ActionProfilingProvider {
+
+    /**
+     * Is the request profiled? e.g. sampling, specific actions
+     * @param runtime The runtime of current action, before form population. (NotNull)
+     * @return The determination, true or false.
+     */
+    default boolean isProfiled(ActionRuntime runtime) {
+        return true;
+    }
+
+    /**
+     * Handle the finished profile of the request, e.g. logging heavy request. <br>
+     * The profile is also aggregated per action so you can get it by snapshot.
+     * @param runtime The runtime of finished action. (NotNull)
+     * @param profile The finished profile of the request. (NotNull)
+     */
+    default void handleProfile(ActionRuntime runtime, ActionRequestProfile profile) {
+    }
+}
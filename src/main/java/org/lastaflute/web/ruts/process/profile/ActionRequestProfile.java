@@ -0,0 +1,161 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.process.profile;
+
+/**
+ * The resources consumed by one action request, measured per phase on the request thread. <br>
+ * Resources of other threads (e.g. asynchronous process) are not contained.
+ * Allocation and CPU time are zero if the JVM does not support the measurement.
+ * @author jflute
+ * @since 0.8.5 (2016/09/23 Friday)
+ */
+public class ActionRequestProfile {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final ActionPhase[] PHASES = ActionPhase.values();
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    // arrays indexed by phase ordinal to avoid allocation while measuring
+    protected final long[] startAllocatedBytes = new long[PHASES.length];
+    protected final long[] startCpuTimeNanos = new long[PHASES.length];
+    protected final long[] startElapsedNanos = new long[PHASES.length];
+    protected final long[] allocatedBytes = new long[PHASES.length];
+    protected final long[] cpuTimeNanos = new long[PHASES.length];
+    protected final long[] elapsedNanos = new long[PHASES.length];
+    protected final int[] measuredCounts = new int[PHASES.length];
+
+    protected final long beginAllocatedBytes;
+    protected final long beginCpuTimeNanos;
+    protected final long beginElapsedNanos;
+    protected long totalAllocatedBytes; // after finished
+    protected long totalCpuTimeNanos; // after finished
+    protected long totalElapsedNanos; // after finished
+    protected boolean finished;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public ActionRequestProfile() {
+        beginAllocatedBytes = ThreadResourceMeter.currentAllocatedBytes();
+        beginCpuTimeNanos = ThreadResourceMeter.currentCpuTimeNanos();
+        beginElapsedNanos = System.nanoTime();
+    }
+
+    // ===================================================================================
+    //                                                                             Measure
+    //                                                                             =======
+    /**
+     * Start measuring the phase on the current thread. <br>
+     * The same phase can be measured several times (e.g. validation), and the resources are summarized.
+     * @param phase The phase to be started. (NotNull)
+     */
+    public void start(ActionPhase phase) {
+        final int index = phase.ordinal();
+        startAllocatedBytes[index] = ThreadResourceMeter.currentAllocatedBytes();
+        startCpuTimeNanos[index] = ThreadResourceMeter.currentCpuTimeNanos();
+        startElapsedNanos[index] = System.nanoTime();
+    }
+
+    /**
+     * Stop measuring the phase started by {@link #start(ActionPhase)} and add the consumed resources.
+     * @param phase The phase to be stopped. (NotNull)
+     */
+    public void stop(ActionPhase phase) {
+        final int index = phase.ordinal();
+        elapsedNanos[index] += System.nanoTime() - startElapsedNanos[index];
+        allocatedBytes[index] += deltaOf(startAllocatedBytes[index], ThreadResourceMeter.currentAllocatedBytes());
+        cpuTimeNanos[index] += deltaOf(startCpuTimeNanos[index], ThreadResourceMeter.currentCpuTimeNanos());
+        ++measuredCounts[index];
+    }
+
+    /**
+     * Finish the profile of the request, summarizing whole resources from the profile creation.
+     */
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        totalElapsedNanos = System.nanoTime() - beginElapsedNanos;
+        totalAllocatedBytes = deltaOf(beginAllocatedBytes, ThreadResourceMeter.currentAllocatedBytes());
+        totalCpuTimeNanos = deltaOf(beginCpuTimeNanos, ThreadResourceMeter.currentCpuTimeNanos());
+        finished = true;
+    }
+
+    protected long deltaOf(long start, long end) {
+        return start >= 0 && end >= start ? end - start : 0L; // zero if unsupported
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("profile:{total=").append(totalAllocatedBytes).append("B/");
+        sb.append(totalCpuTimeNanos / 1000L).append("us/").append(totalElapsedNanos / 1000L).append("us");
+        for (ActionPhase phase : PHASES) {
+            final int index = phase.ordinal();
+            if (measuredCounts[index] > 0) {
+                sb.append(", ").append(phase.name().toLowerCase()).append("=").append(allocatedBytes[index]).append("B/");
+                sb.append(cpuTimeNanos[index] / 1000L).append("us");
+            }
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public long getAllocatedBytes(ActionPhase phase) {
+        return allocatedBytes[phase.ordinal()];
+    }
+
+    public long getCpuTimeNanos(ActionPhase phase) {
+        return cpuTimeNanos[phase.ordinal()];
+    }
+
+    public long getElapsedNanos(ActionPhase phase) {
+        return elapsedNanos[phase.ordinal()];
+    }
+
+    public boolean isMeasured(ActionPhase phase) {
+        return measuredCounts[phase.ordinal()] > 0;
+    }
+
+    /**
+     * @return The bytes allocated by the request thread from profile creation to finish. (NotMinus: zero until finished)
+     */
+    public long getTotalAllocatedBytes() {
+        return totalAllocatedBytes;
+    }
+
+    public long getTotalCpuTimeNanos() {
+        return totalCpuTimeNanos;
+    }
+
+    public long getTotalElapsedNanos() {
+        return totalElapsedNanos;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.process.profile;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * The meter of current thread resources, allocated bytes and CPU time. <br>
+ * It returns -1 if the JVM does not support (or disables) the measurement.
+ * @author jflute
+ * @since 0.8.5 (2016/09/23 Friday)
+ */
+public class ThreadResourceMeter {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    protected static final com.sun.management.ThreadMXBean allocationBean = prepareAllocationBean(threadBean);
+    protected static final boolean cpuTimeSupported = prepareCpuTimeSupported(threadBean);
+
+    protected static com.sun.management.ThreadMXBean prepareAllocationBean(ThreadMXBean bean) {
+        if (bean instanceof com.sun.management.ThreadMXBean) { // e.g. HotSpot
+            final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()) {
+                return sunBean;
+            }
+        }
+        return null; // unsupported JVM
+    }
+
+    protected static boolean prepareCpuTimeSupported(ThreadMXBean bean) {
+        return bean.isCurrentThreadCpuTimeSupported();
+    }
+
+    // ===================================================================================
+    //                                                                         Measurement
+    //                                                                         ===========
+    /**
+     * @return The cumulative bytes allocated by current thread. (-1: unsupported or disabled)
+     */
+    public static long currentAllocatedBytes() {
+        if (allocationBean == null || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return -1L;
+        }
+        return allocationBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return The CPU time of current thread in nanoseconds. (-1: unsupported or disabled)
+     */
+    public static long currentCpuTimeNanos() {
+        if (!cpuTimeSupported) {
+            return -1L;
+        }
+        return threadBean.getCurrentThreadCpuTime(); // -1 if disabled
+    }
+
+    public static boolean isAllocationSupported() {
+        return allocationBean != null;
+    }
+
+    public static boolean isCpuTimeSupported() {
+        return cpuTimeSupported;
+    }
+}
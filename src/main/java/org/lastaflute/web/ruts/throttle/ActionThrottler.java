@@ -0,0 +1,45 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.throttle;
+
+import java.io.IOException;
+
+import javax.servlet.ServletException;
+
+import org.lastaflute.web.Bulkhead;
+import org.lastaflute.web.RateLimited;
+import org.lastaflute.web.ruts.cache.ResponseGenerator;
+import org.lastaflute.web.ruts.process.ActionRuntime;
+
+/**
+ * The throttler of action execution declared by {@link RateLimited} and {@link Bulkhead}.
+ * @author jflute
+ * @since 0.8.5 (2016/10/03 Monday)
+ */
+public interface ActionThrottler {
+
+    /**
+     * Execute the action within the rate limit and the bulkhead of the execute method. <br>
+     * The excess request is rejected by exception before the generator is called.
+     * @param runtime The runtime of current action, before form population. (NotNull)
+     * @param generator The callback to populate the form, execute the action and render the response. (NotNull)
+     * @throws IOException When the action fails about the IO.
+     * @throws ServletException When the action fails about the Servlet.
+     * @throws org.lastaflute.web.exception.ActionRateLimitExceededException When the client exceeds the rate limit.
+     * @throws org.lastaflute.web.exception.ActionBulkheadFullException When the bulkhead is full after waiting.
+     */
+    void throttle(ActionRuntime runtime, ResponseGenerator generator) throws IOException, ServletException;
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.throttle;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.dbflute.util.DfCollectionUtil;
+import org.dbflute.util.DfTypeUtil;
+
+/**
+ * The throttle counter in memory of the process, token buckets and fair semaphores. <br>
+ * When the count of buckets reaches the max, full (same as new) buckets are removed,
+ * and least recently used buckets are also removed if still many, so the memory is bounded.
+ * @author jflute
+ * @since 0.8.5 (2016/10/03 Monday)
+ */
+public class LocalThrottleCounter implements ThrottleCounter {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final int maxBucketCount;
+    protected final Map<String, TokenBucket> bucketMap = DfCollectionUtil.newConcurrentHashMap();
+    protected final Map<String, Semaphore> bulkheadMap = DfCollectionUtil.newConcurrentHashMap();
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public LocalThrottleCounter(int maxBucketCount) {
+        if (maxBucketCount <= 0) {
+            throw new IllegalArgumentException("The argument 'maxBucketCount' should be positive: " + maxBucketCount);
+        }
+        this.maxBucketCount = maxBucketCount;
+    }
+
+    // ===================================================================================
+    //                                                                          Rate Limit
+    //                                                                          ==========
+    @Override
+    public boolean tryAcquireToken(String bucketKey, int permits, long periodMillis) {
+        final long currentMillis = currentMillis();
+        TokenBucket bucket = bucketMap.get(bucketKey);
+        if (bucket == null) { // first request of the client or after removed
+            if (bucketMap.size() >= maxBucketCount) {
+                sweepBuckets(currentMillis);
+            }
+            bucket = bucketMap.computeIfAbsent(bucketKey, key -> new TokenBucket(permits, periodMillis, currentMillis));
+        }
+        // if swept by other thread here, the token is taken from removed bucket,
+        // the client may get extra tokens by the new bucket, it's the cost of bounded memory
+        return bucket.tryConsume(currentMillis);
+    }
+
+    protected void sweepBuckets(long currentMillis) {
+        synchronized (this) {
+            if (bucketMap.size() < maxBucketCount) { // swept by other thread
+                return;
+            }
+            bucketMap.values().removeIf(bucket -> bucket.isFull(currentMillis)); // same as new bucket
+            final int lowWaterCount = maxBucketCount - Math.max(1, maxBucketCount / 4); // not to sweep every request
+            if (bucketMap.size() > lowWaterCount) { // many clients are using their buckets, e.g. attack by many keys
+                evictLeastRecentlyUsed(bucketMap.size() - lowWaterCount);
+            }
+        }
+    }
+
+    protected void evictLeastRecentlyUsed(int evictedCount) {
+        final List<Map.Entry<String, Long>> usedList = new ArrayList<Map.Entry<String, Long>>(bucketMap.size());
+        bucketMap.forEach((key, bucket) -> {
+            usedList.add(new AbstractMap.SimpleImmutableEntry<String, Long>(key, bucket.getUsedMillis())); // snapshot to sort
+        });
+        usedList.sort(Map.Entry.comparingByValue());
+        usedList.stream().limit(evictedCount).forEach(entry -> bucketMap.remove(entry.getKey()));
+    }
+
+    /**
+     * The token bucket refilled continuously by the permits per period.
+     */
+    protected static class TokenBucket {
+
+        protected final int permits; // also capacity
+        protected final long periodMillis;
+        protected double tokens; // guarded by this
+        protected long refilledMillis; // guarded by this
+        protected long usedMillis; // guarded by this
+
+        public TokenBucket(int permits, long periodMillis, long currentMillis) {
+            this.permits = permits;
+            this.periodMillis = periodMillis;
+            this.tokens = permits; // full at first
+            this.refilledMillis = currentMillis;
+            this.usedMillis = currentMillis;
+        }
+
+        public synchronized boolean tryConsume(long currentMillis) {
+            refill(currentMillis);
+            usedMillis = currentMillis;
+            if (tokens < 1.0) {
+                return false;
+            }
+            tokens = tokens - 1.0;
+            return true;
+        }
+
+        public synchronized boolean isFull(long currentMillis) {
+            refill(currentMillis);
+            return tokens >= permits;
+        }
+
+        public synchronized long getUsedMillis() {
+            return usedMillis;
+        }
+
+        protected void refill(long currentMillis) {
+            final long elapsed = currentMillis - refilledMillis;
+            if (elapsed > 0) { // ignore clock going back
+                tokens = Math.min(permits, tokens + ((double) elapsed * permits / periodMillis));
+                refilledMillis = currentMillis;
+            }
+        }
+    }
+
+    // ===================================================================================
+    //                                                                            Bulkhead
+    //                                                                            ========
+    @Override
+    public boolean tryEnterBulkhead(String bulkheadKey, int maxConcurrent, long waitMillis) {
+        final Semaphore semaphore = bulkheadMap.computeIfAbsent(bulkheadKey, key -> new Semaphore(maxConcurrent, true));
+        if (waitMillis <= 0) {
+            return semaphore.tryAcquire();
+        }
+        try {
+            return semaphore.tryAcquire(waitMillis, TimeUnit.MILLISECONDS); // fair so first waiting first entered
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void leaveBulkhead(String bulkheadKey) {
+        final Semaphore semaphore = bulkheadMap.get(bulkheadKey);
+        if (semaphore == null) { // basically no way
+            throw new IllegalStateException("Not found the bulkhead to leave: " + bulkheadKey);
+        }
+        semaphore.release();
+    }
+
+    // ===================================================================================
+    //                                                                        Small Helper
+    //                                                                        ============
+    protected long currentMillis() {
+        return System.currentTimeMillis();
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return DfTypeUtil.toClassTitle(this) + ":{buckets=" + bucketMap.size() + ", bulkheads=" + bulkheadMap.size() + "}";
+    }
+}
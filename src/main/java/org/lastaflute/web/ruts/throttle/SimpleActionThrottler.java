@@ -0,0 +1,194 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.throttle;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+import org.dbflute.optional.OptionalThing;
+import org.lastaflute.core.direction.FwAssistantDirector;
+import org.lastaflute.core.message.UserMessages;
+import org.lastaflute.web.Bulkhead;
+import org.lastaflute.web.RateLimited;
+import org.lastaflute.web.exception.ActionBulkheadFullException;
+import org.lastaflute.web.exception.ActionRateLimitExceededException;
+import org.lastaflute.web.ruts.cache.LoginUserIdentifier;
+import org.lastaflute.web.ruts.cache.ResponseGenerator;
+import org.lastaflute.web.ruts.config.ActionExecute;
+import org.lastaflute.web.ruts.process.ActionRuntime;
+import org.lastaflute.web.servlet.filter.RequestLoggingFilter.DelicateErrorLoggingLevel;
+import org.lastaflute.web.servlet.request.RequestManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/10/03 Monday)
+ */
+public class SimpleActionThrottler implements ActionThrottler {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    private static final Logger logger = LoggerFactory.getLogger(SimpleActionThrottler.class);
+    protected static final ThrottleResourceProvider DEFAULT_RESOURCE_PROVIDER = new ThrottleResourceProvider() {
+    };
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    /** The assistant director (AD) for framework. (NotNull: after initialization) */
+    @Resource
+    protected FwAssistantDirector assistantDirector;
+
+    @Resource
+    protected RequestManager requestManager;
+
+    /** The provider of throttle resources, default provider if no direction. (NotNull: after initialization) */
+    protected ThrottleResourceProvider resourceProvider;
+
+    /** The counter of buckets and bulkheads, local or shared. (NotNull: after initialization) */
+    protected ThrottleCounter throttleCounter;
+
+    /** The identifier of login user for client key. (NotNull) */
+    protected final LoginUserIdentifier loginUserIdentifier = new LoginUserIdentifier();
+
+    // ===================================================================================
+    //                                                                          Initialize
+    //                                                                          ==========
+    @PostConstruct
+    public void initialize() {
+        final ThrottleResourceProvider provider = assistantDirector.assistWebDirection().assistThrottleResourceProvider();
+        resourceProvider = provider != null ? provider : DEFAULT_RESOURCE_PROVIDER;
+        final ThrottleCounter specified = resourceProvider.provideThrottleCounter();
+        throttleCounter = specified != null ? specified : createLocalThrottleCounter(resourceProvider.provideMaxLocalBucketCount());
+    }
+
+    protected LocalThrottleCounter createLocalThrottleCounter(int maxBucketCount) {
+        return new LocalThrottleCounter(maxBucketCount);
+    }
+
+    // ===================================================================================
+    //                                                                            Throttle
+    //                                                                            ========
+    @Override
+    public void throttle(ActionRuntime runtime, ResponseGenerator generator) throws IOException, ServletException {
+        final ActionExecute execute = runtime.getActionExecute();
+        execute.getRateLimited().ifPresent(rateLimited -> {
+            checkRateLimit(runtime, rateLimited); // cheap check first
+        });
+        final OptionalThing<Bulkhead> optBulkhead = execute.getBulkhead();
+        if (!optBulkhead.isPresent()) {
+            generator.generate();
+            return;
+        }
+        final Bulkhead bulkhead = optBulkhead.get();
+        final String bulkheadKey = buildBulkheadKey(execute, bulkhead);
+        if (!throttleCounter.tryEnterBulkhead(bulkheadKey, bulkhead.maxConcurrent(), bulkhead.queueTimeoutMillis())) {
+            throwBulkheadFullException(runtime, bulkheadKey, bulkhead);
+        }
+        try {
+            generator.generate();
+        } finally {
+            throttleCounter.leaveBulkhead(bulkheadKey);
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                            Rate Limit
+    //                                            ----------
+    protected void checkRateLimit(ActionRuntime runtime, RateLimited rateLimited) {
+        final String clientKey = resolveClientKey(runtime, rateLimited);
+        final String bucketKey = buildExecuteKey(runtime.getActionExecute()) + "|" + clientKey;
+        final long periodMillis = rateLimited.periodSeconds() * 1000L;
+        if (!throttleCounter.tryAcquireToken(bucketKey, rateLimited.permits(), periodMillis)) {
+            setupRetryAfterHeader(rateLimited);
+            throwRateLimitExceededException(runtime, clientKey, rateLimited);
+        }
+    }
+
+    protected String resolveClientKey(ActionRuntime runtime, RateLimited rateLimited) {
+        final RateLimited.KeyType keyType = rateLimited.keyedBy();
+        final String provided = resourceProvider.provideClientKey(runtime, keyType);
+        if (provided != null) {
+            return keyType.name() + ":" + provided;
+        }
+        final HttpServletRequest request = requestManager.getRequest();
+        if (keyType == RateLimited.KeyType.USER) {
+            // not remote user or session ID because they are not login user of the application
+            // and session ID is changed by regeneration, so the user escapes from the bucket
+            final List<String> sessionLoginList = loginUserIdentifier.identifySessionLogin(requestManager);
+            if (!sessionLoginList.isEmpty()) {
+                return "USER:" + sessionLoginList;
+            }
+        } else if (keyType == RateLimited.KeyType.API_KEY) {
+            final String apiKey = request.getHeader(rateLimited.apiKeyHeader());
+            if (apiKey != null && !apiKey.isEmpty() && resourceProvider.isValidApiKey(runtime, apiKey)) {
+                return "API_KEY:" + apiKey; // only validated key, random keys cannot make new buckets
+            }
+        }
+        return "IP:" + request.getRemoteAddr(); // not X-Forwarded-For because it can be spoofed
+    }
+
+    protected void setupRetryAfterHeader(RateLimited rateLimited) {
+        // seconds until one token is refilled, at least one second
+        final long retryAfter = Math.max(1L, (rateLimited.periodSeconds() + rateLimited.permits() - 1L) / rateLimited.permits());
+        requestManager.getResponseManager().getResponse().setHeader("Retry-After", String.valueOf(retryAfter));
+    }
+
+    protected void throwRateLimitExceededException(ActionRuntime runtime, String clientKey, RateLimited rateLimited) {
+        final String msg = "Rate limit exceeded: " + clientKey + ", permits=" + rateLimited.permits() + "/" + rateLimited.periodSeconds()
+                + "s, " + runtime.getActionExecute().toSimpleMethodExp();
+        throw new ActionRateLimitExceededException(msg, UserMessages.empty()).asLogging(DelicateErrorLoggingLevel.DEBUG); // many so quiet
+    }
+
+    // -----------------------------------------------------
+    //                                              Bulkhead
+    //                                              --------
+    protected String buildBulkheadKey(ActionExecute execute, Bulkhead bulkhead) {
+        final String group = bulkhead.group();
+        return !group.isEmpty() ? "group:" + group : buildExecuteKey(execute);
+    }
+
+    protected void throwBulkheadFullException(ActionRuntime runtime, String bulkheadKey, Bulkhead bulkhead) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("...Rejecting the request by full bulkhead: {}, max={}", bulkheadKey, bulkhead.maxConcurrent());
+        }
+        final String msg = "Bulkhead full: " + bulkheadKey + ", maxConcurrent=" + bulkhead.maxConcurrent() + ", queueTimeout="
+                + bulkhead.queueTimeoutMillis() + "ms, " + runtime.getActionExecute().toSimpleMethodExp();
+        throw new ActionBulkheadFullException(msg, UserMessages.empty()).asLogging(DelicateErrorLoggingLevel.DEBUG); // many so quiet
+    }
+
+    // -----------------------------------------------------
+    //                                          Assist Logic
+    //                                          ------------
+    protected String buildExecuteKey(ActionExecute execute) {
+        return execute.getActionType().getName() + "@" + execute.getExecuteMethod().getName();
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "throttler:{" + throttleCounter + "}";
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.throttle;
+
+/**
+ * The counter of rate limit buckets and bulkhead slots. <br>
+ * The default is {@link LocalThrottleCounter} in memory of the process,
+ * and you can implement this by shared storage (e.g. Redis) to limit across servers.
+ * @author jflute
+ * @since 0.8.5 (2016/10/03 Monday)
+ */
+public interface ThrottleCounter {
+
+    /**
+     * Take one token from the token bucket, which is refilled by the permits per period.
+     * @param bucketKey The key of token bucket, which contains execute method and client key. (NotNull)
+     * @param permits The count of tokens refilled per period, also the capacity of the bucket. (Positive)
+     * @param periodMillis The milliseconds of refilling period. (Positive)
+     * @return true if the token is taken, false if the bucket is empty.
+     */
+    boolean tryAcquireToken(String bucketKey, int permits, long periodMillis);
+
+    /**
+     * Enter the bulkhead, waiting for a free slot until the timeout. <br>
+     * You should call {@link #leaveBulkhead(String)} after execution if true.
+     * @param bulkheadKey The key of bulkhead, execute method or group. (NotNull)
+     * @param maxConcurrent The max count of concurrent executions in the bulkhead. (Positive)
+     * @param waitMillis The milliseconds of waiting for a free slot. (NotMinus)
+     * @return true if entered, false if still full after waiting (or interrupted).
+     */
+    boolean tryEnterBulkhead(String bulkheadKey, int maxConcurrent, long waitMillis);
+
+    /**
+     * Leave the bulkhead entered by {@link #tryEnterBulkhead(String, int, long)}.
+     * @param bulkheadKey The key of bulkhead, execute method or group. (NotNull)
+     */
+    void leaveBulkhead(String bulkheadKey);
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.throttle;
+
+import org.lastaflute.web.RateLimited;
+import org.lastaflute.web.ruts.process.ActionRuntime;
+
+/**
+ * @author jflute
+ * @since 0.8.5 (2016/10/03 Monday)
+ */
+public interface ThrottleResourceProvider {
+
+    /**
+     * Provide the counter of rate limits and bulkheads, e.g. shared by servers.
+     * @return The counter for throttling. (NullAllowed: if null, local counter in memory)
+     */
+    default ThrottleCounter provideThrottleCounter() {
+        return null;
+    }
+
+    /**
+     * Provide the client key of rate limit, e.g. user ID, real IP address behind proxy.
+     * @param runtime The runtime of current action. (NotNull)
+     * @param keyType The type of client key declared by the execute method. (NotNull)
+     * @return The expression of client key. (NullAllowed: if null, default resolution)
+     */
+    default String provideClientKey(ActionRuntime runtime, RateLimited.KeyType keyType) {
+        return null;
+    }
+
+    /**
+     * Is the API key valid for the client key of rate limit? <br>
+     * Invalid keys are counted by IP address, not to make buckets by random keys.
+     * @param runtime The runtime of current action. (NotNull)
+     * @param apiKey The value of API key header in the request. (NotNull, NotEmpty)
+     * @return The determination, true if the key is known by the application. (default false so by IP address)
+     */
+    default boolean isValidApiKey(ActionRuntime runtime, String apiKey) {
+        return false;
+    }
+
+    /**
+     * @return The max count of token buckets kept in local counter, full or least recently used buckets are removed over it. (Positive)
+     */
+    default int provideMaxLocalBucketCount() {
+        return 10000; // as default
+    }
+}
@@ -17,6 +17,8 @@ package org.lastaflute.web.servlet.filter;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.Locale;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -43,6 +45,7 @@ import org.lastaflute.di.core.smart.hot.HotdeployLock;
 import org.lastaflute.web.LastaWebKey;
 import org.lastaflute.web.container.WebLastaContainerDestroyer;
 import org.lastaflute.web.container.WebLastaContainerInitializer;
+import org.lastaflute.web.path.ActionPathResolver;
 import org.lastaflute.web.ruts.config.ModuleConfig;
 import org.lastaflute.web.ruts.message.MessageResources;
 import org.lastaflute.web.ruts.message.RutsMessageResourceGateway;
@@ -92,6 +95,7 @@ public class LastaPrepareFilter implements Filter {
         initModuleConfig(servletContext); // before container because of used by customizer (when cool)
         try {
             initializeContainer(servletContext);
+            resolveActionMapping(servletContext); // created in parallel by customizer (when cool)
         } catch (Throwable e) {
             handleErrorCause("Failed to initialize Lasta Di.", e);
         }
@@ -127,6 +131,11 @@ public class LastaPrepareFilter implements Filter {
         return new ModuleConfig();
     }
 
+    protected void resolveActionMapping(ServletContext servletContext) {
+        final ModuleConfig moduleConfig = (ModuleConfig) servletContext.getAttribute(LastaWebKey.MODULE_CONFIG_KEY);
+        moduleConfig.resolveReservedActionMapping();
+    }
+
     // -----------------------------------------------------
     //                                              Lasta Di
     //                                              --------
@@ -145,11 +154,13 @@ public class LastaPrepareFilter implements Filter {
     //                                      ----------------
     protected void adjustComponent(ServletContext context) {
         adjustMessageResources(context);
+        prepareActionPathTable(context);
     }
 
     protected void adjustMessageResources(ServletContext context) {
         saveMessageResourcesToContext(context);
         saveMessageResourcesToHolder(context);
+        prewarmMessageResources(context);
     }
 
     // -----------------------------------------------------
@@ -180,6 +191,28 @@ public class LastaPrepareFilter implements Filter {
         return new RutsMessageResourceGateway(messages);
     }
 
+    // -----------------------------------------------------
+    //                                       Message Prewarm
+    //                                       ---------------
+    protected void prewarmMessageResources(ServletContext context) {
+        final MessageResources resources = getMessageResources(context);
+        if (resources instanceof ObjectiveMessageResources) {
+            final List<Locale> localeList = getAssistantDirector().assistWebDirection().assistPrewarmMessageLocaleList();
+            if (!localeList.isEmpty()) {
+                logger.info("...Prewarming message resources: {}", localeList);
+                ((ObjectiveMessageResources) resources).prewarm(localeList);
+            }
+        }
+    }
+
+    // -----------------------------------------------------
+    //                                      ActionPath Table
+    //                                      ----------------
+    protected void prepareActionPathTable(ServletContext context) { // for reverse routing e.g. redirect, link
+        final ModuleConfig moduleConfig = (ModuleConfig) context.getAttribute(LastaWebKey.MODULE_CONFIG_KEY);
+        ContainerUtil.getComponent(ActionPathResolver.class).prepareActionPathTable(moduleConfig);
+    }
+
     // -----------------------------------------------------
     //                                        Curtain Before
     //                                        --------------
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.filter.compress;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.List;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * The response wrapper that compresses the body if it is worth compressing. <br>
+ * The determination is delayed until the body reaches the minimum size or the body is closed,
+ * so Content-Length is held until then (removed if compressed). <br>
+ * Strong ETag is weakened if compressed because the bytes are different from the plain representation.
+ * @author jflute
+ * @since 0.8.5 (2016/09/18 Sunday)
+ */
+public class CompressionHttpServletResponse extends HttpServletResponseWrapper {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final String CONTENT_LENGTH = "Content-Length";
+    protected static final String CONTENT_ENCODING = "Content-Encoding";
+    protected static final String ETAG = "ETag";
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final ResponseContentEncoder encoder; // not null, accepted by client
+    protected final ResponseCompressionOption option; // not null
+    protected CompressionServletOutputStream stream; // null allowed, lazy
+    protected PrintWriter writer; // null allowed, lazy
+    protected long declaredLength = -1; // minus means unknown
+    protected boolean determined; // output decided
+    protected boolean compressed; // encoded by the encoder
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public CompressionHttpServletResponse(HttpServletResponse response, ResponseContentEncoder encoder, ResponseCompressionOption option) {
+        super(response);
+        this.encoder = encoder;
+        this.option = option;
+    }
+
+    // ===================================================================================
+    //                                                                       Output Stream
+    //                                                                       =============
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (writer != null) {
+            throw new IllegalStateException("The getWriter() has already been called: " + this);
+        }
+        if (stream == null) {
+            stream = newCompressionServletOutputStream();
+        }
+        return stream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            if (stream != null) {
+                throw new IllegalStateException("The getOutputStream() has already been called: " + this);
+            }
+            stream = newCompressionServletOutputStream();
+            writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    protected CompressionServletOutputStream newCompressionServletOutputStream() {
+        return new CompressionServletOutputStream(this, option.getMinimumSize());
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        } else if (stream != null) {
+            stream.flush();
+        }
+        if (determined) { // not to commit headers before determination
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (stream != null) {
+            stream.resetBuffer();
+        }
+        declaredLength = -1;
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (stream != null) {
+            stream.resetBuffer();
+        }
+    }
+
+    /**
+     * Finish the response body, called after the request is processed.
+     * @throws IOException When it fails to write the rest of body.
+     */
+    public void finishResponse() throws IOException {
+        if (writer != null) {
+            writer.close();
+        } else if (stream != null) {
+            stream.close();
+        } else if (!determined) { // no body is written, e.g. redirect, empty response with Content-Length: 0
+            determined = true;
+            if (declaredLength >= 0 && !isCommitted()) {
+                super.setContentLengthLong(declaredLength);
+            }
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Content Length
+    //                                                                      ==============
+    @Override
+    public void setContentLength(int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        if (determined) {
+            if (!compressed) {
+                super.setContentLengthLong(len);
+            }
+        } else {
+            declaredLength = len; // held until determination
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value != null ? Long.parseLong(value.trim()) : -1);
+        } else if (ETAG.equalsIgnoreCase(name)) {
+            super.setHeader(name, adjustEntityTag(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value != null ? Long.parseLong(value.trim()) : -1);
+        } else if (ETAG.equalsIgnoreCase(name)) {
+            super.addHeader(name, adjustEntityTag(value));
+        } else {
+            super.addHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.setIntHeader(name, value);
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        if (CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(value);
+        } else {
+            super.addIntHeader(name, value);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                          Entity Tag
+    //                                                                          ==========
+    protected String adjustEntityTag(String etag) { // e.g. set after the body is compressed
+        return compressed ? weakenEntityTag(etag) : etag;
+    }
+
+    protected String weakenEntityTag(String etag) { // strong tag means byte-for-byte equal
+        return etag != null && etag.startsWith("\"") ? "W/" + etag : etag;
+    }
+
+    // ===================================================================================
+    //                                                                       Determination
+    //                                                                       =============
+    /**
+     * Determine the actual output of body, compressed or plain. (called only once by the stream)
+     * @param reachedMinimum Does the body reach the minimum size of compression?
+     * @return The output stream to write the body. (NotNull)
+     * @throws IOException When it fails to get the stream.
+     */
+    protected OutputStream determineOutput(boolean reachedMinimum) throws IOException {
+        if (reachedMinimum && isCompressionTarget()) {
+            determined = true;
+            compressed = true;
+            final OutputStream out = super.getOutputStream();
+            super.setHeader(CONTENT_ENCODING, encoder.getEncodingName());
+            super.addHeader("Vary", "Accept-Encoding");
+            final String etag = getHeader(ETAG);
+            if (etag != null) { // e.g. set before rendering
+                super.setHeader(ETAG, weakenEntityTag(etag));
+            }
+            return encoder.encode(out); // no Content-Length because of unknown size
+        } else {
+            return determinePlainOutput();
+        }
+    }
+
+    /**
+     * Determine the output of body as plain, e.g. for non-blocking write. (called only once)
+     * @return The output stream of the original response. (NotNull)
+     * @throws IOException When it fails to get the stream.
+     */
+    protected ServletOutputStream determinePlainOutput() throws IOException {
+        determined = true;
+        final ServletOutputStream out = super.getOutputStream();
+        if (declaredLength >= 0) {
+            super.setContentLengthLong(declaredLength);
+        }
+        return out;
+    }
+
+    protected boolean isCompressionTarget() {
+        if (isCommitted() || containsHeader(CONTENT_ENCODING)) { // e.g. already-compressed stream
+            return false;
+        }
+        if (declaredLength >= 0 && declaredLength < option.getMinimumSize()) {
+            return false;
+        }
+        final int status = getStatus();
+        if (status == SC_NO_CONTENT || status == SC_NOT_MODIFIED || status == SC_PARTIAL_CONTENT) {
+            return false;
+        }
+        return isCompressibleContentType();
+    }
+
+    protected boolean isCompressibleContentType() {
+        return isCompressibleContentType(getContentType());
+    }
+
+    protected boolean isCompressibleContentType(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        final int semicolonIndex = contentType.indexOf(';');
+        final String mimeType = (semicolonIndex >= 0 ? contentType.substring(0, semicolonIndex) : contentType).trim();
+        final List<String> contentTypeList = option.getContentTypeList();
+        for (String compressible : contentTypeList) {
+            if (compressible.equalsIgnoreCase(mimeType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Is the content type determined as not compressible? (false if no content type yet)
+     */
+    protected boolean isObviouslyIncompressible() {
+        final String contentType = getContentType();
+        return contentType != null && !isCompressibleContentType(contentType);
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "compression:{" + encoder.getEncodingName() + ", determined=" + determined + ", compressed=" + compressed + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public boolean isCompressed() {
+        return compressed;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.filter.compress;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+/**
+ * The output stream that buffers the body until the compression is determined. <br>
+ * Non-blocking write is passed through to the original stream without compression.
+ * @author jflute
+ * @since 0.8.5 (2016/09/18 Sunday)
+ */
+public class CompressionServletOutputStream extends ServletOutputStream {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final CompressionHttpServletResponse response; // not null
+    protected final int minimumSize; // not minus
+    protected byte[] buffer; // null allowed, lazy, released after determination
+    protected int count; // in buffer
+    protected OutputStream delegate; // null allowed, not null after determination
+    protected ServletOutputStream nonBlockingStream; // null allowed, original stream if write listener is set
+    protected boolean closed;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public CompressionServletOutputStream(CompressionHttpServletResponse response, int minimumSize) {
+        this.response = response;
+        this.minimumSize = minimumSize;
+    }
+
+    // ===================================================================================
+    //                                                                               Write
+    //                                                                               =====
+    @Override
+    public void write(int b) throws IOException {
+        write(new byte[] { (byte) b }, 0, 1); // rare case
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("The stream has already been closed: " + response);
+        }
+        if (delegate == null) {
+            if (count + len < minimumSize && !response.isObviouslyIncompressible()) {
+                ensureBuffer(count + len);
+                System.arraycopy(b, off, buffer, count, len);
+                count += len;
+                return;
+            }
+            determine(count + len >= minimumSize);
+        }
+        delegate.write(b, off, len);
+    }
+
+    protected void ensureBuffer(int size) {
+        if (buffer == null) {
+            buffer = new byte[Math.max(Math.min(minimumSize, 1024), size)];
+        } else if (buffer.length < size) {
+            final byte[] extended = new byte[Math.min(Math.max(buffer.length * 2, size), minimumSize)];
+            System.arraycopy(buffer, 0, extended, 0, count);
+            buffer = extended;
+        }
+    }
+
+    protected void determine(boolean reachedMinimum) throws IOException {
+        delegate = response.determineOutput(reachedMinimum);
+        if (count > 0) {
+            delegate.write(buffer, 0, count);
+        }
+        buffer = null;
+        count = 0;
+    }
+
+    protected void resetBuffer() {
+        if (delegate == null) {
+            count = 0;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                         Flush/Close
+    //                                                                         ===========
+    @Override
+    public void flush() throws IOException {
+        if (delegate != null) { // not determined yet if null
+            delegate.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (delegate == null) {
+            determine(count >= minimumSize); // basically small body
+        }
+        delegate.close(); // also finishes compression
+    }
+
+    // ===================================================================================
+    //                                                                        Non-Blocking
+    //                                                                        ============
+    @Override
+    public boolean isReady() {
+        return nonBlockingStream != null ? nonBlockingStream.isReady() : true; // blocking write is always ready
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+        if (delegate != null || count > 0) { // compressor cannot tell readiness
+            throw new IllegalStateException("The write listener should be set before writing the body: " + response);
+        }
+        try {
+            nonBlockingStream = response.determinePlainOutput();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to get the original stream for non-blocking write: " + response, e);
+        }
+        delegate = nonBlockingStream;
+        nonBlockingStream.setWriteListener(writeListener);
+    }
+}
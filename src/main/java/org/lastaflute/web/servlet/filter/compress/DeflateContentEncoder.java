@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.filter.compress;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The encoder for 'deflate' (zlib format) Content-Encoding with pooled deflaters.
+ * @author jflute
+ * @since 0.8.5 (2016/09/18 Sunday)
+ */
+public class DeflateContentEncoder implements ResponseContentEncoder {
+
+    protected final DeflaterPool deflaterPool;
+    protected final int bufferSize;
+
+    public DeflateContentEncoder(int level, int maxIdleSize, int bufferSize) {
+        this.deflaterPool = new DeflaterPool(level, false, maxIdleSize); // with zlib header
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public String getEncodingName() {
+        return "deflate";
+    }
+
+    @Override
+    public OutputStream encode(OutputStream out) throws IOException {
+        return new PooledDeflaterOutputStream(out, deflaterPool, bufferSize);
+    }
+
+    @Override
+    public void destroy() {
+        deflaterPool.destroy();
+    }
+}
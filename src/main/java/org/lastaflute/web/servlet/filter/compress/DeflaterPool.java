@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.filter.compress;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * The pool of deflater to avoid native zlib allocation per response.
+ * @author jflute
+ * @since 0.8.5 (2016/09/18 Sunday)
+ */
+public class DeflaterPool {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final int level; // e.g. Deflater.DEFAULT_COMPRESSION
+    protected final boolean nowrap; // true if no zlib header, e.g. for gzip
+    protected final int maxIdleSize; // over deflaters are ended when returned
+    protected final Queue<Deflater> idleQueue = new ConcurrentLinkedQueue<Deflater>();
+    protected final AtomicInteger idleCount = new AtomicInteger();
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public DeflaterPool(int level, boolean nowrap, int maxIdleSize) {
+        this.level = level;
+        this.nowrap = nowrap;
+        this.maxIdleSize = maxIdleSize;
+    }
+
+    // ===================================================================================
+    //                                                                         Borrow/Back
+    //                                                                         ===========
+    public Deflater borrow() {
+        final Deflater deflater = idleQueue.poll();
+        if (deflater != null) {
+            idleCount.decrementAndGet();
+            return deflater;
+        }
+        return new Deflater(level, nowrap);
+    }
+
+    public void giveBack(Deflater deflater) {
+        deflater.reset();
+        if (idleCount.incrementAndGet() <= maxIdleSize) {
+            idleQueue.offer(deflater);
+        } else { // too many idle deflaters
+            idleCount.decrementAndGet();
+            deflater.end();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                             Destroy
+    //                                                                             =======
+    public void destroy() {
+        Deflater deflater;
+        while ((deflater = idleQueue.poll()) != null) {
+            idleCount.decrementAndGet();
+            deflater.end();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "deflaterPool:{level=" + level + ", nowrap=" + nowrap + ", idle=" + idleCount.get() + "/" + maxIdleSize + "}";
+    }
+}
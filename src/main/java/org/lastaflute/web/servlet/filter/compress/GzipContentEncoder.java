@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.filter.compress;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+
+/**
+ * The encoder for 'gzip' Content-Encoding with pooled deflaters. <br>
+ * It writes gzip header and trailer by itself because GZIPOutputStream always creates its own deflater.
+ * @author jflute
+ * @since 0.8.5 (2016/09/18 Sunday)
+ */
+public class GzipContentEncoder implements ResponseContentEncoder {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final byte[] GZIP_HEADER = new byte[] { 0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, 0 }; // deflate, no flags
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final DeflaterPool deflaterPool;
+    protected final int bufferSize;
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public GzipContentEncoder(int level, int maxIdleSize, int bufferSize) {
+        this.deflaterPool = new DeflaterPool(level, true, maxIdleSize); // raw deflate in gzip frame
+        this.bufferSize = bufferSize;
+    }
+
+    // ===================================================================================
+    //                                                                              Encode
+    //                                                                              ======
+    @Override
+    public String getEncodingName() {
+        return "gzip";
+    }
+
+    @Override
+    public OutputStream encode(OutputStream out) throws IOException {
+        return new PooledGzipOutputStream(out, deflaterPool, bufferSize);
+    }
+
+    @Override
+    public void destroy() {
+        deflaterPool.destroy();
+    }
+
+    // ===================================================================================
+    //                                                                         Gzip Stream
+    //                                                                         ===========
+    protected static class PooledGzipOutputStream extends PooledDeflaterOutputStream {
+
+        protected final CRC32 crc = new CRC32();
+        protected boolean trailerWritten;
+
+        public PooledGzipOutputStream(OutputStream out, DeflaterPool deflaterPool, int bufferSize) throws IOException {
+            super(out, deflaterPool, bufferSize);
+            out.write(GZIP_HEADER);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            crc.update(b, off, len);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            super.finish();
+            if (!trailerWritten) {
+                trailerWritten = true;
+                final byte[] trailer = new byte[8];
+                writeLittleEndianInt(trailer, 0, (int) crc.getValue());
+                writeLittleEndianInt(trailer, 4, (int) def.getBytesRead()); // ISIZE is modulo 2^32
+                out.write(trailer);
+            }
+        }
+
+        protected void writeLittleEndianInt(byte[] buf, int offset, int value) {
+            buf[offset] = (byte) (value & 0xff);
+            buf[offset + 1] = (byte) ((value >> 8) & 0xff);
+            buf[offset + 2] = (byte) ((value >> 16) & 0xff);
+            buf[offset + 3] = (byte) ((value >> 24) & 0xff);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.filter.compress;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * The deflater output stream that gives back the deflater to the pool when closed.
+ * @author jflute
+ * @since 0.8.5 (2016/09/18 Sunday)
+ */
+public class PooledDeflaterOutputStream extends DeflaterOutputStream {
+
+    protected final DeflaterPool deflaterPool;
+    protected boolean closed;
+
+    public PooledDeflaterOutputStream(OutputStream out, DeflaterPool deflaterPool, int bufferSize) {
+        super(out, deflaterPool.borrow(), bufferSize);
+        this.deflaterPool = deflaterPool;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            finish();
+            out.close();
+        } finally {
+            deflaterPool.giveBack(def); // not ended, reset for next use
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.filter.compress;
+
+import java.io.IOException;
+import java.util.List;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.lastaflute.core.util.ContainerUtil;
+import org.lastaflute.web.servlet.filter.hook.FilterHookChain;
+import org.lastaflute.web.servlet.filter.hook.FilterHookSimply;
+
+/**
+ * The filter hook to compress response body by Accept-Encoding, e.g. gzip.
+ * <pre>
+ * e.g. in your assistant director
+ *  direction.directCompression(new ResponseCompressionHook());
+ * </pre>
+ * @author jflute
+ * @since 0.8.5 (2016/09/18 Sunday)
+ */
+public class ResponseCompressionHook extends FilterHookSimply {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final ResponseCompressionOption option; // not null
+    protected final List<ResponseContentEncoder> encoderList; // not null, by priority
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    public ResponseCompressionHook() {
+        this(new ResponseCompressionOption());
+    }
+
+    public ResponseCompressionHook(ResponseCompressionOption option) {
+        if (option == null) {
+            throw new IllegalArgumentException("The argument 'option' should not be null.");
+        }
+        this.option = option;
+        this.encoderList = option.prepareEncoderList();
+    }
+
+    // ===================================================================================
+    //                                                                                Hook
+    //                                                                                ====
+    @Override
+    public void hook(HttpServletRequest request, HttpServletResponse response, FilterHookChain chain) throws IOException, ServletException {
+        final ResponseContentEncoder encoder = isCompressionRequest(request) ? findAcceptedEncoder(request) : null;
+        if (encoder == null) {
+            chain.doNext(request, response);
+            return;
+        }
+        final CompressionHttpServletResponse wrapper = newCompressionHttpServletResponse(response, encoder);
+        ContainerUtil.overrideExternalResponse(wrapper); // for response manager
+        try {
+            chain.doNext(request, wrapper);
+        } finally {
+            try {
+                wrapper.finishResponse(); // also when exception, not to leave buffered body and pooled deflater
+            } finally {
+                ContainerUtil.overrideExternalResponse(response);
+            }
+        }
+    }
+
+    protected boolean isCompressionRequest(HttpServletRequest request) {
+        return request.getDispatcherType() == DispatcherType.REQUEST && !"HEAD".equalsIgnoreCase(request.getMethod());
+    }
+
+    protected CompressionHttpServletResponse newCompressionHttpServletResponse(HttpServletResponse response,
+            ResponseContentEncoder encoder) {
+        return new CompressionHttpServletResponse(response, encoder, option);
+    }
+
+    // ===================================================================================
+    //                                                                     Accept-Encoding
+    //                                                                     ===============
+    protected ResponseContentEncoder findAcceptedEncoder(HttpServletRequest request) {
+        final String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+        for (ResponseContentEncoder encoder : encoderList) { // by server priority
+            if (isAcceptedEncoding(acceptEncoding, encoder.getEncodingName())) {
+                return encoder;
+            }
+        }
+        return null;
+    }
+
+    protected boolean isAcceptedEncoding(String acceptEncoding, String encodingName) { // e.g. gzip, deflate;q=0.5, br;q=0
+        boolean wildcardAccepted = false;
+        for (String element : acceptEncoding.split(",")) {
+            final int semicolonIndex = element.indexOf(';');
+            final String coding = (semicolonIndex >= 0 ? element.substring(0, semicolonIndex) : element).trim();
+            final boolean accepted = semicolonIndex < 0 || !isZeroQuality(element.substring(semicolonIndex + 1));
+            if (coding.equalsIgnoreCase(encodingName)) {
+                return accepted; // explicit setting is prior
+            } else if (coding.equals("*")) {
+                wildcardAccepted = accepted;
+            }
+        }
+        return wildcardAccepted;
+    }
+
+    protected boolean isZeroQuality(String parameter) { // e.g. q=0, q=0.000
+        final String trimmed = parameter.trim();
+        if (!trimmed.startsWith("q=")) {
+            return false;
+        }
+        try {
+            return Double.parseDouble(trimmed.substring("q=".length()).trim()) <= 0.0;
+        } catch (NumberFormatException ignored) { // client mistake
+            return false;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                             Destroy
+    //                                                                             =======
+    @Override
+    public void destroy() {
+        encoderList.forEach(encoder -> encoder.destroy());
+    }
+}
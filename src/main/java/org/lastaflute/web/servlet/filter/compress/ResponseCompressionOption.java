@@ -0,0 +1,143 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.filter.compress;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * The option of response compression, e.g. thresholds and encoders.
+ * <pre>
+ * new ResponseCompressionHook(new ResponseCompressionOption().minimumSize(2048).addContentType("image/svg+xml"))
+ * </pre>
+ * @author jflute
+ * @since 0.8.5 (2016/09/18 Sunday)
+ */
+public class ResponseCompressionOption {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final int DEFAULT_MINIMUM_SIZE = 1024; // small body is not worth compressing
+    protected static final int DEFAULT_MAX_IDLE_DEFLATER = 32;
+    protected static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected int minimumSize = DEFAULT_MINIMUM_SIZE;
+    protected int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    protected int maxIdleDeflater = DEFAULT_MAX_IDLE_DEFLATER;
+    protected final List<String> contentTypeList = new ArrayList<String>(Arrays.asList( // as default
+            "text/html", "text/plain", "text/css", "text/xml", "text/javascript" //
+            , "application/json", "application/javascript", "application/xml"));
+    protected List<ResponseContentEncoder> encoderList; // null allowed, lazy by priority
+
+    // ===================================================================================
+    //                                                                             Setting
+    //                                                                             =======
+    /**
+     * @param minimumSize The minimum byte size of body to be compressed. (NotMinus)
+     * @return this. (NotNull)
+     */
+    public ResponseCompressionOption minimumSize(int minimumSize) {
+        if (minimumSize < 0) {
+            throw new IllegalArgumentException("The argument 'minimumSize' should not be minus: " + minimumSize);
+        }
+        this.minimumSize = minimumSize;
+        return this;
+    }
+
+    /**
+     * @param compressionLevel The level of deflater, 1 (speed) to 9 (size), or -1 as default.
+     * @return this. (NotNull)
+     */
+    public ResponseCompressionOption compressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    /**
+     * @param maxIdleDeflater The max count of idle pooled deflaters per encoding. (NotMinus)
+     * @return this. (NotNull)
+     */
+    public ResponseCompressionOption maxIdleDeflater(int maxIdleDeflater) {
+        this.maxIdleDeflater = maxIdleDeflater;
+        return this;
+    }
+
+    /**
+     * @param contentType The compressible content type without parameter, e.g. 'image/svg+xml'. (NotNull)
+     * @return this. (NotNull)
+     */
+    public ResponseCompressionOption addContentType(String contentType) {
+        if (contentType == null) {
+            throw new IllegalArgumentException("The argument 'contentType' should not be null.");
+        }
+        contentTypeList.add(contentType);
+        return this;
+    }
+
+    /**
+     * Register the encoder in priority order. If no registration, gzip and deflate are used.
+     * @param encoder The encoder of response body, e.g. your brotli encoder. (NotNull)
+     * @return this. (NotNull)
+     */
+    public ResponseCompressionOption registerEncoder(ResponseContentEncoder encoder) {
+        if (encoder == null) {
+            throw new IllegalArgumentException("The argument 'encoder' should not be null.");
+        }
+        if (encoderList == null) {
+            encoderList = new ArrayList<ResponseContentEncoder>(2);
+        }
+        encoderList.add(encoder);
+        return this;
+    }
+
+    // ===================================================================================
+    //                                                                     Prepare Encoder
+    //                                                                     ===============
+    public List<ResponseContentEncoder> prepareEncoderList() {
+        if (encoderList != null) {
+            return encoderList;
+        }
+        final List<ResponseContentEncoder> defaultList = new ArrayList<ResponseContentEncoder>(2);
+        defaultList.add(new GzipContentEncoder(compressionLevel, maxIdleDeflater, DEFAULT_BUFFER_SIZE)); // prior
+        defaultList.add(new DeflateContentEncoder(compressionLevel, maxIdleDeflater, DEFAULT_BUFFER_SIZE));
+        return defaultList;
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "{minimumSize=" + minimumSize + ", level=" + compressionLevel + ", contentTypes=" + contentTypeList + "}";
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public int getMinimumSize() {
+        return minimumSize;
+    }
+
+    public List<String> getContentTypeList() {
+        return contentTypeList;
+    }
+}
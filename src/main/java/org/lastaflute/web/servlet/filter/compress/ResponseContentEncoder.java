@@ -0,0 +1,47 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.filter.compress;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The encoder of response body for Content-Encoding, e.g. gzip.
+ * @author jflute
+ * @since 0.8.5 (2016/09/18 Sunday)
+ */
+public interface ResponseContentEncoder {
+
+    /**
+     * @return The name of encoding used in Accept-Encoding and Content-Encoding, e.g. 'gzip'. (NotNull)
+     */
+    String getEncodingName();
+
+    /**
+     * Wrap the output stream of response to encode written bytes. <br>
+     * Closing the returned stream should finish the encoding and close the original stream.
+     * @param out The original output stream of response. (NotNull)
+     * @return The output stream to encode. (NotNull)
+     * @throws IOException When it fails to write e.g. header of encoding.
+     */
+    OutputStream encode(OutputStream out) throws IOException;
+
+    /**
+     * Release resources of the encoder, called when the filter is destroyed.
+     */
+    default void destroy() {
+    }
+}
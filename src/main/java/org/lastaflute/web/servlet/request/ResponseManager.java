@@ -16,6 +16,7 @@
 package org.lastaflute.web.servlet.request;
 
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletResponse;
@@ -101,6 +102,26 @@ public interface ResponseManager {
      */
     void write(String text, String contentType, String encoding);
 
+    /**
+     * Write the already-encoded bytes, e.g. constant body encoded once at boot. <br>
+     * The Content-Length is set by the size of the bytes. <br>
+     * The default implementation decodes the bytes and writes them by the text path
+     * for existing implementations of this interface, so override it to write the bytes directly.
+     * @param encodedBytes The written bytes encoded by the encoding. (NotNull)
+     * @param contentType The content type of the response. (NotNull)
+     * @param encoding The encoding of the bytes, used in Content-Type. (NotNull)
+     */
+    default void write(byte[] encodedBytes, String contentType, String encoding) {
+        final String text;
+        try {
+            text = new String(encodedBytes, encoding);
+        } catch (UnsupportedEncodingException e) {
+            String msg = "Failed to decode the bytes: contentType=" + contentType + ", encoding=" + encoding;
+            throw new IllegalStateException(msg, e);
+        }
+        write(text, contentType, encoding);
+    }
+
     /**
      * @param json The written JSON string to the response. (NotNull)
      */
@@ -16,8 +16,7 @@
 package org.lastaflute.web.servlet.request;
 
 import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.OutputStream;
 import java.util.Map;
 
 import javax.annotation.PostConstruct;
@@ -183,6 +182,14 @@ public class SimpleResponseManager implements ResponseManager {
         doWrite(text, contentType, encoding);
     }
 
+    @Override
+    public void write(byte[] encodedBytes, String contentType, String encoding) {
+        assertArgumentNotNull("encodedBytes", encodedBytes);
+        assertArgumentNotNull("contentType", contentType);
+        assertArgumentNotNull("encoding", encoding);
+        doWriteBytes(encodedBytes, contentType, encoding);
+    }
+
     @Override
     public void writeAsJson(String json) {
         assertArgumentNotNull("json", json);
@@ -228,29 +235,41 @@ public class SimpleResponseManager implements ResponseManager {
     }
 
     protected void doWrite(String text, String contentType, String encoding) {
-        if (contentType == null) {
-            contentType = "text/plain";
-        }
         if (encoding == null) {
             encoding = LaRequestUtil.getRequest().getCharacterEncoding();
             if (encoding == null) {
                 encoding = "UTF-8";
             }
         }
+        final byte[] encodedBytes;
+        try {
+            encodedBytes = text.getBytes(encoding); // directly to bytes, no writer buffering
+        } catch (IOException e) { // unsupported encoding
+            String msg = "Failed to encode the text: contentType=" + contentType + ", encoding=" + encoding + ", text=" + text;
+            throw new IllegalStateException(msg, e);
+        }
+        doWriteBytes(encodedBytes, contentType, encoding);
+    }
+
+    protected void doWriteBytes(byte[] encodedBytes, String contentType, String encoding) {
+        if (contentType == null) {
+            contentType = "text/plain";
+        }
         final HttpServletResponse response = getResponse();
         response.setContentType(contentType + "; charset=" + encoding);
+        response.setContentLength(encodedBytes.length); // known size so no chunked transfer
         try {
-            PrintWriter out = null;
+            OutputStream out = null;
             try {
-                out = new PrintWriter(new OutputStreamWriter(response.getOutputStream(), encoding));
-                out.print(text);
+                out = response.getOutputStream();
+                out.write(encodedBytes);
             } finally {
                 if (out != null) {
                     out.close();
                 }
             }
         } catch (IOException e) {
-            String msg = "Failed to write the text: contentType=" + contentType + ", encoding=" + encoding + ", text=" + text;
+            String msg = "Failed to write the bytes: contentType=" + contentType + ", encoding=" + encoding + ", size=" + encodedBytes.length;
             throw new IllegalStateException(msg, e);
         }
     }
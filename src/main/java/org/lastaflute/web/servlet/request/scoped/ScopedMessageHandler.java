@@ -83,7 +83,8 @@ public class ScopedMessageHandler {
     }
 
     protected void doAddMessages(UserMessages messages) {
-        final UserMessages existingOrCreated = get().orElseGet(() -> newUserMessages());
+        // empty existing may be shared (locked) instance so it is replaced with new one
+        final UserMessages existingOrCreated = get().filter(existing -> !existing.isEmpty()).orElseGet(() -> newUserMessages());
         existingOrCreated.add(messages);
         doSaveInfo(existingOrCreated);
     }
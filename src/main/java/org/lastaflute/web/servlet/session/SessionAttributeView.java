@@ -0,0 +1,196 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.session;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Map.Entry;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.lastaflute.web.login.UserBean;
+
+/**
+ * The per-request view of session attributes, copy-on-write. <br>
+ * Each attribute is loaded from the session (or shared storage) at most once per request,
+ * and writes are kept in this view until flushed (once) at the end of action.
+ * @author jflute
+ * @since 0.8.5 (2016/09/28 Wednesday)
+ */
+public class SessionAttributeView {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    protected static final Object ABSENT = new Object(); // loaded but not found
+    protected static final Object REMOVED = new Object(); // written as removal
+    protected static final long UNVERSIONED = -1L;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final boolean skipUnchangedUserBean;
+    protected final Map<String, Object> loadedMap = new HashMap<String, Object>(); // value or ABSENT
+    protected final Map<String, Long> loadedVersionMap = new HashMap<String, Long>(); // only versioned user bean
+    protected final Map<String, Object> writtenMap = new LinkedHashMap<String, Object>(); // value or REMOVED, keeps order
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param skipUnchangedUserBean Does it skip flushing the same user bean instance whose version is not changed?
+     */
+    public SessionAttributeView(boolean skipUnchangedUserBean) {
+        this.skipUnchangedUserBean = skipUnchangedUserBean;
+    }
+
+    // ===================================================================================
+    //                                                                                Read
+    //                                                                                ====
+    /**
+     * @param key The key of attribute. (NotNull)
+     * @return The determination, true if written or loaded in this view.
+     */
+    public boolean isResolved(String key) {
+        return writtenMap.containsKey(key) || loadedMap.containsKey(key);
+    }
+
+    /**
+     * @param key The key of attribute, which should be resolved. (NotNull)
+     * @return The attribute value in this view. (NullAllowed: when not found or removed)
+     */
+    public Object resolve(String key) {
+        final Object written = writtenMap.get(key);
+        if (written != null) {
+            return written != REMOVED ? written : null;
+        }
+        final Object loaded = loadedMap.get(key);
+        return loaded != ABSENT ? loaded : null;
+    }
+
+    /**
+     * @param key The key of attribute. (NotNull)
+     * @param value The value loaded from session. (NullAllowed: when not found)
+     */
+    public void load(String key, Object value) {
+        loadedMap.put(key, value != null ? value : ABSENT);
+        if (value instanceof UserBean<?>) {
+            final long version = ((UserBean<?>) value).getSessionVersion();
+            if (version != UNVERSIONED) {
+                loadedVersionMap.put(key, version);
+            }
+        }
+    }
+
+    /**
+     * Merge the attribute names in real session with the written (not flushed yet) attributes.
+     * @param sessionNameList The list of attribute names in real session. (NotNull)
+     * @return The list of names: written ones are added, removed ones are excluded. (NotNull)
+     */
+    public List<String> mergeNameList(List<String> sessionNameList) {
+        if (writtenMap.isEmpty()) {
+            return sessionNameList;
+        }
+        final Set<String> nameSet = new LinkedHashSet<String>(sessionNameList);
+        for (Entry<String, Object> entry : writtenMap.entrySet()) {
+            if (entry.getValue() == REMOVED) {
+                nameSet.remove(entry.getKey());
+            } else {
+                nameSet.add(entry.getKey());
+            }
+        }
+        return new ArrayList<String>(nameSet);
+    }
+
+    // ===================================================================================
+    //                                                                               Write
+    //                                                                               =====
+    public void write(String key, Object value) {
+        writtenMap.put(key, value);
+    }
+
+    public void remove(String key) {
+        writtenMap.put(key, REMOVED);
+    }
+
+    /**
+     * Discard all resolved attributes e.g. when session invalidated.
+     */
+    public void discard() {
+        loadedMap.clear();
+        loadedVersionMap.clear();
+        writtenMap.clear();
+    }
+
+    // ===================================================================================
+    //                                                                               Flush
+    //                                                                               =====
+    /**
+     * Flush the written attributes to the session and clear them (loaded attributes are updated).
+     * @param setter The callback to set the attribute to real session. (NotNull)
+     * @param remover The callback to remove the attribute from real session. (NotNull)
+     * @return The count of actually flushed attributes.
+     */
+    public int flush(BiConsumer<String, Object> setter, Consumer<String> remover) {
+        if (writtenMap.isEmpty()) {
+            return 0;
+        }
+        int flushedCount = 0;
+        for (Entry<String, Object> entry : writtenMap.entrySet()) {
+            final String key = entry.getKey();
+            final Object value = entry.getValue();
+            if (value == REMOVED) {
+                remover.accept(key);
+                load(key, null);
+                ++flushedCount;
+            } else if (!isUnchangedUserBean(key, value)) {
+                setter.accept(key, value);
+                load(key, value);
+                ++flushedCount;
+            }
+        }
+        writtenMap.clear();
+        return flushedCount;
+    }
+
+    protected boolean isUnchangedUserBean(String key, Object value) {
+        if (!skipUnchangedUserBean || !(value instanceof UserBean<?>)) {
+            return false;
+        }
+        if (loadedMap.get(key) != value) { // e.g. new instance after login
+            return false;
+        }
+        final Long loadedVersion = loadedVersionMap.get(key);
+        return loadedVersion != null && loadedVersion.longValue() == ((UserBean<?>) value).getSessionVersion();
+    }
+
+    public boolean hasWritten() {
+        return !writtenMap.isEmpty();
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "attributeView:{loaded=" + loadedMap.keySet() + ", written=" + writtenMap.keySet() + "}";
+    }
+}
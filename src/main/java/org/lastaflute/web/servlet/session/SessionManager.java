@@ -40,6 +40,29 @@ public interface SessionManager extends ScopedAttributeHolder {
      */
     void regenerateSessionId();
 
+    // ===================================================================================
+    //                                                                      Attribute View
+    //                                                                      ==============
+    /**
+     * Begin the per-request view of session attributes if enabled and not begun yet.
+     * @return The determination, true if begun here (then you should finish it).
+     */
+    default boolean beginAttributeView() {
+        return false;
+    }
+
+    /**
+     * Flush the attributes written in the view to the session, e.g. before rendering.
+     */
+    default void flushAttributeView() {
+    }
+
+    /**
+     * Flush the written attributes and close the view, called at the end of action.
+     */
+    default void finishAttributeView() {
+    }
+
     // ===================================================================================
     //                                                                    Message Handling
     //                                                                    ================
@@ -21,7 +21,25 @@ package org.lastaflute.web.servlet.session;
 public interface SessionResourceProvider {
 
     /**
-     * @return The storage instance for session sharing. (NotNull)
+     * @return The storage instance for session sharing. (NullAllowed: if null, no sharing)
      */
     SessionSharedStorage provideSharedStorage();
+
+    /**
+     * Use the per-request view of session attributes in action processing? <br>
+     * Attributes are loaded at most once per request, and writes are flushed once before rendering (or at the end).
+     * @return The determination, true or false. (default: false)
+     */
+    default boolean isUseRequestAttributeView() {
+        return false;
+    }
+
+    /**
+     * Skip flushing the same user bean instance whose session version is not changed? (only when the view is used) <br>
+     * It needs the user bean to be versioned e.g. TypicalUserBean.
+     * @return The determination, true or false. (default: false)
+     */
+    default boolean isSkipUnchangedUserBeanFlush() {
+        return false;
+    }
 }
@@ -31,7 +31,6 @@ import javax.servlet.http.HttpSession;
 import org.dbflute.helper.message.ExceptionMessageBuilder;
 import org.dbflute.optional.OptionalThing;
 import org.lastaflute.core.direction.FwAssistantDirector;
-import org.lastaflute.core.direction.exception.FwRequiredAssistNotFoundException;
 import org.lastaflute.core.message.UserMessages;
 import org.lastaflute.web.LastaWebKey;
 import org.lastaflute.web.direction.FwWebDirection;
@@ -65,6 +64,12 @@ public class SimpleSessionManager implements SessionManager {
     /** The shared storage of session for session sharing. (NotNull, EmptyAllowed: when no storage) */
     protected OptionalThing<SessionSharedStorage> sessionSharedStorage = OptionalThing.empty(); // not null
 
+    /** Does it use the per-request view of session attributes in action processing? */
+    protected boolean useRequestAttributeView;
+
+    /** Does it skip flushing unchanged user bean? (only when the view is used) */
+    protected boolean skipUnchangedUserBeanFlush;
+
     protected ScopedMessageHandler errorsHandler; // lazy loaded
     protected ScopedMessageHandler infoHandler; // lazy loaded
 
@@ -80,17 +85,17 @@ public class SimpleSessionManager implements SessionManager {
         final FwWebDirection direction = assistWebDirection();
         final SessionResourceProvider provider = direction.assistSessionResourceProvider();
         sessionSharedStorage = prepareSessionSharedStorage(provider);
+        if (provider != null) {
+            useRequestAttributeView = provider.isUseRequestAttributeView();
+            skipUnchangedUserBeanFlush = provider.isSkipUnchangedUserBeanFlush();
+        }
         showBootLogging();
     }
 
     protected OptionalThing<SessionSharedStorage> prepareSessionSharedStorage(SessionResourceProvider provider) {
         SessionSharedStorage specifiedStorage = null;
         if (provider != null) {
-            specifiedStorage = provider.provideSharedStorage();
-            if (specifiedStorage == null) {
-                final String msg = "No assist for the shared storage of session.";
-                throw new FwRequiredAssistNotFoundException(msg);
-            }
+            specifiedStorage = provider.provideSharedStorage(); // null allowed e.g. only attribute view option
         }
         return OptionalThing.ofNullable(specifiedStorage, () -> {
             throw new IllegalStateException("Not found the session shared storage: " + provider);
@@ -105,6 +110,9 @@ public class SimpleSessionManager implements SessionManager {
         if (logger.isInfoEnabled()) {
             logger.info("[Session Manager]");
             logger.info(" sessionSharedStorage: " + sessionSharedStorage);
+            if (useRequestAttributeView) {
+                logger.info(" useRequestAttributeView: true (skipUnchangedUserBean=" + skipUnchangedUserBeanFlush + ")");
+            }
         }
     }
 
@@ -114,6 +122,22 @@ public class SimpleSessionManager implements SessionManager {
     @Override
     public <ATTRIBUTE> OptionalThing<ATTRIBUTE> getAttribute(String key, Class<ATTRIBUTE> attributeType) {
         assertArgumentNotNull("key", key);
+        final SessionAttributeView view = findAttributeView();
+        if (view != null) { // loaded at most once per request
+            if (!view.isResolved(key)) {
+                view.load(key, doGetAttribute(key, attributeType).orElse(null));
+            }
+            final Object resolved = view.resolve(key);
+            final ATTRIBUTE attribute = resolved != null ? castAttribute(key, resolved, attributeType) : null;
+            return OptionalThing.ofNullable(attribute, () -> {
+                final String msg = "Not found the session attribute by the string key: " + key + " in view=" + view;
+                throw new SessionAttributeNotFoundException(msg);
+            });
+        }
+        return doGetAttribute(key, attributeType);
+    }
+
+    protected <ATTRIBUTE> OptionalThing<ATTRIBUTE> doGetAttribute(String key, Class<ATTRIBUTE> attributeType) {
         final OptionalThing<ATTRIBUTE> foundShared = findAttributeInShareStorage(key, attributeType);
         if (foundShared.isPresent()) {
             return foundShared;
@@ -127,26 +151,7 @@ public class SimpleSessionManager implements SessionManager {
         }
         final ATTRIBUTE attribute;
         if (original != null) {
-            try {
-                attribute = attributeType.cast(original);
-            } catch (ClassCastException e) {
-                final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
-                br.addNotice("Cannot cast the session attribute");
-                br.addItem("Attribute Key");
-                br.addElement(key);
-                br.addItem("Specified Type");
-                br.addElement(attributeType + "@" + Integer.toHexString(attributeType.hashCode()));
-                br.addElement("loader: " + attributeType.getClassLoader());
-                br.addItem("Existing Attribute");
-                final Class<? extends Object> originType = original.getClass();
-                br.addElement(originType + "@" + Integer.toHexString(originType.hashCode()));
-                br.addElement("loader: " + originType.getClassLoader());
-                br.addElement("toString(): " + original.toString());
-                br.addItem("Attribute List");
-                br.addElement(getAttributeNameList());
-                final String msg = br.buildExceptionMessage();
-                throw new SessionAttributeCannotCastException(msg, e);
-            }
+            attribute = castAttribute(key, original, attributeType);
             reflectAttributeToSharedStorage(key, attribute);
         } else {
             attribute = null;
@@ -158,6 +163,29 @@ public class SimpleSessionManager implements SessionManager {
         });
     }
 
+    protected <ATTRIBUTE> ATTRIBUTE castAttribute(String key, Object original, Class<ATTRIBUTE> attributeType) {
+        try {
+            return attributeType.cast(original);
+        } catch (ClassCastException e) {
+            final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
+            br.addNotice("Cannot cast the session attribute");
+            br.addItem("Attribute Key");
+            br.addElement(key);
+            br.addItem("Specified Type");
+            br.addElement(attributeType + "@" + Integer.toHexString(attributeType.hashCode()));
+            br.addElement("loader: " + attributeType.getClassLoader());
+            br.addItem("Existing Attribute");
+            final Class<? extends Object> originType = original.getClass();
+            br.addElement(originType + "@" + Integer.toHexString(originType.hashCode()));
+            br.addElement("loader: " + originType.getClassLoader());
+            br.addElement("toString(): " + original.toString());
+            br.addItem("Attribute List");
+            br.addElement(getAttributeNameList());
+            final String msg = br.buildExceptionMessage();
+            throw new SessionAttributeCannotCastException(msg, e);
+        }
+    }
+
     protected <ATTRIBUTE> OptionalThing<ATTRIBUTE> findAttributeInShareStorage(String key, Class<ATTRIBUTE> attributeType) {
         final OptionalThing<ATTRIBUTE> found = sessionSharedStorage.flatMap(storage -> storage.getAttribute(key, attributeType));
         if (logger.isDebugEnabled() && found.isPresent()) {
@@ -175,21 +203,38 @@ public class SimpleSessionManager implements SessionManager {
 
     protected List<String> getAttributeNameList() {
         final HttpSession session = getSessionExisting();
-        if (session == null) {
-            return Collections.emptyList();
-        }
+        final List<String> sessionNameList = session != null ? extractSessionNameList(session) : Collections.emptyList();
+        return Collections.unmodifiableList(mergeAttributeViewNameList(sessionNameList));
+    }
+
+    protected List<String> extractSessionNameList(HttpSession session) {
         final Enumeration<String> attributeNames = session.getAttributeNames();
         final List<String> nameList = new ArrayList<String>();
         while (attributeNames.hasMoreElements()) {
             nameList.add((String) attributeNames.nextElement());
         }
-        return Collections.unmodifiableList(nameList);
+        return nameList;
+    }
+
+    protected List<String> mergeAttributeViewNameList(List<String> sessionNameList) {
+        final SessionAttributeView view = findAttributeView();
+        return view != null ? view.mergeNameList(sessionNameList) : sessionNameList; // with written (not flushed yet) attributes
     }
 
     @Override
     public void setAttribute(String key, Object value) {
         assertArgumentNotNull("key", key);
         assertArgumentNotNull("value", value);
+        final SessionAttributeView view = findAttributeView();
+        if (view != null) { // flushed later
+            getSessionOrCreated(); // session cookie should be sent before response committed
+            view.write(key, value);
+            return;
+        }
+        doSetAttribute(key, value);
+    }
+
+    protected void doSetAttribute(String key, Object value) {
         saveAttributeToSharedStorage(key, value);
         getSessionOrCreated().setAttribute(key, value);
     }
@@ -204,6 +249,15 @@ public class SimpleSessionManager implements SessionManager {
     @Override
     public void removeAttribute(String key) {
         assertArgumentNotNull("key", key);
+        final SessionAttributeView view = findAttributeView();
+        if (view != null) { // flushed later
+            view.remove(key);
+            return;
+        }
+        doRemoveAttribute(key);
+    }
+
+    protected void doRemoveAttribute(String key) {
         removeAttributeFromSharedStorage(key);
         final HttpSession session = getSessionExisting();
         if (session != null) {
@@ -219,10 +273,9 @@ public class SimpleSessionManager implements SessionManager {
     }
 
     protected Map<String, Object> extractSavedSessionMap(HttpSession session) {
-        final Enumeration<String> attributeNames = session.getAttributeNames();
+        final List<String> nameList = mergeAttributeViewNameList(extractSessionNameList(session));
         final Map<String, Object> savedSessionMap = new LinkedHashMap<String, Object>();
-        while (attributeNames.hasMoreElements()) { // save existing attributes temporarily
-            final String key = attributeNames.nextElement();
+        for (String key : nameList) { // save existing attributes temporarily
             getAttribute(key, Object.class).ifPresent(attribute -> {
                 savedSessionMap.put(key, attribute);
             }); // almost be present, but rare case handling just in case
@@ -291,6 +344,10 @@ public class SimpleSessionManager implements SessionManager {
 
     @Override
     public void invalidate() {
+        final SessionAttributeView view = findAttributeView();
+        if (view != null) { // written attributes are also invalidated
+            view.discard();
+        }
         invalidateSharedStorage();
         final HttpSession session = getSessionExisting();
         if (session != null) {
@@ -304,6 +361,7 @@ public class SimpleSessionManager implements SessionManager {
 
     @Override
     public void regenerateSessionId() {
+        flushAttributeView(); // to inherit written attributes
         final HttpSession session = getSessionExisting();
         if (session == null) {
             return;
@@ -315,6 +373,60 @@ public class SimpleSessionManager implements SessionManager {
         }
     }
 
+    // ===================================================================================
+    //                                                                      Attribute View
+    //                                                                      ==============
+    @Override
+    public boolean beginAttributeView() {
+        if (!useRequestAttributeView) {
+            return false;
+        }
+        final HttpServletRequest request = getRequest();
+        if (request == null || request.getAttribute(getAttributeViewKey()) != null) { // e.g. asynchronous, nested call
+            return false;
+        }
+        request.setAttribute(getAttributeViewKey(), createAttributeView());
+        return true;
+    }
+
+    protected SessionAttributeView createAttributeView() {
+        return new SessionAttributeView(skipUnchangedUserBeanFlush);
+    }
+
+    @Override
+    public void flushAttributeView() {
+        final SessionAttributeView view = findAttributeView();
+        if (view != null && view.hasWritten()) {
+            final int flushedCount = view.flush((key, value) -> doSetAttribute(key, value), key -> doRemoveAttribute(key));
+            logger.debug("...Flushing session attributes in view: flushed={}, {}", flushedCount, view);
+        }
+    }
+
+    @Override
+    public void finishAttributeView() {
+        final HttpServletRequest request = getRequest();
+        if (request == null) { // basically no way
+            return;
+        }
+        try {
+            flushAttributeView();
+        } finally {
+            request.removeAttribute(getAttributeViewKey());
+        }
+    }
+
+    protected SessionAttributeView findAttributeView() { // null allowed
+        if (!useRequestAttributeView) {
+            return null;
+        }
+        final HttpServletRequest request = getRequest(); // null allowed when e.g. asynchronous process
+        return request != null ? (SessionAttributeView) request.getAttribute(getAttributeViewKey()) : null;
+    }
+
+    protected String getAttributeViewKey() {
+        return LastaWebKey.SESSION_ATTRIBUTE_VIEW_KEY;
+    }
+
     // ===================================================================================
     //                                                                    Message Handling
     //                                                                    ================
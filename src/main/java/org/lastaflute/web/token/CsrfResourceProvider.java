@@ -15,6 +15,8 @@
  */
 package org.lastaflute.web.token;
 
+import java.util.List;
+
 /**
  * @author jflute
  * @since 0.4.0 (2015/06/23 Tuesday)
@@ -24,4 +26,30 @@ public interface CsrfResourceProvider {
     String provideTokenHeaderName();
 
     CsrfTokenGenerator provideTokenGenerator();
+
+    // -----------------------------------------------------
+    //                                       Stateless Token
+    //                                       ---------------
+    /**
+     * Provide the signing keys to use stateless token (HMAC-signed) instead of session-saved token. <br>
+     * The first key signs new tokens, and the others only verify tokens signed before key rotation.
+     * @return The list of signing keys. (NullAllowed: if null or empty, session-saved token as default)
+     */
+    default List<CsrfSigningKey> provideStatelessSigningKeyList() {
+        return null;
+    }
+
+    /**
+     * @return The expire seconds of stateless token. (NullAllowed: if null, default)
+     */
+    default Integer provideStatelessTokenExpireSeconds() {
+        return null;
+    }
+
+    /**
+     * @return The binder of stateless token to requester. (NullAllowed: if null, signed random nonce in cookie as double-submit)
+     */
+    default CsrfTokenBinder provideStatelessTokenBinder() {
+        return null;
+    }
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.token;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * The signing key of stateless CSRF token (HMAC-SHA256). <br>
+ * The key ID is embedded in tokens so that old keys can verify tokens issued before rotation.
+ * @author jflute
+ * @since 0.8.5 (2016/09/27 Tuesday)
+ */
+public class CsrfSigningKey {
+
+    // ===================================================================================
+    //                                                                          Definition
+    //                                                                          ==========
+    public static final String ALGORITHM = "HmacSHA256";
+    protected static final int MIN_SECRET_LENGTH = 16;
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final String keyId; // not null, embedded in token
+    protected final SecretKeySpec secretKey; // not null
+    protected final ThreadLocal<Mac> macLocal = ThreadLocal.withInitial(() -> createMac()); // Mac is not thread-safe
+
+    // ===================================================================================
+    //                                                                         Constructor
+    //                                                                         ===========
+    /**
+     * @param keyId The identity of the key embedded in tokens, alphanumeric recommended. (NotNull, NotEmpty, NotContainsDot)
+     * @param secret The secret bytes of HMAC, 16 bytes or more (32 bytes recommended). (NotNull)
+     */
+    public CsrfSigningKey(String keyId, byte[] secret) {
+        if (keyId == null || keyId.isEmpty()) {
+            throw new IllegalArgumentException("The argument 'keyId' should not be null or empty: " + keyId);
+        }
+        if (keyId.contains(".")) { // used as delimiter in token
+            throw new IllegalArgumentException("The argument 'keyId' should not contain dot: " + keyId);
+        }
+        if (secret == null || secret.length < MIN_SECRET_LENGTH) {
+            String lengthExp = secret != null ? String.valueOf(secret.length) : null;
+            throw new IllegalArgumentException("The secret should be " + MIN_SECRET_LENGTH + " bytes or more: length=" + lengthExp);
+        }
+        this.keyId = keyId;
+        this.secretKey = new SecretKeySpec(secret, ALGORITHM); // copied in spec
+        createMac(); // fail fast if unsupported or invalid key
+    }
+
+    // ===================================================================================
+    //                                                                                Sign
+    //                                                                                ====
+    /**
+     * @param message The message to be signed. (NotNull)
+     * @return The signature bytes. (NotNull)
+     */
+    public byte[] sign(String message) {
+        final Mac mac = macLocal.get(); // reused in the thread, reset by doFinal()
+        return mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    protected Mac createMac() {
+        try {
+            final Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to prepare the MAC for CSRF token: keyId=" + keyId, e);
+        }
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    @Override
+    public String toString() {
+        return "signingKey:{" + keyId + ", " + ALGORITHM + "}"; // without secret
+    }
+
+    // ===================================================================================
+    //                                                                            Accessor
+    //                                                                            ========
+    public String getKeyId() {
+        return keyId;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.token;
+
+import org.lastaflute.web.servlet.request.RequestManager;
+
+/**
+ * The binder of stateless CSRF token to the requester, e.g. session ID, user ID. <br>
+ * The binding is signed in the token (not embedded), so the token cannot be used by other requesters.
+ * @author jflute
+ * @since 0.8.5 (2016/09/27 Tuesday)
+ */
+@FunctionalInterface
+public interface CsrfTokenBinder {
+
+    /**
+     * @param requestManager The manager of request to find the requester. (NotNull)
+     * @return The binding expression of the requester. (NotNull, EmptyAllowed: means not bound e.g. anonymous)
+     */
+    String bind(RequestManager requestManager);
+}
@@ -15,11 +15,20 @@
  */
 package org.lastaflute.web.token;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
 import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
+import javax.servlet.http.Cookie;
 
 import org.dbflute.helper.message.ExceptionMessageBuilder;
 import org.lastaflute.core.direction.FwAssistantDirector;
+import org.lastaflute.core.time.TimeManager;
 import org.lastaflute.di.util.UUID;
 import org.lastaflute.web.LastaWebKey;
 import org.lastaflute.web.direction.FwWebDirection;
@@ -41,6 +50,10 @@ public class SimpleCsrfManager implements CsrfManager {
     //                                                                          ==========
     private static final Logger logger = LoggerFactory.getLogger(SimpleCsrfManager.class);
     protected static final String DEFAULT_TOKEN_HEADER = "X-CSRF-TOKEN";
+    protected static final int DEFAULT_STATELESS_EXPIRE_SECONDS = 60 * 60 * 2; // two hours
+    protected static final String STATELESS_DELIMITER = ".";
+    protected static final String NONCE_COOKIE_NAME = "LACSN"; // for default binder of stateless token
+    protected static final int NONCE_BYTES = 16;
 
     // ===================================================================================
     //                                                                           Attribute
@@ -58,12 +71,27 @@ public class SimpleCsrfManager implements CsrfManager {
     @Resource
     protected SessionManager sessionManager;
 
+    @Resource
+    protected TimeManager timeManager;
+
     /** The header name of CSRF token on request and response. (NotNull, Changeable) */
     protected String tokenHeaderName = DEFAULT_TOKEN_HEADER;
 
     /** The generator of CSRF token. (NotNull: after initialization) */
     protected CsrfTokenGenerator tokenGenerator;
 
+    /** The list of signing keys for stateless token, first key signs. (NotNull, EmptyAllowed: means session-saved token) */
+    protected volatile List<CsrfSigningKey> signingKeyList = Collections.emptyList();
+
+    /** The expire seconds of stateless token. (NotMinus, Changeable) */
+    protected int statelessExpireSeconds = DEFAULT_STATELESS_EXPIRE_SECONDS;
+
+    /** The binder of stateless token to requester. (NotNull: after initialization) */
+    protected CsrfTokenBinder tokenBinder;
+
+    /** The random generator of cookie nonce for default binder. (NotNull) */
+    protected final SecureRandom nonceRandom = new SecureRandom();
+
     // ===================================================================================
     //                                                                          Initialize
     //                                                                          ==========
@@ -80,10 +108,14 @@ public class SimpleCsrfManager implements CsrfManager {
             if (providedGenerator != null) {
                 tokenGenerator = providedGenerator;
             }
+            prepareStatelessToken(resourceProvider);
         }
         if (tokenGenerator == null) {
             tokenGenerator = createDefaultTokenGenerator();
         }
+        if (tokenBinder == null) {
+            tokenBinder = createDefaultTokenBinder();
+        }
         showBootLogging();
     }
 
@@ -95,11 +127,50 @@ public class SimpleCsrfManager implements CsrfManager {
         return () -> UUID.create();
     }
 
+    protected void prepareStatelessToken(CsrfResourceProvider resourceProvider) {
+        final List<CsrfSigningKey> providedKeyList = resourceProvider.provideStatelessSigningKeyList();
+        if (providedKeyList != null) {
+            signingKeyList = Collections.unmodifiableList(providedKeyList);
+        }
+        final Integer providedExpireSeconds = resourceProvider.provideStatelessTokenExpireSeconds();
+        if (providedExpireSeconds != null) {
+            if (providedExpireSeconds <= 0) {
+                throw new IllegalStateException("The expire seconds of stateless token should be positive: " + providedExpireSeconds);
+            }
+            statelessExpireSeconds = providedExpireSeconds;
+        }
+        final CsrfTokenBinder providedBinder = resourceProvider.provideStatelessTokenBinder();
+        if (providedBinder != null) {
+            tokenBinder = providedBinder;
+        }
+    }
+
+    protected CsrfTokenBinder createDefaultTokenBinder() {
+        return requestManager -> bindCookieNonce(); // not to create session for e.g. anonymous pages
+    }
+
     protected void showBootLogging() {
         if (logger.isInfoEnabled()) {
             logger.info("[Csrf Manager]");
             logger.info(" tokenHeaderName: " + tokenHeaderName);
             logger.info(" tokenGenerator: " + tokenGenerator);
+            if (isStatelessToken()) {
+                logger.info(" signingKeyList: " + signingKeyList);
+                logger.info(" statelessExpireSeconds: " + statelessExpireSeconds);
+            }
+        }
+    }
+
+    /**
+     * Reload signing keys from the resource provider, e.g. after key rotation. <br>
+     * Tokens signed by removed keys are invalid after reloading.
+     */
+    public synchronized void reloadSigningKeys() {
+        final CsrfResourceProvider resourceProvider = assistWebDirection().assistCsrfResourceProvider();
+        if (resourceProvider != null) {
+            final List<CsrfSigningKey> providedKeyList = resourceProvider.provideStatelessSigningKeyList();
+            signingKeyList = providedKeyList != null ? Collections.unmodifiableList(providedKeyList) : Collections.emptyList();
+            logger.info("...Reloading CSRF signing keys: {}", signingKeyList);
         }
     }
 
@@ -108,6 +179,10 @@ public class SimpleCsrfManager implements CsrfManager {
     //                                                                      ==============
     @Override
     public void beginToken() {
+        if (isStatelessToken()) { // no session
+            responseManager.addHeader(getTokenHeaderName(), generateStatelessToken());
+            return;
+        }
         final String token = generateToken();
         responseManager.addHeader(getTokenHeaderName(), token);
         sessionManager.setAttribute(LastaWebKey.CSRF_TOKEN_KEY, token);
@@ -123,6 +198,14 @@ public class SimpleCsrfManager implements CsrfManager {
 
     @Override
     public void verifyToken() {
+        if (isStatelessToken()) { // no session
+            requestManager.getHeader(getTokenHeaderName()).ifPresent(headerToken -> {
+                verifyStatelessToken(headerToken);
+            }).orElse(() -> {
+                throwCsrfHeaderNotFoundException();
+            });
+            return;
+        }
         requestManager.getHeader(getTokenHeaderName()).ifPresent(headerToken -> {
             sessionManager.getAttribute(LastaWebKey.CSRF_TOKEN_KEY, String.class).ifPresent(savedToken -> {
                 if (!headerToken.equals(savedToken)) {
@@ -140,6 +223,154 @@ public class SimpleCsrfManager implements CsrfManager {
         return tokenHeaderName;
     }
 
+    // ===================================================================================
+    //                                                                     Stateless Token
+    //                                                                     ===============
+    // token format: [keyId].[expire epoch seconds].[signature as base64url]
+    // signature: HMAC of [keyId].[expire epoch seconds].[binding]
+    protected boolean isStatelessToken() {
+        return !signingKeyList.isEmpty();
+    }
+
+    protected String generateStatelessToken() {
+        final CsrfSigningKey signingKey = signingKeyList.get(0); // current key
+        final long expireSeconds = currentMillis() / 1000L + statelessExpireSeconds;
+        final String payload = signingKey.getKeyId() + STATELESS_DELIMITER + expireSeconds;
+        final byte[] signature = signingKey.sign(buildSignedMessage(payload, bindRequester()));
+        return payload + STATELESS_DELIMITER + Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    protected void verifyStatelessToken(String headerToken) {
+        final int firstDelimiter = headerToken.indexOf(STATELESS_DELIMITER);
+        final int lastDelimiter = headerToken.lastIndexOf(STATELESS_DELIMITER);
+        if (firstDelimiter <= 0 || lastDelimiter <= firstDelimiter + 1 || lastDelimiter == headerToken.length() - 1) {
+            throwCsrfStatelessTokenInvalidException(headerToken, "Broken format of the token.");
+        }
+        final String keyId = headerToken.substring(0, firstDelimiter);
+        final CsrfSigningKey signingKey = findSigningKey(keyId);
+        if (signingKey == null) { // e.g. removed by rotation
+            throwCsrfStatelessTokenInvalidException(headerToken, "Unknown signing key: " + keyId);
+        }
+        final long expireSeconds = parseExpireSeconds(headerToken.substring(firstDelimiter + 1, lastDelimiter));
+        if (expireSeconds < 0) {
+            throwCsrfStatelessTokenInvalidException(headerToken, "Broken expire time of the token.");
+        }
+        final String payload = headerToken.substring(0, lastDelimiter);
+        final byte[] expected = signingKey.sign(buildSignedMessage(payload, bindRequester()));
+        final byte[] actual = headerToken.substring(lastDelimiter + 1).getBytes(StandardCharsets.US_ASCII);
+        final byte[] expectedBytes = Base64.getUrlEncoder().withoutPadding().encode(expected);
+        if (!MessageDigest.isEqual(expectedBytes, actual)) { // constant-time compare
+            throwCsrfStatelessTokenInvalidException(headerToken, "Not match the signature, forged or other requester's token.");
+        }
+        if (currentMillis() / 1000L > expireSeconds) { // after signature check not to tell it for forged token
+            throwCsrfStatelessTokenInvalidException(headerToken, "The token has been expired.");
+        }
+    }
+
+    protected CsrfSigningKey findSigningKey(String keyId) {
+        for (CsrfSigningKey signingKey : signingKeyList) { // basically a few keys
+            if (signingKey.getKeyId().equals(keyId)) {
+                return signingKey;
+            }
+        }
+        return null;
+    }
+
+    protected long parseExpireSeconds(String exp) { // without exception for broken token
+        if (exp.isEmpty() || exp.length() > 18) { // overflow
+            return -1L;
+        }
+        long result = 0;
+        for (int i = 0; i < exp.length(); i++) {
+            final char ch = exp.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return -1L;
+            }
+            result = result * 10 + (ch - '0');
+        }
+        return result;
+    }
+
+    protected String buildSignedMessage(String payload, String binding) {
+        return payload + STATELESS_DELIMITER + binding;
+    }
+
+    protected String bindRequester() {
+        final String binding = tokenBinder.bind(requestManager);
+        if (binding == null) {
+            throw new IllegalStateException("Returned null from token binder: " + tokenBinder);
+        }
+        return binding;
+    }
+
+    protected long currentMillis() {
+        return timeManager.currentMillis();
+    }
+
+    // -----------------------------------------------------
+    //                                          Cookie Nonce
+    //                                          ------------
+    // cookie format: [keyId].[nonce as base64url].[signature as base64url]
+    // signature: HMAC of [keyId].[nonce], so the nonce cannot be forged without the key
+    protected String bindCookieNonce() {
+        final String existing = requestManager.getAttribute(LastaWebKey.CSRF_NONCE_KEY, String.class).orElse(null);
+        if (existing != null) { // e.g. verified and begun in the same request
+            return existing;
+        }
+        final String cookieValue = findNonceCookieValue(); // null allowed
+        String nonce = cookieValue != null ? extractVerifiedNonce(cookieValue) : null;
+        if (nonce == null) { // first access or forged, then verification fails by the new nonce (fail closed)
+            nonce = generateNonce();
+            saveNonceCookie(buildNonceCookieValue(nonce));
+        }
+        requestManager.setAttribute(LastaWebKey.CSRF_NONCE_KEY, nonce);
+        return nonce;
+    }
+
+    protected String generateNonce() {
+        final byte[] bytes = new byte[NONCE_BYTES];
+        nonceRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    protected String buildNonceCookieValue(String nonce) {
+        final CsrfSigningKey signingKey = signingKeyList.get(0); // current key
+        final String payload = signingKey.getKeyId() + STATELESS_DELIMITER + nonce;
+        return payload + STATELESS_DELIMITER + Base64.getUrlEncoder().withoutPadding().encodeToString(signingKey.sign(payload));
+    }
+
+    protected String extractVerifiedNonce(String cookieValue) { // null if invalid
+        final int firstDelimiter = cookieValue.indexOf(STATELESS_DELIMITER);
+        final int lastDelimiter = cookieValue.lastIndexOf(STATELESS_DELIMITER);
+        if (firstDelimiter <= 0 || lastDelimiter <= firstDelimiter + 1 || lastDelimiter == cookieValue.length() - 1) {
+            return null;
+        }
+        final CsrfSigningKey signingKey = findSigningKey(cookieValue.substring(0, firstDelimiter));
+        if (signingKey == null) { // e.g. removed by rotation
+            return null;
+        }
+        final String payload = cookieValue.substring(0, lastDelimiter);
+        final byte[] expectedBytes = Base64.getUrlEncoder().withoutPadding().encode(signingKey.sign(payload));
+        final byte[] actual = cookieValue.substring(lastDelimiter + 1).getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expectedBytes, actual)) { // constant-time compare
+            return null;
+        }
+        return cookieValue.substring(firstDelimiter + 1, lastDelimiter);
+    }
+
+    protected String findNonceCookieValue() {
+        return requestManager.getCookieManager().getCookie(NONCE_COOKIE_NAME).map(cookie -> cookie.getValue()).orElse(null);
+    }
+
+    protected void saveNonceCookie(String cookieValue) {
+        final Cookie cookie = new Cookie(NONCE_COOKIE_NAME, cookieValue);
+        final String contextPath = requestManager.getContextPath();
+        cookie.setPath(!contextPath.isEmpty() ? contextPath : "/");
+        cookie.setHttpOnly(true); // only for binding, the token is sent by header
+        cookie.setSecure(requestManager.getRequest().isSecure());
+        requestManager.getCookieManager().setCookieDirectly(cookie);
+    }
+
     protected void throwCsrfHeaderSavedTokenNotMatchedException(String headerToken, String savedToken) {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
         br.addNotice("Forbidden request as Cross Site Request Forgeries.");
@@ -155,6 +386,20 @@ public class SimpleCsrfManager implements CsrfManager {
         throw new CrossSiteRequestForgeriesForbiddenException(msg);
     }
 
+    protected void throwCsrfStatelessTokenInvalidException(String headerToken, String reason) {
+        final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
+        br.addNotice("Forbidden request as Cross Site Request Forgeries.");
+        br.addItem("Advice");
+        br.addElement("Invalid stateless CSRF token in the header.");
+        br.addElement(reason);
+        br.addItem("Request Path");
+        br.addElement(requestManager.getRequestPathAndQuery());
+        br.addItem("Header Token");
+        br.addElement(headerToken);
+        final String msg = br.buildExceptionMessage();
+        throw new CrossSiteRequestForgeriesForbiddenException(msg);
+    }
+
     protected void throwCsrfHeaderNotFoundException() {
         final ExceptionMessageBuilder br = new ExceptionMessageBuilder();
         br.addNotice("Forbidden request as Cross Site Request Forgeries.");
@@ -67,6 +67,8 @@ import org.lastaflute.web.api.ApiFailureResource;
 import org.lastaflute.web.response.ApiResponse;
 import org.lastaflute.web.ruts.message.MessagesCreator;
 import org.lastaflute.web.ruts.process.ActionRuntime;
+import org.lastaflute.web.ruts.process.profile.ActionPhase;
+import org.lastaflute.web.ruts.process.profile.ActionRequestProfile;
 import org.lastaflute.web.servlet.request.RequestManager;
 import org.lastaflute.web.util.LaActionRuntimeUtil;
 import org.lastaflute.web.validation.exception.ClientErrorByValidatorException;
@@ -223,7 +225,17 @@ public class ActionValidator<MESSAGES extends UserMessages> {
 
     protected ValidationSuccess doValidate(Object form, VaMore<MESSAGES> moreValidationLambda, VaErrorHook validationErrorLambda) {
         verifyFormType(form);
-        return actuallyValidate(wrapAsValidIfNeeds(form), moreValidationLambda, validationErrorLambda);
+        final OptionalThing<ActionRequestProfile> profile = findRequestProfile();
+        profile.ifPresent(pro -> pro.start(ActionPhase.VALIDATION));
+        try {
+            return actuallyValidate(wrapAsValidIfNeeds(form), moreValidationLambda, validationErrorLambda);
+        } finally {
+            profile.ifPresent(pro -> pro.stop(ActionPhase.VALIDATION));
+        }
+    }
+
+    protected OptionalThing<ActionRequestProfile> findRequestProfile() { // empty if e.g. profiling disabled
+        return LaActionRuntimeUtil.hasActionRuntime() ? getActionRuntime().getRequestProfile() : OptionalThing.empty();
     }
 
     protected Object wrapAsValidIfNeeds(Object form) {
@@ -274,7 +286,8 @@ public class ActionValidator<MESSAGES extends UserMessages> {
     }
 
     protected ValidationSuccess createValidationSuccess(MESSAGES messages) {
-        return new ValidationSuccess(messages);
+        // success only needs attributes so shared empty instance if no attribute (not to keep validation messages)
+        return new ValidationSuccess(messages.hasSuccessAttribute() ? messages : UserMessages.empty());
     }
 
     // ===================================================================================
@@ -355,6 +368,9 @@ public class ActionValidator<MESSAGES extends UserMessages> {
     //                                                                       User Messages
     //                                                                       =============
     protected MESSAGES toUserMessages(Object form, Set<ConstraintViolation<Object>> vioSet) {
+        if (vioSet.isEmpty()) { // mainly here, no need to order
+            return prepareActionMessages();
+        }
         final TreeMap<String, Object> orderedMap = prepareOrderedMap(form, vioSet);
         final MESSAGES messages = prepareActionMessages();
         for (Entry<String, Object> entry : orderedMap.entrySet()) {
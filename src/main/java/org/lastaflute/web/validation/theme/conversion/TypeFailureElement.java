@@ -15,6 +15,8 @@
  */
 package org.lastaflute.web.validation.theme.conversion;
 
+import java.util.function.Supplier;
+
 /**
  * @author jflute
  * @since 0.6.5 (2015/11/04 Wednesday)
@@ -26,16 +28,24 @@ public class TypeFailureElement {
     protected final Class<?> propertyType;
     protected final Object failureValue;
     protected final ValidateTypeFailure annotation;
-    protected final RuntimeException cause;
+    protected final Class<? extends RuntimeException> causeType;
+    protected final Supplier<? extends RuntimeException> causeProvider; // cause is created lazily
     protected final TypeFailureBadRequestThrower badRequestThrower;
 
     public TypeFailureElement(String propertyPath, Class<?> propertyType, Object failureValue, ValidateTypeFailure annotation,
             RuntimeException cause, TypeFailureBadRequestThrower badRequestThrower) {
+        this(propertyPath, propertyType, failureValue, annotation, cause != null ? cause.getClass() : null, () -> cause, badRequestThrower);
+    }
+
+    public TypeFailureElement(String propertyPath, Class<?> propertyType, Object failureValue, ValidateTypeFailure annotation,
+            Class<? extends RuntimeException> causeType, Supplier<? extends RuntimeException> causeProvider,
+            TypeFailureBadRequestThrower badRequestThrower) {
         this.propertyPath = propertyPath;
         this.propertyType = propertyType;
         this.failureValue = failureValue;
         this.annotation = annotation;
-        this.cause = cause;
+        this.causeType = causeType;
+        this.causeProvider = causeProvider;
         this.badRequestThrower = badRequestThrower;
     }
 
@@ -46,7 +56,7 @@ public class TypeFailureElement {
 
     @Override
     public String toString() {
-        String causeExp = cause != null ? cause.getClass().getSimpleName() : null; // just in case
+        String causeExp = causeType != null ? causeType.getSimpleName() : null; // just in case
         return "failureElement:{" + propertyPath + ", " + failureValue + ", " + annotation + ", " + causeExp + "}";
     }
 
@@ -66,8 +76,12 @@ public class TypeFailureElement {
         return annotation;
     }
 
-    public RuntimeException getCause() {
-        return cause;
+    public Class<? extends RuntimeException> getCauseType() {
+        return causeType;
+    }
+
+    public RuntimeException getCause() { // may be created here
+        return causeProvider.get();
     }
 
     public TypeFailureBadRequestThrower getBadRequestThrower() {
@@ -15,7 +15,11 @@
  */
 package org.lastaflute.web.validation.theme.typed;
 
+import java.math.BigInteger;
+
 import org.dbflute.util.DfTypeUtil;
+import org.lastaflute.core.util.LaTypeConversionUtil;
+import org.lastaflute.core.util.LaTypeConversionUtil.ConversionResult;
 
 /**
  * @author jflute
@@ -23,6 +27,11 @@ import org.dbflute.util.DfTypeUtil;
  */
 public class BigIntegerTypeValidator extends NumberTypeValidator<TypeBigInteger> {
 
+    @Override
+    protected ConversionResult<BigInteger> tryNumberValueOf(String value) {
+        return LaTypeConversionUtil.tryBigInteger(value);
+    }
+
     @Override
     protected void numberValueOf(String value) throws NumberFormatException {
         DfTypeUtil.toBigInteger(value);
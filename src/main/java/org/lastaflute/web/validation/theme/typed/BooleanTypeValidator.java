@@ -18,8 +18,7 @@ package org.lastaflute.web.validation.theme.typed;
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
-import org.dbflute.util.DfTypeUtil;
-import org.dbflute.util.DfTypeUtil.ParseBooleanException;
+import org.lastaflute.core.util.LaTypeConversionUtil;
 
 /**
  * @author jflute
@@ -38,12 +37,7 @@ public abstract class BooleanTypeValidator implements ConstraintValidator<TypeBo
 
     protected boolean determineValid(String value) {
         if (value != null && !value.isEmpty()) {
-            try {
-                DfTypeUtil.toBoolean(value);
-                return true;
-            } catch (ParseBooleanException ignored) {
-                return false;
-            }
+            return LaTypeConversionUtil.tryBoolean(value).isSuccess(); // no exception for definitely-invalid value
         } else {
             return true;
         }
@@ -21,6 +21,7 @@ import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
 import org.dbflute.util.DfTypeUtil.ParseDateException;
+import org.lastaflute.core.util.LaTypeConversionUtil.ConversionResult;
 
 /**
  * @param <DATE> The type of date annotation.
@@ -40,16 +41,20 @@ public abstract class DateTypeValidator<DATE extends Annotation> implements Cons
 
     protected boolean determineValid(String value) {
         if (value != null && !value.isEmpty()) {
-            try {
-                dateValueOf(value);
-                return true;
-            } catch (ParseDateException ignored) {
-                return false;
-            }
+            return tryDateValueOf(value).isSuccess(); // no exception for definitely-invalid value
         } else {
             return true;
         }
     }
 
+    protected ConversionResult<?> tryDateValueOf(String value) { // overridden by embedded types
+        try {
+            dateValueOf(value);
+            return ConversionResult.success(null); // value is not used
+        } catch (ParseDateException e) {
+            return ConversionResult.failure(e.getClass(), () -> e);
+        }
+    }
+
     protected abstract void dateValueOf(String value) throws ParseDateException;
 }
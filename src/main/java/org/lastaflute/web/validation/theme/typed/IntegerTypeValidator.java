@@ -16,6 +16,8 @@
 package org.lastaflute.web.validation.theme.typed;
 
 import org.dbflute.util.DfTypeUtil;
+import org.lastaflute.core.util.LaTypeConversionUtil;
+import org.lastaflute.core.util.LaTypeConversionUtil.ConversionResult;
 
 /**
  * @author jflute
@@ -23,6 +25,11 @@ import org.dbflute.util.DfTypeUtil;
  */
 public class IntegerTypeValidator extends NumberTypeValidator<TypeInteger> {
 
+    @Override
+    protected ConversionResult<Integer> tryNumberValueOf(String value) {
+        return LaTypeConversionUtil.tryInteger(value);
+    }
+
     @Override
     protected void numberValueOf(String value) throws NumberFormatException {
         DfTypeUtil.toInteger(value);
@@ -15,8 +15,12 @@
  */
 package org.lastaflute.web.validation.theme.typed;
 
+import java.time.LocalDate;
+
 import org.dbflute.util.DfTypeUtil;
 import org.dbflute.util.DfTypeUtil.ParseDateException;
+import org.lastaflute.core.util.LaTypeConversionUtil;
+import org.lastaflute.core.util.LaTypeConversionUtil.ConversionResult;
 
 /**
  * @author jflute
@@ -24,6 +28,11 @@ import org.dbflute.util.DfTypeUtil.ParseDateException;
  */
 public class LocalDateTypeValidator extends DateTypeValidator<TypeLocalDate> {
 
+    @Override
+    protected ConversionResult<LocalDate> tryDateValueOf(String value) {
+        return LaTypeConversionUtil.tryLocalDate(value);
+    }
+
     @Override
     protected void dateValueOf(String value) throws ParseDateException {
         DfTypeUtil.toLocalDate(value);
@@ -15,8 +15,12 @@
  */
 package org.lastaflute.web.validation.theme.typed;
 
+import java.time.LocalTime;
+
 import org.dbflute.util.DfTypeUtil;
 import org.dbflute.util.DfTypeUtil.ParseDateException;
+import org.lastaflute.core.util.LaTypeConversionUtil;
+import org.lastaflute.core.util.LaTypeConversionUtil.ConversionResult;
 
 /**
  * @author jflute
@@ -24,6 +28,11 @@ import org.dbflute.util.DfTypeUtil.ParseDateException;
  */
 public class LocalTimeTypeValidator extends DateTypeValidator<TypeLocalTime> {
 
+    @Override
+    protected ConversionResult<LocalTime> tryDateValueOf(String value) {
+        return LaTypeConversionUtil.tryLocalTime(value);
+    }
+
     @Override
     protected void dateValueOf(String value) throws ParseDateException {
         DfTypeUtil.toLocalTime(value);
@@ -20,6 +20,8 @@ import java.lang.annotation.Annotation;
 import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
+import org.lastaflute.core.util.LaTypeConversionUtil.ConversionResult;
+
 /**
  * @param <NUMBER> The type of number annotation.
  * @author jflute
@@ -38,16 +40,20 @@ public abstract class NumberTypeValidator<NUMBER extends Annotation> implements
 
     protected boolean determineValid(String value) {
         if (value != null && !value.isEmpty()) {
-            try {
-                numberValueOf(value);
-                return true;
-            } catch (NumberFormatException ignored) {
-                return false;
-            }
+            return tryNumberValueOf(value).isSuccess(); // no exception for invalid value
         } else {
             return true;
         }
     }
 
+    protected ConversionResult<? extends Number> tryNumberValueOf(String value) { // overridden by embedded types
+        try {
+            numberValueOf(value);
+            return ConversionResult.success(null); // value is not used
+        } catch (NumberFormatException e) {
+            return ConversionResult.failure(e.getClass(), () -> e);
+        }
+    }
+
     protected abstract void numberValueOf(String value) throws NumberFormatException;
 }
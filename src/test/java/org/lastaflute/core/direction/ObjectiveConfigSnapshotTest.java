@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.direction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.dbflute.helper.jprop.ObjectiveProperties;
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.core.direction.exception.ConfigPropertyNotFoundException;
+
+/**
+ * @author jflute
+ */
+public class ObjectiveConfigSnapshotTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                     Property Filter
+    //                                                                     ===============
+    public void test_get_filterOutputFrozen() {
+        // ## Arrange ##
+        AtomicInteger filterCount = new AtomicInteger();
+        PropertyFilter filter = (key, value) -> value + "-" + filterCount.incrementAndGet(); // changing output
+        ObjectiveConfigSnapshot snapshot = new ObjectiveConfigSnapshot(new MockProperties(filter).put("sea", "mystic"));
+
+        // ## Act ##
+        String first = snapshot.get("sea");
+        String second = snapshot.get("sea");
+
+        // ## Assert ##
+        assertEquals("mystic-1", first);
+        assertEquals("mystic-1", second); // frozen in the snapshot (called every time before)
+        assertEquals(1, filterCount.get());
+    }
+
+    public void test_get_filterCalledAgainByNewSnapshot() {
+        // ## Arrange ##
+        AtomicInteger filterCount = new AtomicInteger();
+        PropertyFilter filter = (key, value) -> value + "-" + filterCount.incrementAndGet();
+        MockProperties prop = new MockProperties(filter).put("sea", "mystic");
+        ObjectiveConfigSnapshot oldSnapshot = new ObjectiveConfigSnapshot(prop);
+        oldSnapshot.get("sea");
+
+        // ## Act ##
+        ObjectiveConfigSnapshot newSnapshot = new ObjectiveConfigSnapshot(prop); // e.g. reloaded by HotDeploy
+
+        // ## Assert ##
+        assertEquals("mystic-2", newSnapshot.get("sea"));
+        assertEquals("mystic-1", oldSnapshot.get("sea"));
+        assertEquals(2, filterCount.get());
+    }
+
+    public void test_get_filterCalledPerKey() {
+        // ## Arrange ##
+        AtomicInteger filterCount = new AtomicInteger();
+        PropertyFilter filter = (key, value) -> {
+            filterCount.incrementAndGet();
+            return value.toUpperCase();
+        };
+        MockProperties prop = new MockProperties(filter).put("sea", "mystic").put("land", "oneman");
+        ObjectiveConfigSnapshot snapshot = new ObjectiveConfigSnapshot(prop);
+
+        // ## Act ##
+        snapshot.get("sea");
+        snapshot.get("land");
+        snapshot.get("sea");
+
+        // ## Assert ##
+        assertEquals("MYSTIC", snapshot.get("sea"));
+        assertEquals("ONEMAN", snapshot.get("land"));
+        assertEquals(2, filterCount.get());
+    }
+
+    // ===================================================================================
+    //                                                                          Type Parse
+    //                                                                          ==========
+    public void test_getAsInteger_parsedOnce() {
+        // ## Arrange ##
+        AtomicInteger filterCount = new AtomicInteger();
+        PropertyFilter filter = (key, value) -> {
+            filterCount.incrementAndGet();
+            return value;
+        };
+        ObjectiveConfigSnapshot snapshot = new ObjectiveConfigSnapshot(new MockProperties(filter).put("sea", "7"));
+
+        // ## Act ##
+        Integer first = snapshot.getAsInteger("sea");
+        Integer second = snapshot.getAsInteger("sea");
+
+        // ## Assert ##
+        assertEquals(Integer.valueOf(7), first);
+        assertSame(first, second);
+        assertEquals(1, filterCount.get());
+        assertEquals("7", snapshot.get("sea")); // cached per type
+        assertEquals(2, filterCount.get());
+    }
+
+    public void test_get_notFound_notCached() {
+        // ## Arrange ##
+        ObjectiveConfigSnapshot snapshot = new ObjectiveConfigSnapshot(new MockProperties((key, value) -> value));
+
+        // ## Act ##
+        // ## Assert ##
+        for (int i = 0; i < 2; i++) {
+            try {
+                snapshot.get("sea");
+                fail();
+            } catch (ConfigPropertyNotFoundException e) {
+                log(e.getMessage());
+            }
+        }
+    }
+
+    // ===================================================================================
+    //                                                                     Mock Properties
+    //                                                                     ===============
+    protected static class MockProperties extends ObjectiveProperties {
+
+        protected final PropertyFilter filter;
+        protected final Map<String, String> valueMap = new LinkedHashMap<String, String>();
+
+        public MockProperties(PropertyFilter filter) {
+            super("mock_config.properties");
+            this.filter = filter;
+        }
+
+        public MockProperties put(String key, String value) {
+            valueMap.put(key, value);
+            return this;
+        }
+
+        @Override
+        public String get(String propertyKey) { // same as ObjectiveConfig's properties without loading
+            final String value = valueMap.get(propertyKey);
+            if (value == null) {
+                throw new ConfigPropertyNotFoundException("Not found the configuration property by the key: " + propertyKey);
+            }
+            return filter.filter(propertyKey, value);
+        }
+    }
+}
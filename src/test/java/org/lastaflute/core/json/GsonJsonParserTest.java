@@ -26,8 +26,11 @@ import org.dbflute.utflute.core.cannonball.CannonballCar;
 import org.dbflute.utflute.core.cannonball.CannonballOption;
 import org.dbflute.utflute.core.cannonball.CannonballRun;
 import org.lastaflute.core.json.exception.JsonPropertyNumberParseFailureException;
+import org.lastaflute.di.helper.misc.ParameterizedRef;
 import org.lastaflute.unit.mock.db.MockCDef;
 
+import com.google.gson.JsonIOException;
+
 /**
  * @author jflute
  */
@@ -538,6 +541,56 @@ public class GsonJsonParserTest extends PlainTestCase {
         assertContains(json, "\"stringList\":[\"over\",\"mystic\"]");
     }
 
+    // ===================================================================================
+    //                                                                       Parameterized
+    //                                                                       =============
+    public void test_fromJsonParameteried_list_basic() throws Exception {
+        // ## Arrange ##
+        GsonJsonParser parser = new GsonJsonParser(builder -> {} , op -> {});
+        String json = "[{id:1,name:\"sea\"},{id:2,name:\"land\"}]";
+
+        // ## Act ##
+        List<MockUser> userList = parser.fromJsonParameteried(json, new ParameterizedRef<List<MockUser>>() {
+        }.getType());
+        List<MockUser> againList = parser.fromJsonParameteried(json, new ParameterizedRef<List<MockUser>>() {
+        }.getType()); // uses cached adapter
+
+        // ## Assert ##
+        log(userList);
+        assertEquals(2, userList.size());
+        assertEquals("sea", userList.get(0).name);
+        assertEquals("land", againList.get(1).name);
+        assertEquals(1, parser.parameterizedAdapterMap.size());
+    }
+
+    public void test_fromJsonParameteried_list_empty() throws Exception {
+        // ## Arrange ##
+        GsonJsonParser parser = new GsonJsonParser(builder -> {} , op -> {});
+
+        // ## Act ##
+        List<MockUser> userList = parser.fromJsonParameteried("", new ParameterizedRef<List<MockUser>>() {
+        }.getType());
+
+        // ## Assert ##
+        assertNotNull(userList);
+        assertTrue(userList.isEmpty());
+    }
+
+    public void test_fromJsonParameteried_list_notFullyConsumed() throws Exception {
+        // ## Arrange ##
+        GsonJsonParser parser = new GsonJsonParser(builder -> {} , op -> {});
+
+        // ## Act ##
+        try {
+            parser.fromJsonParameteried("[{id:1}] [{id:2}]", new ParameterizedRef<List<MockUser>>() {
+            }.getType());
+            // ## Assert ##
+            fail();
+        } catch (JsonIOException e) {
+            log(e.getMessage());
+        }
+    }
+
     // ===================================================================================
     //                                                                         Thread Safe
     //                                                                         ===========
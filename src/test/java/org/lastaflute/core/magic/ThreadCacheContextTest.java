@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, 
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.magic;
+
+import java.util.Map;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.core.magic.ThreadCacheContext.ThreadCacheStore;
+
+/**
+ * @author jflute
+ */
+public class ThreadCacheContextTest extends PlainTestCase {
+
+    @Override
+    protected void tearDown() throws Exception {
+        ThreadCacheContext.clear();
+        super.tearDown();
+    }
+
+    public void test_slotAndMap_basic() throws Exception {
+        // ## Arrange ##
+        ThreadCacheContext.initialize();
+
+        // ## Act ##
+        ThreadCacheContext.registerRequestPath("/sea/land/");
+        ThreadCacheContext.setObject("mystic", "piari");
+
+        // ## Assert ##
+        assertEquals("/sea/land/", ThreadCacheContext.findRequestPath());
+        assertEquals("/sea/land/", ThreadCacheContext.getObject(ThreadCacheContext.FW_REQUEST_PATH));
+        assertEquals("piari", ThreadCacheContext.getObject("mystic"));
+        Map<String, Object> cacheMap = ThreadCacheContext.getReadOnlyCacheMap();
+        log(cacheMap);
+        assertEquals(2, cacheMap.size());
+        assertEquals("/sea/land/", cacheMap.get(ThreadCacheContext.FW_REQUEST_PATH));
+        assertEquals("/sea/land/", ThreadCacheContext.removeObject(ThreadCacheContext.FW_REQUEST_PATH));
+        assertNull(ThreadCacheContext.findRequestPath());
+    }
+
+    public void test_notInitialized() throws Exception {
+        assertFalse(ThreadCacheContext.exists());
+        assertNull(ThreadCacheContext.findRequestPath());
+        assertFalse(ThreadCacheContext.isValidatorCalled());
+        assertTrue(ThreadCacheContext.getReadOnlyCacheMap().isEmpty());
+        try {
+            ThreadCacheContext.registerRequestPath("/sea/");
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+        }
+    }
+
+    public void test_inherit_withoutThreadCompleted() throws Exception {
+        // ## Arrange ##
+        ThreadCacheContext.initialize();
+        ThreadCacheContext.registerRequestPath("/sea/");
+        ThreadCacheContext.setObject("mystic", "piari");
+        ThreadCacheContext.setObject("completed", new ThreadCompleted() {
+        });
+
+        // ## Act ##
+        ThreadCacheStore inherited = ThreadCacheContext.inherit();
+        ThreadCacheContext.clear();
+        ThreadCacheContext.initialize(inherited);
+
+        // ## Assert ##
+        assertEquals("/sea/", ThreadCacheContext.findRequestPath());
+        assertEquals("piari", ThreadCacheContext.getObject("mystic"));
+        assertNull(ThreadCacheContext.getObject("completed"));
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.mail;
+
+import org.dbflute.utflute.core.PlainTestCase;
+
+/**
+ * @author jflute
+ */
+public class LaCachedMailTemplateTest extends PlainTestCase {
+
+    public void test_parse_headerMeta() {
+        // ## Arrange ##
+        String text = "/*\n [New Member's Registration]\n*/\nsubject: Welcome, /*pmb.memberName*/\noption: genAsIs, +html\n"
+                + "-- !!String memberName!!\n>>>\nHello, /*pmb.memberName*/\n";
+
+        // ## Act ##
+        LaCachedMailTemplate template = LaCachedMailTemplate.parse(text);
+
+        // ## Assert ##
+        log(template);
+        assertEquals(text, template.getText());
+        assertTrue(template.getHeaderMeta().get().contains("-- !!String memberName!!"));
+        assertEquals("Welcome, /*pmb.memberName*/", template.getSubject().get());
+        assertEquals("[genAsIs, +html]", template.getOptionList().toString());
+        assertEquals("Hello, /*pmb.memberName*/\n", template.getBody());
+    }
+
+    public void test_parse_noDelimiter() {
+        // ## Arrange ##
+        String text = "<html><body>Hello</body></html>\n"; // e.g. HTML variant
+
+        // ## Act ##
+        LaCachedMailTemplate template = LaCachedMailTemplate.parse(text);
+
+        // ## Assert ##
+        assertFalse(template.getHeaderMeta().isPresent());
+        assertFalse(template.getSubject().isPresent());
+        assertTrue(template.getOptionList().isEmpty());
+        assertEquals(text, template.getBody());
+    }
+
+    public void test_parse_delimiterAtEnd() {
+        // ## Arrange ##
+        String text = "subject: sea\n>>>";
+
+        // ## Act ##
+        LaCachedMailTemplate template = LaCachedMailTemplate.parse(text);
+
+        // ## Assert ##
+        assertEquals("subject: sea\n", template.getHeaderMeta().get());
+        assertEquals("sea", template.getSubject().get());
+        assertEquals("", template.getBody());
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.dbflute.mail.Postcard;
+import org.dbflute.optional.OptionalThing;
+import org.dbflute.utflute.core.PlainTestCase;
+
+/**
+ * @author jflute
+ */
+public class LaProcessCachedDynamicTextAssistTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                              Assist
+    //                                                                              ======
+    public void test_assist_cachedAcrossPostcards() {
+        // ## Arrange ##
+        MockTextAssist assist = new MockTextAssist();
+
+        // ## Act ##
+        String first = assist.assist(null, "mail/sea.dfmail", false, OptionalThing.empty());
+        String second = assist.assist(null, "mail/sea.dfmail", false, OptionalThing.empty());
+
+        // ## Assert ##
+        assertEquals("text of mail/sea.dfmail", first);
+        assertSame(first, second);
+        assertEquals(1, assist.assistedPathList.size());
+    }
+
+    public void test_assist_keyedByLocaleAndFilesystem() {
+        // ## Arrange ##
+        MockTextAssist assist = new MockTextAssist();
+
+        // ## Act ##
+        assist.assist(null, "mail/sea.dfmail", false, OptionalThing.empty());
+        assist.assist(null, "mail/sea.dfmail", false, OptionalThing.of(Locale.JAPANESE));
+        assist.assist(null, "mail/sea.dfmail", false, OptionalThing.of(Locale.ENGLISH));
+        assist.assist(null, "mail/sea.dfmail", true, OptionalThing.empty());
+        assist.assist(null, "mail/sea_html.dfmail", false, OptionalThing.empty()); // HTML variant
+        assist.assist(null, "mail/sea.dfmail", false, OptionalThing.of(Locale.JAPANESE));
+
+        // ## Assert ##
+        log(assist);
+        assertEquals(5, assist.assistedPathList.size());
+    }
+
+    public void test_assist_notFound_cached() {
+        // ## Arrange ##
+        MockTextAssist assist = new MockTextAssist();
+
+        // ## Act ##
+        String first = assist.assist(null, "mail/land.dfmail", false, OptionalThing.empty());
+        String second = assist.assist(null, "mail/land.dfmail", false, OptionalThing.empty());
+
+        // ## Assert ##
+        assertNull(first);
+        assertNull(second);
+        assertEquals(1, assist.assistedPathList.size());
+    }
+
+    public void test_assistTemplate_parsed() {
+        // ## Arrange ##
+        MockTextAssist assist = new MockTextAssist();
+
+        // ## Act ##
+        LaCachedMailTemplate template = assist.assistTemplate(null, "mail/sea_meta.dfmail", false, OptionalThing.empty()).get();
+
+        // ## Assert ##
+        log(template);
+        assertEquals("Welcome to sea", template.getSubject().get());
+        assertEquals("body of mail/sea_meta.dfmail\n", template.getBody());
+        assertSame(template, assist.assistTemplate(null, "mail/sea_meta.dfmail", false, OptionalThing.empty()).get());
+        assertFalse(assist.assistTemplate(null, "mail/land.dfmail", false, OptionalThing.empty()).isPresent());
+        assertEquals(2, assist.assistedPathList.size());
+    }
+
+    public void test_assist_boundedByLru() {
+        // ## Arrange ##
+        MockTextAssist assist = new MockTextAssist() {
+            @Override
+            protected int provideMaxCachedTemplateCount() {
+                return 2;
+            }
+        };
+
+        // ## Act ##
+        assist.assist(null, "mail/sea.dfmail", false, OptionalThing.empty());
+        assist.assist(null, "mail/sea_html.dfmail", false, OptionalThing.empty());
+        assist.assist(null, "mail/sea.dfmail", false, OptionalThing.empty()); // recently used
+        assist.assist(null, "mail/sea_meta.dfmail", false, OptionalThing.empty()); // evicts HTML
+        assist.assist(null, "mail/sea.dfmail", false, OptionalThing.empty());
+        assist.assist(null, "mail/sea_html.dfmail", false, OptionalThing.empty());
+
+        // ## Assert ##
+        assertEquals("[mail/sea.dfmail, mail/sea_html.dfmail, mail/sea_meta.dfmail, mail/sea_html.dfmail]",
+                assist.assistedPathList.toString());
+        assertEquals(2, assist.templateCacheMap.size());
+    }
+
+    // ===================================================================================
+    //                                                                          Hot Deploy
+    //                                                                          ==========
+    public void test_assist_clearedByHotDeploy() {
+        // ## Arrange ##
+        MockTextAssist assist = new MockTextAssist();
+        assist.assist(null, "mail/sea.dfmail", false, OptionalThing.empty());
+
+        // ## Act ##
+        assist.requestHotDeploy();
+        assist.assist(null, "mail/sea.dfmail", false, OptionalThing.empty());
+        assist.assist(null, "mail/sea.dfmail", false, OptionalThing.empty());
+
+        // ## Assert ##
+        assertEquals(2, assist.assistedPathList.size());
+    }
+
+    // ===================================================================================
+    //                                                                             Prewarm
+    //                                                                             =======
+    public void test_prewarmAtBoot_noPostcard() {
+        // ## Arrange ##
+        MockTextAssist assist = new MockTextAssist();
+
+        // ## Act ##
+        int cachedCount = assist.prewarmAtBoot();
+
+        // ## Assert ##
+        assertEquals(0, cachedCount);
+        assertTrue(assist.assistedPathList.isEmpty());
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Assist
+    //                                                                         ===========
+    protected static class MockTextAssist extends LaProcessCachedDynamicTextAssist {
+
+        protected final List<String> assistedPathList = new ArrayList<String>();
+
+        @Override
+        protected String doAssist(Postcard postcard, String path, boolean filesystem, OptionalThing<Locale> receiverLocale) {
+            assistedPathList.add(path);
+            if (path.endsWith("_meta.dfmail")) {
+                return "subject: Welcome to sea\n>>>\nbody of " + path + "\n";
+            }
+            return path.startsWith("mail/sea") ? "text of " + path : null; // land is not found
+        }
+    }
+}
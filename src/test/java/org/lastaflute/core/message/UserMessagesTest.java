@@ -0,0 +1,166 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.message;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.dbflute.utflute.core.PlainTestCase;
+
+/**
+ * @author jflute
+ */
+public class UserMessagesTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                         Add Message
+    //                                                                         ===========
+    public void test_add_inline() {
+        // ## Arrange ##
+        UserMessages messages = new UserMessages();
+
+        // ## Act ##
+        messages.add("sea", new UserMessage("errors.required"));
+
+        // ## Assert ##
+        assertNotNull(messages.messageMap); // not null even if inline
+        assertTrue(messages.messageMap.isEmpty());
+        assertFalse(messages.isEmpty());
+        assertEquals(1, messages.size());
+        assertEquals(1, messages.size("sea"));
+        assertEquals(0, messages.size("land"));
+        assertTrue(messages.hasMessageOf("sea"));
+        assertTrue(messages.hasMessageOf("sea", "errors.required"));
+        assertFalse(messages.hasMessageOf("land"));
+        assertEquals("[sea]", messages.toPropertySet().toString());
+        assertEquals("errors.required", messages.accessByIteratorOf("sea").next().getMessageKey());
+        assertFalse(messages.accessByIteratorOf("land").hasNext());
+    }
+
+    public void test_add_promoted() {
+        // ## Arrange ##
+        UserMessages messages = new UserMessages();
+
+        // ## Act ##
+        messages.add("sea", new UserMessage("errors.required"));
+        messages.add("land", new UserMessage("errors.integer"));
+        messages.add("sea", new UserMessage("errors.maxlength"));
+
+        // ## Assert ##
+        assertEquals(2, messages.messageMap.size());
+        assertEquals(3, messages.size());
+        assertEquals(2, messages.size("sea"));
+        assertEquals("[sea, land]", messages.toPropertySet().toString());
+        List<String> keyList = new ArrayList<String>();
+        for (Iterator<UserMessage> ite = messages.accessByFlatIterator(); ite.hasNext();) {
+            keyList.add(ite.next().getMessageKey());
+        }
+        assertEquals("[errors.required, errors.maxlength, errors.integer]", keyList.toString());
+    }
+
+    public void test_add_subClassMap() {
+        // ## Arrange ##
+        UserMessages messages = new UserMessages();
+        messages.add("sea", new UserMessage("errors.required"));
+
+        // ## Act ##
+        messages.prepareMessageMap(); // e.g. sub-class writing to the map
+
+        // ## Assert ##
+        assertNull(messages.singleMessage);
+        assertEquals(1, messages.messageMap.size());
+        assertEquals(1, messages.size());
+        assertTrue(messages.hasMessageOf("sea", "errors.required"));
+    }
+
+    // ===================================================================================
+    //                                                                   Various Operation
+    //                                                                   =================
+    public void test_clear_inlineAgain() {
+        // ## Arrange ##
+        UserMessages messages = new UserMessages();
+        messages.add("sea", new UserMessage("errors.required"));
+        messages.add("land", new UserMessage("errors.integer"));
+
+        // ## Act ##
+        messages.clear();
+
+        // ## Assert ##
+        assertTrue(messages.isEmpty());
+        assertEquals(0, messages.size());
+        assertEquals("{}", messages.toString());
+        messages.add("piari", new UserMessage("errors.email"));
+        assertEquals(1, messages.size());
+        assertEquals("[piari]", messages.toPropertySet().toString());
+    }
+
+    // ===================================================================================
+    //                                                                      Access Message
+    //                                                                      ==============
+    public void test_accessByIteratorOf_remove_inline() {
+        // ## Arrange ##
+        UserMessages messages = new UserMessages();
+        messages.add("sea", new UserMessage("errors.required"));
+
+        // ## Act ##
+        Iterator<UserMessage> ite = messages.accessByIteratorOf("sea");
+        ite.next();
+        ite.remove();
+
+        // ## Assert ##
+        assertFalse(ite.hasNext());
+        assertTrue(messages.isEmpty());
+        assertFalse(messages.hasMessageOf("sea"));
+        try {
+            ite.remove();
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+        }
+    }
+
+    public void test_accessByIteratorOf_remove_promoted() {
+        // ## Arrange ##
+        UserMessages messages = new UserMessages();
+        messages.add("sea", new UserMessage("errors.required"));
+        messages.add("sea", new UserMessage("errors.maxlength"));
+
+        // ## Act ##
+        Iterator<UserMessage> ite = messages.accessByIteratorOf("sea");
+        ite.next();
+        ite.remove();
+
+        // ## Assert ##
+        assertEquals(1, messages.size("sea"));
+        assertTrue(messages.hasMessageOf("sea", "errors.maxlength"));
+    }
+
+    public void test_accessByFlatIterator_remove() {
+        // ## Arrange ##
+        UserMessages messages = new UserMessages();
+        messages.add("sea", new UserMessage("errors.required"));
+        messages.add("land", new UserMessage("errors.integer"));
+
+        // ## Act ##
+        Iterator<UserMessage> ite = messages.accessByFlatIterator();
+        ite.next();
+        ite.remove(); // allowed as copied list
+
+        // ## Assert ##
+        assertEquals(2, messages.size());
+    }
+}
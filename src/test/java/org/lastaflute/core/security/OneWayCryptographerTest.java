@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.dbflute.utflute.core.PlainTestCase;
+
+/**
+ * @author jflute
+ */
+public class OneWayCryptographerTest extends PlainTestCase {
+
+    public void test_SHA256() throws Exception {
+        // ## Arrange ##
+        OneWayCryptographer cipher = OneWayCryptographer.createSha256Cryptographer();
+
+        // ## Act ##
+        String first = cipher.oneway("abc");
+        String second = cipher.oneway("abc"); // reused digest
+
+        // ## Assert ##
+        log(first);
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", first);
+        assertEquals(first, second);
+        assertEquals(first, cipher.oneway("abc".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(first, cipher.oneway(ByteBuffer.wrap("abc".getBytes(StandardCharsets.UTF_8))));
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855", cipher.oneway(""));
+    }
+
+    public void test_SHA256_base64() throws Exception {
+        // ## Arrange ##
+        OneWayCryptographer cipher = OneWayCryptographer.createSha256Cryptographer();
+
+        // ## Act ##
+        String encrypted = cipher.onewayAsBase64("abc");
+
+        // ## Assert ##
+        log(encrypted);
+        assertEquals("ungWv48Bz-pBQUDeXa4iI7ADYaOWF3qctBD_YfIAFa0", encrypted);
+    }
+
+    public void test_PBKDF2() throws Exception {
+        // ## Arrange ##
+        PasswordHashCryptographer cryptographer = new PasswordHashCryptographer(1000, 2, 1000L);
+
+        // ## Act ##
+        String stored = cryptographer.hash("sea");
+
+        // ## Assert ##
+        log(stored);
+        assertTrue(stored.startsWith("pbkdf2-sha256$1000$"));
+        assertFalse(stored.equals(cryptographer.hash("sea"))); // random salt
+        assertTrue(cryptographer.verify("sea", stored));
+        assertFalse(cryptographer.verify("land", stored));
+        assertFalse(cryptographer.verify("sea", "broken"));
+        assertFalse(cryptographer.needsRehash(stored));
+        assertTrue(new PasswordHashCryptographer(2000, 2, 1000L).needsRehash(stored));
+    }
+}
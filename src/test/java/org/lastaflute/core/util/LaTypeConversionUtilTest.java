@@ -0,0 +1,228 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.core.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.dbflute.util.DfTypeUtil;
+import org.lastaflute.core.util.LaTypeConversionUtil.ConversionResult;
+
+/**
+ * @author jflute
+ */
+public class LaTypeConversionUtilTest extends PlainTestCase {
+
+    private Locale originalLocale;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        originalLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US); // grouping separator is comma
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Locale.setDefault(originalLocale);
+        super.tearDown();
+    }
+
+    // ===================================================================================
+    //                                                                     Integral Parity
+    //                                                                     ===============
+    public void test_tryNumber_parity_groupingSeparator() {
+        // ## Arrange ##
+        String[] exps = { "1,234", "1,234,567", ",1", "1,", "1,,2", "-1,234", "+1,234", ",-1", "-,1", "," };
+
+        // ## Act ##
+        // ## Assert ##
+        for (String exp : exps) {
+            assertIntegralParity(exp);
+        }
+    }
+
+    public void test_tryNumber_parity_sign() {
+        // ## Arrange ##
+        String[] exps = { "+1", "-1", "+0", "-0", "+", "-", "+-1", "-+1", "--1", "1-", "1+" };
+
+        // ## Act ##
+        // ## Assert ##
+        for (String exp : exps) {
+            assertIntegralParity(exp);
+        }
+    }
+
+    public void test_tryNumber_parity_overflow() {
+        // ## Arrange ##
+        String[] exps = { "2147483647", "2147483648", "-2147483648", "-2147483649", // int
+                "9223372036854775807", "9223372036854775808", "-9223372036854775808", "-9223372036854775809", // long
+                "32767", "32768", "-32768", "-32769", "127", "128", "-128", "-129", // short, byte
+                "99999999999999999999999", "2,147,483,648", "-9,223,372,036,854,775,808" };
+
+        // ## Act ##
+        // ## Assert ##
+        for (String exp : exps) {
+            assertIntegralParity(exp);
+        }
+    }
+
+    public void test_tryNumber_parity_whitespace() {
+        // ## Arrange ##
+        String[] exps = { " ", "   ", "\t", " 1", "1 ", " 1 ", "1 2", "　" }; // last is full-width space
+
+        // ## Act ##
+        // ## Assert ##
+        for (String exp : exps) {
+            assertIntegralParity(exp);
+        }
+    }
+
+    public void test_tryNumber_parity_others() {
+        // ## Arrange ##
+        String[] exps = { "0", "007", "1.0", "1e3", "0x10", "abc", "１２" }; // last is full-width digits
+
+        // ## Act ##
+        // ## Assert ##
+        for (String exp : exps) {
+            assertIntegralParity(exp);
+            assertParity(exp, BigDecimal.class);
+            assertParity(exp, BigInteger.class);
+        }
+    }
+
+    protected void assertIntegralParity(String exp) {
+        assertParity(exp, Integer.class);
+        assertParity(exp, Long.class);
+        assertParity(exp, Short.class);
+        assertParity(exp, Byte.class);
+        assertParity(exp, int.class);
+        assertParity(exp, long.class);
+    }
+
+    // ===================================================================================
+    //                                                                           Primitive
+    //                                                                           =========
+    public void test_tryNative_primitive_emptyString() {
+        // ## Arrange ##
+        // ## Act ##
+        ConversionResult<Object> intResult = LaTypeConversionUtil.tryNative("", int.class);
+        ConversionResult<Object> longResult = LaTypeConversionUtil.tryNative(" ", long.class);
+        ConversionResult<Object> booleanResult = LaTypeConversionUtil.tryNative("", boolean.class);
+        ConversionResult<Object> nullResult = LaTypeConversionUtil.tryNative(null, int.class);
+        ConversionResult<Object> wrapperResult = LaTypeConversionUtil.tryNative("", Integer.class);
+
+        // ## Assert ##
+        assertTrue(intResult.isSuccess());
+        assertEquals(0, intResult.getValue()); // same as DfTypeUtil.toWrapper()
+        assertEquals(DfTypeUtil.toWrapper("", int.class), intResult.getValue());
+        assertEquals(0L, longResult.getValue());
+        assertEquals(false, booleanResult.getValue());
+        assertEquals(0, nullResult.getValue());
+        assertTrue(wrapperResult.isSuccess());
+        assertNull(wrapperResult.getValue()); // wrapper keeps null
+    }
+
+    public void test_tryNative_primitive_failure() {
+        // ## Arrange ##
+        // ## Act ##
+        ConversionResult<Object> result = LaTypeConversionUtil.tryNative("sea", int.class);
+
+        // ## Assert ##
+        assertTrue(result.isFailure());
+        assertEquals(NumberFormatException.class, result.getCauseType());
+        assertNull(result.getValue());
+    }
+
+    // ===================================================================================
+    //                                                                      Boolean Parity
+    //                                                                      ==============
+    public void test_tryBoolean_shape() {
+        // ## Arrange ##
+        // ## Act ##
+        // ## Assert ##
+        assertTrue(LaTypeConversionUtil.isBooleanShapeMaybe("true"));
+        assertTrue(LaTypeConversionUtil.isBooleanShapeMaybe("FALSE"));
+        assertTrue(LaTypeConversionUtil.isBooleanShapeMaybe("1"));
+        assertTrue(LaTypeConversionUtil.isBooleanShapeMaybe(""));
+        assertFalse(LaTypeConversionUtil.isBooleanShapeMaybe("abc")); // rejected without exception
+        assertFalse(LaTypeConversionUtil.isBooleanShapeMaybe("2"));
+        assertFalse(LaTypeConversionUtil.isBooleanShapeMaybe("tru\u00e9"));
+        assertFalse(LaTypeConversionUtil.isBooleanShapeMaybe("falsely"));
+    }
+
+    public void test_tryBoolean_parity() {
+        for (String exp : new String[] { "true", "false", "TRUE", "t", "f", "1", "0", "", " ", "abc", "2", "rue", "falsely" }) {
+            assertParity(exp, Boolean.class, () -> DfTypeUtil.toBoolean(exp));
+        }
+    }
+
+    // ===================================================================================
+    //                                                                         Date Parity
+    //                                                                         ===========
+    public void test_tryLocalDate_shape() {
+        // ## Arrange ##
+        // ## Act ##
+        // ## Assert ##
+        assertTrue(LaTypeConversionUtil.isDateShapeMaybe("2016/10/19"));
+        assertTrue(LaTypeConversionUtil.isDateShapeMaybe("2016-10-19T12:34:56"));
+        assertTrue(LaTypeConversionUtil.isDateShapeMaybe("BC2016/10/19"));
+        assertTrue(LaTypeConversionUtil.isDateShapeMaybe("12:34:56.789"));
+        assertTrue(LaTypeConversionUtil.isDateShapeMaybe(""));
+        assertFalse(LaTypeConversionUtil.isDateShapeMaybe("abc")); // rejected without exception
+        assertFalse(LaTypeConversionUtil.isDateShapeMaybe("a1"));
+        assertFalse(LaTypeConversionUtil.isDateShapeMaybe("2016x10"));
+        assertFalse(LaTypeConversionUtil.isDateShapeMaybe("T2016"));
+        assertFalse(LaTypeConversionUtil.isDateShapeMaybe("2016T"));
+        assertFalse(LaTypeConversionUtil.isDateShapeMaybe("2016/10/19<script>"));
+    }
+
+    public void test_tryLocalDate_parity() {
+        for (String exp : new String[] { "2016/10/19", "2016-10-19", "BC2016/10/19", "", "abc", "a1", "2016x10", "2016/13/45" }) {
+            assertParity(exp, LocalDate.class, () -> DfTypeUtil.toLocalDate(exp));
+        }
+    }
+
+    // ===================================================================================
+    //                                                                        Assist Logic
+    //                                                                        ============
+    protected void assertParity(String exp, Class<?> type) {
+        assertParity(exp, type, () -> type.isPrimitive() ? DfTypeUtil.toWrapper(exp, type) : DfTypeUtil.toNumber(exp, type));
+    }
+
+    protected void assertParity(String exp, Class<?> type, Supplier<Object> converter) {
+        Object expected = null;
+        Class<?> expectedCauseType = null;
+        try {
+            expected = converter.get();
+        } catch (RuntimeException e) {
+            expectedCauseType = e.getClass();
+        }
+        final ConversionResult<Object> result = LaTypeConversionUtil.tryNative(exp, type);
+        final String title = "exp=[" + exp + "], type=" + type.getSimpleName() + ", result=" + result;
+        if (expectedCauseType != null) {
+            assertTrue(title, result.isFailure());
+            assertEquals(title, expectedCauseType, result.getCause().getClass());
+        } else {
+            assertTrue(title, result.isSuccess());
+            assertEquals(title, expected, result.getValue());
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.db.jta.romanticist;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.dbflute.utflute.core.PlainTestCase;
+
+/**
+ * @author jflute
+ */
+public class TransactionFlightRecorderTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                       Table Command
+    //                                                                       =============
+    public void test_recordTableCommand_basic() {
+        // ## Arrange ##
+        TransactionFlightRecorder recorder = new TransactionFlightRecorder(TransactionRecordingLevel.FULL, 3);
+
+        // ## Act ##
+        recorder.recordTableCommand("MEMBER", "selectList", 1L, null);
+        recorder.recordTableCommand("PURCHASE", "insert", 2L, null);
+        recorder.recordTableCommand("MEMBER", "update", 3L, null);
+        recorder.recordTableCommand("MEMBER", "selectList", 4L, null);
+
+        // ## Assert ##
+        TransactionFlightSnapshot snapshot = recorder.capture();
+        Map<String, Set<String>> tableCommandMap = snapshot.getTableCommandMap();
+        log(tableCommandMap);
+        assertEquals(2, tableCommandMap.size());
+        assertEquals("[selectList, update]", tableCommandMap.get("MEMBER").toString());
+        assertEquals("[insert]", tableCommandMap.get("PURCHASE").toString());
+        assertEquals("MEMBER", snapshot.getCurrentTableName());
+        assertEquals("selectList", snapshot.getCurrentCommand());
+        assertEquals(Long.valueOf(4L), snapshot.getCurrentSqlBeginMillis());
+    }
+
+    public void test_recordTableCommand_grown() {
+        // ## Arrange ##
+        TransactionFlightRecorder recorder = new TransactionFlightRecorder(TransactionRecordingLevel.FULL, 3);
+
+        // ## Act ##
+        for (int i = 0; i < 20; i++) { // over initial capacity
+            recorder.recordTableCommand("TABLE" + i, "insert", null, null);
+        }
+
+        // ## Assert ##
+        assertEquals(20, recorder.capture().getTableCommandMap().size());
+    }
+
+    public void test_clearCurrent() {
+        // ## Arrange ##
+        TransactionFlightRecorder recorder = new TransactionFlightRecorder(TransactionRecordingLevel.FULL, 3);
+        recorder.recordTableCommand("MEMBER", "selectList", 1L, null);
+
+        // ## Act ##
+        recorder.clearCurrent();
+
+        // ## Assert ##
+        TransactionFlightSnapshot snapshot = recorder.capture();
+        assertNull(snapshot.getCurrentTableName());
+        assertNull(snapshot.getCurrentCommand());
+        assertEquals(1, snapshot.getTableCommandMap().size()); // table commands are kept
+    }
+
+    // ===================================================================================
+    //                                                                       Recent Result
+    //                                                                       =============
+    public void test_recordRecentResult_ring() {
+        // ## Arrange ##
+        TransactionFlightRecorder recorder = new TransactionFlightRecorder(TransactionRecordingLevel.FULL, 3);
+
+        // ## Act ##
+        for (int i = 0; i < 5; i++) {
+            recorder.recordRecentResult(createResult(recorder.nextStatementNo()));
+        }
+
+        // ## Assert ##
+        List<TransactionSavedRecentResult> resultList = recorder.capture().getRecentResultList();
+        assertEquals(3, resultList.size());
+        assertEquals(3L, resultList.get(0).getStatementNo()); // older first
+        assertEquals(4L, resultList.get(1).getStatementNo());
+        assertEquals(5L, resultList.get(2).getStatementNo());
+        assertEquals(6L, recorder.nextStatementNo());
+    }
+
+    public void test_clearRecent() {
+        // ## Arrange ##
+        TransactionFlightRecorder recorder = new TransactionFlightRecorder(TransactionRecordingLevel.FULL, 3);
+        recorder.recordRecentResult(createResult(recorder.nextStatementNo()));
+
+        // ## Act ##
+        recorder.clearRecent();
+
+        // ## Assert ##
+        assertEquals(0, recorder.capture().getRecentResultList().size());
+        assertEquals(1L, recorder.nextStatementNo());
+    }
+
+    // ===================================================================================
+    //                                                                     Recording Level
+    //                                                                     ===============
+    public void test_recordingLevel_tableCommand() {
+        // ## Arrange ##
+        TransactionFlightRecorder recorder = new TransactionFlightRecorder(TransactionRecordingLevel.TABLE_COMMAND, 3);
+
+        // ## Act ##
+        recorder.recordTableCommand("MEMBER", "selectList", 1L, null);
+        recorder.recordRecentResult(createResult(recorder.nextStatementNo()));
+
+        // ## Assert ##
+        TransactionFlightSnapshot snapshot = recorder.capture();
+        assertEquals(1, snapshot.getTableCommandMap().size());
+        assertEquals(0, snapshot.getRecentResultList().size());
+    }
+
+    public void test_recordingLevel_off() {
+        // ## Arrange ##
+        TransactionFlightRecorder recorder = new TransactionFlightRecorder(TransactionRecordingLevel.OFF, 3);
+
+        // ## Act ##
+        recorder.recordTableCommand("MEMBER", "selectList", 1L, null);
+        recorder.recordRecentResult(createResult(recorder.nextStatementNo()));
+
+        // ## Assert ##
+        TransactionFlightSnapshot snapshot = recorder.capture();
+        assertEquals(0, snapshot.getTableCommandMap().size());
+        assertNull(snapshot.getCurrentTableName());
+        assertEquals(0, snapshot.getRecentResultList().size());
+    }
+
+    // ===================================================================================
+    //                                                                          Concurrent
+    //                                                                          ==========
+    public void test_capture_concurrentWriterReader() throws Exception {
+        // ## Arrange ##
+        int limit = 5;
+        int writeCount = 50000;
+        TransactionFlightRecorder recorder = new TransactionFlightRecorder(TransactionRecordingLevel.FULL, limit);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<String>();
+        AtomicInteger captureCount = new AtomicInteger();
+        CountDownLatch readerReady = new CountDownLatch(1);
+        Thread reader = new Thread(() -> {
+            readerReady.countDown();
+            while (writing.get() && failure.get() == null) {
+                String broken = verifyConsistent(recorder.capture(), limit);
+                if (broken != null) {
+                    failure.set(broken);
+                }
+                captureCount.incrementAndGet();
+            }
+        });
+        reader.start();
+        readerReady.await();
+
+        // ## Act ##
+        try {
+            for (int i = 0; i < writeCount; i++) { // transaction thread is only writer
+                String tableName = "TABLE" + (i % 20);
+                recorder.recordTableCommand(tableName, "command" + (i % 20), (long) i, null);
+                recorder.recordRecentResult(createResult(recorder.nextStatementNo()));
+                if (i % 1000 == 0) {
+                    recorder.clearCurrent();
+                }
+            }
+        } finally {
+            writing.set(false);
+            reader.join();
+        }
+
+        // ## Assert ##
+        log("captured {} times while writing", captureCount.get());
+        assertNull(failure.get(), failure.get());
+        TransactionFlightSnapshot snapshot = recorder.capture();
+        assertNull(verifyConsistent(snapshot, limit));
+        assertEquals(20, snapshot.getTableCommandMap().size());
+        List<TransactionSavedRecentResult> resultList = snapshot.getRecentResultList();
+        assertEquals(limit, resultList.size());
+        assertEquals((long) writeCount, resultList.get(limit - 1).getStatementNo());
+    }
+
+    // returns the reason if broken, null if consistent
+    protected String verifyConsistent(TransactionFlightSnapshot snapshot, int limit) {
+        String currentTable = snapshot.getCurrentTableName();
+        String currentCommand = snapshot.getCurrentCommand();
+        if ((currentTable == null) != (currentCommand == null)) {
+            return "torn current: " + currentTable + ", " + currentCommand;
+        }
+        if (currentTable != null && !currentTable.substring(5).equals(currentCommand.substring(7))) { // TABLE3 and command3
+            return "torn current: " + currentTable + ", " + currentCommand;
+        }
+        for (Map.Entry<String, Set<String>> entry : snapshot.getTableCommandMap().entrySet()) {
+            if (entry.getValue().size() != 1 || !entry.getValue().contains("command" + entry.getKey().substring(5))) {
+                return "torn table command: " + entry;
+            }
+        }
+        List<TransactionSavedRecentResult> resultList = snapshot.getRecentResultList();
+        if (resultList.size() > limit) {
+            return "over limit: " + resultList.size();
+        }
+        for (int i = 1; i < resultList.size(); i++) {
+            if (resultList.get(i).getStatementNo() != resultList.get(i - 1).getStatementNo() + 1) {
+                return "torn recent result: index=" + i + ", size=" + resultList.size();
+            }
+        }
+        return null;
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected TransactionSavedRecentResult createResult(long statementNo) {
+        return new TransactionSavedRecentResult(statementNo, "MEMBER", "selectCursor", 1L, 2L, void.class, null, null);
+    }
+}
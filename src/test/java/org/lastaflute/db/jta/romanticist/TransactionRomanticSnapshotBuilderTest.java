@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.db.jta.romanticist;
+
+import javax.transaction.xa.Xid;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.db.jta.RomanticTransaction;
+
+/**
+ * @author jflute
+ */
+public class TransactionRomanticSnapshotBuilderTest extends PlainTestCase {
+
+    public void test_setupXidExp_noXid() {
+        // ## Arrange ##
+        TransactionRomanticSnapshotBuilder builder = new TransactionRomanticSnapshotBuilder();
+        RomanticTransaction tx = new RomanticTransaction() {
+            @Override
+            public Xid getXid() {
+                return null; // e.g. ending transaction seen by watchdog thread
+            }
+        };
+        StringBuilder sb = new StringBuilder();
+
+        // ## Act ##
+        builder.setupXidExp(sb, tx, null);
+
+        // ## Assert ##
+        log(sb);
+        assertEquals(", *no xid", sb.toString());
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.db.jta.watchdog;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.db.jta.RomanticTransaction;
+import org.lastaflute.db.jta.watchdog.TransactionWatchdogReport.SuspiciousKind;
+import org.lastaflute.jta.dbcp.ConnectionWrapper;
+
+/**
+ * @author jflute
+ */
+public class TransactionWatchdogTest extends PlainTestCase {
+
+    @Override
+    protected void tearDown() throws Exception {
+        LiveTransactionRegistry.disable();
+        super.tearDown();
+    }
+
+    // ===================================================================================
+    //                                                                           Judgement
+    //                                                                           =========
+    public void test_judgeSuspicious_longRunning() {
+        // ## Arrange ##
+        TransactionWatchdog watchdog = createWatchdog(new MockWatchdogProvider(1000L, 500L, false));
+        MockRomanticTransaction tx = new MockRomanticTransaction(10000L, 11900L, true);
+
+        // ## Act ##
+        TransactionWatchdogReport report = watchdog.judgeSuspicious(tx, 12000L);
+
+        // ## Assert ##
+        log(report);
+        assertEquals(SuspiciousKind.LONG_RUNNING, report.getSuspiciousKind());
+        assertEquals(2000L, report.getElapsedMillis());
+        assertEquals(0L, report.getIdleMillis()); // statement running
+        assertEquals("mock snapshot", report.getRomanticSnapshot());
+    }
+
+    public void test_judgeSuspicious_idle() {
+        // ## Arrange ##
+        TransactionWatchdog watchdog = createWatchdog(new MockWatchdogProvider(1000L, 500L, false));
+        MockRomanticTransaction tx = new MockRomanticTransaction(10000L, 10100L, false);
+
+        // ## Act ##
+        TransactionWatchdogReport report = watchdog.judgeSuspicious(tx, 10800L);
+
+        // ## Assert ##
+        assertEquals(SuspiciousKind.IDLE_IN_TRANSACTION, report.getSuspiciousKind());
+        assertEquals(800L, report.getElapsedMillis());
+        assertEquals(700L, report.getIdleMillis());
+    }
+
+    public void test_judgeSuspicious_idle_noStatement() {
+        // ## Arrange ##
+        TransactionWatchdog watchdog = createWatchdog(new MockWatchdogProvider(1000L, 500L, false));
+        MockRomanticTransaction tx = new MockRomanticTransaction(10000L, 0L, false); // idle from begin
+
+        // ## Act ##
+        TransactionWatchdogReport report = watchdog.judgeSuspicious(tx, 10600L);
+
+        // ## Assert ##
+        assertEquals(SuspiciousKind.IDLE_IN_TRANSACTION, report.getSuspiciousKind());
+        assertEquals(600L, report.getIdleMillis());
+    }
+
+    public void test_judgeSuspicious_notSuspicious() {
+        // ## Arrange ##
+        TransactionWatchdog watchdog = createWatchdog(new MockWatchdogProvider(1000L, 500L, false));
+
+        // ## Act ##
+        // ## Assert ##
+        assertNull(watchdog.judgeSuspicious(new MockRomanticTransaction(10000L, 10300L, false), 10700L)); // under both
+        assertNull(watchdog.judgeSuspicious(new MockRomanticTransaction(10000L, 10100L, true), 10900L)); // running
+        assertNull(watchdog.judgeSuspicious(new MockRomanticTransaction(0L, 0L, false), 10900L)); // not begun
+    }
+
+    public void test_judgeSuspicious_minusThreshold() {
+        // ## Arrange ##
+        TransactionWatchdog watchdog = createWatchdog(new MockWatchdogProvider(-1L, 500L, false));
+
+        // ## Act ##
+        TransactionWatchdogReport report = watchdog.judgeSuspicious(new MockRomanticTransaction(10000L, 99000L, true), 99999L);
+
+        // ## Assert ##
+        assertNull(report); // long-running is not watched, and running statement is not idle
+    }
+
+    public void test_judgeSuspicious_disabled() {
+        // ## Arrange ##
+        TransactionWatchdog watchdog = createWatchdog(null); // no provider
+
+        // ## Act ##
+        // ## Assert ##
+        assertNull(watchdog.judgeSuspicious(new MockRomanticTransaction(10000L, 0L, false), 99999L));
+        assertTrue(watchdog.inspect().isEmpty());
+    }
+
+    // ===================================================================================
+    //                                                                               Watch
+    //                                                                               =====
+    public void test_doWatch_reportOnce() {
+        // ## Arrange ##
+        MockWatchdogProvider provider = new MockWatchdogProvider(1000L, 500L, false);
+        TransactionWatchdog watchdog = createWatchdog(provider);
+        LiveTransactionRegistry.enable();
+        MockRomanticTransaction tx = new MockRomanticTransaction(10000L, 10100L, false);
+        LiveTransactionRegistry.register(tx);
+
+        // ## Act ##
+        watchdog.doWatch(10800L); // idle
+        watchdog.doWatch(10900L); // idle again
+        watchdog.doWatch(11500L); // long-running
+
+        // ## Assert ##
+        assertEquals(2, provider.reportList.size());
+        assertEquals(SuspiciousKind.IDLE_IN_TRANSACTION, provider.reportList.get(0).getSuspiciousKind());
+        assertEquals(SuspiciousKind.LONG_RUNNING, provider.reportList.get(1).getSuspiciousKind());
+        assertFalse(tx.isRollbackOnlyRequested()); // only reporting
+    }
+
+    public void test_doWatch_rollbackOnlyRequested() {
+        // ## Arrange ##
+        TransactionWatchdog watchdog = createWatchdog(new MockWatchdogProvider(1000L, 500L, true));
+        LiveTransactionRegistry.enable();
+        MockRomanticTransaction suspicious = new MockRomanticTransaction(10000L, 10100L, false);
+        MockRomanticTransaction healthy = new MockRomanticTransaction(10000L, 10700L, false);
+        LiveTransactionRegistry.register(suspicious);
+        LiveTransactionRegistry.register(healthy);
+
+        // ## Act ##
+        watchdog.doWatch(10800L);
+
+        // ## Assert ##
+        assertTrue(suspicious.isRollbackOnlyRequested()); // marked by the transaction thread later
+        assertFalse(healthy.isRollbackOnlyRequested());
+    }
+
+    public void test_doWatch_brokenTransaction_continued() {
+        // ## Arrange ##
+        MockWatchdogProvider provider = new MockWatchdogProvider(1000L, 500L, false);
+        TransactionWatchdog watchdog = createWatchdog(provider);
+        LiveTransactionRegistry.enable();
+        MockRomanticTransaction broken = new MockRomanticTransaction(10000L, 10100L, false) {
+            @Override
+            public String toRomanticSnapshot(ConnectionWrapper wrapper) {
+                throw new NullPointerException("e.g. xid already cleared by ending transaction");
+            }
+        };
+        MockRomanticTransaction suspicious = new MockRomanticTransaction(10000L, 10100L, false);
+        LiveTransactionRegistry.register(broken);
+        LiveTransactionRegistry.register(suspicious);
+
+        // ## Act ##
+        watchdog.doWatch(10800L);
+        watchdog.doWatch(10900L); // broken again
+
+        // ## Assert ##
+        assertEquals(1, provider.reportList.size()); // not aborted by broken one
+        assertEquals(1, watchdog.inspect().size()); // inspect also continues
+    }
+
+    public void test_doWatch_registryDisabled() {
+        // ## Arrange ##
+        MockWatchdogProvider provider = new MockWatchdogProvider(1000L, 500L, true);
+        TransactionWatchdog watchdog = createWatchdog(provider);
+        MockRomanticTransaction tx = new MockRomanticTransaction(10000L, 10100L, false);
+        LiveTransactionRegistry.register(tx); // ignored because not enabled
+
+        // ## Act ##
+        watchdog.doWatch(99999L);
+
+        // ## Assert ##
+        assertFalse(LiveTransactionRegistry.isLive(tx));
+        assertTrue(provider.reportList.isEmpty());
+        assertFalse(tx.isRollbackOnlyRequested());
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected TransactionWatchdog createWatchdog(TransactionWatchdogProvider provider) {
+        TransactionWatchdog watchdog = new TransactionWatchdog();
+        watchdog.watchdogProvider = provider; // without scheduling
+        return watchdog;
+    }
+
+    protected static class MockWatchdogProvider implements TransactionWatchdogProvider {
+
+        protected final long longRunningThresholdMillis;
+        protected final long idleThresholdMillis;
+        protected final boolean rollbackOnlyMarked;
+        protected final List<TransactionWatchdogReport> reportList = new ArrayList<TransactionWatchdogReport>();
+
+        public MockWatchdogProvider(long longRunningThresholdMillis, long idleThresholdMillis, boolean rollbackOnlyMarked) {
+            this.longRunningThresholdMillis = longRunningThresholdMillis;
+            this.idleThresholdMillis = idleThresholdMillis;
+            this.rollbackOnlyMarked = rollbackOnlyMarked;
+        }
+
+        @Override
+        public long provideLongRunningThresholdMillis() {
+            return longRunningThresholdMillis;
+        }
+
+        @Override
+        public long provideIdleThresholdMillis() {
+            return idleThresholdMillis;
+        }
+
+        @Override
+        public boolean isRollbackOnlyMarked() {
+            return rollbackOnlyMarked;
+        }
+
+        @Override
+        public void handleReport(TransactionWatchdogReport report) {
+            reportList.add(report);
+        }
+    }
+
+    protected static class MockRomanticTransaction extends RomanticTransaction {
+
+        public MockRomanticTransaction(long beginMillis, long lastStatementMillis, boolean statementRunning) {
+            this.transactionBeginMillis = beginMillis;
+            this.lastStatementMillis = lastStatementMillis;
+            this.statementRunning = statementRunning;
+        }
+
+        @Override
+        public String toRomanticSnapshot(ConnectionWrapper wrapper) {
+            return "mock snapshot";
+        }
+    }
+}
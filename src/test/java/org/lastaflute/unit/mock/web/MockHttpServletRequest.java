@@ -0,0 +1,528 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.unit.mock.web;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.DispatcherType;
+import javax.servlet.ReadListener;
+import javax.servlet.RequestDispatcher;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import javax.servlet.http.HttpUpgradeHandler;
+import javax.servlet.http.Part;
+
+/**
+ * @author jflute
+ */
+public class MockHttpServletRequest implements HttpServletRequest {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected final Map<String, List<String>> headerMap = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+    protected final Map<String, String[]> parameterMap = new LinkedHashMap<String, String[]>();
+    protected final Map<String, Object> attributeMap = new LinkedHashMap<String, Object>();
+    protected String method = "GET";
+    protected String contextPath = "";
+    protected String requestURI = "/";
+    protected String queryString;
+    protected String contentType;
+    protected String characterEncoding;
+    protected byte[] body = new byte[0];
+    protected boolean contentLengthUnknown; // e.g. chunked
+    protected String remoteAddr = "127.0.0.1";
+    protected boolean secure;
+    protected Cookie[] cookies;
+    protected ServletInputStream stream;
+
+    // ===================================================================================
+    //                                                                         Mock Facade
+    //                                                                         ===========
+    public MockHttpServletRequest mockMethod(String method) {
+        this.method = method;
+        return this;
+    }
+
+    public MockHttpServletRequest mockRequestURI(String requestURI) {
+        this.requestURI = requestURI;
+        return this;
+    }
+
+    public MockHttpServletRequest mockHeader(String name, String value) {
+        headerMap.computeIfAbsent(name, key -> new ArrayList<String>()).add(value);
+        return this;
+    }
+
+    public MockHttpServletRequest mockParameter(String name, String... values) {
+        parameterMap.put(name, values);
+        return this;
+    }
+
+    public MockHttpServletRequest mockBody(String contentType, byte[] body) {
+        this.contentType = contentType;
+        this.body = body;
+        return this;
+    }
+
+    public MockHttpServletRequest mockContentLengthUnknown() {
+        contentLengthUnknown = true;
+        return this;
+    }
+
+    public MockHttpServletRequest mockRemoteAddr(String remoteAddr) {
+        this.remoteAddr = remoteAddr;
+        return this;
+    }
+
+    public MockHttpServletRequest mockSecure() {
+        secure = true;
+        return this;
+    }
+
+    public MockHttpServletRequest mockCookies(Cookie... cookies) {
+        this.cookies = cookies;
+        return this;
+    }
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    @Override
+    public Object getAttribute(String name) {
+        return attributeMap.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(new ArrayList<String>(attributeMap.keySet()));
+    }
+
+    @Override
+    public void setAttribute(String name, Object o) {
+        if (o == null) {
+            attributeMap.remove(name);
+        } else {
+            attributeMap.put(name, o);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributeMap.remove(name);
+    }
+
+    // ===================================================================================
+    //                                                                              Header
+    //                                                                              ======
+    @Override
+    public String getHeader(String name) {
+        final List<String> values = headerMap.get(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        final List<String> values = headerMap.get(name);
+        return Collections.enumeration(values != null ? values : Collections.emptyList());
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(new ArrayList<String>(headerMap.keySet()));
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        return -1L; // unsupported in mock
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        final String value = getHeader(name);
+        return value != null ? Integer.parseInt(value) : -1;
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        return cookies;
+    }
+
+    // ===================================================================================
+    //                                                                           Parameter
+    //                                                                           =========
+    @Override
+    public String getParameter(String name) {
+        final String[] values = parameterMap.get(name);
+        return values != null && values.length > 0 ? values[0] : null;
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(new ArrayList<String>(parameterMap.keySet()));
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameterMap.get(name);
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameterMap);
+    }
+
+    // ===================================================================================
+    //                                                                                Body
+    //                                                                                ====
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setCharacterEncoding(String env) throws UnsupportedEncodingException {
+        characterEncoding = env;
+    }
+
+    @Override
+    public int getContentLength() {
+        return (int) getContentLengthLong();
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return contentLengthUnknown ? -1L : body.length;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (stream == null) {
+            final ByteArrayInputStream ins = new ByteArrayInputStream(body);
+            stream = new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return ins.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    return ins.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return ins.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Non-blocking read is unsupported in mock.");
+                }
+            };
+        }
+        return stream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        final String encoding = characterEncoding != null ? characterEncoding : "UTF-8";
+        return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+    }
+
+    // ===================================================================================
+    //                                                                             Request
+    //                                                                             =======
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestURI;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer((secure ? "https" : "http") + "://localhost" + requestURI);
+    }
+
+    @Override
+    public String getServletPath() {
+        return requestURI.substring(contextPath.length());
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getPathTranslated() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getProtocol() {
+        return "HTTP/1.1";
+    }
+
+    @Override
+    public String getScheme() {
+        return secure ? "https" : "http";
+    }
+
+    @Override
+    public boolean isSecure() {
+        return secure;
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return Locale.getDefault();
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(Collections.singletonList(getLocale()));
+    }
+
+    // ===================================================================================
+    //                                                                       Server/Client
+    //                                                                       =============
+    @Override
+    public String getServerName() {
+        return "localhost";
+    }
+
+    @Override
+    public int getServerPort() {
+        return secure ? 443 : 80;
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return remoteAddr;
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return remoteAddr;
+    }
+
+    @Override
+    public int getRemotePort() {
+        return 0;
+    }
+
+    @Override
+    public String getLocalName() {
+        return "localhost";
+    }
+
+    @Override
+    public String getLocalAddr() {
+        return "127.0.0.1";
+    }
+
+    @Override
+    public int getLocalPort() {
+        return getServerPort();
+    }
+
+    // ===================================================================================
+    //                                                                         Unsupported
+    //                                                                         ===========
+    @Override
+    public HttpSession getSession(boolean create) {
+        return null; // no session in mock
+    }
+
+    @Override
+    public HttpSession getSession() {
+        throw new UnsupportedOperationException("Session is unsupported in mock.");
+    }
+
+    @Override
+    public String changeSessionId() {
+        throw new UnsupportedOperationException("Session is unsupported in mock.");
+    }
+
+    @Override
+    public String getRequestedSessionId() {
+        return null;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromCookie() {
+        return false;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdFromURL() {
+        return false;
+    }
+
+    @Override
+    @Deprecated
+    public boolean isRequestedSessionIdFromUrl() {
+        return false;
+    }
+
+    @Override
+    public String getAuthType() {
+        return null;
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return null;
+    }
+
+    @Override
+    public boolean isUserInRole(String role) {
+        return false;
+    }
+
+    @Override
+    public Principal getUserPrincipal() {
+        return null;
+    }
+
+    @Override
+    public boolean authenticate(HttpServletResponse response) throws IOException, ServletException {
+        throw new UnsupportedOperationException("Authentication is unsupported in mock.");
+    }
+
+    @Override
+    public void login(String username, String password) throws ServletException {
+        throw new UnsupportedOperationException("Authentication is unsupported in mock.");
+    }
+
+    @Override
+    public void logout() throws ServletException {
+        throw new UnsupportedOperationException("Authentication is unsupported in mock.");
+    }
+
+    @Override
+    public Collection<Part> getParts() throws IOException, ServletException {
+        throw new UnsupportedOperationException("Servlet multipart is unsupported in mock.");
+    }
+
+    @Override
+    public Part getPart(String name) throws IOException, ServletException {
+        throw new UnsupportedOperationException("Servlet multipart is unsupported in mock.");
+    }
+
+    @Override
+    public <T extends HttpUpgradeHandler> T upgrade(Class<T> handlerClass) throws IOException, ServletException {
+        throw new UnsupportedOperationException("Upgrade is unsupported in mock.");
+    }
+
+    @Override
+    public RequestDispatcher getRequestDispatcher(String path) {
+        throw new UnsupportedOperationException("Dispatch is unsupported in mock.");
+    }
+
+    @Override
+    @Deprecated
+    public String getRealPath(String path) {
+        return null;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return null;
+    }
+
+    @Override
+    public AsyncContext startAsync() throws IllegalStateException {
+        throw new IllegalStateException("Async is unsupported in mock.");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) throws IllegalStateException {
+        throw new IllegalStateException("Async is unsupported in mock.");
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        throw new IllegalStateException("Async is unsupported in mock.");
+    }
+}
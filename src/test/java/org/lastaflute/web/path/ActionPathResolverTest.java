@@ -0,0 +1,265 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.dbflute.optional.OptionalThing;
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.web.UrlChain;
+import org.lastaflute.web.ruts.config.ActionMapping;
+import org.lastaflute.web.ruts.config.UrlPatternSegmentMatcher;
+import org.lastaflute.web.ruts.config.UrlPatternSegmentMatcher.SegmentType;
+
+/**
+ * @author jflute
+ */
+public class ActionPathResolverTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                         toActionUrl
+    //                                                                         ===========
+    public void test_toActionUrl_basic() {
+        // ## Arrange ##
+        MockResolver resolver = createResolver(false);
+
+        // ## Act ##
+        String plain = resolver.toActionUrl(ProductListAction.class);
+        String chained = resolver.toActionUrl(ProductListAction.class, newChain().moreUrl(3, "C++").params("keyword", "C++", "sea", "%41")
+                .hash("sea land"));
+
+        // ## Assert ##
+        log(plain, chained);
+        assertEquals("/product/list/", plain);
+        assertEquals("/product/list/3/C++?keyword=C%2B%2B&sea=%2541#sea%20land", chained);
+    }
+
+    public void test_toActionUrl_encodedValue() {
+        // ## Arrange ##
+        MockResolver resolver = createResolver(false);
+
+        // ## Act ##
+        String url = resolver.toActionUrl(ProductListAction.class, newChain().params("keyword", EncodedUrlValue.of("C%2B%2B")));
+
+        // ## Assert ##
+        assertEquals("/product/list/?keyword=C%2B%2B", url);
+    }
+
+    public void test_toActionUrl_suppressEncoding() {
+        // ## Arrange ##
+        MockResolver resolver = createResolver(false);
+        resolver.actionUrlEncoder = new ActionUrlEncoder(true);
+
+        // ## Act ##
+        String url = resolver.toActionUrl(ProductListAction.class, newChain().params("keyword", "C%2B%2B"));
+
+        // ## Assert ##
+        assertEquals("/product/list/?keyword=C%2B%2B", url); // as it is
+    }
+
+    // -----------------------------------------------------
+    //                                      ActionPath Table
+    //                                      ----------------
+    public void test_toActionUrl_table_cached() {
+        // ## Arrange ##
+        MockResolver resolver = createResolver(false);
+
+        // ## Act ##
+        resolver.toActionUrl(ProductListAction.class);
+        resolver.toActionUrl(ProductListAction.class, newChain().moreUrl(3));
+        resolver.toActionUrl(MemberEditAction.class);
+
+        // ## Assert ##
+        assertEquals(Arrays.asList(ProductListAction.class, MemberEditAction.class), resolver.createdTypeList); // once per class
+        assertEquals(2, resolver.actionPathTable.size());
+        assertEquals("/member/edit/", resolver.actionPathTable.get(MemberEditAction.class).getActionPath());
+    }
+
+    public void test_toActionUrl_table_hotdeploy() {
+        // ## Arrange ##
+        MockResolver resolver = createResolver(true);
+
+        // ## Act ##
+        String first = resolver.toActionUrl(ProductListAction.class);
+        String second = resolver.toActionUrl(ProductListAction.class);
+
+        // ## Assert ##
+        assertEquals("/product/list/", first);
+        assertEquals("/product/list/", second);
+        assertEquals(Arrays.asList(ProductListAction.class, ProductListAction.class), resolver.createdTypeList); // every time
+        assertTrue(resolver.actionPathTable.isEmpty()); // because classes are reloaded
+    }
+
+    // -----------------------------------------------------
+    //                                          URL Template
+    //                                          ------------
+    public void test_toActionUrl_template_basic() {
+        // ## Arrange ##
+        MockResolver resolver = createResolver(false);
+        resolver.indexMatcherList = Arrays.asList(matcher("{}", "purchase", "{}"), matcher("{}", "{}", "{}"));
+
+        // ## Act ##
+        String embedded = resolver.toActionUrl(ProductListAction.class, newChain().moreUrl(3, 4));
+        String joined = resolver.toActionUrl(ProductListAction.class, newChain().moreUrl(3));
+        String nullSkipped = resolver.toActionUrl(ProductListAction.class, newChain().moreUrl(3, null, "sea land"));
+        String noTemplate = resolver.toActionUrl(ProductListAction.class, newChain().moreUrl(3, 4, 5)); // {}/{}/{}
+
+        // ## Assert ##
+        log(embedded, joined, nullSkipped, noTemplate);
+        assertEquals("/product/list/3/purchase/4", embedded);
+        assertEquals("/product/list/3", joined);
+        assertEquals("/product/list/3/purchase/sea%20land", nullSkipped);
+        assertEquals("/product/list/3/4/5", noTemplate);
+    }
+
+    public void test_toActionUrl_template_ambiguous() {
+        // ## Arrange ##
+        MockResolver resolver = createResolver(false);
+        resolver.indexMatcherList = Arrays.asList(matcher("{}", "purchase", "{}"), matcher("{}", "cancel", "{}"),
+                matcher("detail", "{}"), matcher("detail", "{}")); // same pattern e.g. get$index and post$index
+
+        // ## Act ##
+        String ambiguous = resolver.toActionUrl(ProductListAction.class, newChain().moreUrl(3, 4));
+        String sameOnly = resolver.toActionUrl(ProductListAction.class, newChain().moreUrl(3));
+
+        // ## Assert ##
+        assertEquals("/product/list/3/4", ambiguous); // cannot determine so joined
+        assertEquals("/product/list/detail/3", sameOnly);
+    }
+
+    // -----------------------------------------------------
+    //                                           URL Builder
+    //                                           -----------
+    public void test_toActionUrl_pooledBuilder_reused() {
+        // ## Arrange ##
+        MockResolver resolver = createResolver(false);
+        resolver.toActionUrl(ProductListAction.class, newChain().moreUrl(3));
+        StringBuilder pooled = resolver.urlBuilderLocal.get();
+        assertNotNull(pooled);
+        assertEquals(0, pooled.length()); // cleared when returned
+
+        // ## Act ##
+        String url = resolver.toActionUrl(MemberEditAction.class, newChain().moreUrl(4));
+
+        // ## Assert ##
+        assertEquals("/member/edit/4", url);
+        assertSame(pooled, resolver.urlBuilderLocal.get());
+    }
+
+    public void test_toActionUrl_pooledBuilder_nested() {
+        // ## Arrange ##
+        MockResolver resolver = createResolver(false);
+        Object nested = new Object() {
+            @Override
+            public String toString() { // e.g. parameter building URL
+                return resolver.toActionUrl(MemberEditAction.class, newChain().moreUrl(4));
+            }
+        };
+
+        // ## Act ##
+        String url = resolver.toActionUrl(ProductListAction.class, newChain().params("back", nested));
+
+        // ## Assert ##
+        assertEquals("/product/list/?back=/member/edit/4", url);
+    }
+
+    public void test_toActionUrl_pooledBuilder_large_notPooled() {
+        // ## Arrange ##
+        MockResolver resolver = createResolver(false);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < ActionPathResolver.MAX_POOLED_BUILDER_CAPACITY; i++) {
+            sb.append("a");
+        }
+
+        // ## Act ##
+        String url = resolver.toActionUrl(ProductListAction.class, newChain().params("sea", sb.toString()));
+
+        // ## Assert ##
+        assertTrue(url.endsWith(sb.toString()));
+        assertNull(resolver.urlBuilderLocal.get()); // released
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected MockResolver createResolver(boolean hotdeploy) {
+        MockResolver resolver = new MockResolver(hotdeploy);
+        resolver.actionUrlEncoder = new ActionUrlEncoder();
+        return resolver;
+    }
+
+    protected UrlChain newChain() {
+        return new UrlChain(null);
+    }
+
+    protected UrlPatternSegmentMatcher matcher(String... segments) {
+        List<SegmentType> typeList = new ArrayList<SegmentType>();
+        List<String> literalList = new ArrayList<String>();
+        for (String segment : segments) {
+            boolean parameter = segment.equals("{}");
+            typeList.add(parameter ? SegmentType.PARAMETER : SegmentType.LITERAL);
+            literalList.add(parameter ? null : segment);
+        }
+        return new UrlPatternSegmentMatcher(typeList, literalList);
+    }
+
+    protected static class MockResolver extends ActionPathResolver {
+
+        protected final boolean hotdeploy;
+        protected final List<Class<?>> createdTypeList = new ArrayList<Class<?>>();
+        protected List<UrlPatternSegmentMatcher> indexMatcherList = Collections.emptyList();
+
+        public MockResolver(boolean hotdeploy) {
+            this.hotdeploy = hotdeploy;
+        }
+
+        @Override
+        protected boolean isHotdeploy() {
+            return hotdeploy;
+        }
+
+        @Override
+        protected OptionalThing<ActionMapping> findActionMapping(Class<?> actionType) {
+            return OptionalThing.empty(); // no container in this test
+        }
+
+        @Override
+        protected ActionPathEntry createActionPathEntry(Class<?> actionType, OptionalThing<ActionMapping> optMapping) {
+            createdTypeList.add(actionType);
+            return new ActionPathEntry(doResolveActionPath(actionType), prepareUrlTemplateMap(indexMatcherList));
+        }
+
+        @Override
+        protected String toSimpleActionName(Class<?> actionType) { // no naming convention in this test
+            return removeRearActionSuffixIfNeeds(Character.toLowerCase(actionType.getSimpleName().charAt(0))
+                    + actionType.getSimpleName().substring(1));
+        }
+
+        @Override
+        protected String removeRearActionSuffixIfNeeds(String path) {
+            return path.endsWith("Action") ? path.substring(0, path.length() - "Action".length()) : path;
+        }
+    }
+
+    protected static class ProductListAction {
+    }
+
+    protected static class MemberEditAction {
+    }
+}
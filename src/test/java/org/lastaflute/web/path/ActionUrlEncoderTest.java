@@ -0,0 +1,117 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.path;
+
+import java.util.Arrays;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.web.ruts.config.UrlPatternSegmentMatcher;
+import org.lastaflute.web.ruts.config.UrlPatternSegmentMatcher.SegmentType;
+
+/**
+ * @author jflute
+ */
+public class ActionUrlEncoderTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                              Encode
+    //                                                                              ======
+    public void test_appendPathSegment_basic() {
+        assertEquals("sea", path("sea"));
+        assertEquals("sea/land", path("sea/land")); // plural segments in one part
+        assertEquals("sea%20land", path("sea land"));
+        assertEquals("sea%3Fland%23piari", path("sea?land#piari"));
+        assertEquals("%E6%B5%B7", path("\u6D77"));
+        assertEquals("%F0%9F%8C%8A", path("\uD83C\uDF0A")); // surrogate pair
+        assertEquals("100%25", path("100%"));
+        assertEquals("sea%2520land", path("sea%20land")); // raw value
+        assertEquals("C++", path("C++")); // not space in path
+    }
+
+    public void test_appendQueryComponent_basic() {
+        assertEquals("sea", query("sea"));
+        assertEquals("sea%26land%3Dpiari", query("sea&land=piari"));
+        assertEquals("C%2B%2B", query("C++")); // not space of form encoding
+        assertEquals("%2541", query("%41")); // raw value
+        assertEquals("sea%23land", query("sea#land"));
+        assertEquals("a/b?c", query("a/b?c"));
+        assertEquals("%25z", query("%z"));
+    }
+
+    public void test_appendHash_basic() {
+        assertEquals("result", hash("result"));
+        assertEquals("sea%23land", hash("sea#land"));
+    }
+
+    public void test_append_encodedValue() {
+        assertEquals("sea%20land", path(EncodedUrlValue.of("sea%20land")));
+        assertEquals("C%2B%2B", query(EncodedUrlValue.of("C%2B%2B")));
+        assertEquals("sea+land", query(EncodedUrlValue.of("sea+land")));
+        assertEquals("sea%23land", hash(EncodedUrlValue.of("sea%23land")));
+    }
+
+    public void test_append_suppressEncoding() {
+        // ## Arrange ##
+        ActionUrlEncoder encoder = new ActionUrlEncoder(true);
+        StringBuilder sb = new StringBuilder();
+
+        // ## Act ##
+        encoder.appendPathSegment(sb, "sea%20land");
+        sb.append("?");
+        encoder.appendQueryComponent(sb, "C+%2B");
+
+        // ## Assert ##
+        assertEquals("sea%20land?C+%2B", sb.toString()); // as it is, same as old versions
+    }
+
+    protected String path(Object value) {
+        StringBuilder sb = new StringBuilder();
+        new ActionUrlEncoder().appendPathSegment(sb, value);
+        return sb.toString();
+    }
+
+    protected String query(Object value) {
+        StringBuilder sb = new StringBuilder();
+        new ActionUrlEncoder().appendQueryComponent(sb, value);
+        return sb.toString();
+    }
+
+    protected String hash(Object value) {
+        StringBuilder sb = new StringBuilder();
+        new ActionUrlEncoder().appendHash(sb, value);
+        return sb.toString();
+    }
+
+    // ===================================================================================
+    //                                                                            Template
+    //                                                                            ========
+    public void test_template_build() {
+        // ## Arrange ##
+        UrlPatternSegmentMatcher matcher = new UrlPatternSegmentMatcher(
+                Arrays.asList(SegmentType.PARAMETER, SegmentType.LITERAL, SegmentType.NUMBER),
+                Arrays.asList(null, "purchase", null));
+        ActionUrlTemplate template = new ActionUrlTemplate(matcher);
+        StringBuilder sb = new StringBuilder("/product/list/");
+
+        // ## Act ##
+        template.build(sb, new Object[] { "sea land", null, 4 }, new ActionUrlEncoder());
+
+        // ## Assert ##
+        log(template, sb);
+        assertEquals(2, template.getParameterCount());
+        assertEquals("/product/list/sea%20land/purchase/4", sb.toString());
+    }
+}
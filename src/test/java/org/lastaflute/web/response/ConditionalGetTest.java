@@ -0,0 +1,73 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.response;
+
+import org.dbflute.utflute.core.PlainTestCase;
+
+/**
+ * @author jflute
+ */
+public class ConditionalGetTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                          Entity Tag
+    //                                                                          ==========
+    public void test_matchesIfNoneMatch_strong() {
+        // ## Arrange ##
+        String etag = "\"sea\"";
+
+        // ## Act ##
+        // ## Assert ##
+        assertTrue(ConditionalGet.matchesIfNoneMatch("\"sea\"", etag));
+        assertFalse(ConditionalGet.matchesIfNoneMatch("\"land\"", etag));
+        assertFalse(ConditionalGet.matchesIfNoneMatch("sea", etag)); // not quoted
+        assertFalse(ConditionalGet.matchesIfNoneMatch("\"se\"", etag));
+    }
+
+    public void test_matchesIfNoneMatch_weakComparison() {
+        // ## Arrange ##
+        String weakEtag = "W/\"sea\"";
+        String strongEtag = "\"sea\"";
+
+        // ## Act ##
+        // ## Assert ##
+        assertTrue(ConditionalGet.matchesIfNoneMatch("W/\"sea\"", weakEtag));
+        assertTrue(ConditionalGet.matchesIfNoneMatch("\"sea\"", weakEtag));
+        assertTrue(ConditionalGet.matchesIfNoneMatch("W/\"sea\"", strongEtag));
+        assertFalse(ConditionalGet.matchesIfNoneMatch("W/\"land\"", weakEtag));
+    }
+
+    public void test_matchesIfNoneMatch_list() {
+        // ## Arrange ##
+        String etag = "\"sea\"";
+
+        // ## Act ##
+        // ## Assert ##
+        assertTrue(ConditionalGet.matchesIfNoneMatch("\"land\", \"sea\"", etag));
+        assertTrue(ConditionalGet.matchesIfNoneMatch("\"land\",W/\"sea\" ,\"piari\"", etag));
+        assertFalse(ConditionalGet.matchesIfNoneMatch("\"land\", \"piari\"", etag));
+        assertFalse(ConditionalGet.matchesIfNoneMatch("", etag));
+    }
+
+    public void test_matchesIfNoneMatch_asterisk() {
+        // ## Arrange ##
+        // ## Act ##
+        // ## Assert ##
+        assertTrue(ConditionalGet.matchesIfNoneMatch("*", "\"sea\""));
+        assertTrue(ConditionalGet.matchesIfNoneMatch(" * ", "W/\"sea\""));
+        assertTrue(ConditionalGet.matchesIfNoneMatch("\"land\", *", "\"sea\""));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts;
+
+import org.dbflute.optional.OptionalThing;
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.web.ruts.process.ActionResponseReflector;
+import org.lastaflute.web.ruts.process.ActionRuntime;
+import org.lastaflute.web.ruts.process.profile.ActionPhase;
+import org.lastaflute.web.ruts.process.profile.ActionRequestProfile;
+
+/**
+ * @author jflute
+ */
+public class ActionRequestProcessorTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                       Request Phase
+    //                                                                       =============
+    public void test_fire_readyFailure_phaseStopped() throws Exception {
+        // ## Arrange ##
+        ActionRequestProfile profile = new ActionRequestProfile();
+        ActionRuntime runtime = createRuntime(profile);
+        ActionRequestProcessor processor = new ActionRequestProcessor() {
+            @Override
+            protected ActionResponseReflector createResponseReflector(ActionRuntime runtime) {
+                throw new IllegalStateException("mock ready failure");
+            }
+        };
+
+        // ## Act ##
+        // ## Assert ##
+        try {
+            processor.fire(runtime);
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+        }
+        assertTrue(profile.isMeasured(ActionPhase.READY));
+        assertFalse(profile.isMeasured(ActionPhase.FORM_POPULATION));
+    }
+
+    public void test_doFireThrottled_formPopulationFailure_phaseStopped() throws Exception {
+        // ## Arrange ##
+        ActionRequestProfile profile = new ActionRequestProfile();
+        ActionRuntime runtime = createRuntime(profile);
+        ActionRequestProcessor processor = new ActionRequestProcessor() {
+            @Override
+            public OptionalThing<VirtualForm> prepareActionForm(ActionRuntime runtime) {
+                throw new IllegalStateException("mock form failure");
+            }
+        };
+
+        // ## Act ##
+        // ## Assert ##
+        try {
+            processor.doFireThrottled(runtime, null);
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+        }
+        assertTrue(profile.isMeasured(ActionPhase.FORM_POPULATION));
+        assertFalse(profile.isMeasured(ActionPhase.ACTION_EXECUTION));
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected ActionRuntime createRuntime(ActionRequestProfile profile) {
+        ActionRuntime runtime = new ActionRuntime("/sea/", null, null); // execute is not used before failure
+        runtime.manageRequestProfile(profile);
+        return runtime;
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.http.Cookie;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.unit.mock.web.MockHttpServletResponse;
+
+/**
+ * @author jflute
+ */
+public class ResponseCapturingWrapperTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                             Capture
+    //                                                                             =======
+    public void test_toCachedResponse_captured() throws IOException {
+        // ## Arrange ##
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        original.setHeader("X-Frame-Options", "DENY"); // by filter before action
+        ResponseCapturingWrapper wrapper = new ResponseCapturingWrapper(original, 1024);
+        wrapper.setContentType("application/json");
+        wrapper.setHeader("ETag", "\"sea\"");
+        wrapper.addHeader("Vary", "Accept-Encoding");
+
+        // ## Act ##
+        PrintWriter writer = wrapper.getWriter();
+        writer.write("{\"sea\":\"mystic\"}");
+        CachedResponse cached = wrapper.toCachedResponse(9000L);
+
+        // ## Assert ##
+        assertNotNull(cached);
+        log(cached, cached.getHeaderMap());
+        assertEquals(200, cached.getStatus());
+        assertEquals("application/json", cached.getContentType());
+        assertEquals("\"sea\"", cached.getHeaderMap().get("ETag").get(0));
+        assertEquals("Accept-Encoding", cached.getHeaderMap().get("Vary").get(0));
+        assertFalse(cached.getHeaderMap().containsKey("X-Frame-Options")); // written again in replay
+        assertEquals("{\"sea\":\"mystic\"}", original.getBodyAsString()); // passed through
+        assertEquals(9000L, cached.getExpireMillis());
+    }
+
+    // ===================================================================================
+    //                                                                        Uncapturable
+    //                                                                        ============
+    public void test_toCachedResponse_cookie() throws IOException {
+        // ## Arrange ##
+        ResponseCapturingWrapper wrapper = new ResponseCapturingWrapper(new MockHttpServletResponse(), 1024);
+
+        // ## Act ##
+        wrapper.addCookie(new Cookie("sea", "mystic"));
+        wrapper.getOutputStream().write(toBytes("sea"));
+
+        // ## Assert ##
+        assertNull(wrapper.toCachedResponse(9000L));
+    }
+
+    public void test_toCachedResponse_errorStatus() throws IOException {
+        // ## Arrange ##
+        ResponseCapturingWrapper wrapper = new ResponseCapturingWrapper(new MockHttpServletResponse(), 1024);
+
+        // ## Act ##
+        wrapper.setStatus(404);
+        wrapper.getOutputStream().write(toBytes("not found"));
+
+        // ## Assert ##
+        assertNull(wrapper.toCachedResponse(9000L));
+    }
+
+    public void test_toCachedResponse_sendError_and_redirect() throws IOException {
+        // ## Arrange ##
+        ResponseCapturingWrapper errorWrapper = new ResponseCapturingWrapper(new MockHttpServletResponse(), 1024);
+        ResponseCapturingWrapper redirectWrapper = new ResponseCapturingWrapper(new MockHttpServletResponse(), 1024);
+
+        // ## Act ##
+        errorWrapper.sendError(400);
+        redirectWrapper.sendRedirect("/sea/");
+
+        // ## Assert ##
+        assertNull(errorWrapper.toCachedResponse(9000L));
+        assertNull(redirectWrapper.toCachedResponse(9000L));
+    }
+
+    public void test_toCachedResponse_tooLarge() throws IOException {
+        // ## Arrange ##
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        ResponseCapturingWrapper wrapper = new ResponseCapturingWrapper(original, 4);
+
+        // ## Act ##
+        wrapper.getOutputStream().write(toBytes("sea"));
+        wrapper.getOutputStream().write(toBytes("land"));
+
+        // ## Assert ##
+        assertNull(wrapper.toCachedResponse(9000L));
+        assertEquals("sealand", original.getBodyAsString()); // passed through anyway
+    }
+
+    public void test_toCachedResponse_cacheControl() throws IOException {
+        // ## Arrange ##
+        // ## Act ##
+        // ## Assert ##
+        assertNull(prepareWrapperWithHeader("Cache-Control", "private").toCachedResponse(9000L));
+        assertNull(prepareWrapperWithHeader("Cache-Control", "max-age=60, no-store").toCachedResponse(9000L));
+        assertNull(prepareWrapperWithHeader("Cache-Control", "PRIVATE=\"Set-Cookie\"").toCachedResponse(9000L));
+        assertNotNull(prepareWrapperWithHeader("Cache-Control", "public, max-age=60").toCachedResponse(9000L));
+    }
+
+    public void test_toCachedResponse_vary() throws IOException {
+        // ## Arrange ##
+        // ## Act ##
+        // ## Assert ##
+        assertNull(prepareWrapperWithHeader("Vary", "*").toCachedResponse(9000L));
+        assertNull(prepareWrapperWithHeader("Vary", "Accept-Language, User-Agent").toCachedResponse(9000L));
+        assertNotNull(prepareWrapperWithHeader("Vary", "accept-encoding, Accept-Language").toCachedResponse(9000L));
+    }
+
+    public void test_toCachedResponse_cacheControlByFilter() throws IOException {
+        // ## Arrange ##
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        original.setHeader("Cache-Control", "no-store"); // before action
+        ResponseCapturingWrapper wrapper = new ResponseCapturingWrapper(original, 1024);
+
+        // ## Act ##
+        wrapper.getOutputStream().write(toBytes("sea"));
+
+        // ## Assert ##
+        assertNull(wrapper.toCachedResponse(9000L));
+    }
+
+    public void test_toCachedResponse_contentEncodingByAction() throws IOException {
+        // ## Arrange ##
+        // ## Act ##
+        // ## Assert ##
+        assertNull(prepareWrapperWithHeader("Content-Encoding", "gzip").toCachedResponse(9000L));
+    }
+
+    // ===================================================================================
+    //                                                                              Replay
+    //                                                                              ======
+    public void test_replay_basic() throws IOException {
+        // ## Arrange ##
+        CachedResponse cached = prepareWrapperWithHeader("ETag", "\"sea\"").toCachedResponse(9000L);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // ## Act ##
+        cached.replay(response, null);
+
+        // ## Assert ##
+        assertEquals(200, response.getStatus());
+        assertEquals("text/html", response.getContentType());
+        assertEquals("\"sea\"", response.getHeader("ETag"));
+        assertEquals("mystic", response.getBodyAsString());
+        assertEquals(6L, response.getContentLength());
+    }
+
+    public void test_replay_notModified() throws IOException {
+        // ## Arrange ##
+        CachedResponse cached = prepareWrapperWithHeader("ETag", "W/\"sea\"").toCachedResponse(9000L);
+        MockHttpServletResponse matched = new MockHttpServletResponse();
+        MockHttpServletResponse unmatched = new MockHttpServletResponse();
+
+        // ## Act ##
+        cached.replay(matched, "\"land\", W/\"sea\"");
+        cached.replay(unmatched, "\"land\"");
+
+        // ## Assert ##
+        assertEquals(304, matched.getStatus());
+        assertEquals("W/\"sea\"", matched.getHeader("ETag"));
+        assertEquals(0, matched.getBodyAsBytes().length);
+        assertEquals(200, unmatched.getStatus());
+        assertEquals("mystic", unmatched.getBodyAsString());
+    }
+
+    // ===================================================================================
+    //                                                                        Small Helper
+    //                                                                        ============
+    protected ResponseCapturingWrapper prepareWrapperWithHeader(String name, String value) throws IOException {
+        ResponseCapturingWrapper wrapper = new ResponseCapturingWrapper(new MockHttpServletResponse(), 1024);
+        wrapper.setContentType("text/html");
+        wrapper.setHeader(name, value);
+        wrapper.getOutputStream().write(toBytes("mystic"));
+        return wrapper;
+    }
+
+    protected byte[] toBytes(String str) {
+        return str.getBytes(StandardCharsets.UTF_8);
+    }
+}
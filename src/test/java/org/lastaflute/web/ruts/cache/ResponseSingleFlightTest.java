@@ -0,0 +1,109 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.dbflute.utflute.core.PlainTestCase;
+
+/**
+ * @author jflute
+ */
+public class ResponseSingleFlightTest extends PlainTestCase {
+
+    public void test_fly_leader() throws Exception {
+        // ## Arrange ##
+        ResponseSingleFlight singleFlight = new ResponseSingleFlight();
+        CachedResponse response = newResponse();
+        AtomicReference<CompletableFuture<CachedResponse>> flying = new AtomicReference<CompletableFuture<CachedResponse>>();
+        AtomicInteger followedCount = new AtomicInteger();
+
+        // ## Act ##
+        singleFlight.fly("sea", 5000L, () -> {
+            flying.set(singleFlight.flightMap.get("sea"));
+            return response;
+        }, shared -> followedCount.incrementAndGet());
+
+        // ## Assert ##
+        assertEquals(0, followedCount.get());
+        assertEquals(response, flying.get().get()); // completed for followers
+        assertEquals(0, singleFlight.countFlying()); // not kept after flight
+    }
+
+    public void test_fly_follower() throws Exception {
+        // ## Arrange ##
+        ResponseSingleFlight singleFlight = new ResponseSingleFlight();
+        CachedResponse response = newResponse();
+        CompletableFuture<CachedResponse> flying = new CompletableFuture<CachedResponse>();
+        flying.complete(response); // as leader already generated
+        singleFlight.flightMap.put("sea", flying);
+        AtomicReference<CachedResponse> followed = new AtomicReference<CachedResponse>();
+
+        // ## Act ##
+        singleFlight.fly("sea", 5000L, () -> {
+            throw new IllegalStateException("follower does not lead");
+        }, shared -> followed.set(shared));
+
+        // ## Assert ##
+        assertEquals(response, followed.get());
+    }
+
+    public void test_fly_follower_timeout() throws Exception {
+        // ## Arrange ##
+        ResponseSingleFlight singleFlight = new ResponseSingleFlight();
+        singleFlight.flightMap.put("sea", new CompletableFuture<CachedResponse>()); // leader never finishes
+        AtomicInteger followedCount = new AtomicInteger();
+        AtomicReference<CachedResponse> followed = new AtomicReference<CachedResponse>(newResponse());
+
+        // ## Act ##
+        singleFlight.fly("sea", 50L, () -> null, shared -> {
+            followedCount.incrementAndGet();
+            followed.set(shared);
+        });
+
+        // ## Assert ##
+        assertEquals(1, followedCount.get());
+        assertNull(followed.get()); // follower generates by itself
+    }
+
+    public void test_fly_leader_failure() throws Exception {
+        // ## Arrange ##
+        ResponseSingleFlight singleFlight = new ResponseSingleFlight();
+        AtomicReference<CompletableFuture<CachedResponse>> flying = new AtomicReference<CompletableFuture<CachedResponse>>();
+
+        // ## Act ##
+        try {
+            singleFlight.fly("sea", 5000L, () -> {
+                flying.set(singleFlight.flightMap.get("sea"));
+                throw new IllegalStateException("mystic");
+            }, shared -> {});
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+        }
+
+        // ## Assert ##
+        assertNull(flying.get().get()); // followers generate by themselves
+        assertEquals(0, singleFlight.countFlying());
+    }
+
+    protected CachedResponse newResponse() {
+        return new CachedResponse(200, "application/json", Collections.emptyMap(), "{}".getBytes(), Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.ServletException;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.web.RequestCoalesced;
+import org.lastaflute.web.ruts.process.ActionRuntime;
+
+/**
+ * @author jflute
+ */
+public class SimpleActionRequestCoalescerTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                           Attribute
+    //                                                                           =========
+    protected ExecutorService service;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        service = Executors.newFixedThreadPool(2);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        service.shutdownNow();
+        super.tearDown();
+    }
+
+    // ===================================================================================
+    //                                                                     Leader/Follower
+    //                                                                     ===============
+    public void test_coalesce_followerSharesLeaderResponse() throws Exception {
+        // ## Arrange ##
+        MockCoalescer coalescer = new MockCoalescer(newResponse());
+        AtomicInteger generatedCount = new AtomicInteger();
+        AtomicInteger passedCount = new AtomicInteger();
+        CountDownLatch leaderEntered = new CountDownLatch(1);
+        CountDownLatch leaderReleased = new CountDownLatch(1);
+
+        // ## Act ##
+        Future<?> leader = service.submit(() -> {
+            coalescer.coalesce(null, coalesced("longWait"), () -> {
+                throw new IllegalStateException("leader does not pass the gate");
+            }, () -> {
+                generatedCount.incrementAndGet();
+                leaderEntered.countDown();
+                await(leaderReleased);
+            });
+            return null;
+        });
+        assertTrue(leaderEntered.await(5, TimeUnit.SECONDS));
+        Future<?> follower = service.submit(() -> {
+            coalescer.coalesce(null, coalesced("longWait"), () -> {
+                passedCount.incrementAndGet();
+                return true;
+            }, () -> generatedCount.incrementAndGet());
+            return null;
+        });
+        assertTrue(coalescer.followerWaiting.await(5, TimeUnit.SECONDS));
+        leaderReleased.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+        follower.get(5, TimeUnit.SECONDS);
+
+        // ## Assert ##
+        assertEquals(1, generatedCount.get()); // only leader
+        assertEquals(1, passedCount.get()); // follower passes the gate e.g. login check
+        assertEquals(1, coalescer.writtenList.size());
+        assertEquals(coalescer.capturedResponse, coalescer.writtenList.get(0));
+        assertTrue(coalescer.singleFlight.flightMap.isEmpty());
+    }
+
+    public void test_coalesce_followerRejectedByGate() throws Exception {
+        // ## Arrange ##
+        MockCoalescer coalescer = new MockCoalescer(newResponse());
+        CompletableFuture<CachedResponse> executing = new CompletableFuture<CachedResponse>();
+        executing.complete(coalescer.capturedResponse); // as leader already executed
+        coalescer.singleFlight.flightMap.put("sea[]", executing);
+        AtomicInteger generatedCount = new AtomicInteger();
+
+        // ## Act ##
+        coalescer.coalesce(null, coalesced("longWait"), () -> false, () -> generatedCount.incrementAndGet());
+
+        // ## Assert ##
+        assertEquals(0, generatedCount.get());
+        assertTrue(coalescer.writtenList.isEmpty()); // e.g. login redirect by hook instead
+    }
+
+    public void test_coalesce_sequentialRequestsNotCoalesced() throws Exception {
+        // ## Arrange ##
+        MockCoalescer coalescer = new MockCoalescer(newResponse());
+        AtomicInteger generatedCount = new AtomicInteger();
+
+        // ## Act ##
+        coalescer.coalesce(null, coalesced("longWait"), () -> true, () -> generatedCount.incrementAndGet());
+        coalescer.coalesce(null, coalesced("longWait"), () -> true, () -> generatedCount.incrementAndGet());
+
+        // ## Assert ##
+        assertEquals(2, generatedCount.get()); // nothing kept after execution
+        assertTrue(coalescer.writtenList.isEmpty());
+        assertTrue(coalescer.singleFlight.flightMap.isEmpty());
+    }
+
+    // ===================================================================================
+    //                                                                            Fallback
+    //                                                                            ========
+    public void test_coalesce_waitTimeout() throws Exception {
+        // ## Arrange ##
+        MockCoalescer coalescer = new MockCoalescer(newResponse());
+        coalescer.singleFlight.flightMap.put("sea[]", new CompletableFuture<CachedResponse>()); // leader never finishes
+        AtomicInteger generatedCount = new AtomicInteger();
+
+        // ## Act ##
+        long before = System.currentTimeMillis();
+        coalescer.coalesce(null, coalesced("shortWait"), () -> true, () -> generatedCount.incrementAndGet());
+        long after = System.currentTimeMillis();
+
+        // ## Assert ##
+        assertEquals(1, generatedCount.get()); // executes by itself
+        assertTrue(coalescer.writtenList.isEmpty());
+        assertTrue(after - before >= 50L);
+    }
+
+    public void test_coalesce_uncapturableFallback() throws Exception {
+        // ## Arrange ##
+        MockCoalescer coalescer = new MockCoalescer(null); // e.g. cookie, error status
+        AtomicInteger generatedCount = new AtomicInteger();
+        CountDownLatch leaderEntered = new CountDownLatch(1);
+        CountDownLatch leaderReleased = new CountDownLatch(1);
+
+        // ## Act ##
+        Future<?> leader = service.submit(() -> {
+            coalescer.coalesce(null, coalesced("longWait"), () -> true, () -> {
+                generatedCount.incrementAndGet();
+                leaderEntered.countDown();
+                await(leaderReleased);
+            });
+            return null;
+        });
+        assertTrue(leaderEntered.await(5, TimeUnit.SECONDS));
+        Future<?> follower = service.submit(() -> {
+            coalescer.coalesce(null, coalesced("longWait"), () -> true, () -> generatedCount.incrementAndGet());
+            return null;
+        });
+        assertTrue(coalescer.followerWaiting.await(5, TimeUnit.SECONDS));
+        leaderReleased.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+        follower.get(5, TimeUnit.SECONDS);
+
+        // ## Assert ##
+        assertEquals(2, generatedCount.get()); // follower executes by itself
+        assertTrue(coalescer.writtenList.isEmpty());
+    }
+
+    public void test_coalesce_unidentifiedLoginUser() throws Exception {
+        // ## Arrange ##
+        MockCoalescer coalescer = new MockCoalescer(newResponse());
+        coalescer.generatedForLogin = false; // e.g. login user only in shared storage
+
+        // ## Act ##
+        coalescer.coalesce(null, coalesced("longWait"), () -> true, () -> {
+            coalescer.leaderFuture = coalescer.singleFlight.flightMap.get("sea[]");
+        });
+
+        // ## Assert ##
+        assertNotNull(coalescer.leaderFuture);
+        assertNull(coalescer.leaderFuture.get()); // not shared
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Helper
+    //                                                                         ===========
+    protected static class MockCoalescer extends SimpleActionRequestCoalescer {
+
+        protected final CachedResponse capturedResponse; // null means uncapturable
+        protected final List<CachedResponse> writtenList = new CopyOnWriteArrayList<CachedResponse>();
+        protected final CountDownLatch followerWaiting = new CountDownLatch(1);
+        protected volatile boolean generatedForLogin = true;
+        protected volatile CompletableFuture<CachedResponse> leaderFuture;
+
+        public MockCoalescer(CachedResponse capturedResponse) {
+            this.capturedResponse = capturedResponse;
+        }
+
+        @Override
+        protected List<String> identifySessionLogin() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        protected boolean isGeneratedFor(List<String> sessionLoginList) {
+            return generatedForLogin;
+        }
+
+        @Override
+        protected String buildRequestIdentity(ActionRuntime runtime, RequestCoalesced coalesced, List<String> sessionLoginList) {
+            return "sea" + sessionLoginList;
+        }
+
+        @Override
+        protected CachedResponse executeWithCapture(ResponseGenerator generator) throws IOException, ServletException {
+            generator.generate();
+            return capturedResponse;
+        }
+
+        @Override
+        protected ResponseSingleFlight newResponseSingleFlight() {
+            return new ResponseSingleFlight() {
+                @Override
+                protected CachedResponse waitForLeader(CompletableFuture<CachedResponse> flying, long waitMillis) {
+                    followerWaiting.countDown();
+                    return super.waitForLeader(flying, waitMillis);
+                }
+            };
+        }
+
+        @Override
+        protected void writeSharedResponse(CachedResponse sharedResponse) throws IOException {
+            writtenList.add(sharedResponse);
+        }
+    }
+
+    @RequestCoalesced(waitMillis = 5000L)
+    public void longWait() {
+    }
+
+    @RequestCoalesced(waitMillis = 50L)
+    public void shortWait() {
+    }
+
+    protected RequestCoalesced coalesced(String methodName) {
+        try {
+            return getClass().getMethod(methodName).getAnnotation(RequestCoalesced.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Not found the method: " + methodName, e);
+        }
+    }
+
+    protected CachedResponse newResponse() {
+        return new CachedResponse(200, "application/json", Collections.emptyMap(), "{}".getBytes(), Long.MAX_VALUE);
+    }
+
+    protected static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException("Interrupted the waiting.", e);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.ServletException;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.unit.mock.web.MockHttpServletRequest;
+import org.lastaflute.web.ResponseCached;
+import org.lastaflute.web.ruts.process.ActionRuntime;
+
+/**
+ * @author jflute
+ */
+public class SimpleActionResponseCacheTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                               Serve
+    //                                                                               =====
+    public void test_serve_missThenHit() throws Exception {
+        // ## Arrange ##
+        MockResponseCache cache = new MockResponseCache(newResponse());
+        AtomicInteger generatedCount = new AtomicInteger();
+        AtomicInteger passedCount = new AtomicInteger();
+
+        // ## Act ##
+        cache.serve(null, cached(), () -> {
+            throw new IllegalStateException("generating request does not pass the gate");
+        }, () -> generatedCount.incrementAndGet());
+        cache.serve(null, cached(), () -> {
+            passedCount.incrementAndGet();
+            return true;
+        }, () -> generatedCount.incrementAndGet());
+
+        // ## Assert ##
+        assertEquals(1, generatedCount.get()); // only first
+        assertEquals(1, passedCount.get()); // e.g. login check before replaying
+        assertEquals(1, cache.writtenList.size());
+        assertEquals(cache.capturedResponse, cache.writtenList.get(0));
+        assertTrue(cache.singleFlight.flightMap.isEmpty());
+    }
+
+    public void test_serve_hitRejectedByGate() throws Exception {
+        // ## Arrange ##
+        MockResponseCache cache = new MockResponseCache(newResponse());
+        cache.serve(null, cached(), () -> true, () -> {});
+        AtomicInteger generatedCount = new AtomicInteger();
+
+        // ## Act ##
+        cache.serve(null, cached(), () -> false, () -> generatedCount.incrementAndGet());
+
+        // ## Assert ##
+        assertEquals(0, generatedCount.get());
+        assertTrue(cache.writtenList.isEmpty()); // e.g. login redirect by hook instead
+    }
+
+    public void test_serve_notCacheable() throws Exception {
+        // ## Arrange ##
+        MockResponseCache cache = new MockResponseCache(null); // e.g. cookie, error status
+        AtomicInteger generatedCount = new AtomicInteger();
+
+        // ## Act ##
+        cache.serve(null, cached(), () -> true, () -> generatedCount.incrementAndGet());
+        cache.serve(null, cached(), () -> true, () -> generatedCount.incrementAndGet());
+
+        // ## Assert ##
+        assertEquals(2, generatedCount.get());
+        assertTrue(cache.writtenList.isEmpty());
+    }
+
+    public void test_serve_invalidatedWhileGenerating() throws Exception {
+        // ## Arrange ##
+        MockResponseCache cache = new MockResponseCache(newResponse());
+        AtomicInteger generatedCount = new AtomicInteger();
+
+        // ## Act ##
+        cache.serve(null, cached(), () -> true, () -> {
+            generatedCount.incrementAndGet();
+            cache.invalidateAll(); // e.g. master updated by other request
+        });
+        cache.serve(null, cached(), () -> true, () -> generatedCount.incrementAndGet());
+
+        // ## Assert ##
+        assertEquals(2, generatedCount.get()); // stale response is not stored
+        assertTrue(cache.writtenList.isEmpty());
+    }
+
+    public void test_serve_unidentifiedLoginUser() throws Exception {
+        // ## Arrange ##
+        MockResponseCache cache = new MockResponseCache(newResponse());
+        cache.generatedForLogin = false; // e.g. login user only in shared storage
+        AtomicInteger generatedCount = new AtomicInteger();
+
+        // ## Act ##
+        cache.serve(null, cached(), () -> true, () -> generatedCount.incrementAndGet());
+        cache.serve(null, cached(), () -> true, () -> generatedCount.incrementAndGet());
+
+        // ## Assert ##
+        assertEquals(2, generatedCount.get());
+        assertTrue(cache.writtenList.isEmpty());
+    }
+
+    // ===================================================================================
+    //                                                                           Cache Key
+    //                                                                           =========
+    public void test_appendQueryParamKey_unambiguous() {
+        // ## Arrange ##
+        SimpleActionResponseCache cache = new SimpleActionResponseCache();
+        String[] queryParams = new String[] { "a", "b" };
+
+        // ## Act ##
+        String oneValue = buildQueryParamKey(cache, new MockHttpServletRequest().mockParameter("a", "1, 2"), queryParams);
+        String twoValues = buildQueryParamKey(cache, new MockHttpServletRequest().mockParameter("a", "1", "2"), queryParams);
+        String injected = buildQueryParamKey(cache, new MockHttpServletRequest().mockParameter("a", "1|b=2"), queryParams);
+        String separated = buildQueryParamKey(cache, new MockHttpServletRequest().mockParameter("a", "1").mockParameter("b", "2"),
+                queryParams);
+        String emptyValue = buildQueryParamKey(cache, new MockHttpServletRequest().mockParameter("a", ""), queryParams);
+        String absent = buildQueryParamKey(cache, new MockHttpServletRequest(), queryParams);
+
+        // ## Assert ##
+        log(oneValue, twoValues, injected, separated, emptyValue, absent);
+        assertEquals("|a=1%2C+2|b", oneValue);
+        assertEquals("|a=1|a=2|b", twoValues);
+        assertFalse(oneValue.equals(twoValues));
+        assertFalse(injected.equals(separated));
+        assertFalse(emptyValue.equals(absent));
+    }
+
+    protected String buildQueryParamKey(SimpleActionResponseCache cache, MockHttpServletRequest request, String[] queryParams) {
+        StringBuilder sb = new StringBuilder();
+        cache.appendQueryParamKey(sb, request, queryParams);
+        return sb.toString();
+    }
+
+    // ===================================================================================
+    //                                                                         Mock Helper
+    //                                                                         ===========
+    protected static class MockResponseCache extends SimpleActionResponseCache {
+
+        protected final CachedResponse capturedResponse; // null means uncapturable
+        protected final List<CachedResponse> writtenList = new CopyOnWriteArrayList<CachedResponse>();
+        protected volatile boolean generatedForLogin = true;
+
+        public MockResponseCache(CachedResponse capturedResponse) {
+            this.capturedResponse = capturedResponse;
+            this.responseStore = new TinyLfuResponseStore(100000L, 100);
+        }
+
+        @Override
+        protected List<String> identifySessionLogin() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        protected boolean isGeneratedFor(List<String> sessionLoginList) {
+            return generatedForLogin;
+        }
+
+        @Override
+        protected String buildCacheKey(ActionRuntime runtime, ResponseCached cached, List<String> sessionLoginList) {
+            return "SeaAction@index|/sea/" + sessionLoginList;
+        }
+
+        @Override
+        protected CachedResponse generateWithCapture(ResponseGenerator generator, long expireMillis) throws IOException, ServletException {
+            generator.generate();
+            return capturedResponse;
+        }
+
+        @Override
+        protected void writeCachedResponse(CachedResponse cachedResponse) throws IOException {
+            writtenList.add(cachedResponse);
+        }
+
+        @Override
+        protected long currentMillis() {
+            return 1000L;
+        }
+    }
+
+    @ResponseCached(ttlSeconds = 60)
+    public void index() {
+    }
+
+    protected ResponseCached cached() {
+        try {
+            return getClass().getMethod("index").getAnnotation(ResponseCached.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Not found the method: index", e);
+        }
+    }
+
+    protected CachedResponse newResponse() {
+        return new CachedResponse(200, "text/html", Collections.emptyMap(), "<html></html>".getBytes(), Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.dbflute.utflute.core.PlainTestCase;
+
+/**
+ * @author jflute
+ */
+public class TinyLfuResponseStoreTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                           Get & Put
+    //                                                                           =========
+    public void test_get_hitAndMiss() {
+        // ## Arrange ##
+        TinyLfuResponseStore store = new TinyLfuResponseStore(10000L, 100);
+        CachedResponse sea = newResponse(100, 2000L);
+
+        // ## Act ##
+        boolean stored = store.put("sea", sea, 1000L);
+
+        // ## Assert ##
+        assertTrue(stored);
+        assertEquals(sea, store.get("sea", 1000L));
+        assertNull(store.get("land", 1000L));
+    }
+
+    public void test_get_expired() {
+        // ## Arrange ##
+        TinyLfuResponseStore store = new TinyLfuResponseStore(10000L, 100);
+        store.put("sea", newResponse(100, 2000L), 1000L);
+
+        // ## Act ##
+        // ## Assert ##
+        assertNotNull(store.get("sea", 1999L));
+        assertNull(store.get("sea", 2000L)); // expired
+        assertEquals(0L, store.currentWeight); // removed
+        assertNull(store.get("sea", 1000L));
+    }
+
+    public void test_put_tooLarge() {
+        // ## Arrange ##
+        TinyLfuResponseStore store = new TinyLfuResponseStore(1000L, 100);
+
+        // ## Act ##
+        boolean stored = store.put("sea", newResponse(1000, 2000L), 1000L); // over by overhead
+
+        // ## Assert ##
+        assertFalse(stored);
+        assertNull(store.get("sea", 1000L));
+    }
+
+    public void test_put_replace() {
+        // ## Arrange ##
+        TinyLfuResponseStore store = new TinyLfuResponseStore(10000L, 100);
+        store.put("sea", newResponse(100, 2000L), 1000L);
+        CachedResponse replaced = newResponse(200, 3000L);
+
+        // ## Act ##
+        store.put("sea", replaced, 1000L);
+
+        // ## Assert ##
+        assertEquals(replaced, store.get("sea", 1000L));
+        assertEquals(replaced.getWeight(), store.currentWeight);
+    }
+
+    // ===================================================================================
+    //                                                                           Admission
+    //                                                                           =========
+    public void test_put_admission_rejectedWithoutEviction() {
+        // ## Arrange ##
+        CachedResponse sea = newResponse(300, 9000L); // weight 556
+        TinyLfuResponseStore store = new TinyLfuResponseStore(sea.getWeight() * 2, 100);
+        store.put("sea", sea, 1000L);
+        store.put("land", newResponse(300, 9000L), 1000L);
+        for (int i = 0; i < 3; i++) { // popular
+            store.get("sea", 1000L);
+            store.get("land", 1000L);
+        }
+        store.get("sea", 1000L); // land is least recently used
+
+        // ## Act ##
+        store.get("piari", 1000L); // miss access, less frequent than victims
+        boolean stored = store.put("piari", newResponse(300, 9000L), 1000L);
+
+        // ## Assert ##
+        assertFalse(stored);
+        assertNotNull(store.get("land", 1000L)); // not evicted
+        assertNotNull(store.get("sea", 1000L));
+        assertEquals(sea.getWeight() * 2L, store.currentWeight);
+    }
+
+    public void test_put_admission_admittedByFrequency() {
+        // ## Arrange ##
+        CachedResponse sea = newResponse(300, 9000L);
+        TinyLfuResponseStore store = new TinyLfuResponseStore(sea.getWeight() * 2, 100);
+        store.put("sea", sea, 1000L);
+        store.put("land", newResponse(300, 9000L), 1000L);
+        store.get("sea", 1000L); // land is least recently used
+        for (int i = 0; i < 5; i++) { // more popular than land
+            store.get("piari", 1000L);
+        }
+
+        // ## Act ##
+        boolean stored = store.put("piari", newResponse(300, 9000L), 1000L);
+
+        // ## Assert ##
+        assertTrue(stored);
+        assertNull(store.get("land", 1000L)); // evicted as LRU
+        assertNotNull(store.get("sea", 1000L));
+        assertNotNull(store.get("piari", 1000L));
+    }
+
+    public void test_put_admission_expiredVictim() {
+        // ## Arrange ##
+        CachedResponse sea = newResponse(300, 9000L);
+        TinyLfuResponseStore store = new TinyLfuResponseStore(sea.getWeight() * 2, 100);
+        store.put("sea", sea, 1000L);
+        store.put("land", newResponse(300, 1500L), 1000L);
+        for (int i = 0; i < 5; i++) {
+            store.get("land", 1000L); // popular but will expire
+        }
+        store.get("sea", 1000L); // land is least recently used
+
+        // ## Act ##
+        boolean stored = store.put("piari", newResponse(300, 9000L), 2000L);
+
+        // ## Assert ##
+        assertTrue(stored); // expired victim is evicted regardless of frequency
+        assertNull(store.get("land", 2000L));
+        assertNotNull(store.get("piari", 2000L));
+    }
+
+    // ===================================================================================
+    //                                                                          Invalidate
+    //                                                                          ==========
+    public void test_removeIf() {
+        // ## Arrange ##
+        TinyLfuResponseStore store = new TinyLfuResponseStore(10000L, 100);
+        store.put("SeaAction@index|/sea/", newResponse(100, 9000L), 1000L);
+        store.put("LandAction@index|/land/", newResponse(100, 9000L), 1000L);
+
+        // ## Act ##
+        store.removeIf(key -> key.startsWith("SeaAction@"));
+
+        // ## Assert ##
+        assertNull(store.get("SeaAction@index|/sea/", 1000L));
+        assertNotNull(store.get("LandAction@index|/land/", 1000L));
+        assertEquals(newResponse(100, 9000L).getWeight(), store.currentWeight);
+    }
+
+    public void test_put_generation_invalidatedWhileGenerating() {
+        // ## Arrange ##
+        TinyLfuResponseStore store = new TinyLfuResponseStore(10000L, 100);
+        long generation = store.getGeneration(); // before generating
+        store.removeIf(key -> key.startsWith("SeaAction@")); // e.g. updated by other request
+
+        // ## Act ##
+        boolean stored = store.put("SeaAction@index|/sea/", newResponse(100, 9000L), 1000L, generation);
+
+        // ## Assert ##
+        assertFalse(stored); // stale response
+        assertNull(store.get("SeaAction@index|/sea/", 1000L));
+        assertTrue(store.put("SeaAction@index|/sea/", newResponse(100, 9000L), 1000L, store.getGeneration()));
+        assertNotNull(store.get("SeaAction@index|/sea/", 1000L));
+    }
+
+    // ===================================================================================
+    //                                                                         Concurrency
+    //                                                                         ===========
+    public void test_get_concurrent() throws Exception {
+        // ## Arrange ##
+        TinyLfuResponseStore store = new TinyLfuResponseStore(100000L, 100);
+        for (int i = 0; i < 10; i++) {
+            store.put("sea" + i, newResponse(100, Long.MAX_VALUE), 1000L);
+        }
+        ExecutorService service = Executors.newFixedThreadPool(4);
+        try {
+            // ## Act ##
+            List<Future<Integer>> futureList = new ArrayList<Future<Integer>>();
+            for (int i = 0; i < 4; i++) {
+                futureList.add(service.submit(() -> {
+                    int hit = 0;
+                    for (int j = 0; j < 10000; j++) {
+                        if (store.get("sea" + (j % 10), 1000L) != null) {
+                            ++hit;
+                        }
+                    }
+                    return hit;
+                }));
+            }
+
+            // ## Assert ##
+            for (Future<Integer> future : futureList) {
+                assertEquals(Integer.valueOf(10000), future.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(newResponse(100, Long.MAX_VALUE).getWeight() * 10L, store.currentWeight);
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                        Small Helper
+    //                                                                        ============
+    protected CachedResponse newResponse(int bodySize, long expireMillis) {
+        return new CachedResponse(200, "text/html", Collections.emptyMap(), new byte[bodySize], expireMillis);
+    }
+}
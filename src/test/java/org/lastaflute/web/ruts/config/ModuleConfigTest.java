@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.di.core.meta.impl.SimpleComponentDef;
+import org.lastaflute.web.path.ActionAdjustmentProvider;
+
+/**
+ * @author jflute
+ */
+public class ModuleConfigTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                    Reserved Mapping
+    //                                                                    ================
+    public void test_resolveReservedActionMapping_reservedOrder() {
+        // ## Arrange ##
+        ModuleConfig config = new ModuleConfig();
+        CompletableFuture<ActionMapping> sea = new CompletableFuture<ActionMapping>();
+        CompletableFuture<ActionMapping> land = CompletableFuture.completedFuture(createMapping("landAction", LandAction.class));
+        config.reserveActionMapping(sea);
+        config.reserveActionMapping(land); // completed before sea
+        new Thread(() -> { // e.g. heavy action
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException ignored) {}
+            sea.complete(createMapping("seaAction", SeaAction.class));
+        }).start();
+
+        // ## Act ##
+        config.resolveReservedActionMapping();
+
+        // ## Assert ##
+        List<String> nameList = new ArrayList<String>();
+        config.getActionMappingList().forEach(mapping -> nameList.add(mapping.getActionName()));
+        assertEquals(2, nameList.size());
+        assertEquals("seaAction", nameList.get(0)); // same as serial registration
+        assertEquals("landAction", nameList.get(1));
+        assertFalse(config.reserved);
+    }
+
+    public void test_resolveReservedActionMapping_failure() {
+        // ## Arrange ##
+        ModuleConfig config = new ModuleConfig();
+        CompletableFuture<ActionMapping> failed = new CompletableFuture<ActionMapping>();
+        IllegalStateException cause = new IllegalStateException("illegal execute method");
+        failed.completeExceptionally(cause);
+        config.reserveActionMapping(CompletableFuture.completedFuture(createMapping("seaAction", SeaAction.class)));
+        config.reserveActionMapping(failed);
+
+        // ## Act ##
+        // ## Assert ##
+        try {
+            config.resolveReservedActionMapping();
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+            assertSame(cause, e); // not wrapped
+        }
+        assertFalse(config.reserved);
+        assertTrue(config.reservedMappingList.isEmpty());
+    }
+
+    public void test_findActionMapping_resolvesReserved() {
+        // ## Arrange ##
+        ModuleConfig config = new ModuleConfig();
+        config.reserveActionMapping(CompletableFuture.completedFuture(createMapping("seaAction", SeaAction.class)));
+
+        // ## Act ##
+        ActionMapping mapping = config.findActionMapping("seaAction").get();
+
+        // ## Assert ##
+        assertEquals("seaAction", mapping.getActionName());
+        assertFalse(config.reserved);
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected ActionMapping createMapping(String actionName, Class<?> actionType) {
+        return new ActionMapping(new SimpleComponentDef(actionType, actionName), actionName, new ActionAdjustmentProvider() {
+        });
+    }
+
+    public static class SeaAction {
+    }
+
+    public static class LandAction {
+    }
+}
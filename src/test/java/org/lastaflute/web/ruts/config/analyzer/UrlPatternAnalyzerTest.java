@@ -1,10 +1,15 @@
 package org.lastaflute.web.ruts.config.analyzer;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.regex.Pattern;
 
 import org.lastaflute.unit.UnitLastaFluteTestCase;
+import org.lastaflute.web.ruts.config.UrlPatternSegmentMatcher;
 import org.lastaflute.web.ruts.config.analyzer.UrlPatternAnalyzer.UrlPatternChosenBox;
+import org.lastaflute.web.ruts.config.analyzer.UrlPatternAnalyzer.UrlPatternRegexpBox;
 
 /**
  * @author jflute
@@ -41,6 +46,8 @@ public class UrlPatternAnalyzerTest extends UnitLastaFluteTestCase {
         assertTrue(Pattern.compile(pattern).matcher("1.3").find());
         assertTrue(Pattern.compile(pattern).matcher("-13").find());
         assertFalse(Pattern.compile(pattern).matcher("+13").find());
+        assertFalse(Pattern.compile(pattern).matcher("1a").find());
+        assertFalse(Pattern.compile(pattern).matcher("1/3").find());
     }
 
     public void test_adjustUrlPatternMethodPrefix_methodKeyword_twoWord() throws Exception {
@@ -57,4 +64,58 @@ public class UrlPatternAnalyzerTest extends UnitLastaFluteTestCase {
         assertFalse(chosenBox.isMethodNamePrefix());
         assertTrue(chosenBox.isSpecified());
     }
+
+    public void test_toRegexp_segmentMatcher_basic() throws Exception {
+        // ## Arrange ##
+        UrlPatternAnalyzer analyzer = new UrlPatternAnalyzer();
+        Method dummyMethod = getClass().getMethods()[0];
+        List<Class<?>> typeList = Arrays.asList(Integer.class, String.class);
+
+        // ## Act ##
+        UrlPatternRegexpBox box = analyzer.toRegexp(dummyMethod, "sea/{}/land/{}", typeList, Collections.emptyMap());
+
+        // ## Assert ##
+        UrlPatternSegmentMatcher matcher = box.getSegmentMatcher().get();
+        log(matcher, box.getRegexpPattern());
+        assertEquals(Arrays.asList("3", "dockside"), matcher.extractParamList("sea/3/land/dockside"));
+        assertEquals(Arrays.asList("-1.5", "$x"), matcher.extractParamList("sea/-1.5/land/$x"));
+        assertNull(matcher.extractParamList("sea/abc/land/dockside")); // number
+        assertNull(matcher.extractParamList("sea/3/land/"));
+        assertNull(matcher.extractParamList("sea/3/land/dockside/"));
+        assertNull(matcher.extractParamList("sea/3/hangar/dockside"));
+        assertFalse(matcher.matches("sea/3"));
+        assertEquals("^sea/([\\-\\.\\d]+)/land/([^/]+)$", box.getRegexpPattern().pattern());
+        assertFalse(box.getRegexpPattern().matcher("sea/abc/land/x").find()); // same on every JDK
+        for (String path : Arrays.asList("sea/3/land/dockside", "sea/abc/land/x", "sea/1a/land/x", "sea/+1/land/x", "sea//land/x",
+                "sea/1/land/x/y", "")) {
+            assertEquals(path, box.getRegexpPattern().matcher(path).find(), matcher.matches(path));
+        }
+    }
+
+    public void test_toRegexp_segmentMatcher_empty() throws Exception {
+        // ## Arrange ##
+        UrlPatternAnalyzer analyzer = new UrlPatternAnalyzer();
+        Method dummyMethod = getClass().getMethods()[0];
+
+        // ## Act ##
+        UrlPatternRegexpBox box = analyzer.toRegexp(dummyMethod, "", Collections.emptyList(), Collections.emptyMap());
+
+        // ## Assert ##
+        UrlPatternSegmentMatcher matcher = box.getSegmentMatcher().get();
+        assertTrue(matcher.matches(""));
+        assertFalse(matcher.matches("sea"));
+    }
+
+    public void test_toRegexp_segmentMatcher_exotic() throws Exception {
+        // ## Arrange ##
+        UrlPatternAnalyzer analyzer = new UrlPatternAnalyzer();
+        Method dummyMethod = getClass().getMethods()[0];
+        List<Class<?>> typeList = Arrays.asList(String.class, String.class);
+
+        // ## Act ##
+        // ## Assert ##
+        assertFalse(analyzer.toRegexp(dummyMethod, "{}-{}", typeList, Collections.emptyMap()).getSegmentMatcher().isPresent());
+        assertFalse(analyzer.toRegexp(dummyMethod, "sea.land/{}/{}", typeList, Collections.emptyMap()).getSegmentMatcher().isPresent());
+        assertTrue(analyzer.toRegexp(dummyMethod, "sea$land/{}/{}", typeList, Collections.emptyMap()).getSegmentMatcher().isPresent());
+    }
 }
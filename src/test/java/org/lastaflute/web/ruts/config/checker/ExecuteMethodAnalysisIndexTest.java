@@ -0,0 +1,201 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.config.checker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.dbflute.util.Srl;
+
+/**
+ * @author jflute
+ */
+public class ExecuteMethodAnalysisIndexTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                       Verified Type
+    //                                                                       =============
+    public void test_markVerified_nextBoot() throws IOException {
+        // ## Arrange ##
+        final File indexFile = prepareIndexFile();
+        try {
+            final ExecuteMethodAnalysisIndex index = new ExecuteMethodAnalysisIndex(indexFile);
+            assertFalse(index.isVerified(SeaBean.class));
+
+            // ## Act ##
+            index.markVerified(SeaBean.class, Arrays.asList(LandBean.class));
+
+            // ## Assert ##
+            assertTrue(index.isVerified(SeaBean.class));
+            final ExecuteMethodAnalysisIndex nextIndex = new ExecuteMethodAnalysisIndex(indexFile); // as restart
+            assertTrue(nextIndex.isVerified(SeaBean.class));
+            assertFalse(nextIndex.isVerified(LandBean.class)); // not root
+            final List<String> lineList = Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8);
+            log(lineList);
+            final String entryLine = lineList.get(1);
+            assertTrue(entryLine.startsWith(SeaBean.class.getName() + "\t"));
+            assertTrue(entryLine.contains(LandBean.class.getName() + "="));
+            assertTrue(entryLine.contains(BaseBean.class.getName() + "=")); // super class
+            assertFalse(entryLine.contains(Object.class.getName() + "=")); // JDK class
+        } finally {
+            indexFile.delete();
+        }
+    }
+
+    public void test_isVerified_changedClass() throws IOException {
+        // ## Arrange ##
+        final File indexFile = prepareIndexFile();
+        try {
+            new ExecuteMethodAnalysisIndex(indexFile).markVerified(SeaBean.class, Arrays.asList(LandBean.class));
+            final List<String> lineList = Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8);
+            final String entryLine = lineList.get(1);
+            final String landKey = LandBean.class.getName() + "=";
+            final String landHash = Srl.substringFirstFront(Srl.substringFirstRear(entryLine, landKey), ",");
+            final String changedLine = entryLine.replace(landKey + landHash, landKey + "changed");
+            Files.write(indexFile.toPath(), Arrays.asList(lineList.get(0), changedLine), StandardCharsets.UTF_8);
+
+            // ## Act ##
+            final ExecuteMethodAnalysisIndex nextIndex = new ExecuteMethodAnalysisIndex(indexFile);
+
+            // ## Assert ##
+            assertFalse(nextIndex.isVerified(SeaBean.class));
+        } finally {
+            indexFile.delete();
+        }
+    }
+
+    public void test_isVerified_sameStamp_notHashed() throws IOException {
+        // ## Arrange ##
+        final File indexFile = prepareIndexFile();
+        try {
+            new ExecuteMethodAnalysisIndex(indexFile).markVerified(SeaBean.class, Arrays.asList(LandBean.class));
+            final CountingIndex nextIndex = new CountingIndex(indexFile); // as restart
+
+            // ## Act ##
+            final boolean verified = nextIndex.isVerified(SeaBean.class);
+
+            // ## Assert ##
+            assertTrue(verified);
+            assertEquals(0, nextIndex.hashCount); // bytecode is not read when stamp is same
+            assertTrue(Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8).get(1).contains("@"));
+        } finally {
+            indexFile.delete();
+        }
+    }
+
+    public void test_isVerified_changedStamp_sameHash() throws IOException {
+        // ## Arrange ##
+        final File indexFile = prepareIndexFile();
+        try {
+            new ExecuteMethodAnalysisIndex(indexFile).markVerified(SeaBean.class, Collections.emptyList());
+            final List<String> lineList = Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8);
+            final String touchedLine = lineList.get(1).replaceAll("@[0-9]+:", "@1:"); // e.g. rebuilt without change
+            Files.write(indexFile.toPath(), Arrays.asList(lineList.get(0), touchedLine), StandardCharsets.UTF_8);
+            final CountingIndex nextIndex = new CountingIndex(indexFile);
+
+            // ## Act ##
+            final boolean verified = nextIndex.isVerified(SeaBean.class);
+
+            // ## Assert ##
+            assertTrue(verified); // same content
+            assertTrue(nextIndex.hashCount > 0);
+        } finally {
+            indexFile.delete();
+        }
+    }
+
+    public void test_isVerified_removedClass() throws IOException {
+        // ## Arrange ##
+        final File indexFile = prepareIndexFile();
+        try {
+            final String line = SeaBean.class.getName() + "\tcom.example.NotFoundBean=abc";
+            Files.write(indexFile.toPath(), Collections.singletonList(line), StandardCharsets.UTF_8);
+
+            // ## Act ##
+            final ExecuteMethodAnalysisIndex index = new ExecuteMethodAnalysisIndex(indexFile);
+
+            // ## Assert ##
+            assertFalse(index.isVerified(SeaBean.class));
+        } finally {
+            indexFile.delete();
+        }
+    }
+
+    public void test_loadIndex_overriddenLine_rewritten() throws IOException {
+        // ## Arrange ##
+        final File indexFile = prepareIndexFile();
+        try {
+            final ExecuteMethodAnalysisIndex index = new ExecuteMethodAnalysisIndex(indexFile);
+            index.markVerified(SeaBean.class, Collections.emptyList());
+            index.markVerified(SeaBean.class, Arrays.asList(LandBean.class)); // e.g. re-checked after change
+
+            // ## Act ##
+            final ExecuteMethodAnalysisIndex nextIndex = new ExecuteMethodAnalysisIndex(indexFile);
+
+            // ## Assert ##
+            assertTrue(nextIndex.isVerified(SeaBean.class));
+            final List<String> lineList = Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8);
+            log(lineList);
+            assertEquals(2, lineList.size()); // header and latest entry
+            assertTrue(lineList.get(1).contains(LandBean.class.getName() + "="));
+        } finally {
+            indexFile.delete();
+        }
+    }
+
+    // ===================================================================================
+    //                                                                        Assist Logic
+    //                                                                        ============
+    protected File prepareIndexFile() throws IOException {
+        final File indexFile = File.createTempFile("lastaflute-analysis", ".idx");
+        indexFile.delete(); // created by the index
+        return indexFile;
+    }
+
+    protected static class CountingIndex extends ExecuteMethodAnalysisIndex {
+
+        protected int hashCount;
+
+        public CountingIndex(File indexFile) {
+            super(indexFile);
+        }
+
+        @Override
+        protected String calculateBytecodeHash(Class<?> type) {
+            ++hashCount;
+            return super.calculateBytecodeHash(type);
+        }
+    }
+
+    public static class BaseBean {
+        public String sea;
+    }
+
+    public static class SeaBean extends BaseBean {
+        @Deprecated
+        public LandBean land;
+    }
+
+    public static class LandBean {
+        public Integer piari;
+    }
+}
@@ -15,6 +15,10 @@
  */
 package org.lastaflute.web.ruts.message;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
 import org.dbflute.utflute.core.PlainTestCase;
 import org.lastaflute.core.message.UserMessage;
 import org.lastaflute.core.message.UserMessages;
@@ -54,4 +58,52 @@ public class ActionMessagesTest extends PlainTestCase {
         assertFalse(messages.hasMessageOf("land", "dockside"));
         assertFalse(messages.isAccessed());
     }
+
+    public void test_single_to_map() throws Exception {
+        // ## Arrange ##
+        UserMessages messages = new UserMessages();
+        assertTrue(messages.isEmpty());
+        assertEquals(0, messages.size());
+        assertEquals("{}", messages.toString());
+        UserMessage first = new UserMessage("dockside");
+        messages.add("sea", first);
+        assertEquals(1, messages.size());
+        assertEquals(1, messages.size("sea"));
+        assertEquals(0, messages.size("land"));
+        assertEquals(1, messages.toPropertySet().size());
+        String singleExp = messages.toString();
+
+        // ## Act ##
+        messages.add("land", new UserMessage("showbase"));
+        messages.add("sea", new UserMessage("hangar"));
+
+        // ## Assert ##
+        assertEquals(3, messages.size());
+        assertEquals(2, messages.size("sea"));
+        assertTrue(messages.hasMessageOf("sea", "dockside"));
+        assertTrue(messages.hasMessageOf("land", "showbase"));
+        List<String> keyList = new ArrayList<String>();
+        for (Iterator<UserMessage> ite = messages.silentAccessByFlatIterator(); ite.hasNext();) {
+            keyList.add(ite.next().getMessageKey());
+        }
+        log(singleExp, messages, keyList);
+        assertEquals("dockside", keyList.get(0));
+        assertEquals("hangar", keyList.get(1));
+        assertEquals("showbase", keyList.get(2));
+        assertFalse(messages.isAccessed());
+        messages.clear();
+        assertTrue(messages.isEmpty());
+    }
+
+    public void test_empty_locked() throws Exception {
+        UserMessages empty = UserMessages.empty();
+        assertTrue(empty.isEmpty());
+        assertFalse(empty.silentAccessByFlatIterator().hasNext());
+        try {
+            empty.add("sea", new UserMessage("dockside"));
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.multipart.streaming;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.dbflute.utflute.core.PlainTestCase;
+
+/**
+ * @author jflute
+ */
+public class MultipartStreamParserTest extends PlainTestCase {
+
+    public void test_parse_basic() throws Exception {
+        // ## Arrange ##
+        String body = "preamble\r\n" //
+                + "--XyZ\r\nContent-Disposition: form-data; name=\"sea\"\r\n\r\nmystic\r\n" //
+                + "--XyZ\r\nContent-Disposition: form-data; name=\"land\"; filename=\"C:\\dir\\oneman.txt\"\r\n" //
+                + "Content-Type: text/plain\r\n\r\nshow\r\n-XyZ\r\nbase\r\n" //
+                + "--XyZ--\r\nepilogue";
+        MultipartStreamParser parser = createParser(body, 64);
+
+        // ## Act ##
+        List<MultipartPartHeader> headerList = new ArrayList<MultipartPartHeader>();
+        List<String> bodyList = new ArrayList<String>();
+        assertTrue(parser.skipPreamble());
+        do {
+            Map<String, String> headerMap = parser.readHeaders(StandardCharsets.UTF_8);
+            headerList.add(new MultipartPartHeader(headerMap));
+            bodyList.add(readAll(parser.openPartBody()));
+        } while (parser.hasNextPart());
+
+        // ## Assert ##
+        log(headerList, bodyList);
+        assertEquals(2, headerList.size());
+        assertEquals("sea", headerList.get(0).getFieldName());
+        assertFalse(headerList.get(0).isFile());
+        assertEquals("mystic", bodyList.get(0));
+        assertEquals("land", headerList.get(1).getFieldName());
+        assertTrue(headerList.get(1).isFile());
+        assertEquals("oneman.txt", headerList.get(1).getFileName());
+        assertEquals("text/plain", headerList.get(1).getContentType());
+        assertEquals("show\r\n-XyZ\r\nbase", bodyList.get(1));
+    }
+
+    public void test_parse_largeBinary() throws Exception {
+        // ## Arrange ##
+        byte[] binary = new byte[100000];
+        for (int i = 0; i < binary.length; i++) {
+            binary[i] = (byte) (i % 7 == 0 ? '\r' : (i % 11 == 0 ? '\n' : i)); // many CR/LF
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write("--XyZ\r\nContent-Disposition: form-data; name=\"sea\"; filename=\"sea.bin\"\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+        out.write(binary);
+        out.write("\r\n--XyZ--".getBytes(StandardCharsets.UTF_8));
+        MultipartStreamParser parser = new MultipartStreamParser(new ByteArrayInputStream(out.toByteArray()), toBytes("XyZ"), 128);
+
+        // ## Act ##
+        assertTrue(parser.skipPreamble());
+        parser.readHeaders(StandardCharsets.UTF_8);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        InputStream partBody = parser.openPartBody();
+        byte[] chunk = new byte[33];
+        int read;
+        while ((read = partBody.read(chunk)) >= 0) {
+            received.write(chunk, 0, read);
+        }
+
+        // ## Assert ##
+        assertEquals(binary.length, received.size());
+        assertTrue(Arrays.equals(binary, received.toByteArray()));
+        assertFalse(parser.hasNextPart());
+    }
+
+    public void test_parse_byteAtATime_largeBuffer() throws Exception {
+        // ## Arrange ##
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            sb.append("\r\n--XyY\r\n-XyZ"); // near-miss delimiters
+        }
+        String content = sb.toString();
+        String body = "--XyZ\r\nContent-Disposition: form-data; name=\"sea\"\r\n\r\n" + content + "\r\n--XyZ--";
+        MultipartStreamParser parser = createParser(body, 256 * 1024); // whole body in one window
+        assertTrue(parser.skipPreamble());
+        parser.readHeaders(StandardCharsets.UTF_8);
+        InputStream partBody = parser.openPartBody();
+
+        // ## Act ##
+        assertEquals('\r', partBody.read());
+        int scannedAfterFirst = parser.scannedIndex;
+        int foundAfterFirst = parser.foundIndex;
+        String rest = readAll(partBody); // byte at a time
+
+        // ## Assert ##
+        log(scannedAfterFirst, foundAfterFirst);
+        assertTrue(foundAfterFirst > 0); // found once, not rescanned per read
+        assertEquals(content, "\r" + rest);
+        assertFalse(parser.hasNextPart());
+        assertEquals(-1, parser.foundIndex); // cleared after consumed
+    }
+
+    public void test_parse_noBoundary() throws Exception {
+        // ## Arrange ##
+        MultipartStreamParser parser = createParser("--XyZ\r\nContent-Disposition: form-data; name=\"sea\"\r\n\r\nmystic", 64);
+        assertTrue(parser.skipPreamble());
+        parser.readHeaders(StandardCharsets.UTF_8);
+
+        // ## Act ##
+        // ## Assert ##
+        try {
+            readAll(parser.openPartBody());
+            fail();
+        } catch (IOException e) {
+            log(e.getMessage());
+        }
+    }
+
+    protected MultipartStreamParser createParser(String body, int bufferSize) {
+        return new MultipartStreamParser(new ByteArrayInputStream(toBytes(body)), toBytes("XyZ"), bufferSize);
+    }
+
+    protected String readAll(InputStream ins) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int read;
+        while ((read = ins.read()) >= 0) {
+            out.write(read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    protected byte[] toBytes(String str) {
+        return str.getBytes(StandardCharsets.UTF_8);
+    }
+}
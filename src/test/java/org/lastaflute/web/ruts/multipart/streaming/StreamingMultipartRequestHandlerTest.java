@@ -0,0 +1,408 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.multipart.streaming;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.dbflute.optional.OptionalThing;
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.unit.mock.web.MockHttpServletRequest;
+import org.lastaflute.web.ruts.multipart.MultipartFormFile;
+import org.lastaflute.web.ruts.multipart.MultipartRequestHandler;
+import org.lastaflute.web.ruts.multipart.exception.MultipartExceededException;
+
+/**
+ * @author jflute
+ */
+public class StreamingMultipartRequestHandlerTest extends PlainTestCase {
+
+    private File spoolDirectory;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        spoolDirectory = Files.createTempDirectory("lastaflute-multipart-test").toFile();
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        File[] files = spoolDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        spoolDirectory.delete();
+        super.tearDown();
+    }
+
+    // ===================================================================================
+    //                                                                      Memory / Spool
+    //                                                                      ==============
+    public void test_handleRequest_inMemory() throws Exception {
+        // ## Arrange ##
+        StreamingMultipartRequestHandler handler = createHandler(prepareOption());
+        MockHttpServletRequest request = createRequest(new MultipartBody().text("sea", "mystic").text("sea", "bigband").file("land",
+                "oneman.txt", toBytes("show")));
+
+        // ## Act ##
+        handler.handleRequest(request);
+
+        // ## Assert ##
+        assertNull(MultipartRequestHandler.findExceededException(request));
+        assertTrue(Arrays.equals(new String[] { "mystic", "bigband" }, handler.getTextElements().get("sea")));
+        SpooledMultipartFormFile formFile = (SpooledMultipartFormFile) handler.getFileElements().get("land");
+        assertTrue(formFile.isInMemory());
+        assertEquals("oneman.txt", formFile.getFileName());
+        assertEquals("show", new String(formFile.getFileData(), StandardCharsets.UTF_8));
+        assertEquals(0, countSpoolFiles());
+    }
+
+    public void test_handleRequest_spoolToFile() throws Exception {
+        // ## Arrange ##
+        StreamingMultipartRequestHandler handler = createHandler(prepareOption().spoolThreshold(100));
+        byte[] binary = createBinary(1000);
+        MockHttpServletRequest request = createRequest(new MultipartBody().file("land", "oneman.bin", binary));
+
+        // ## Act ##
+        handler.handleRequest(request);
+
+        // ## Assert ##
+        SpooledMultipartFormFile formFile = (SpooledMultipartFormFile) handler.getFileElements().get("land");
+        assertFalse(formFile.isInMemory());
+        File spoolFile = formFile.getSpoolFile().get();
+        assertEquals(spoolDirectory, spoolFile.getParentFile());
+        assertEquals(1000L, formFile.getFileLength());
+        assertTrue(Arrays.equals(binary, readAll(formFile.getInputStream())));
+        assertEquals(1, countSpoolFiles());
+
+        handler.finish(); // when request ends
+        assertFalse(spoolFile.exists());
+        assertEquals(0, countSpoolFiles());
+        assertTrue(handler.getFileElements().isEmpty());
+    }
+
+    public void test_handleRequest_spoolThreshold_just() throws Exception {
+        // ## Arrange ##
+        StreamingMultipartRequestHandler handler = createHandler(prepareOption().spoolThreshold(100));
+        MockHttpServletRequest request = createRequest(new MultipartBody().file("land", "oneman.bin", createBinary(100)));
+
+        // ## Act ##
+        handler.handleRequest(request);
+
+        // ## Assert ##
+        SpooledMultipartFormFile formFile = (SpooledMultipartFormFile) handler.getFileElements().get("land");
+        assertTrue(formFile.isInMemory()); // over threshold is spooled
+        assertEquals(0, countSpoolFiles());
+    }
+
+    // ===================================================================================
+    //                                                                          Size Limit
+    //                                                                          ==========
+    public void test_handleRequest_fileSizeExceeded() throws Exception {
+        // ## Arrange ##
+        StreamingMultipartRequestHandler handler = createHandler(prepareOption().spoolThreshold(100).limitFileSize(500));
+        MockHttpServletRequest request = createRequest(new MultipartBody().text("sea", "mystic")
+                .file("land", "oneman.bin", createBinary(300))
+                .file("piari", "plaza.bin", createBinary(1000)));
+
+        // ## Act ##
+        handler.handleRequest(request);
+
+        // ## Assert ##
+        MultipartExceededException exceeded = MultipartRequestHandler.findExceededException(request);
+        assertNotNull(exceeded);
+        log(exceeded.getMessage());
+        assertEquals(500L, exceeded.getPermitted());
+        assertTrue(exceeded.getActual() > 500L);
+        assertTrue(handler.getFileElements().isEmpty()); // rolled back
+        assertTrue(handler.getTextElements().isEmpty());
+        assertEquals(0, countSpoolFiles()); // both received and exceeded files are deleted
+    }
+
+    public void test_handleRequest_totalSizeExceeded_byContentLength() throws Exception {
+        // ## Arrange ##
+        StreamingMultipartRequestHandler handler = createHandler(prepareOption().limitTotalSize(100));
+        MockHttpServletRequest request = createRequest(new MultipartBody().file("land", "oneman.bin", createBinary(300)));
+
+        // ## Act ##
+        handler.handleRequest(request);
+
+        // ## Assert ##
+        MultipartExceededException exceeded = MultipartRequestHandler.findExceededException(request);
+        assertNotNull(exceeded);
+        assertEquals(request.getContentLengthLong(), exceeded.getActual()); // before reading
+        assertFalse(request.getInputStream().isFinished()); // not read
+    }
+
+    public void test_handleRequest_totalSizeExceeded_whileStreaming() throws Exception {
+        // ## Arrange ##
+        StreamingMultipartRequestHandler handler = createHandler(prepareOption().spoolThreshold(10).limitTotalSize(500));
+        MockHttpServletRequest request = createRequest(new MultipartBody().file("land", "oneman.bin", createBinary(1000)));
+        request.mockContentLengthUnknown(); // e.g. chunked
+
+        // ## Act ##
+        handler.handleRequest(request);
+
+        // ## Assert ##
+        MultipartExceededException exceeded = MultipartRequestHandler.findExceededException(request);
+        assertNotNull(exceeded);
+        assertEquals(500L, exceeded.getPermitted());
+        assertTrue(handler.getFileElements().isEmpty());
+        assertEquals(0, countSpoolFiles());
+    }
+
+    public void test_handleRequest_textSizeExceeded() throws Exception {
+        // ## Arrange ##
+        StreamingMultipartRequestHandler handler = createHandler(prepareOption().limitTextSize(5));
+        MockHttpServletRequest request = createRequest(new MultipartBody().text("sea", "mystic"));
+
+        // ## Act ##
+        handler.handleRequest(request);
+
+        // ## Assert ##
+        MultipartExceededException exceeded = MultipartRequestHandler.findExceededException(request);
+        assertNotNull(exceeded);
+        assertEquals(5L, exceeded.getPermitted());
+        assertTrue(handler.getTextElements().isEmpty());
+    }
+
+    public void test_option_boundedAsDefault() {
+        // ## Arrange ##
+        StreamingMultipartOption option = new StreamingMultipartOption();
+
+        // ## Act ##
+        // ## Assert ##
+        assertEquals(StreamingMultipartOption.DEFAULT_MAX_FILE_SIZE, option.getMaxFileSize());
+        assertEquals(StreamingMultipartOption.DEFAULT_MAX_TOTAL_SIZE, option.getMaxTotalSize());
+        option.unlimitFileAndTotalSize();
+        assertEquals(StreamingMultipartOption.NO_LIMIT, option.getMaxFileSize());
+        assertEquals(StreamingMultipartOption.NO_LIMIT, option.getMaxTotalSize());
+    }
+
+    // ===================================================================================
+    //                                                                           File Sink
+    //                                                                           =========
+    public void test_handleRequest_fileSink() throws Exception {
+        // ## Arrange ##
+        ByteArrayOutputStream storage = new ByteArrayOutputStream();
+        StreamingMultipartOption option = prepareOption().spoolThreshold(10).selectFileSink((request, header) -> {
+            if (!"land".equals(header.getFieldName())) {
+                return OptionalThing.empty();
+            }
+            return OptionalThing.of((sinkHeader, body) -> {
+                byte[] chunk = new byte[64];
+                int read;
+                while ((read = body.read(chunk)) >= 0) {
+                    storage.write(chunk, 0, read);
+                }
+                return "storage:" + sinkHeader.getFileName();
+            });
+        });
+        StreamingMultipartRequestHandler handler = createHandler(option);
+        byte[] binary = createBinary(1000);
+        MockHttpServletRequest request = createRequest(new MultipartBody().file("land", "oneman.bin", binary)
+                .file("piari", "plaza.txt", toBytes("dstore")));
+
+        // ## Act ##
+        handler.handleRequest(request);
+
+        // ## Assert ##
+        SunkMultipartFormFile sunk = (SunkMultipartFormFile) handler.getFileElements().get("land");
+        assertEquals("storage:oneman.bin", sunk.getReceipt(String.class).get());
+        assertEquals(1000L, sunk.getFileLength());
+        assertTrue(Arrays.equals(binary, storage.toByteArray()));
+        MultipartFormFile spooled = handler.getFileElements().get("piari"); // not selected
+        assertTrue(spooled instanceof SpooledMultipartFormFile);
+        assertEquals(0, countSpoolFiles()); // not spooled by sink
+    }
+
+    public void test_handleRequest_fileSink_failure() throws Exception {
+        // ## Arrange ##
+        StreamingMultipartOption option = prepareOption().spoolThreshold(10).selectFileSink((request, header) -> {
+            if (!"land".equals(header.getFieldName())) {
+                return OptionalThing.empty();
+            }
+            return OptionalThing.of((sinkHeader, body) -> {
+                throw new IllegalStateException("storage is down");
+            });
+        });
+        StreamingMultipartRequestHandler handler = createHandler(option);
+        MockHttpServletRequest request = createRequest(new MultipartBody().file("piari", "plaza.bin", createBinary(100))
+                .file("land", "oneman.bin", createBinary(100)));
+
+        // ## Act ##
+        // ## Assert ##
+        try {
+            handler.handleRequest(request);
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+        }
+        assertTrue(handler.getFileElements().isEmpty());
+        assertEquals(0, countSpoolFiles()); // spooled before failure is deleted
+    }
+
+    public void test_handleRequest_fileSink_exceeded() throws Exception {
+        // ## Arrange ##
+        List<String> discardedList = new ArrayList<String>();
+        MultipartFileSink fileSink = new MultipartFileSink() {
+            public Object receive(MultipartPartHeader header, InputStream body) throws IOException {
+                File stored = new File(spoolDirectory, header.getFileName());
+                try (OutputStream out = new FileOutputStream(stored)) {
+                    byte[] chunk = new byte[64];
+                    int read;
+                    while ((read = body.read(chunk)) >= 0) {
+                        out.write(chunk, 0, read);
+                    }
+                }
+                return stored.getName();
+            }
+
+            public void discard(MultipartPartHeader header, Object receipt) {
+                discardedList.add(header.getFileName() + ":" + receipt);
+                new File(spoolDirectory, header.getFileName()).delete();
+            }
+        };
+        StreamingMultipartOption option = prepareOption().limitFileSize(500).selectFileSink((request, header) -> {
+            return OptionalThing.of(fileSink);
+        });
+        StreamingMultipartRequestHandler handler = createHandler(option);
+        MockHttpServletRequest request = createRequest(new MultipartBody().file("sea", "mystic.bin", createBinary(100))
+                .file("land", "oneman.bin", createBinary(1000)));
+
+        // ## Act ##
+        handler.handleRequest(request);
+
+        // ## Assert ##
+        log(discardedList);
+        assertNotNull(MultipartRequestHandler.findExceededException(request));
+        assertEquals(Arrays.asList("oneman.bin:null", "mystic.bin:mystic.bin"), discardedList);
+        assertEquals(0, countSpoolFiles()); // both partial and received outputs are discarded
+        assertTrue(handler.getFileElements().isEmpty());
+    }
+
+    public void test_handleRequest_fileSink_finish_notDiscarded() throws Exception {
+        // ## Arrange ##
+        List<String> discardedList = new ArrayList<String>();
+        MultipartFileSink fileSink = new MultipartFileSink() {
+            public Object receive(MultipartPartHeader header, InputStream body) throws IOException {
+                return "storage:" + header.getFileName();
+            }
+
+            public void discard(MultipartPartHeader header, Object receipt) {
+                discardedList.add(header.getFileName());
+            }
+        };
+        StreamingMultipartRequestHandler handler = createHandler(prepareOption().selectFileSink((request, header) -> {
+            return OptionalThing.of(fileSink);
+        }));
+        handler.handleRequest(createRequest(new MultipartBody().file("sea", "mystic.bin", createBinary(100))));
+
+        // ## Act ##
+        handler.finish();
+
+        // ## Assert ##
+        assertTrue(discardedList.isEmpty()); // sunk output belongs to application after success
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected StreamingMultipartOption prepareOption() {
+        return new StreamingMultipartOption().spoolDirectory(spoolDirectory).bufferSize(64);
+    }
+
+    protected StreamingMultipartRequestHandler createHandler(StreamingMultipartOption option) {
+        return new StreamingMultipartRequestHandler(option);
+    }
+
+    protected MockHttpServletRequest createRequest(MultipartBody body) {
+        MockHttpServletRequest request = new MockHttpServletRequest().mockMethod("POST");
+        return request.mockBody("multipart/form-data; boundary=XyZ", body.build());
+    }
+
+    protected int countSpoolFiles() {
+        File[] files = spoolDirectory.listFiles();
+        return files != null ? files.length : 0;
+    }
+
+    protected byte[] createBinary(int size) {
+        byte[] binary = new byte[size];
+        for (int i = 0; i < size; i++) {
+            binary[i] = (byte) (i % 13 == 0 ? '\r' : (i % 17 == 0 ? '\n' : i));
+        }
+        return binary;
+    }
+
+    protected byte[] readAll(InputStream ins) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[128];
+            int read;
+            while ((read = ins.read(chunk)) >= 0) {
+                out.write(chunk, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            ins.close();
+        }
+    }
+
+    protected byte[] toBytes(String str) {
+        return str.getBytes(StandardCharsets.UTF_8);
+    }
+
+    protected class MultipartBody {
+
+        protected final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        public MultipartBody text(String name, String value) {
+            writePart("Content-Disposition: form-data; name=\"" + name + "\"\r\n", toBytes(value));
+            return this;
+        }
+
+        public MultipartBody file(String name, String fileName, byte[] data) {
+            String disposition = "Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + fileName + "\"\r\n";
+            writePart(disposition + "Content-Type: application/octet-stream\r\n", data);
+            return this;
+        }
+
+        protected void writePart(String headers, byte[] data) {
+            byte[] head = toBytes("--XyZ\r\n" + headers + "\r\n");
+            out.write(head, 0, head.length);
+            out.write(data, 0, data.length);
+            byte[] tail = toBytes("\r\n");
+            out.write(tail, 0, tail.length);
+        }
+
+        public byte[] build() {
+            byte[] end = toBytes("--XyZ--\r\n");
+            out.write(end, 0, end.length);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.process.profile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.dbflute.utflute.core.PlainTestCase;
+
+/**
+ * @author jflute
+ */
+public class ActionRequestProfileTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                             Measure
+    //                                                                             =======
+    public void test_stop_basic() {
+        // ## Arrange ##
+        ActionRequestProfile profile = new ActionRequestProfile();
+
+        // ## Act ##
+        profile.start(ActionPhase.FORM_POPULATION);
+        List<String> garbageList = allocateSomething();
+        profile.stop(ActionPhase.FORM_POPULATION);
+
+        // ## Assert ##
+        log(profile, garbageList.size());
+        assertTrue(profile.isMeasured(ActionPhase.FORM_POPULATION));
+        assertFalse(profile.isMeasured(ActionPhase.READY));
+        assertFalse(profile.isMeasured(ActionPhase.ACTION_EXECUTION));
+        assertTrue(profile.getElapsedNanos(ActionPhase.FORM_POPULATION) > 0);
+        assertTrue(profile.getAllocatedBytes(ActionPhase.FORM_POPULATION) >= 0);
+        assertTrue(profile.getCpuTimeNanos(ActionPhase.FORM_POPULATION) >= 0);
+        if (ThreadResourceMeter.currentAllocatedBytes() >= 0) { // supported JVM
+            assertTrue(profile.getAllocatedBytes(ActionPhase.FORM_POPULATION) > 0);
+        }
+        assertEquals(0L, profile.getElapsedNanos(ActionPhase.READY));
+        assertEquals(0L, profile.getAllocatedBytes(ActionPhase.READY));
+    }
+
+    public void test_stop_summarized() {
+        // ## Arrange ##
+        ActionRequestProfile profile = new ActionRequestProfile();
+        profile.start(ActionPhase.VALIDATION);
+        allocateSomething();
+        profile.stop(ActionPhase.VALIDATION);
+        long firstElapsed = profile.getElapsedNanos(ActionPhase.VALIDATION);
+        long firstAllocated = profile.getAllocatedBytes(ActionPhase.VALIDATION);
+
+        // ## Act ##
+        profile.start(ActionPhase.VALIDATION); // e.g. validate() called twice
+        allocateSomething();
+        profile.stop(ActionPhase.VALIDATION);
+
+        // ## Assert ##
+        assertTrue(profile.getElapsedNanos(ActionPhase.VALIDATION) > firstElapsed);
+        assertTrue(profile.getAllocatedBytes(ActionPhase.VALIDATION) >= firstAllocated);
+    }
+
+    public void test_deltaOf_unsupported() {
+        // ## Arrange ##
+        ActionRequestProfile profile = new ActionRequestProfile();
+
+        // ## Act ##
+        // ## Assert ##
+        assertEquals(5L, profile.deltaOf(3L, 8L));
+        assertEquals(0L, profile.deltaOf(-1L, -1L)); // unsupported
+        assertEquals(0L, profile.deltaOf(-1L, 8L)); // enabled while measuring
+        assertEquals(0L, profile.deltaOf(8L, -1L)); // disabled while measuring
+    }
+
+    // ===================================================================================
+    //                                                                              Finish
+    //                                                                              ======
+    public void test_finish_basic() {
+        // ## Arrange ##
+        ActionRequestProfile profile = new ActionRequestProfile();
+        allocateSomething();
+        assertFalse(profile.isFinished());
+        assertEquals(0L, profile.getTotalElapsedNanos());
+
+        // ## Act ##
+        profile.finish();
+
+        // ## Assert ##
+        assertTrue(profile.isFinished());
+        assertTrue(profile.getTotalElapsedNanos() > 0);
+        assertTrue(profile.getTotalAllocatedBytes() >= 0);
+        assertTrue(profile.getTotalCpuTimeNanos() >= 0);
+    }
+
+    public void test_finish_onlyOnce() {
+        // ## Arrange ##
+        ActionRequestProfile profile = new ActionRequestProfile();
+        profile.finish();
+        long totalElapsed = profile.getTotalElapsedNanos();
+        long totalAllocated = profile.getTotalAllocatedBytes();
+
+        // ## Act ##
+        allocateSomething();
+        profile.finish(); // e.g. nested call
+
+        // ## Assert ##
+        assertEquals(totalElapsed, profile.getTotalElapsedNanos());
+        assertEquals(totalAllocated, profile.getTotalAllocatedBytes());
+    }
+
+    // ===================================================================================
+    //                                                                      Basic Override
+    //                                                                      ==============
+    public void test_toString_measuredOnly() {
+        // ## Arrange ##
+        ActionRequestProfile profile = new ActionRequestProfile();
+        profile.start(ActionPhase.ACTION_EXECUTION);
+        profile.stop(ActionPhase.ACTION_EXECUTION);
+        profile.finish();
+
+        // ## Act ##
+        String exp = profile.toString();
+
+        // ## Assert ##
+        log(exp);
+        assertTrue(exp.startsWith("profile:{total="));
+        assertTrue(exp.contains("action_execution="));
+        assertFalse(exp.contains("ready="));
+        assertFalse(exp.contains("form_population="));
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected List<String> allocateSomething() {
+        List<String> garbageList = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            garbageList.add("sea" + i);
+        }
+        return garbageList;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.ruts.throttle;
+
+import org.dbflute.utflute.core.PlainTestCase;
+
+/**
+ * @author jflute
+ */
+public class LocalThrottleCounterTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                          Rate Limit
+    //                                                                          ==========
+    public void test_tryAcquireToken_burstAndRefill() {
+        // ## Arrange ##
+        MockClockCounter counter = new MockClockCounter(100);
+
+        // ## Act ##
+        // ## Assert ##
+        assertTrue(counter.tryAcquireToken("sea", 2, 1000L));
+        assertTrue(counter.tryAcquireToken("sea", 2, 1000L));
+        assertFalse(counter.tryAcquireToken("sea", 2, 1000L)); // burst used
+        assertTrue(counter.tryAcquireToken("land", 2, 1000L)); // other client
+
+        counter.currentMillis += 499L;
+        assertFalse(counter.tryAcquireToken("sea", 2, 1000L)); // not refilled yet
+        counter.currentMillis += 1L;
+        assertTrue(counter.tryAcquireToken("sea", 2, 1000L)); // one token per 500ms
+        assertFalse(counter.tryAcquireToken("sea", 2, 1000L));
+
+        counter.currentMillis += 60000L;
+        assertTrue(counter.tryAcquireToken("sea", 2, 1000L));
+        assertTrue(counter.tryAcquireToken("sea", 2, 1000L));
+        assertFalse(counter.tryAcquireToken("sea", 2, 1000L)); // capacity is permits
+    }
+
+    public void test_tryAcquireToken_sweepIdle() {
+        // ## Arrange ##
+        MockClockCounter counter = new MockClockCounter(2);
+        assertTrue(counter.tryAcquireToken("sea", 1, 1000L));
+        assertTrue(counter.tryAcquireToken("land", 1, 1000L));
+        counter.currentMillis += 5000L; // both refilled
+
+        // ## Act ##
+        assertTrue(counter.tryAcquireToken("piari", 1, 1000L));
+
+        // ## Assert ##
+        log(counter);
+        assertEquals(1, counter.bucketMap.size());
+        assertTrue(counter.bucketMap.containsKey("piari"));
+    }
+
+    public void test_tryAcquireToken_evictLeastRecentlyUsed() {
+        // ## Arrange ##
+        MockClockCounter counter = new MockClockCounter(4);
+        for (String key : new String[] { "sea", "land", "piari", "bonvo" }) {
+            assertTrue(counter.tryAcquireToken(key, 5, 3600000L)); // partial for a long time
+            counter.currentMillis += 10L;
+        }
+        assertTrue(counter.tryAcquireToken("sea", 5, 3600000L)); // used again so land is least
+
+        // ## Act ##
+        assertTrue(counter.tryAcquireToken("dstore", 5, 3600000L));
+
+        // ## Assert ##
+        log(counter);
+        assertEquals(4, counter.bucketMap.size()); // not over the max
+        assertFalse(counter.bucketMap.containsKey("land"));
+        assertTrue(counter.bucketMap.containsKey("sea"));
+        assertTrue(counter.bucketMap.containsKey("dstore"));
+    }
+
+    // ===================================================================================
+    //                                                                            Bulkhead
+    //                                                                            ========
+    public void test_tryEnterBulkhead_basic() {
+        // ## Arrange ##
+        LocalThrottleCounter counter = new LocalThrottleCounter(100);
+
+        // ## Act ##
+        // ## Assert ##
+        assertTrue(counter.tryEnterBulkhead("sea", 2, 0L));
+        assertTrue(counter.tryEnterBulkhead("sea", 2, 0L));
+        assertFalse(counter.tryEnterBulkhead("sea", 2, 10L)); // full after waiting
+        counter.leaveBulkhead("sea");
+        assertTrue(counter.tryEnterBulkhead("sea", 2, 0L));
+        counter.leaveBulkhead("sea");
+        counter.leaveBulkhead("sea");
+    }
+
+    public void test_tryEnterBulkhead_waitForLeaving() throws Exception {
+        // ## Arrange ##
+        LocalThrottleCounter counter = new LocalThrottleCounter(100);
+        assertTrue(counter.tryEnterBulkhead("sea", 1, 0L));
+        Thread leaving = new Thread(() -> {
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException ignored) {}
+            counter.leaveBulkhead("sea");
+        });
+
+        // ## Act ##
+        leaving.start();
+        boolean entered = counter.tryEnterBulkhead("sea", 1, 5000L);
+
+        // ## Assert ##
+        assertTrue(entered);
+        leaving.join();
+        counter.leaveBulkhead("sea");
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected static class MockClockCounter extends LocalThrottleCounter {
+
+        protected long currentMillis = 1000000L;
+
+        public MockClockCounter(int maxBucketCount) {
+            super(maxBucketCount);
+        }
+
+        @Override
+        protected long currentMillis() {
+            return currentMillis;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.filter.compress;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.unit.mock.web.MockHttpServletResponse;
+
+/**
+ * @author jflute
+ */
+public class CompressionHttpServletResponseTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                          Round Trip
+    //                                                                          ==========
+    public void test_gzip_roundTrip() throws Exception {
+        // ## Arrange ##
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        CompressionHttpServletResponse response = createResponse(original, new ResponseCompressionOption(), "gzip");
+        response.setContentType("application/json");
+        String json = buildJson(300);
+        response.setContentLength(json.getBytes(StandardCharsets.UTF_8).length);
+
+        // ## Act ##
+        PrintWriter writer = response.getWriter();
+        writer.write(json.substring(0, 10)); // small pieces
+        writer.write(json.substring(10));
+        response.finishResponse();
+
+        // ## Assert ##
+        assertTrue(response.isCompressed());
+        assertEquals("gzip", original.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", original.getHeader("Vary"));
+        assertEquals(-1L, original.getContentLength()); // removed because of unknown size
+        byte[] compressed = original.getBodyAsBytes();
+        assertTrue(compressed.length < json.length());
+        assertEquals(json, readAll(new GZIPInputStream(new ByteArrayInputStream(compressed))));
+    }
+
+    public void test_deflate_roundTrip() throws Exception {
+        // ## Arrange ##
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        CompressionHttpServletResponse response = createResponse(original, new ResponseCompressionOption(), "deflate");
+        response.setContentType("text/html; charset=UTF-8");
+        String html = buildJson(300);
+
+        // ## Act ##
+        ServletOutputStream out = response.getOutputStream();
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        for (byte b : bytes) { // one by one
+            out.write(b);
+        }
+        response.finishResponse();
+
+        // ## Assert ##
+        assertEquals("deflate", original.getHeader("Content-Encoding"));
+        assertEquals(html, readAll(new InflaterInputStream(new ByteArrayInputStream(original.getBodyAsBytes()))));
+    }
+
+    // ===================================================================================
+    //                                                                        Minimum Size
+    //                                                                        ============
+    public void test_minimumSize_small() throws Exception {
+        // ## Arrange ##
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        CompressionHttpServletResponse response = createResponse(original, new ResponseCompressionOption(), "gzip");
+        response.setContentType("application/json");
+        String json = "{\"sea\":\"mystic\"}";
+
+        // ## Act ##
+        response.getWriter().write(json);
+        assertFalse(original.isCommitted()); // buffered until determination
+        response.finishResponse();
+
+        // ## Assert ##
+        assertFalse(response.isCompressed());
+        assertNull(original.getHeader("Content-Encoding"));
+        assertEquals(json, original.getBodyAsString());
+    }
+
+    // ===================================================================================
+    //                                                                     Declared Length
+    //                                                                     ===============
+    public void test_declaredLength_belowMinimum() throws Exception {
+        // ## Arrange ##
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        CompressionHttpServletResponse response = createResponse(original, new ResponseCompressionOption().minimumSize(100), "gzip");
+        response.setContentType("application/json");
+        byte[] bytes = buildJson(30).getBytes(StandardCharsets.UTF_8); // over minimum
+        response.setHeader("Content-Length", "50"); // declared by action, e.g. partial write
+
+        // ## Act ##
+        response.getOutputStream().write(bytes, 0, 50);
+        response.finishResponse();
+
+        // ## Assert ##
+        assertFalse(response.isCompressed());
+        assertEquals(50L, original.getContentLength()); // held and applied
+    }
+
+    public void test_declaredLength_incompressible() throws Exception {
+        // ## Arrange ##
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        CompressionHttpServletResponse response = createResponse(original, new ResponseCompressionOption(), "gzip");
+        response.setContentType("image/png");
+        byte[] bytes = new byte[3000];
+        response.setContentLength(bytes.length);
+
+        // ## Act ##
+        response.getOutputStream().write(bytes);
+        response.finishResponse();
+
+        // ## Assert ##
+        assertFalse(response.isCompressed());
+        assertEquals(3000L, original.getContentLength());
+        assertEquals(3000, original.getBodyAsBytes().length);
+    }
+
+    public void test_declaredLength_noBody() throws Exception {
+        // ## Arrange ##
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        CompressionHttpServletResponse response = createResponse(original, new ResponseCompressionOption(), "gzip");
+        response.setContentLength(0);
+        assertEquals(-1L, original.getContentLength()); // held
+
+        // ## Act ##
+        response.finishResponse();
+
+        // ## Assert ##
+        assertEquals(0L, original.getContentLength());
+    }
+
+    // ===================================================================================
+    //                                                                          Entity Tag
+    //                                                                          ==========
+    public void test_entityTag_weakenedIfCompressed() throws Exception {
+        // ## Arrange ##
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        CompressionHttpServletResponse response = createResponse(original, new ResponseCompressionOption(), "gzip");
+        response.setContentType("application/json");
+        response.setHeader("ETag", "\"sea\"");
+
+        // ## Act ##
+        response.getWriter().write(buildJson(300));
+        response.finishResponse();
+
+        // ## Assert ##
+        assertEquals("W/\"sea\"", original.getHeader("ETag"));
+        response.setHeader("ETag", "\"land\""); // after compressed
+        assertEquals("W/\"land\"", original.getHeader("ETag"));
+        response.setHeader("ETag", "W/\"piari\"");
+        assertEquals("W/\"piari\"", original.getHeader("ETag"));
+    }
+
+    public void test_entityTag_keptIfPlain() throws Exception {
+        // ## Arrange ##
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        CompressionHttpServletResponse response = createResponse(original, new ResponseCompressionOption(), "gzip");
+        response.setContentType("application/json");
+        response.setHeader("ETag", "\"sea\"");
+
+        // ## Act ##
+        response.getWriter().write("{}");
+        response.finishResponse();
+
+        // ## Assert ##
+        assertEquals("\"sea\"", original.getHeader("ETag"));
+    }
+
+    // ===================================================================================
+    //                                                                        Non-Blocking
+    //                                                                        ============
+    public void test_writeListener_passThrough() throws Exception {
+        // ## Arrange ##
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        CompressionHttpServletResponse response = createResponse(original, new ResponseCompressionOption(), "gzip");
+        response.setContentType("application/json");
+        WriteListener listener = new WriteListener() {
+            public void onWritePossible() throws IOException {
+            }
+
+            public void onError(Throwable t) {
+            }
+        };
+        ServletOutputStream out = response.getOutputStream();
+
+        // ## Act ##
+        out.setWriteListener(listener);
+        out.write(buildJson(300).getBytes(StandardCharsets.UTF_8));
+        response.finishResponse();
+
+        // ## Assert ##
+        assertTrue(out.isReady());
+        assertEquals(listener, original.getWriteListener());
+        assertFalse(response.isCompressed());
+        assertNull(original.getHeader("Content-Encoding"));
+        assertEquals(buildJson(300), original.getBodyAsString());
+    }
+
+    public void test_writeListener_afterWriting() throws Exception {
+        // ## Arrange ##
+        MockHttpServletResponse original = new MockHttpServletResponse();
+        CompressionHttpServletResponse response = createResponse(original, new ResponseCompressionOption(), "gzip");
+        response.setContentType("application/json");
+        ServletOutputStream out = response.getOutputStream();
+        out.write('{');
+
+        // ## Act ##
+        // ## Assert ##
+        try {
+            out.setWriteListener(null);
+            fail();
+        } catch (IllegalStateException e) {
+            log(e.getMessage());
+        }
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected CompressionHttpServletResponse createResponse(MockHttpServletResponse original, ResponseCompressionOption option,
+            String encodingName) {
+        for (ResponseContentEncoder encoder : option.prepareEncoderList()) {
+            if (encoder.getEncodingName().equals(encodingName)) {
+                return new CompressionHttpServletResponse(original, encoder, option);
+            }
+        }
+        throw new IllegalStateException("Not found the encoder: " + encodingName);
+    }
+
+    protected String buildJson(int count) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            sb.append(i > 0 ? "," : "").append("{\"id\":").append(i).append(",\"name\":\"sea\"}");
+        }
+        return sb.append("]").toString();
+    }
+
+    protected String readAll(InputStream ins) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int len;
+        while ((len = ins.read(buffer)) >= 0) {
+            out.write(buffer, 0, len);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
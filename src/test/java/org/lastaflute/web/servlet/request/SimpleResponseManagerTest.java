@@ -0,0 +1,88 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.request;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.unit.mock.web.MockHttpServletResponse;
+
+/**
+ * @author jflute
+ */
+public class SimpleResponseManagerTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                      Write Response
+    //                                                                      ==============
+    public void test_write_bytes_basic() throws Exception {
+        // ## Arrange ##
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        SimpleResponseManager manager = createManager(response);
+        byte[] encodedBytes = "{\"sea\":\"mystic\"}".getBytes("UTF-8");
+
+        // ## Act ##
+        manager.write(encodedBytes, "application/json", "UTF-8");
+
+        // ## Assert ##
+        assertEquals("application/json; charset=UTF-8", response.getContentType());
+        assertEquals(encodedBytes.length, response.getContentLength());
+        assertEquals("{\"sea\":\"mystic\"}", new String(response.getBodyAsBytes(), "UTF-8"));
+    }
+
+    public void test_write_bytes_sameAsText() throws Exception {
+        // ## Arrange ##
+        String text = "海のミスティック";
+        MockHttpServletResponse textResponse = new MockHttpServletResponse();
+        MockHttpServletResponse bytesResponse = new MockHttpServletResponse();
+
+        // ## Act ##
+        createManager(textResponse).write(text, "text/plain", "UTF-8");
+        createManager(bytesResponse).write(text.getBytes("UTF-8"), "text/plain", "UTF-8");
+
+        // ## Assert ##
+        assertEquals(textResponse.getContentType(), bytesResponse.getContentType());
+        assertEquals(textResponse.getContentLength(), bytesResponse.getContentLength());
+        assertEquals(text, new String(bytesResponse.getBodyAsBytes(), "UTF-8"));
+        assertEquals(new String(textResponse.getBodyAsBytes(), "UTF-8"), new String(bytesResponse.getBodyAsBytes(), "UTF-8"));
+    }
+
+    public void test_write_bytes_nullBytes() {
+        // ## Arrange ##
+        SimpleResponseManager manager = createManager(new MockHttpServletResponse());
+
+        // ## Act ##
+        // ## Assert ##
+        try {
+            manager.write((byte[]) null, "text/plain", "UTF-8");
+            fail();
+        } catch (IllegalArgumentException e) {
+            log(e.getMessage());
+        }
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected SimpleResponseManager createManager(MockHttpServletResponse response) {
+        return new SimpleResponseManager() {
+            @Override
+            public HttpServletResponse getResponse() {
+                return response;
+            }
+        };
+    }
+}
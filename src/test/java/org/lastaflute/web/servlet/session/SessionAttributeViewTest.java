@@ -0,0 +1,252 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.session;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.web.login.UserBean;
+
+/**
+ * @author jflute
+ */
+public class SessionAttributeViewTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                          Write-Back
+    //                                                                          ==========
+    public void test_flush_written() {
+        // ## Arrange ##
+        SessionAttributeView view = new SessionAttributeView(false);
+        view.load("sea", "mystic");
+        view.write("sea", "bigband");
+        view.write("land", "oneman");
+        Map<String, Object> sessionMap = new LinkedHashMap<String, Object>();
+
+        // ## Act ##
+        int flushedCount = view.flush((key, value) -> sessionMap.put(key, value), key -> sessionMap.remove(key));
+
+        // ## Assert ##
+        log(view);
+        assertEquals(2, flushedCount);
+        assertEquals("bigband", sessionMap.get("sea"));
+        assertEquals("oneman", sessionMap.get("land"));
+        assertFalse(view.hasWritten());
+        assertEquals("bigband", view.resolve("sea")); // loaded by flush
+        assertEquals("oneman", view.resolve("land"));
+    }
+
+    public void test_flush_removed() {
+        // ## Arrange ##
+        SessionAttributeView view = new SessionAttributeView(false);
+        view.load("sea", "mystic");
+        view.remove("sea");
+        Map<String, Object> sessionMap = new LinkedHashMap<String, Object>();
+        sessionMap.put("sea", "mystic");
+
+        // ## Act ##
+        int flushedCount = view.flush((key, value) -> sessionMap.put(key, value), key -> sessionMap.remove(key));
+
+        // ## Assert ##
+        assertEquals(1, flushedCount);
+        assertFalse(sessionMap.containsKey("sea"));
+        assertTrue(view.isResolved("sea")); // loaded as absent
+        assertNull(view.resolve("sea"));
+    }
+
+    public void test_flush_nothingWritten() {
+        // ## Arrange ##
+        SessionAttributeView view = new SessionAttributeView(false);
+        view.load("sea", "mystic");
+        Map<String, Object> sessionMap = new LinkedHashMap<String, Object>();
+
+        // ## Act ##
+        int flushedCount = view.flush((key, value) -> sessionMap.put(key, value), key -> sessionMap.remove(key));
+
+        // ## Assert ##
+        assertEquals(0, flushedCount);
+        assertTrue(sessionMap.isEmpty());
+    }
+
+    public void test_flush_lastWriteWins() {
+        // ## Arrange ##
+        SessionAttributeView view = new SessionAttributeView(false);
+        view.write("sea", "mystic");
+        view.remove("sea");
+        view.write("land", "oneman");
+        view.write("land", "showbase");
+        Map<String, Object> sessionMap = new LinkedHashMap<String, Object>();
+        sessionMap.put("sea", "dockside");
+
+        // ## Act ##
+        view.flush((key, value) -> sessionMap.put(key, value), key -> sessionMap.remove(key));
+
+        // ## Assert ##
+        assertFalse(sessionMap.containsKey("sea"));
+        assertEquals("showbase", sessionMap.get("land"));
+    }
+
+    // -----------------------------------------------------
+    //                                             User Bean
+    //                                             ---------
+    public void test_flush_userBean_unchanged_skipped() {
+        // ## Arrange ##
+        SessionAttributeView view = new SessionAttributeView(true);
+        MockUserBean bean = new MockUserBean(3L);
+        view.load("user", bean);
+        view.write("user", bean); // e.g. re-saved by login manager
+        Map<String, Object> sessionMap = new LinkedHashMap<String, Object>();
+
+        // ## Act ##
+        int flushedCount = view.flush((key, value) -> sessionMap.put(key, value), key -> sessionMap.remove(key));
+
+        // ## Assert ##
+        assertEquals(0, flushedCount);
+        assertTrue(sessionMap.isEmpty());
+    }
+
+    public void test_flush_userBean_versionChanged_flushed() {
+        // ## Arrange ##
+        SessionAttributeView view = new SessionAttributeView(true);
+        MockUserBean bean = new MockUserBean(3L);
+        view.load("user", bean);
+        bean.version = 4L;
+        view.write("user", bean);
+        Map<String, Object> sessionMap = new LinkedHashMap<String, Object>();
+
+        // ## Act ##
+        int flushedCount = view.flush((key, value) -> sessionMap.put(key, value), key -> sessionMap.remove(key));
+
+        // ## Assert ##
+        assertEquals(1, flushedCount);
+        assertSame(bean, sessionMap.get("user"));
+    }
+
+    public void test_flush_userBean_unversioned_flushed() {
+        // ## Arrange ##
+        SessionAttributeView view = new SessionAttributeView(true);
+        MockUserBean bean = new MockUserBean(-1L);
+        view.load("user", bean);
+        view.write("user", bean);
+        Map<String, Object> sessionMap = new LinkedHashMap<String, Object>();
+
+        // ## Act ##
+        int flushedCount = view.flush((key, value) -> sessionMap.put(key, value), key -> sessionMap.remove(key));
+
+        // ## Assert ##
+        assertEquals(1, flushedCount); // cannot determine change
+        assertSame(bean, sessionMap.get("user"));
+    }
+
+    public void test_flush_userBean_notSkipped_flushed() {
+        // ## Arrange ##
+        SessionAttributeView view = new SessionAttributeView(false);
+        MockUserBean bean = new MockUserBean(3L);
+        view.load("user", bean);
+        view.write("user", bean);
+        Map<String, Object> sessionMap = new LinkedHashMap<String, Object>();
+
+        // ## Act ##
+        int flushedCount = view.flush((key, value) -> sessionMap.put(key, value), key -> sessionMap.remove(key));
+
+        // ## Assert ##
+        assertEquals(1, flushedCount);
+    }
+
+    protected static class MockUserBean implements UserBean<Integer> {
+
+        protected long version;
+
+        public MockUserBean(long version) {
+            this.version = version;
+        }
+
+        @Override
+        public Integer getUserId() {
+            return 1;
+        }
+
+        @Override
+        public long getSessionVersion() {
+            return version;
+        }
+    }
+
+    // ===================================================================================
+    //                                                                                Read
+    //                                                                                ====
+    public void test_resolve_written_before_loaded() {
+        // ## Arrange ##
+        SessionAttributeView view = new SessionAttributeView(false);
+        view.load("sea", "mystic");
+        view.load("land", null);
+
+        // ## Act ##
+        view.write("sea", "bigband");
+        view.remove("land");
+
+        // ## Assert ##
+        assertEquals("bigband", view.resolve("sea"));
+        assertTrue(view.isResolved("land"));
+        assertNull(view.resolve("land"));
+        assertFalse(view.isResolved("piari"));
+    }
+
+    public void test_mergeNameList() {
+        // ## Arrange ##
+        SessionAttributeView view = new SessionAttributeView(false);
+        view.write("land", "oneman");
+        view.remove("sea");
+        view.write("piari", "plaza");
+        view.remove("bonvo"); // not in session
+
+        // ## Act ##
+        List<String> nameList = view.mergeNameList(Arrays.asList("sea", "land", "dockside"));
+
+        // ## Assert ##
+        assertEquals(Arrays.asList("land", "dockside", "piari"), nameList);
+    }
+
+    public void test_mergeNameList_nothingWritten() {
+        // ## Arrange ##
+        SessionAttributeView view = new SessionAttributeView(false);
+        List<String> sessionNameList = Arrays.asList("sea", "land");
+
+        // ## Act ##
+        List<String> nameList = view.mergeNameList(sessionNameList);
+
+        // ## Assert ##
+        assertEquals(sessionNameList, nameList);
+    }
+
+    public void test_discard() {
+        // ## Arrange ##
+        SessionAttributeView view = new SessionAttributeView(false);
+        view.load("sea", "mystic");
+        view.write("land", "oneman");
+
+        // ## Act ##
+        view.discard();
+
+        // ## Assert ##
+        assertFalse(view.isResolved("sea"));
+        assertFalse(view.isResolved("land"));
+        assertFalse(view.hasWritten());
+    }
+}
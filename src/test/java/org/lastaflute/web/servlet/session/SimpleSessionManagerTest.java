@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.servlet.session;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.unit.mock.web.MockHttpServletRequest;
+import org.lastaflute.unit.mock.web.MockHttpSession;
+
+/**
+ * @author jflute
+ */
+public class SimpleSessionManagerTest extends PlainTestCase {
+
+    // ===================================================================================
+    //                                                                      Attribute View
+    //                                                                      ==============
+    public void test_attributeView_written_flushed() {
+        // ## Arrange ##
+        MockSessionManager manager = new MockSessionManager();
+        assertTrue(manager.beginAttributeView());
+
+        // ## Act ##
+        manager.setAttribute("sea", "mystic");
+
+        // ## Assert ##
+        assertNull(manager.session.getAttribute("sea")); // not flushed yet
+        assertEquals("mystic", manager.getAttribute("sea", String.class).get());
+        manager.finishAttributeView();
+        assertEquals("mystic", manager.session.getAttribute("sea"));
+    }
+
+    public void test_attributeView_removed_flushed() {
+        // ## Arrange ##
+        MockSessionManager manager = new MockSessionManager();
+        manager.session.setAttribute("sea", "mystic");
+        manager.beginAttributeView();
+
+        // ## Act ##
+        manager.removeAttribute("sea");
+
+        // ## Assert ##
+        assertEquals("mystic", manager.session.getAttribute("sea")); // not flushed yet
+        assertFalse(manager.getAttribute("sea", String.class).isPresent());
+        manager.finishAttributeView();
+        assertNull(manager.session.getAttribute("sea"));
+    }
+
+    public void test_getAttributeNameList_withPendingWrite() {
+        // ## Arrange ##
+        MockSessionManager manager = new MockSessionManager();
+        manager.session.setAttribute("sea", "mystic");
+        manager.session.setAttribute("land", "oneman");
+        manager.beginAttributeView();
+        manager.setAttribute("piari", "plaza");
+        manager.removeAttribute("sea");
+
+        // ## Act ##
+        List<String> nameList = manager.getAttributeNameList();
+
+        // ## Assert ##
+        assertEquals(Arrays.asList("land", "piari"), nameList);
+        assertEquals(Arrays.asList("sea", "land"), manager.extractSessionNameList(manager.session)); // not flushed yet
+    }
+
+    public void test_getAttributeNameList_noView() {
+        // ## Arrange ##
+        MockSessionManager manager = new MockSessionManager();
+        manager.session.setAttribute("sea", "mystic");
+
+        // ## Act ##
+        manager.setAttribute("land", "oneman"); // direct to session
+
+        // ## Assert ##
+        assertEquals(Arrays.asList("sea", "land"), manager.getAttributeNameList());
+    }
+
+    public void test_extractSavedSessionMap_withPendingWrite() {
+        // ## Arrange ##
+        MockSessionManager manager = new MockSessionManager();
+        manager.session.setAttribute("sea", "mystic");
+        manager.session.setAttribute("land", "oneman");
+        manager.beginAttributeView();
+        manager.setAttribute("land", "showbase");
+        manager.setAttribute("piari", "plaza");
+        manager.removeAttribute("sea");
+
+        // ## Act ##
+        Map<String, Object> savedMap = manager.extractSavedSessionMap(manager.session);
+
+        // ## Assert ##
+        log(savedMap);
+        assertEquals(Arrays.asList("land", "piari"), new ArrayList<String>(savedMap.keySet()));
+        assertEquals("showbase", savedMap.get("land"));
+        assertEquals("plaza", savedMap.get("piari"));
+    }
+
+    // ===================================================================================
+    //                                                                        Mock Manager
+    //                                                                        ============
+    protected static class MockSessionManager extends SimpleSessionManager {
+
+        protected final MockHttpServletRequest request = new MockHttpServletRequest();
+        protected final MockHttpSession session = new MockHttpSession("mockSessionId");
+
+        public MockSessionManager() {
+            useRequestAttributeView = true;
+        }
+
+        @Override
+        protected HttpServletRequest getRequest() {
+            return request;
+        }
+
+        @Override
+        protected HttpSession getSessionOrCreated() {
+            return session;
+        }
+
+        @Override
+        protected HttpSession getSessionExisting() {
+            return session;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2015-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.lastaflute.web.token;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.dbflute.optional.OptionalThing;
+import org.dbflute.utflute.core.PlainTestCase;
+import org.lastaflute.unit.mock.web.MockRequestManager;
+import org.lastaflute.web.exception.CrossSiteRequestForgeriesForbiddenException;
+
+/**
+ * @author jflute
+ */
+public class SimpleCsrfManagerTest extends PlainTestCase {
+
+    private static final CsrfSigningKey SEA_KEY = new CsrfSigningKey("sea", "0123456789abcdef".getBytes(StandardCharsets.US_ASCII));
+    private static final CsrfSigningKey LAND_KEY = new CsrfSigningKey("land", "fedcba9876543210".getBytes(StandardCharsets.US_ASCII));
+
+    // ===================================================================================
+    //                                                                         Signing Key
+    //                                                                         ===========
+    public void test_CsrfSigningKey_sign_sameInThreads() throws Exception {
+        // ## Arrange ##
+        byte[] expected = SEA_KEY.sign("mystic");
+        List<byte[]> resultList = new ArrayList<byte[]>();
+
+        // ## Act ##
+        List<Thread> threadList = new ArrayList<Thread>();
+        for (int i = 0; i < 4; i++) {
+            threadList.add(new Thread(() -> {
+                for (int j = 0; j < 100; j++) {
+                    byte[] signed = SEA_KEY.sign("mystic");
+                    synchronized (resultList) {
+                        resultList.add(signed);
+                    }
+                }
+            }));
+        }
+        threadList.forEach(thread -> thread.start());
+        for (Thread thread : threadList) {
+            thread.join();
+        }
+
+        // ## Assert ##
+        assertEquals(400, resultList.size());
+        for (byte[] signed : resultList) {
+            assertTrue(Arrays.equals(expected, signed));
+        }
+        assertFalse(Arrays.equals(expected, SEA_KEY.sign("oneman")));
+        assertFalse(Arrays.equals(expected, LAND_KEY.sign("mystic")));
+    }
+
+    // ===================================================================================
+    //                                                                     Stateless Token
+    //                                                                     ===============
+    public void test_statelessToken_signAndVerify() {
+        // ## Arrange ##
+        MockCsrfManager manager = new MockCsrfManager(SEA_KEY);
+        String token = manager.generateStatelessToken(); // first access
+        String cookieValue = manager.savedCookieValue;
+        assertNotNull(cookieValue);
+        log(token, cookieValue);
+
+        // ## Act ##
+        manager.nextRequest(cookieValue);
+        manager.verifyStatelessToken(token);
+
+        // ## Assert ##
+        assertNull(manager.savedCookieValue); // reused
+        assertTrue(token.startsWith("sea."));
+    }
+
+    public void test_statelessToken_tampered() {
+        // ## Arrange ##
+        MockCsrfManager manager = new MockCsrfManager(SEA_KEY);
+        String token = manager.generateStatelessToken();
+        manager.nextRequest(manager.savedCookieValue);
+        int lastDelimiter = token.lastIndexOf(".");
+        String signature = token.substring(lastDelimiter + 1);
+        String forgedExpire = token.substring(0, token.indexOf(".")) + ".9999999999" + token.substring(lastDelimiter);
+        String forgedSignature = token.substring(0, lastDelimiter + 1) + (signature.charAt(0) == 'A' ? "B" : "A") + signature.substring(1);
+
+        // ## Act ##
+        // ## Assert ##
+        assertCsrfForbidden(manager, forgedExpire);
+        assertCsrfForbidden(manager, forgedSignature);
+        assertCsrfForbidden(manager, "sea.broken");
+        assertCsrfForbidden(manager, "piari." + token.substring(token.indexOf(".") + 1)); // unknown key
+    }
+
+    public void test_statelessToken_expired() {
+        // ## Arrange ##
+        MockCsrfManager manager = new MockCsrfManager(SEA_KEY);
+        String token = manager.generateStatelessToken();
+        manager.nextRequest(manager.savedCookieValue);
+        manager.currentMillis += manager.statelessExpireSeconds * 1000L;
+        manager.verifyStatelessToken(token); // just expire time
+
+        // ## Act ##
+        manager.currentMillis += 1000L;
+
+        // ## Assert ##
+        assertCsrfForbidden(manager, token);
+    }
+
+    public void test_statelessToken_keyRotation() {
+        // ## Arrange ##
+        MockCsrfManager manager = new MockCsrfManager(SEA_KEY);
+        String token = manager.generateStatelessToken();
+        String cookieValue = manager.savedCookieValue;
+
+        // ## Act ##
+        // ## Assert ##
+        manager.signingKeyList = Arrays.asList(LAND_KEY, SEA_KEY); // rotated, old key still verifies
+        manager.nextRequest(cookieValue);
+        manager.verifyStatelessToken(token);
+        String rotatedToken = manager.generateStatelessToken();
+        assertTrue(rotatedToken.startsWith("land."));
+        manager.nextRequest(cookieValue);
+        manager.verifyStatelessToken(rotatedToken);
+
+        manager.signingKeyList = Arrays.asList(LAND_KEY); // old key removed
+        manager.nextRequest(cookieValue);
+        assertCsrfForbidden(manager, token);
+    }
+
+    public void test_statelessToken_binderMismatch() {
+        // ## Arrange ##
+        MockCsrfManager manager = new MockCsrfManager(SEA_KEY);
+        String seaToken = manager.generateStatelessToken();
+        String seaCookie = manager.savedCookieValue;
+        manager.nextRequest(null);
+        String landToken = manager.generateStatelessToken();
+        String landCookie = manager.savedCookieValue;
+
+        // ## Act ##
+        // ## Assert ##
+        manager.nextRequest(landCookie);
+        assertCsrfForbidden(manager, seaToken); // other requester's token
+        manager.nextRequest(landCookie);
+        manager.verifyStatelessToken(landToken);
+
+        manager.nextRequest(null); // no cookie
+        assertCsrfForbidden(manager, seaToken);
+        assertNotNull(manager.savedCookieValue); // new nonce
+
+        int lastDelimiter = seaCookie.lastIndexOf(".");
+        String forgedCookie = "sea.forgedNonce" + seaCookie.substring(lastDelimiter);
+        manager.nextRequest(forgedCookie);
+        assertCsrfForbidden(manager, seaToken);
+        assertNotNull(manager.savedCookieValue);
+    }
+
+    // ===================================================================================
+    //                                                                         Test Helper
+    //                                                                         ===========
+    protected void assertCsrfForbidden(MockCsrfManager manager, String token) {
+        try {
+            manager.verifyStatelessToken(token);
+            fail();
+        } catch (CrossSiteRequestForgeriesForbiddenException e) {
+            log(e.getMessage());
+        }
+    }
+
+    protected static class MockCsrfManager extends SimpleCsrfManager {
+
+        protected long currentMillis = 1474934400000L;
+        protected String cookieValue; // null allowed, in request
+        protected String savedCookieValue; // null allowed, to response
+        protected final Map<String, Object> attributeMap = new HashMap<String, Object>();
+
+        public MockCsrfManager(CsrfSigningKey signingKey) {
+            signingKeyList = Arrays.asList(signingKey);
+            tokenBinder = createDefaultTokenBinder();
+            requestManager = new MockRequestManager() {
+                @SuppressWarnings("unchecked")
+                @Override
+                public <ATTRIBUTE> OptionalThing<ATTRIBUTE> getAttribute(String key, Class<ATTRIBUTE> genericType) {
+                    return OptionalThing.ofNullable((ATTRIBUTE) attributeMap.get(key), () -> {
+                        throw new IllegalStateException("Not found the attribute: " + key);
+                    });
+                }
+
+                @Override
+                public void setAttribute(String key, Object value) {
+                    attributeMap.put(key, value);
+                }
+            };
+        }
+
+        public void nextRequest(String cookieValue) {
+            this.cookieValue = cookieValue;
+            savedCookieValue = null;
+            attributeMap.clear();
+        }
+
+        @Override
+        protected long currentMillis() {
+            return currentMillis;
+        }
+
+        @Override
+        protected String findNonceCookieValue() {
+            return cookieValue;
+        }
+
+        @Override
+        protected void saveNonceCookie(String cookieValue) {
+            savedCookieValue = cookieValue;
+        }
+    }
+}